@@ -2,6 +2,7 @@ plugins {
     id("java")
     id("com.github.johnrengelman.shadow") version "8.1.1"
     id("net.kyori.blossom") version "1.3.1"
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "com.sunsetrq7"
@@ -35,11 +36,24 @@ dependencies {
     compileOnly("me.clip:placeholderapi:2.11.6")
     compileOnly("com.github.MilkBowl:VaultAPI:1.7.1")
     
+    // Tests load the plugin classes, which need the server and plugin APIs at run time
+    testImplementation("org.spigotmc:spigot-api:1.21-R0.1-SNAPSHOT")
+    testImplementation("me.clip:placeholderapi:2.11.6")
+    testImplementation("com.github.MilkBowl:VaultAPI:1.7.1")
     testImplementation(platform("org.junit:junit-bom:5.10.2"))
     testImplementation("org.junit.jupiter:junit-jupiter:5.10.2")
     testImplementation("org.mockito:mockito-core:5.11.0")
     testImplementation("org.testcontainers:testcontainers:1.19.7")
     testImplementation("org.testcontainers:mysql:1.19.7")
+    
+    // Benchmarks that build menus need the server API at run time
+    jmh("org.spigotmc:spigot-api:1.21-R0.1-SNAPSHOT")
+}
+
+// Microbenchmarks live in src/jmh; run them with ./gradlew jmh -Pjmh.includes=<name>
+jmh {
+    jmhVersion.set("1.37")
+    includes.set(providers.gradleProperty("jmh.includes").map { listOf(it) }.orElse(emptyList()))
 }
 
 tasks {
@@ -0,0 +1,108 @@
+package com.sunsetrq7.smpeconomy;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search latency over tens of thousands of active listings, against a scan of every
+ * listing's text, which is what a {@code LIKE '%query%'} search over the table does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuctionSearchBenchmark {
+
+    private static final String[] MATERIALS = {
+        "DIAMOND_SWORD", "DIAMOND_PICKAXE", "NETHERITE_SWORD", "IRON_CHESTPLATE", "ELYTRA",
+        "ENCHANTED_BOOK", "OAK_LOG", "SHULKER_BOX", "GOLDEN_APPLE", "TRIDENT"
+    };
+    private static final String[] ENCHANTMENTS = {
+        "sharpness", "efficiency", "unbreaking", "mending", "protection", "fortune", "looting"
+    };
+
+    @Param({ "10000", "50000" })
+    public int listings;
+
+    private AuctionSearchIndex index;
+    private String[] texts;
+    private double[] prices;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(28);
+        index = new AuctionSearchIndex();
+        texts = new String[listings];
+        prices = new double[listings];
+        long now = System.currentTimeMillis();
+
+        for (int id = 0; id < listings; id++) {
+            String material = MATERIALS[random.nextInt(MATERIALS.length)];
+            String enchantment = ENCHANTMENTS[random.nextInt(ENCHANTMENTS.length)];
+            String seller = "player" + random.nextInt(listings / 4);
+            double price = 1 + random.nextInt(100_000) / 100.0;
+
+            index.add(id, price, now + random.nextInt(86_400_000), List.of(material, enchantment, seller));
+            texts[id] = (material + " " + enchantment + " " + seller).toLowerCase(Locale.ROOT);
+            prices[id] = price;
+        }
+    }
+
+    @Benchmark
+    public int[] tokenQuery() {
+        return index.search("diamond sword sharpness", AuctionSearchIndex.SortOrder.PRICE_ASC, 45);
+    }
+
+    @Benchmark
+    public int[] prefixQuery() {
+        return index.search("dia", AuctionSearchIndex.SortOrder.ENDING_SOON, 45);
+    }
+
+    @Benchmark
+    public int[] sellerQuery() {
+        return index.search("player42", AuctionSearchIndex.SortOrder.PRICE_DESC, 45);
+    }
+
+    /**
+     * Substring scan over every listing, keeping the 45 cheapest matches.
+     */
+    @Benchmark
+    public int[] scanAllListings() {
+        int[] best = new int[45];
+        int found = 0;
+        for (int id = 0; id < texts.length; id++) {
+            String text = texts[id];
+            if (!text.contains("diamond") || !text.contains("sword") || !text.contains("sharpness")) {
+                continue;
+            }
+
+            // Insertion into the running top 45 by price
+            int position = found < best.length ? found++ : best.length;
+            while (position > 0 && prices[best[position - 1]] > prices[id]) {
+                if (position < best.length) {
+                    best[position] = best[position - 1];
+                }
+                position--;
+            }
+            if (position < best.length) {
+                best[position] = id;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,216 @@
+package com.sunsetrq7.smpeconomy;
+
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
+import org.bukkit.Material;
+import org.bukkit.Server;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
+import org.bukkit.inventory.ItemFactory;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Main-thread cost of opening the bank menu: building every button for each open, as
+ * before menus were templated, against stamping out the pre-rendered layout and building
+ * only the two balance slots.
+ *
+ * There is no server here, so a minimal in-memory one stands in: item meta is a map of
+ * its fields and inventories copy the items they are given. Real CraftBukkit item meta
+ * and inventories cost more per item, so the gap on a live server is wider than measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MenuOpenBenchmark {
+
+    private static final Menu.ClickAction NO_ACTION = (player, click) -> { };
+
+    // The bank screen's messages: title, then name and lore of each button
+    private static final String TITLE = "&6&lBank";
+    private static final String BALANCE_NAME = "&eWallet";
+    private static final String BALANCE_LORE = "&7Balance: &a{balance}";
+    private static final String BANK_NAME = "&6Bank Account";
+    private static final String BANK_LORE = "&7Balance: &a{balance}\n&7Interest is paid daily";
+    private static final String DEPOSIT_NAME = "&aDeposit";
+    private static final String DEPOSIT_LORE = "&7Click to deposit money\n&7into your bank account";
+    private static final String WITHDRAW_NAME = "&cWithdraw";
+    private static final String WITHDRAW_LORE = "&7Click to withdraw money\n&7from your bank account";
+    private static final String QUICK_DEPOSIT_NAME = "&aDeposit {amount}";
+    private static final String QUICK_DEPOSIT_LORE = "&7Click to deposit instantly";
+    private static final String QUICK_WITHDRAW_NAME = "&cWithdraw {amount}";
+    private static final String QUICK_WITHDRAW_LORE = "&7Click to withdraw instantly";
+
+    private static final String[] AMOUNTS = { "100", "1000", "10000" };
+
+    private final Map<String, MessageTemplate> messages = new HashMap<>();
+    private MenuTemplate template;
+
+    @Setup
+    public void setUp() {
+        if (Bukkit.getServer() == null) {
+            Bukkit.setServer(inMemoryServer());
+        }
+
+        for (String raw : new String[] {
+            TITLE, BALANCE_NAME, BALANCE_LORE, BANK_NAME, BANK_LORE, DEPOSIT_NAME, DEPOSIT_LORE,
+            WITHDRAW_NAME, WITHDRAW_LORE, QUICK_DEPOSIT_NAME, QUICK_DEPOSIT_LORE,
+            QUICK_WITHDRAW_NAME, QUICK_WITHDRAW_LORE }) {
+            messages.put(raw, MessageTemplate.compile(raw));
+        }
+
+        // The static part, rendered once as GUIManager does per language
+        template = new MenuTemplate(54, title(message(TITLE)));
+        template.setItem(20, createItem(Material.GREEN_STAINED_GLASS_PANE, message(DEPOSIT_NAME), message(DEPOSIT_LORE)), NO_ACTION);
+        template.setItem(22, createItem(Material.RED_STAINED_GLASS_PANE, message(WITHDRAW_NAME), message(WITHDRAW_LORE)), NO_ACTION);
+        for (int i = 0; i < AMOUNTS.length; i++) {
+            template.setItem(30 + i, createItem(Material.PAPER,
+                message(QUICK_DEPOSIT_NAME, "amount", AMOUNTS[i]), message(QUICK_DEPOSIT_LORE)), NO_ACTION);
+            template.setItem(39 + i, createItem(Material.PAPER,
+                message(QUICK_WITHDRAW_NAME, "amount", AMOUNTS[i]), message(QUICK_WITHDRAW_LORE)), NO_ACTION);
+        }
+    }
+
+    @Benchmark
+    public Menu templated() {
+        Menu gui = template.instantiate();
+        addBalances(gui);
+        return gui;
+    }
+
+    @Benchmark
+    public Menu builtPerOpen() {
+        Menu gui = new Menu(54, title(message(TITLE)));
+        addBalances(gui);
+        gui.setItem(20, createItem(Material.GREEN_STAINED_GLASS_PANE, message(DEPOSIT_NAME), message(DEPOSIT_LORE)), NO_ACTION);
+        gui.setItem(22, createItem(Material.RED_STAINED_GLASS_PANE, message(WITHDRAW_NAME), message(WITHDRAW_LORE)), NO_ACTION);
+        for (int i = 0; i < AMOUNTS.length; i++) {
+            gui.setItem(30 + i, createItem(Material.PAPER,
+                message(QUICK_DEPOSIT_NAME, "amount", AMOUNTS[i]), message(QUICK_DEPOSIT_LORE)), NO_ACTION);
+            gui.setItem(39 + i, createItem(Material.PAPER,
+                message(QUICK_WITHDRAW_NAME, "amount", AMOUNTS[i]), message(QUICK_WITHDRAW_LORE)), NO_ACTION);
+        }
+        return gui;
+    }
+
+    /**
+     * The player-specific slots, built on every open either way.
+     */
+    private void addBalances(Menu gui) {
+        gui.setItem(10, createItem(Material.GOLD_INGOT, message(BALANCE_NAME), message(BALANCE_LORE, "balance", "$1,250.00")));
+        gui.setItem(12, createItem(Material.BOOK, message(BANK_NAME), message(BANK_LORE, "balance", "$48,000.00")));
+    }
+
+    private String message(String raw, Object... placeholders) {
+        return messages.get(raw).render(placeholders);
+    }
+
+    private static String title(String message) {
+        return ChatColor.translateAlternateColorCodes('&', message);
+    }
+
+    /**
+     * GUIManager's item builder.
+     */
+    private static ItemStack createItem(Material material, String name, String lore) {
+        ItemStack item = new ItemStack(material);
+        ItemMeta meta = item.getItemMeta();
+        meta.setDisplayName(ChatColor.translateAlternateColorCodes('&', name));
+        List<String> loreList = new ArrayList<>();
+        for (String line : lore.split("\n")) {
+            loreList.add(ChatColor.translateAlternateColorCodes('&', line));
+        }
+        meta.setLore(loreList);
+        item.setItemMeta(meta);
+        return item;
+    }
+
+    private static Server inMemoryServer() {
+        ItemFactory itemFactory = proxy(ItemFactory.class, (method, args) -> switch (method) {
+            case "getItemMeta" -> itemMeta(new HashMap<>());
+            case "isApplicable" -> true;
+            case "asMetaFor" -> args[0];
+            default -> null;
+        });
+        return proxy(Server.class, (method, args) -> switch (method) {
+            case "getItemFactory" -> itemFactory;
+            case "createInventory" -> inventory((InventoryHolder) args[0], (Integer) args[1]);
+            default -> null;
+        });
+    }
+
+    private static ItemMeta itemMeta(Map<String, Object> fields) {
+        return proxy(ItemMeta.class, (method, args) -> switch (method) {
+            case "setDisplayName" -> fields.put("name", args[0]);
+            case "getDisplayName" -> fields.get("name");
+            case "setLore" -> fields.put("lore", new ArrayList<>((List<?>) args[0]));
+            case "getLore" -> fields.get("lore");
+            case "clone" -> itemMeta(new HashMap<>(fields));
+            default -> null;
+        });
+    }
+
+    private static Inventory inventory(InventoryHolder holder, int size) {
+        ItemStack[] slots = new ItemStack[size];
+        return proxy(Inventory.class, (method, args) -> {
+            switch (method) {
+                case "setContents":
+                    ItemStack[] contents = (ItemStack[]) args[0];
+                    for (int i = 0; i < slots.length; i++) {
+                        slots[i] = i < contents.length && contents[i] != null ? contents[i].clone() : null;
+                    }
+                    return null;
+                case "setItem":
+                    slots[(Integer) args[0]] = args[1] != null ? ((ItemStack) args[1]).clone() : null;
+                    return null;
+                case "getItem":
+                    return slots[(Integer) args[0]];
+                case "getSize":
+                    return size;
+                case "getHolder":
+                    return holder;
+                default:
+                    return null;
+            }
+        });
+    }
+
+    private interface Handler {
+        Object handle(String method, Object[] args);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+            (proxy, method, args) -> {
+                Object result = handler.handle(method.getName(), args);
+                // Primitive returns the stand-in doesn't model
+                if (result == null && method.getReturnType() == boolean.class) {
+                    return false;
+                }
+                if (result == null && method.getReturnType() == int.class) {
+                    return 0;
+                }
+                return result;
+            });
+    }
+}
@@ -0,0 +1,96 @@
+package com.sunsetrq7.smpeconomy;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Input validation with the compiled matcher against the previous check, which
+ * lower-cased the input and ran one {@code contains} scan per pattern. The inputs
+ * match no pattern, so every scan runs to the end.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PatternMatcherBenchmark {
+
+    // The default security.yml patterns
+    private static final String[] SQL_PATTERNS = {
+        "'", "\"", ";", "--", "/*", "*/", "xp_", "exec", "select", "insert", "update",
+        "delete", "drop", "create", "alter", "union", "script"
+    };
+    private static final String[] COMMAND_PATTERNS = { "|", "&", "$", "`", "\\", "(", ")" };
+
+    @Param({ "8", "32", "128", "1024" })
+    public int length;
+
+    private PatternMatcher matcher;
+    private String[] inputs;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        List<String> patterns = new ArrayList<>(Arrays.asList(SQL_PATTERNS));
+        patterns.addAll(Arrays.asList(COMMAND_PATTERNS));
+        matcher = new PatternMatcher(patterns);
+
+        // Player names and chat-like text in mixed case
+        String alphabet = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789_ .,!?";
+        Random random = new Random(32);
+        inputs = new String[256];
+        for (int i = 0; i < inputs.length; i++) {
+            StringBuilder sb = new StringBuilder(length);
+            while (sb.length() < length) {
+                sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            String input = sb.toString();
+            if (matcher.containsAny(input)) {
+                i--;
+                continue;
+            }
+            inputs[i] = input;
+        }
+    }
+
+    @Benchmark
+    public boolean compiledMatcher() {
+        return !matcher.containsAny(nextInput());
+    }
+
+    @Benchmark
+    public boolean containsPerPattern() {
+        String input = nextInput();
+        String lowerInput = input.toLowerCase();
+        for (String pattern : SQL_PATTERNS) {
+            if (lowerInput.contains(pattern)) {
+                return false;
+            }
+        }
+        for (String pattern : COMMAND_PATTERNS) {
+            if (input.contains(pattern)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String nextInput() {
+        return inputs[next++ & (inputs.length - 1)];
+    }
+}
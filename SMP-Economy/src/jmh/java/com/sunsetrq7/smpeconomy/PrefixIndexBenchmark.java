@@ -0,0 +1,72 @@
+package com.sunsetrq7.smpeconomy;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Completing a player name argument from 100,000 known names: the prefix index against
+ * the previous path, which lower-cased and tested every name on each keystroke.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrefixIndexBenchmark {
+
+    private static final int NAMES = 100_000;
+    private static final int LIMIT = 50;
+    private static final String ALPHABET = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789_";
+
+    // One, two and three typed characters
+    @Param({ "s", "Su", "sun" })
+    public String prefix;
+
+    private List<String> names;
+    private PrefixIndex index;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        names = new ArrayList<>(NAMES);
+        for (int i = 0; i < NAMES; i++) {
+            // Minecraft names: 3 to 16 letters, digits and underscores
+            char[] name = new char[3 + random.nextInt(14)];
+            for (int j = 0; j < name.length; j++) {
+                name[j] = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+            }
+            names.add(new String(name));
+        }
+        index = new PrefixIndex();
+        index.addAll(names);
+    }
+
+    @Benchmark
+    public List<String> prefixIndex() {
+        return index.complete(prefix, LIMIT);
+    }
+
+    @Benchmark
+    public List<String> scanEveryName() {
+        String lowerPrefix = prefix.toLowerCase(Locale.ROOT);
+        return names.stream()
+            .filter(name -> name.toLowerCase(Locale.ROOT).startsWith(lowerPrefix))
+            .collect(Collectors.toList());
+    }
+}
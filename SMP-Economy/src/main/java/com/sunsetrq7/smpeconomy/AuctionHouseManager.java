@@ -1,15 +1,26 @@
 package com.sunsetrq7.smpeconomy;
 
 import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
+import org.bukkit.Material;
+import org.bukkit.enchantments.Enchantment;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.EnchantmentStorageMeta;
+import org.bukkit.inventory.meta.ItemMeta;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 
 /**
@@ -22,11 +33,57 @@ public class AuctionHouseManager {
     private final EconomyManager economyManager;
     private final BankManager bankManager;
     
+    // Decoded auction items keyed by auction id (LRU, bounded)
+    private final Map<Integer, ItemStack> itemCache;
+    
+    // Auctions whose stored item couldn't be decoded, so each is only logged once
+    private final Set<Integer> corruptAuctions;
+    
+    // Active auctions kept in memory for search
+    private final Map<Integer, Auction> activeAuctions;
+    private final AuctionSearchIndex searchIndex;
+    private final PrefixIndex idCompletions;
+    
+    // Pending auction deadlines on the plugin's timing wheel
+    private final TimingWheel auctionTimer;
+    private final Map<Integer, TimingWheel.Timeout> deadlines;
+    
     public AuctionHouseManager(SMP_Economy plugin) {
         this.plugin = plugin;
         this.databaseManager = plugin.getDatabaseManager();
         this.economyManager = plugin.getEconomyManager();
         this.bankManager = plugin.getBankManager();
+        
+        int maxCachedItems = plugin.getConfigManager().getPerformanceConfig().getInt("auction_item_cache_size", 512);
+        this.itemCache = Collections.synchronizedMap(new LinkedHashMap<Integer, ItemStack>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, ItemStack> eldest) {
+                return size() > maxCachedItems;
+            }
+        });
+        
+        this.corruptAuctions = ConcurrentHashMap.newKeySet();
+        
+        this.activeAuctions = new ConcurrentHashMap<>();
+        this.searchIndex = new AuctionSearchIndex();
+        this.idCompletions = new PrefixIndex();
+        this.auctionTimer = plugin.getAuctionTimer();
+        this.deadlines = new ConcurrentHashMap<>();
+    }
+    
+    /**
+     * Loads all active auctions into memory and builds the search index.
+     */
+    public void initialize() {
+        activeAuctions.clear();
+        searchIndex.clear();
+        idCompletions.clear();
+        
+        for (Auction auction : getActiveAuctions()) {
+            addActiveAuction(auction);
+        }
+        
+        plugin.getLogger().info("Auction house initialized. " + activeAuctions.size() + " active auctions indexed.");
     }
     
     /**
@@ -34,20 +91,36 @@ public class AuctionHouseManager {
      */
     public boolean createAuction(UUID sellerUUID, ItemStack item, double startingBid, Double buyoutPrice, 
                                 int durationSeconds, String category) {
+        long now = System.currentTimeMillis();
+        java.sql.Timestamp startTime = new java.sql.Timestamp(now);
+        java.sql.Timestamp endTime = new java.sql.Timestamp(now + (durationSeconds * 1000L));
+        String itemData = serializeItemStack(item);
+        
         try (Connection connection = databaseManager.getConnection()) {
             String sql = "INSERT INTO auctions (seller_uuid, item_name, item_data, starting_bid, " +
                         "buyout_price, duration_seconds, end_time, category) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
-            try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            try (PreparedStatement stmt = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
                 stmt.setString(1, sellerUUID.toString());
                 stmt.setString(2, item.getType().name());
-                stmt.setString(3, serializeItemStack(item));
+                stmt.setString(3, itemData);
                 stmt.setDouble(4, startingBid);
                 stmt.setObject(5, buyoutPrice); // Can be null
                 stmt.setInt(6, durationSeconds);
-                stmt.setTimestamp(7, new java.sql.Timestamp(System.currentTimeMillis() + (durationSeconds * 1000L)));
+                stmt.setTimestamp(7, endTime);
                 stmt.setString(8, category);
                 
-                return stmt.executeUpdate() > 0;
+                if (stmt.executeUpdate() == 0) {
+                    return false;
+                }
+                
+                try (ResultSet keys = stmt.getGeneratedKeys()) {
+                    if (keys.next()) {
+                        addActiveAuction(new Auction(keys.getInt(1), sellerUUID, item.getType().name(), itemData,
+                            startingBid, buyoutPrice, 0.0, null, durationSeconds, startTime, endTime,
+                            "ACTIVE", category, startTime));
+                    }
+                }
+                return true;
             }
         } catch (SQLException e) {
             plugin.getLogger().log(Level.SEVERE, "Failed to create auction for seller: " + sellerUUID, e);
@@ -56,7 +129,7 @@ public class AuctionHouseManager {
     }
     
     /**
-     * Gets all active auctions.
+     * Gets all active auctions. Auctions whose item data is corrupt are left out.
      */
     public List<Auction> getActiveAuctions() {
         List<Auction> auctions = new ArrayList<>();
@@ -66,7 +139,10 @@ public class AuctionHouseManager {
             try (PreparedStatement stmt = connection.prepareStatement(sql)) {
                 try (ResultSet rs = stmt.executeQuery()) {
                     while (rs.next()) {
-                        auctions.add(resultSetToAuction(rs));
+                        Auction auction = resultSetToAuction(rs);
+                        if (hasReadableItem(auction)) {
+                            auctions.add(auction);
+                        }
                     }
                 }
             }
@@ -144,11 +220,29 @@ public class AuctionHouseManager {
         return null;
     }
     
+    /**
+     * Gets an auction from the in-memory active set, or null if it is not active.
+     */
+    public Auction getActiveAuction(int auctionId) {
+        return activeAuctions.get(auctionId);
+    }
+    
+    /**
+     * Gets up to {@code limit} active auction ids starting with a prefix, for tab completion.
+     */
+    public List<String> completeAuctionIds(String prefix, int limit) {
+        return idCompletions.complete(prefix, limit);
+    }
+    
     /**
      * Places a bid on an auction.
      */
     public boolean placeBid(Player bidder, int auctionId, double bidAmount) {
-        Auction auction = getAuctionById(auctionId);
+        // The in-memory snapshot is enough here; the conditional update below rejects stale reads
+        Auction auction = activeAuctions.get(auctionId);
+        if (auction == null) {
+            auction = getAuctionById(auctionId);
+        }
         if (auction == null) {
             return false;
         }
@@ -176,28 +270,47 @@ public class AuctionHouseManager {
             return false;
         }
         
+        UUID bidderUUID = bidder.getUniqueId();
+        UUID previousBidder = auction.getHighestBidderUuid();
+        long endTime = auction.getEndTime().getTime();
+        long extendedEndTime = getAntiSnipeEndTime(endTime, System.currentTimeMillis());
+        
         try (Connection connection = databaseManager.getConnection()) {
             connection.setAutoCommit(false);
             
             try {
-                // Update the auction with the new bid
-                String updateSql = "UPDATE auctions SET current_bid = ?, highest_bidder_uuid = ?, last_updated = CURRENT_TIMESTAMP WHERE id = ?";
-                try (PreparedStatement updateStmt = connection.prepareStatement(updateSql)) {
-                    updateStmt.setDouble(1, bidAmount);
-                    updateStmt.setString(2, bidder.getUniqueId().toString());
-                    updateStmt.setInt(3, auctionId);
-                    
-                    if (updateStmt.executeUpdate() == 0) {
-                        connection.rollback();
-                        return false;
+                // Claim the auction only if nobody else bid since it was read
+                if (!compareAndSetAuction(connection, auction, "ACTIVE", bidAmount, bidderUUID)) {
+                    connection.rollback();
+                    return false;
+                }
+                
+                // Push the deadline back if the bid landed in the anti-snipe window
+                if (extendedEndTime > endTime) {
+                    String extendSql = "UPDATE auctions SET end_time = ? WHERE id = ?";
+                    try (PreparedStatement extendStmt = connection.prepareStatement(extendSql)) {
+                        extendStmt.setTimestamp(1, new java.sql.Timestamp(extendedEndTime));
+                        extendStmt.setInt(2, auctionId);
+                        extendStmt.executeUpdate();
                     }
                 }
                 
+                // Escrow the bid amount from the new bidder
+                if (!economyManager.debit(connection, bidderUUID, bidAmount)) {
+                    connection.rollback();
+                    return false;
+                }
+                
+                // Refund the previous highest bidder's escrow
+                if (previousBidder != null) {
+                    economyManager.credit(connection, previousBidder, auction.getCurrentBid());
+                }
+                
                 // Record the bid
                 String bidSql = "INSERT INTO auction_bids (auction_id, bidder_uuid, bid_amount) VALUES (?, ?, ?)";
                 try (PreparedStatement bidStmt = connection.prepareStatement(bidSql)) {
                     bidStmt.setInt(1, auctionId);
-                    bidStmt.setString(2, bidder.getUniqueId().toString());
+                    bidStmt.setString(2, bidderUUID.toString());
                     bidStmt.setDouble(3, bidAmount);
                     
                     if (bidStmt.executeUpdate() == 0) {
@@ -206,22 +319,118 @@ public class AuctionHouseManager {
                     }
                 }
                 
-                // If there was a previous highest bidder, refund their money
-                if (auction.getHighestBidderUuid() != null) {
-                    UUID previousBidder = auction.getHighestBidderUuid();
-                    Player previousPlayer = Bukkit.getPlayer(previousBidder);
-                    if (previousPlayer != null && previousPlayer.isOnline()) {
-                        // Refund the previous bidder
-                        economyManager.addMoney(previousPlayer, auction.getCurrentBid());
-                    }
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to place bid on auction: " + auctionId, e);
+            return false;
+        }
+        
+        economyManager.applyCachedDelta(bidderUUID, -bidAmount);
+        if (previousBidder != null) {
+            economyManager.applyCachedDelta(previousBidder, auction.getCurrentBid());
+        }
+        
+        activeAuctions.computeIfPresent(auctionId, (id, active) -> active.withBid(bidAmount, bidderUUID, extendedEndTime));
+        plugin.getMenuRefresher().markChanged(MenuRefresher.auctionTopic(auctionId));
+        searchIndex.updatePrice(auctionId, bidAmount);
+        
+        if (extendedEndTime > endTime) {
+            searchIndex.updateEndTime(auctionId, extendedEndTime);
+            TimingWheel.Timeout timeout = deadlines.get(auctionId);
+            if (timeout != null) {
+                auctionTimer.reschedule(timeout, extendedEndTime);
+            }
+            
+            plugin.getNotificationManager().sendNotification(bidder, 
+                plugin.getLanguageManager().getMessage(plugin.getLocaleResolver().getLanguage(bidder), MessageKey.AUCTION_EXTENDED, 
+                    "item", auction.getItemName(), 
+                    "seconds", (extendedEndTime - endTime) / 1000));
+        }
+        return true;
+    }
+    
+    /**
+     * Gets the end time of an auction after a bid at the given time, extended if the bid
+     * arrived within the anti-snipe window.
+     */
+    private long getAntiSnipeEndTime(long endTime, long bidTime) {
+        long windowMillis = plugin.getConfigManager().getAuctionConfig().getLong("anti_snipe_window_seconds", 30) * 1000L;
+        long extensionMillis = plugin.getConfigManager().getAuctionConfig().getLong("anti_snipe_extension_seconds", 30) * 1000L;
+        
+        if (windowMillis <= 0 || endTime - bidTime > windowMillis) {
+            return endTime;
+        }
+        return Math.max(endTime, bidTime + extensionMillis);
+    }
+    
+    /**
+     * Buys an auction out at its buyout price.
+     * The auction is closed, the buyer charged, the seller paid (minus the auction fee) and any
+     * escrowed high bid refunded in a single transaction. Returns false without side effects if
+     * bidding has already reached the buyout price, or if a concurrent bid or buyout changed the
+     * auction first.
+     */
+    public boolean buyoutAuction(Player buyer, int auctionId) {
+        Auction auction = getAuctionById(auctionId);
+        if (auction == null || auction.getBuyoutPrice() == null) {
+            return false;
+        }
+        
+        // Check if auction is still active
+        if (!auction.getStatus().equals("ACTIVE") || auction.getEndTime().before(new java.util.Date())) {
+            return false;
+        }
+        
+        UUID buyerUUID = buyer.getUniqueId();
+        if (auction.getSellerUuid().equals(buyerUUID)) {
+            return false;
+        }
+        
+        double price = auction.getBuyoutPrice();
+        // Once bidding reaches the buyout price the auction goes to the high bidder
+        if (auction.getHighestBidderUuid() != null && auction.getCurrentBid() >= price) {
+            return false;
+        }
+        
+        double feeAmount = price * (getAuctionFeePercentage() / 100.0);
+        double sellerAmount = price - feeAmount;
+        UUID previousBidder = auction.getHighestBidderUuid();
+        
+        try (Connection connection = databaseManager.getConnection()) {
+            connection.setAutoCommit(false);
+            
+            try {
+                // Close the auction only if it is unchanged since it was read
+                if (!compareAndSetAuction(connection, auction, "SOLD", price, buyerUUID)) {
+                    connection.rollback();
+                    return false;
+                }
+                
+                // Refund the escrowed high bid first, so a high bidder buying out can spend it
+                if (previousBidder != null) {
+                    economyManager.credit(connection, previousBidder, auction.getCurrentBid());
+                    economyManager.logTransaction(connection, null, previousBidder, auction.getCurrentBid(), 
+                        "auction_refund", "Bid refund for auction #" + auctionId);
                 }
                 
-                // Deduct the bid amount from the new bidder
-                economyManager.removeMoney(bidder, bidAmount);
+                // Charge the buyer
+                if (!economyManager.debit(connection, buyerUUID, price)) {
+                    connection.rollback();
+                    return false;
+                }
                 
-                connection.commit();
-                return true;
+                // Pay the seller
+                economyManager.credit(connection, auction.getSellerUuid(), sellerAmount);
+                economyManager.logTransaction(connection, buyerUUID, auction.getSellerUuid(), price, 
+                    "auction_buyout", "Buyout of auction #" + auctionId + " (fee " + economyManager.format(feeAmount) + ")");
                 
+                connection.commit();
             } catch (SQLException e) {
                 connection.rollback();
                 throw e;
@@ -229,9 +438,54 @@ public class AuctionHouseManager {
                 connection.setAutoCommit(true);
             }
         } catch (SQLException e) {
-            plugin.getLogger().log(Level.SEVERE, "Failed to place bid on auction: " + auctionId, e);
+            plugin.getLogger().log(Level.SEVERE, "Failed to buy out auction: " + auctionId, e);
             return false;
         }
+        
+        economyManager.applyCachedDelta(buyerUUID, -price);
+        economyManager.applyCachedDelta(auction.getSellerUuid(), sellerAmount);
+        if (previousBidder != null) {
+            economyManager.applyCachedDelta(previousBidder, auction.getCurrentBid());
+        }
+        plugin.getMarketStatsManager().recordSale(auction.getItemName(), getAuctionItem(auction).getAmount(), price);
+        removeActiveAuction(auctionId);
+        
+        plugin.getNotificationManager().queueAmountNotification(auction.getSellerUuid(), MessageKey.AUCTION_SOLD, sellerAmount, 
+            "item", auction.getItemName(), 
+            "price", economyManager.format(sellerAmount));
+        
+        return true;
+    }
+    
+    /**
+     * Updates an auction's status, bid and bidder only if it is still active and nobody has bid
+     * on it since the given snapshot was read. A null bidder leaves the auction without one.
+     */
+    private boolean compareAndSetAuction(Connection connection, Auction snapshot, String newStatus, 
+                                         double newBid, UUID newBidder) throws SQLException {
+        String sql = "UPDATE auctions SET status = ?, current_bid = ?, highest_bidder_uuid = ? " +
+                    "WHERE id = ? AND status = 'ACTIVE' AND end_time > ? AND current_bid <= ? AND " +
+                    (snapshot.getHighestBidderUuid() == null ? "highest_bidder_uuid IS NULL" : "highest_bidder_uuid = ?");
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setString(1, newStatus);
+            stmt.setDouble(2, newBid);
+            stmt.setString(3, newBidder != null ? newBidder.toString() : null);
+            stmt.setInt(4, snapshot.getId());
+            stmt.setTimestamp(5, new java.sql.Timestamp(System.currentTimeMillis()));
+            stmt.setDouble(6, snapshot.getCurrentBid());
+            if (snapshot.getHighestBidderUuid() != null) {
+                stmt.setString(7, snapshot.getHighestBidderUuid().toString());
+            }
+            return stmt.executeUpdate() > 0;
+        }
+    }
+    
+    /**
+     * Gets the percentage of a sale kept by the server.
+     */
+    private double getAuctionFeePercentage() {
+        return plugin.getConfigManager().getAuctionConfig().getDouble("fee_percentage", 
+            plugin.getConfigManager().getMainConfig().getDouble("auction.auction_fee_percent", 5.0));
     }
     
     /**
@@ -295,71 +549,98 @@ public class AuctionHouseManager {
     }
     
     /**
-     * Processes the end of an auction.
+     * Processes the end of an auction. The auction is closed and the seller paid in one
+     * transaction, but only if the auction is still exactly as read; if a late bid or an
+     * anti-snipe extension changed it meanwhile, it is handed back to the deadline timer.
      */
     private void processAuctionEnd(Auction auction) {
+        UUID winner = auction.getHighestBidderUuid();
+        double sellerAmount = 0.0;
+        boolean changed = false;
+        
         try (Connection connection = databaseManager.getConnection()) {
             connection.setAutoCommit(false);
             
-            // Update auction status to ended
-            String updateSql = "UPDATE auctions SET status = 'ENDED' WHERE id = ?";
-            try (PreparedStatement updateStmt = connection.prepareStatement(updateSql)) {
-                updateStmt.setInt(1, auction.getId());
-                updateStmt.executeUpdate();
-            }
-            
-            // If there was a winning bid, handle the transaction
-            if (auction.getHighestBidderUuid() != null) {
-                // Get the seller
-                Player seller = Bukkit.getPlayer(auction.getHighestBidderUuid());
-                
-                // Calculate fee
-                double feePercentage = plugin.getConfigManager().getAuctionConfig().getDouble("fee_percentage", 5.0);
-                double feeAmount = auction.getCurrentBid() * (feePercentage / 100.0);
-                double sellerAmount = auction.getCurrentBid() - feeAmount;
-                
-                // Pay the seller
-                economyManager.addMoney(Bukkit.getOfflinePlayer(auction.getSellerUuid()), sellerAmount);
-                
-                // Add fee to server economy (or handle as configured)
-                // This could be configurable to go to a server account or be destroyed
-                
-                // Send notifications to seller and winner
-                Player winner = Bukkit.getPlayer(auction.getHighestBidderUuid());
-                if (winner != null && winner.isOnline()) {
-                    // Give the item to the winner
-                    // This would typically be handled by the GUI system
-                    plugin.getNotificationManager().sendNotification(winner, 
-                        plugin.getLanguageManager().getMessage("en_US", "auction.won", 
-                            "item", auction.getItemName(), 
-                            "amount", economyManager.format(auction.getCurrentBid())));
-                }
-                
-                Player originalSeller = Bukkit.getPlayer(auction.getSellerUuid());
-                if (originalSeller != null && originalSeller.isOnline()) {
-                    plugin.getNotificationManager().sendNotification(originalSeller, 
-                        plugin.getLanguageManager().getMessage("en_US", "auction.sold", 
-                            "item", auction.getItemName(), 
-                            "amount", economyManager.format(sellerAmount)));
-                }
-            } else {
-                // No bids - return item to seller (handled by GUI system)
-                Player originalSeller = Bukkit.getPlayer(auction.getSellerUuid());
-                if (originalSeller != null && originalSeller.isOnline()) {
-                    plugin.getNotificationManager().sendNotification(originalSeller, 
-                        plugin.getLanguageManager().getMessage("en_US", "auction.no_bids", 
-                            "item", auction.getItemName()));
+            try {
+                if (!endAuction(connection, auction)) {
+                    connection.rollback();
+                    changed = true;
+                } else {
+                    // If there was a winning bid, pay the seller from the winner's escrow
+                    if (winner != null) {
+                        double feeAmount = auction.getCurrentBid() * (getAuctionFeePercentage() / 100.0);
+                        sellerAmount = auction.getCurrentBid() - feeAmount;
+                        
+                        // The fee is kept back from the seller and leaves the economy
+                        economyManager.credit(connection, auction.getSellerUuid(), sellerAmount);
+                        economyManager.logTransaction(connection, winner, auction.getSellerUuid(), auction.getCurrentBid(), 
+                            "auction_sale", "Sale of auction #" + auction.getId() + " (fee " + economyManager.format(feeAmount) + ")");
+                    }
+                    
+                    connection.commit();
                 }
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
             }
-            
-            connection.commit();
         } catch (SQLException e) {
             plugin.getLogger().log(Level.SEVERE, "Failed to process ended auction: " + auction.getId(), e);
+            return;
+        }
+        
+        // Re-read the changed auction once its connection is back in the pool
+        if (changed) {
+            settleAuction(auction.getId());
+            return;
+        }
+        
+        // Notify the seller and winner, by mailbox if they are offline
+        if (winner != null) {
+            economyManager.applyCachedDelta(auction.getSellerUuid(), sellerAmount);
+            plugin.getMarketStatsManager().recordSale(auction.getItemName(), 
+                getAuctionItem(auction).getAmount(), auction.getCurrentBid());
+            
+            // Giving the item to the winner is handled by the GUI system
+            plugin.getNotificationManager().queueNotification(winner, MessageKey.AUCTION_WON, 
+                "item", auction.getItemName(), 
+                "amount", economyManager.format(auction.getCurrentBid()));
+            plugin.getNotificationManager().queueAmountNotification(auction.getSellerUuid(), MessageKey.AUCTION_SOLD, sellerAmount, 
+                "item", auction.getItemName(), 
+                "price", economyManager.format(sellerAmount));
+        } else {
+            // No bids - return item to seller (handled by GUI system)
+            plugin.getNotificationManager().queueNotification(auction.getSellerUuid(), MessageKey.AUCTION_NO_BIDS, 
+                "item", auction.getItemName());
+        }
+        removeActiveAuction(auction.getId());
+    }
+    
+    /**
+     * Marks an auction ended only if it is still active, past its deadline and has the
+     * same bid and bidder as the snapshot. A NULL bidder is matched with IS NULL rather
+     * than a null-safe operator, which differs between MySQL and SQLite.
+     */
+    private boolean endAuction(Connection connection, Auction snapshot) throws SQLException {
+        String sql = "UPDATE auctions SET status = 'ENDED' " +
+                    "WHERE id = ? AND status = 'ACTIVE' AND end_time <= ? AND current_bid = ? AND " +
+                    (snapshot.getHighestBidderUuid() == null ? "highest_bidder_uuid IS NULL" : "highest_bidder_uuid = ?");
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setInt(1, snapshot.getId());
+            stmt.setTimestamp(2, new java.sql.Timestamp(System.currentTimeMillis()));
+            stmt.setDouble(3, snapshot.getCurrentBid());
+            if (snapshot.getHighestBidderUuid() != null) {
+                stmt.setString(4, snapshot.getHighestBidderUuid().toString());
+            }
+            return stmt.executeUpdate() > 0;
         }
     }
     
     /**
      * Cancels an auction (only for the seller before any bids).
+     * The auction is cancelled only if it is unchanged since it was read, so a bid that
+     * lands meanwhile wins; any escrowed bid is refunded in the same transaction.
      */
     public boolean cancelAuction(Player player, int auctionId) {
         Auction auction = getAuctionById(auctionId);
@@ -378,46 +659,217 @@ public class AuctionHouseManager {
             return false;
         }
         
+        UUID bidder = auction.getHighestBidderUuid();
+        
         try (Connection connection = databaseManager.getConnection()) {
-            String sql = "UPDATE auctions SET status = 'CANCELLED' WHERE id = ? AND seller_uuid = ?";
-            try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-                stmt.setInt(1, auctionId);
-                stmt.setString(2, player.getUniqueId().toString());
+            connection.setAutoCommit(false);
+            
+            try {
+                // Cancel only if it is still active and nobody bid since it was read
+                if (!compareAndSetAuction(connection, auction, "CANCELLED", auction.getCurrentBid(), bidder)) {
+                    connection.rollback();
+                    return false;
+                }
                 
-                boolean success = stmt.executeUpdate() > 0;
-                if (success) {
-                    // Return the item to the seller (handled by GUI system)
-                    plugin.getNotificationManager().sendNotification(player, 
-                        plugin.getLanguageManager().getMessage("en_US", "auction.cancelled"));
+                // Refund an escrowed bid placed at the starting price
+                if (bidder != null) {
+                    economyManager.credit(connection, bidder, auction.getCurrentBid());
+                    economyManager.logTransaction(connection, null, bidder, auction.getCurrentBid(), 
+                        "auction_refund", "Bid refund for cancelled auction #" + auctionId);
                 }
-                return success;
+                
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
             }
         } catch (SQLException e) {
             plugin.getLogger().log(Level.SEVERE, "Failed to cancel auction: " + auctionId, e);
             return false;
         }
+        
+        if (bidder != null) {
+            economyManager.applyCachedDelta(bidder, auction.getCurrentBid());
+        }
+        removeActiveAuction(auctionId);
+        
+        // Return the item to the seller (handled by GUI system)
+        plugin.getNotificationManager().sendNotification(player, 
+            plugin.getLanguageManager().getMessage(plugin.getLocaleResolver().getLanguage(player), MessageKey.AUCTION_CANCELLED));
+        return true;
+    }
+    
+    /**
+     * Gets a copy of the item being sold in an auction.
+     * Decoded items are cached per auction id so GUI renders don't re-decode them.
+     */
+    public ItemStack getAuctionItem(Auction auction) {
+        ItemStack item = itemCache.get(auction.getId());
+        
+        if (item == null) {
+            item = deserializeItemStack(auction);
+            itemCache.put(auction.getId(), item);
+        }
+        
+        return item.clone();
+    }
+    
+    /**
+     * Searches active auctions by item name, material, enchantment and seller name.
+     * Every query word must match the start of an indexed word.
+     */
+    public List<Auction> searchAuctions(String query, AuctionSearchIndex.SortOrder order, int limit) {
+        int[] ids = searchIndex.search(query, order, limit);
+        List<Auction> results = new ArrayList<>(ids.length);
+        
+        for (int id : ids) {
+            Auction auction = activeAuctions.get(id);
+            if (auction != null) {
+                results.add(auction);
+            }
+        }
+        
+        return results;
     }
     
     /**
-     * Serializes an ItemStack to a string.
-     * In a real implementation, this would use proper serialization.
+     * Settles an auction whose deadline fired, unless a late bid pushed the deadline back.
+     */
+    private void settleAuction(int auctionId) {
+        Auction auction = getAuctionById(auctionId);
+        if (auction == null || !auction.getStatus().equals("ACTIVE")) {
+            removeActiveAuction(auctionId);
+            return;
+        }
+        
+        if (auction.getEndTime().getTime() > System.currentTimeMillis()) {
+            TimingWheel.Timeout timeout = deadlines.get(auctionId);
+            if (timeout != null) {
+                auctionTimer.reschedule(timeout, auction.getEndTime().getTime());
+            }
+            return;
+        }
+        
+        processAuctionEnd(auction);
+    }
+    
+    /**
+     * Adds an auction to the in-memory active set, the search index and the deadline timer.
+     */
+    private void addActiveAuction(Auction auction) {
+        activeAuctions.put(auction.getId(), auction);
+        idCompletions.add(String.valueOf(auction.getId()));
+        
+        int auctionId = auction.getId();
+        TimingWheel.Timeout previous = deadlines.put(auctionId, 
+            auctionTimer.schedule(auction.getEndTime().getTime(), () -> settleAuction(auctionId)));
+        if (previous != null) {
+            auctionTimer.cancel(previous);
+        }
+        
+        List<String> terms = new ArrayList<>();
+        terms.add(auction.getItemName());
+        
+        Player onlineSeller = Bukkit.getPlayer(auction.getSellerUuid());
+        terms.add(onlineSeller != null ? onlineSeller.getName() : plugin.getPlayerNameIndex().getName(auction.getSellerUuid()));
+        
+        ItemMeta meta = getAuctionItem(auction).getItemMeta();
+        if (meta != null) {
+            if (meta.hasDisplayName()) {
+                terms.add(ChatColor.stripColor(meta.getDisplayName()));
+            }
+            for (Enchantment enchantment : meta.getEnchants().keySet()) {
+                terms.add(enchantment.getKey().getKey());
+            }
+            if (meta instanceof EnchantmentStorageMeta storageMeta) {
+                for (Enchantment enchantment : storageMeta.getStoredEnchants().keySet()) {
+                    terms.add(enchantment.getKey().getKey());
+                }
+            }
+        }
+        
+        searchIndex.add(auction.getId(), Math.max(auction.getCurrentBid(), auction.getStartingBid()), 
+            auction.getEndTime().getTime(), terms);
+    }
+    
+    /**
+     * Removes an auction that is no longer active from memory, the index, the timer and the item cache.
+     */
+    private void removeActiveAuction(int auctionId) {
+        TimingWheel.Timeout timeout = deadlines.remove(auctionId);
+        if (timeout != null) {
+            auctionTimer.cancel(timeout);
+        }
+        activeAuctions.remove(auctionId);
+        idCompletions.remove(String.valueOf(auctionId));
+        searchIndex.remove(auctionId);
+        itemCache.remove(auctionId);
+        plugin.getMenuRefresher().markChanged(MenuRefresher.auctionTopic(auctionId));
+    }
+    
+    /**
+     * Serializes an ItemStack using the compact binary item codec.
      */
     private String serializeItemStack(ItemStack item) {
-        // This is a simplified serialization - in a real plugin you'd use proper NBT serialization
-        return item.getType().name() + ":" + item.getAmount();
+        return ItemStackCodec.encode(item);
+    }
+    
+    /**
+     * Checks that an auction's item can be decoded, caching it if so. A corrupt item is
+     * logged the first time it is seen.
+     */
+    private boolean hasReadableItem(Auction auction) {
+        if (itemCache.containsKey(auction.getId())) {
+            return true;
+        }
+        
+        try {
+            ItemStack item = ItemStackCodec.decode(auction.getItemData());
+            if (item != null) {
+                itemCache.put(auction.getId(), item);
+            }
+            return true;
+        } catch (IllegalArgumentException e) {
+            if (corruptAuctions.add(auction.getId())) {
+                plugin.getLogger().log(Level.WARNING, "Skipping auction " + auction.getId() + " with corrupt item data", e);
+            }
+            return false;
+        }
+    }
+    
+    /**
+     * Deserializes the item stored with an auction, falling back to its material name.
+     */
+    private ItemStack deserializeItemStack(Auction auction) {
+        try {
+            ItemStack item = ItemStackCodec.decode(auction.getItemData());
+            if (item != null) {
+                return item;
+            }
+        } catch (IllegalArgumentException e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to decode item for auction: " + auction.getId(), e);
+        }
+        
+        Material material = Material.matchMaterial(auction.getItemName());
+        return new ItemStack(material != null ? material : Material.BARRIER);
     }
     
     /**
      * Converts a ResultSet row to an Auction object.
      */
     private Auction resultSetToAuction(ResultSet rs) throws SQLException {
+        // getObject(column, Double.class) rejects NULL on the SQLite driver
+        double buyoutPrice = rs.getDouble("buyout_price");
+        Double buyout = rs.wasNull() ? null : buyoutPrice;
         return new Auction(
             rs.getInt("id"),
             UUID.fromString(rs.getString("seller_uuid")),
             rs.getString("item_name"),
             rs.getString("item_data"),
             rs.getDouble("starting_bid"),
-            rs.getObject("buyout_price", Double.class),
+            buyout,
             rs.getDouble("current_bid"),
             rs.getString("highest_bidder_uuid") != null ? UUID.fromString(rs.getString("highest_bidder_uuid")) : null,
             rs.getInt("duration_seconds"),
@@ -482,5 +934,18 @@ public class AuctionHouseManager {
         public String getStatus() { return status; }
         public String getCategory() { return category; }
         public java.util.Date getCreatedAt() { return createdAt; }
+        
+        /**
+         * Creates a copy of this auction with a new highest bid and end time.
+         */
+        public Auction withBid(double bid, UUID bidder, long newEndTime) {
+            return new Auction(id, sellerUuid, itemName, itemData, startingBid, buyoutPrice, bid, bidder,
+                durationSeconds, toTimestamp(startTime), new java.sql.Timestamp(newEndTime), status, category, 
+                toTimestamp(createdAt));
+        }
+        
+        private static java.sql.Timestamp toTimestamp(java.util.Date date) {
+            return date != null ? new java.sql.Timestamp(date.getTime()) : null;
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,417 @@
+package com.sunsetrq7.smpeconomy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over active auctions.
+ *
+ * Each auction is indexed under the lowercase tokens of its item name, material,
+ * enchantments and seller name. Auctions are assigned dense document slots whose
+ * ranking data lives in primitive arrays; postings are sorted slot arrays, tokens
+ * live in a sorted map so prefix queries are a range scan, and multi-term queries
+ * intersect the (smallest-first) posting lists before ranking.
+ */
+public class AuctionSearchIndex {
+
+    /**
+     * Result orderings supported by {@link #search(String, SortOrder, int)}.
+     */
+    public enum SortOrder {
+        PRICE_ASC,
+        PRICE_DESC,
+        ENDING_SOON
+    }
+
+    private static final int[] EMPTY = new int[0];
+
+    private final ReentrantReadWriteLock lock;
+    private final TreeMap<String, Postings> postings;
+    private final Map<Integer, Integer> slots;
+
+    // Per-slot document data
+    private int[] auctionIds;
+    private double[] prices;
+    private long[] endTimes;
+    private String[][] tokens;
+    private int slotCount;
+
+    // Released slots available for reuse
+    private int[] freeSlots;
+    private int freeCount;
+
+    public AuctionSearchIndex() {
+        this.lock = new ReentrantReadWriteLock();
+        this.postings = new TreeMap<>();
+        this.slots = new HashMap<>();
+        this.auctionIds = new int[64];
+        this.prices = new double[64];
+        this.endTimes = new long[64];
+        this.tokens = new String[64][];
+        this.freeSlots = new int[16];
+    }
+
+    /**
+     * Adds (or replaces) an auction in the index.
+     */
+    public void add(int auctionId, double price, long endTime, Collection<String> texts) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (String text : texts) {
+            if (text != null) {
+                tokenize(text, terms);
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeInternal(auctionId);
+
+            int slot = allocateSlot();
+            String[] tokenArray = terms.toArray(new String[0]);
+            auctionIds[slot] = auctionId;
+            prices[slot] = price;
+            endTimes[slot] = endTime;
+            tokens[slot] = tokenArray;
+            slots.put(auctionId, slot);
+
+            for (String token : tokenArray) {
+                postings.computeIfAbsent(token, t -> new Postings()).add(slot);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes an auction from the index.
+     */
+    public void remove(int auctionId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(auctionId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Updates the ranking price of an indexed auction.
+     */
+    public void updatePrice(int auctionId, double price) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slots.get(auctionId);
+            if (slot != null) {
+                prices[slot] = price;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Updates the end time of an indexed auction.
+     */
+    public void updateEndTime(int auctionId, long endTime) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slots.get(auctionId);
+            if (slot != null) {
+                endTimes[slot] = endTime;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes every auction from the index.
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            slots.clear();
+            postings.clear();
+            Arrays.fill(tokens, 0, slotCount, null);
+            slotCount = 0;
+            freeCount = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the number of indexed auctions.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slots.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Searches the index. Every query term must match (as a token prefix) for an
+     * auction to be returned. Returns at most {@code limit} auction ids in the given order.
+     */
+    public int[] search(String query, SortOrder order, int limit) {
+        Set<String> terms = new LinkedHashSet<>();
+        tokenize(query, terms);
+        if (terms.isEmpty() || limit <= 0) {
+            return EMPTY;
+        }
+
+        lock.readLock().lock();
+        try {
+            // Resolve each term to its posting list and intersect smallest-first
+            List<int[]> lists = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                int[] matches = matchPrefix(term);
+                if (matches.length == 0) {
+                    return EMPTY;
+                }
+                lists.add(matches);
+            }
+            lists.sort((a, b) -> Integer.compare(a.length, b.length));
+
+            int[] candidates = lists.get(0);
+            int count = candidates.length;
+            if (lists.size() > 1) {
+                for (int i = 1; i < lists.size() && count > 0; i++) {
+                    count = intersect(candidates, count, lists.get(i));
+                }
+            }
+
+            return topK(candidates, count, order, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Splits text into lowercase alphanumeric tokens.
+     */
+    public static void tokenize(String text, Collection<String> out) {
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean tokenChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (tokenChar && start < 0) {
+                start = i;
+            } else if (!tokenChar && start >= 0) {
+                out.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+    }
+
+    private void removeInternal(int auctionId) {
+        Integer slot = slots.remove(auctionId);
+        if (slot == null) {
+            return;
+        }
+
+        for (String token : tokens[slot]) {
+            Postings list = postings.get(token);
+            if (list != null && list.remove(slot) && list.size == 0) {
+                postings.remove(token);
+            }
+        }
+
+        tokens[slot] = null;
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    private int allocateSlot() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+
+        if (slotCount == auctionIds.length) {
+            int capacity = slotCount * 2;
+            auctionIds = Arrays.copyOf(auctionIds, capacity);
+            prices = Arrays.copyOf(prices, capacity);
+            endTimes = Arrays.copyOf(endTimes, capacity);
+            tokens = Arrays.copyOf(tokens, capacity);
+        }
+        return slotCount++;
+    }
+
+    /**
+     * Gets the sorted union of all posting lists whose token starts with the prefix.
+     */
+    private int[] matchPrefix(String prefix) {
+        NavigableMap<String, Postings> range = postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+        if (range.isEmpty()) {
+            return EMPTY;
+        }
+
+        if (range.size() == 1) {
+            Postings only = range.firstEntry().getValue();
+            return Arrays.copyOf(only.ids, only.size);
+        }
+
+        int total = 0;
+        for (Postings list : range.values()) {
+            total += list.size;
+        }
+
+        int[] merged = new int[total];
+        int offset = 0;
+        for (Postings list : range.values()) {
+            System.arraycopy(list.ids, 0, merged, offset, list.size);
+            offset += list.size;
+        }
+        Arrays.sort(merged);
+
+        // Drop duplicates (an auction can match several tokens with the same prefix)
+        int unique = 0;
+        for (int i = 0; i < merged.length; i++) {
+            if (i == 0 || merged[i] != merged[i - 1]) {
+                merged[unique++] = merged[i];
+            }
+        }
+        return unique == merged.length ? merged : Arrays.copyOf(merged, unique);
+    }
+
+    /**
+     * Intersects the first {@code count} ids of {@code target} with {@code other} in place.
+     */
+    private static int intersect(int[] target, int count, int[] other) {
+        int i = 0;
+        int j = 0;
+        int out = 0;
+        while (i < count && j < other.length) {
+            if (target[i] < other[j]) {
+                i++;
+            } else if (target[i] > other[j]) {
+                j++;
+            } else {
+                target[out++] = target[i];
+                i++;
+                j++;
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Selects the best {@code limit} candidates using a bounded heap and returns them in order.
+     */
+    private int[] topK(int[] candidates, int count, SortOrder order, int limit) {
+        int k = Math.min(limit, count);
+        int[] heap = new int[k];
+        double[] heapKeys = new double[k];
+        int heapSize = 0;
+
+        // Max-heap on the ranking key: the root is the worst of the current best k
+        for (int i = 0; i < count; i++) {
+            int slot = candidates[i];
+            double key = order == SortOrder.PRICE_ASC ? prices[slot]
+                : order == SortOrder.PRICE_DESC ? -prices[slot]
+                : endTimes[slot];
+
+            if (heapSize < k) {
+                heap[heapSize] = candidates[i];
+                heapKeys[heapSize] = key;
+                siftUp(heap, heapKeys, heapSize++);
+            } else if (key < heapKeys[0]) {
+                heap[0] = candidates[i];
+                heapKeys[0] = key;
+                siftDown(heap, heapKeys, heapSize);
+            }
+        }
+
+        // Drain the heap from worst to best, mapping slots back to auction ids
+        int[] result = new int[heapSize];
+        for (int i = heapSize - 1; i >= 0; i--) {
+            result[i] = auctionIds[heap[0]];
+            heap[0] = heap[i];
+            heapKeys[0] = heapKeys[i];
+            siftDown(heap, heapKeys, i);
+        }
+        return result;
+    }
+
+    private static void siftUp(int[] heap, double[] keys, int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (keys[parent] >= keys[index]) {
+                return;
+            }
+            swap(heap, keys, parent, index);
+            index = parent;
+        }
+    }
+
+    private static void siftDown(int[] heap, double[] keys, int size) {
+        int index = 0;
+        while (true) {
+            int left = 2 * index + 1;
+            if (left >= size) {
+                return;
+            }
+            int largest = left + 1 < size && keys[left + 1] > keys[left] ? left + 1 : left;
+            if (keys[index] >= keys[largest]) {
+                return;
+            }
+            swap(heap, keys, index, largest);
+            index = largest;
+        }
+    }
+
+    private static void swap(int[] heap, double[] keys, int a, int b) {
+        int id = heap[a];
+        heap[a] = heap[b];
+        heap[b] = id;
+        double key = keys[a];
+        keys[a] = keys[b];
+        keys[b] = key;
+    }
+
+    /**
+     * Sorted, growable list of document slots.
+     */
+    private static class Postings {
+        private int[] ids = new int[4];
+        private int size;
+
+        void add(int id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                return;
+            }
+            index = -index - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            ids[index] = id;
+            size++;
+        }
+
+        boolean remove(int id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+            return true;
+        }
+    }
+}
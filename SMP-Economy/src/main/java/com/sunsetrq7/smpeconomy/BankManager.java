@@ -25,11 +25,15 @@ public class BankManager {
     private static final double MAX_DAILY_DEPOSIT = 1_000_000.0; // 1 million
     private static final double MAX_WEEKLY_DEPOSIT = 10_000_000.0; // 10 million
     
+    // Rolling 24h / 7d deposit totals
+    private final RollingLimitTracker depositLimits;
+    
     public BankManager(SMP_Economy plugin) {
         this.plugin = plugin;
         this.databaseManager = plugin.getDatabaseManager();
         this.playerDataManager = plugin.getPlayerDataManager();
         this.economyManager = plugin.getEconomyManager();
+        this.depositLimits = new RollingLimitTracker(plugin, "bank_deposit", "bank_deposit");
     }
     
     /**
@@ -174,11 +178,24 @@ public class BankManager {
             return false;
         }
         
-        // Check deposit limits
-        if (!isWithinDepositLimits(playerUUID, amount)) {
+        // Reserve the amount against the rolling daily and weekly deposit limits
+        long reservedHour = reserveDepositLimits(playerUUID, amount);
+        if (reservedHour == RollingLimitTracker.REFUSED) {
             return false;
         }
         
+        if (!executeDeposit(playerUUID, amount)) {
+            depositLimits.release(playerUUID, amount, reservedHour);
+            return false;
+        }
+        
+        return true;
+    }
+    
+    /**
+     * Moves money from the player's balance to their bank and logs it.
+     */
+    private boolean executeDeposit(UUID playerUUID, double amount) {
         try (Connection connection = databaseManager.getConnection()) {
             connection.setAutoCommit(false);
             
@@ -270,19 +287,50 @@ public class BankManager {
     }
     
     /**
-     * Checks if a deposit is within the limits.
+     * Checks the rolling daily and weekly deposit limits and, if the deposit fits,
+     * records it against them. Returns the hour it was recorded in, or
+     * {@link RollingLimitTracker#REFUSED}.
      */
-    private boolean isWithinDepositLimits(UUID playerUUID, double amount) {
-        // Get the daily deposit limit from config
+    private long reserveDepositLimits(UUID playerUUID, double amount) {
         double dailyLimit = plugin.getConfigManager().getBankConfig().getDouble("daily_deposit_limit", MAX_DAILY_DEPOSIT);
+        double weeklyLimit = plugin.getConfigManager().getBankConfig().getDouble("weekly_deposit_limit", MAX_WEEKLY_DEPOSIT);
         
-        // Check if the deposit amount exceeds the daily limit
-        if (amount > dailyLimit) {
-            return false;
-        }
-        
-        // Additional checks can be implemented here (e.g., tracking actual daily deposits)
-        return true;
+        return depositLimits.tryRecord(playerUUID, amount, dailyLimit, weeklyLimit);
+    }
+    
+    /**
+     * Gets the amount a player deposited over the last 24 hours.
+     */
+    public double getDailyDepositAmount(UUID playerUUID) {
+        return depositLimits.getDailyTotal(playerUUID);
+    }
+    
+    /**
+     * Gets the amount a player deposited over the last 7 days.
+     */
+    public double getWeeklyDepositAmount(UUID playerUUID) {
+        return depositLimits.getWeeklyTotal(playerUUID);
+    }
+    
+    /**
+     * Loads a player's deposit limit window (called off the main thread on join).
+     */
+    public void loadDepositLimits(UUID playerUUID) {
+        depositLimits.preload(playerUUID);
+    }
+    
+    /**
+     * Saves and unloads a player's deposit limit window.
+     */
+    public void unloadDepositLimits(UUID playerUUID) {
+        depositLimits.unload(playerUUID);
+    }
+    
+    /**
+     * Saves all changed deposit limit windows.
+     */
+    public void saveDepositLimits() {
+        depositLimits.flush();
     }
     
     /**
@@ -8,6 +8,8 @@ import org.bukkit.entity.Player;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 /**
@@ -17,6 +19,9 @@ public class CommandManager implements CommandExecutor, TabCompleter {
     
     private final SMP_Economy plugin;
     
+    // Entries shown per list by /ecoadmin flow
+    private static final int FLOW_ENTRIES = 10;
+    
     public CommandManager(SMP_Economy plugin) {
         this.plugin = plugin;
     }
@@ -76,7 +81,7 @@ public class CommandManager implements CommandExecutor, TabCompleter {
                 double balance = plugin.getEconomyManager().getBalance(player);
                 String message = plugin.getLanguageManager().getMessage(
                     getPlayerLanguage(player), 
-                    "economy.balance", 
+                    MessageKey.ECONOMY_BALANCE, 
                     "balance", plugin.getEconomyManager().format(balance)
                 );
                 sender.sendMessage(message);
@@ -87,7 +92,7 @@ public class CommandManager implements CommandExecutor, TabCompleter {
                 List<EconomyManager.PlayerBalance> topBalances = plugin.getEconomyManager().getTopBalances(10);
                 sender.sendMessage(plugin.getLanguageManager().getMessage(
                     getPlayerLanguage(player), 
-                    "economy.top_header"
+                    MessageKey.ECONOMY_TOP_HEADER
                 ));
                 
                 for (int i = 0; i < topBalances.size(); i++) {
@@ -101,39 +106,40 @@ public class CommandManager implements CommandExecutor, TabCompleter {
                 if (args.length < 3) {
                     sender.sendMessage(plugin.getLanguageManager().getMessage(
                         getPlayerLanguage(player), 
-                        "economy.pay_usage"
+                        MessageKey.ECONOMY_PAY_USAGE
                     ));
                     return true;
                 }
                 
-                Player receiver = plugin.getServer().getPlayer(args[1]);
-                if (receiver == null) {
+                // Offline players can be paid too; their notification waits in the mailbox
+                UUID receiverUUID = plugin.getPlayerNameIndex().getUUID(args[1]);
+                if (receiverUUID == null) {
                     sender.sendMessage(plugin.getLanguageManager().getMessage(
                         getPlayerLanguage(player), 
-                        "player_not_found"
+                        MessageKey.PLAYER_NOT_FOUND
                     ));
                     return true;
                 }
                 
                 try {
                     double amount = Double.parseDouble(args[2]);
-                    if (plugin.getTransferManager().transferMoney(player, receiver, amount)) {
+                    if (plugin.getTransferManager().transferMoney(player.getUniqueId(), receiverUUID, amount)) {
                         sender.sendMessage(plugin.getLanguageManager().getMessage(
                             getPlayerLanguage(player), 
-                            "economy.pay_success",
+                            MessageKey.ECONOMY_PAY_SUCCESS,
                             "amount", plugin.getEconomyManager().format(amount),
-                            "receiver", receiver.getName()
+                            "receiver", plugin.getPlayerNameIndex().getDisplayName(receiverUUID)
                         ));
                     } else {
                         sender.sendMessage(plugin.getLanguageManager().getMessage(
                             getPlayerLanguage(player), 
-                            "economy.pay_failed"
+                            MessageKey.ECONOMY_PAY_FAILED
                         ));
                     }
                 } catch (NumberFormatException e) {
                     sender.sendMessage(plugin.getLanguageManager().getMessage(
                         getPlayerLanguage(player), 
-                        "invalid_amount"
+                        MessageKey.INVALID_AMOUNT
                     ));
                 }
                 break;
@@ -141,7 +147,7 @@ public class CommandManager implements CommandExecutor, TabCompleter {
             default:
                 sender.sendMessage(plugin.getLanguageManager().getMessage(
                     getPlayerLanguage(player), 
-                    "economy.usage"
+                    MessageKey.ECONOMY_USAGE
                 ));
                 break;
         }
@@ -156,7 +162,7 @@ public class CommandManager implements CommandExecutor, TabCompleter {
         if (!sender.hasPermission("smpeconomy.admin")) {
             sender.sendMessage(plugin.getLanguageManager().getMessage(
                 getDefaultLanguage(), 
-                "no_permission"
+                MessageKey.NO_PERMISSION
             ));
             return true;
         }
@@ -164,7 +170,7 @@ public class CommandManager implements CommandExecutor, TabCompleter {
         if (args.length < 1) {
             sender.sendMessage(plugin.getLanguageManager().getMessage(
                 getDefaultLanguage(), 
-                "admin.usage"
+                MessageKey.ADMIN_USAGE
             ));
             return true;
         }
@@ -174,16 +180,16 @@ public class CommandManager implements CommandExecutor, TabCompleter {
                 if (args.length < 3) {
                     sender.sendMessage(plugin.getLanguageManager().getMessage(
                         getDefaultLanguage(), 
-                        "admin.give_usage"
+                        MessageKey.ADMIN_GIVE_USAGE
                     ));
                     return true;
                 }
                 
-                Player target = plugin.getServer().getPlayer(args[1]);
+                UUID target = plugin.getPlayerNameIndex().getUUID(args[1]);
                 if (target == null) {
                     sender.sendMessage(plugin.getLanguageManager().getMessage(
                         getDefaultLanguage(), 
-                        "player_not_found"
+                        MessageKey.PLAYER_NOT_FOUND
                     ));
                     return true;
                 }
@@ -193,22 +199,19 @@ public class CommandManager implements CommandExecutor, TabCompleter {
                     plugin.getEconomyManager().addMoney(target, amount);
                     sender.sendMessage(plugin.getLanguageManager().getMessage(
                         getDefaultLanguage(), 
-                        "admin.give_success",
+                        MessageKey.ADMIN_GIVE_SUCCESS,
                         "amount", plugin.getEconomyManager().format(amount),
-                        "player", target.getName()
+                        "player", plugin.getPlayerNameIndex().getDisplayName(target)
                     ));
                     
-                    // Notify the player
-                    target.sendMessage(plugin.getLanguageManager().getMessage(
-                        getPlayerLanguage(target), 
-                        "admin.money_given",
+                    // Notify the player, now or when they next join
+                    plugin.getNotificationManager().queueNotification(target, MessageKey.ADMIN_MONEY_GIVEN,
                         "amount", plugin.getEconomyManager().format(amount),
-                        "sender", sender.getName()
-                    ));
+                        "sender", sender.getName());
                 } catch (NumberFormatException e) {
                     sender.sendMessage(plugin.getLanguageManager().getMessage(
                         getDefaultLanguage(), 
-                        "invalid_amount"
+                        MessageKey.INVALID_AMOUNT
                     ));
                 }
                 break;
@@ -217,16 +220,16 @@ public class CommandManager implements CommandExecutor, TabCompleter {
                 if (args.length < 3) {
                     sender.sendMessage(plugin.getLanguageManager().getMessage(
                         getDefaultLanguage(), 
-                        "admin.set_usage"
+                        MessageKey.ADMIN_SET_USAGE
                     ));
                     return true;
                 }
                 
-                Player targetSet = plugin.getServer().getPlayer(args[1]);
+                UUID targetSet = plugin.getPlayerNameIndex().getUUID(args[1]);
                 if (targetSet == null) {
                     sender.sendMessage(plugin.getLanguageManager().getMessage(
                         getDefaultLanguage(), 
-                        "player_not_found"
+                        MessageKey.PLAYER_NOT_FOUND
                     ));
                     return true;
                 }
@@ -236,22 +239,19 @@ public class CommandManager implements CommandExecutor, TabCompleter {
                     plugin.getEconomyManager().setBalance(targetSet, amount);
                     sender.sendMessage(plugin.getLanguageManager().getMessage(
                         getDefaultLanguage(), 
-                        "admin.set_success",
+                        MessageKey.ADMIN_SET_SUCCESS,
                         "amount", plugin.getEconomyManager().format(amount),
-                        "player", targetSet.getName()
+                        "player", plugin.getPlayerNameIndex().getDisplayName(targetSet)
                     ));
                     
-                    // Notify the player
-                    targetSet.sendMessage(plugin.getLanguageManager().getMessage(
-                        getPlayerLanguage(targetSet), 
-                        "admin.balance_set",
+                    // Notify the player, now or when they next join
+                    plugin.getNotificationManager().queueNotification(targetSet, MessageKey.ADMIN_BALANCE_SET,
                         "amount", plugin.getEconomyManager().format(amount),
-                        "sender", sender.getName()
-                    ));
+                        "sender", sender.getName());
                 } catch (NumberFormatException e) {
                     sender.sendMessage(plugin.getLanguageManager().getMessage(
                         getDefaultLanguage(), 
-                        "invalid_amount"
+                        MessageKey.INVALID_AMOUNT
                     ));
                 }
                 break;
@@ -260,16 +260,16 @@ public class CommandManager implements CommandExecutor, TabCompleter {
                 if (args.length < 2) {
                     sender.sendMessage(plugin.getLanguageManager().getMessage(
                         getDefaultLanguage(), 
-                        "admin.reset_usage"
+                        MessageKey.ADMIN_RESET_USAGE
                     ));
                     return true;
                 }
                 
-                Player targetReset = plugin.getServer().getPlayer(args[1]);
+                UUID targetReset = plugin.getPlayerNameIndex().getUUID(args[1]);
                 if (targetReset == null) {
                     sender.sendMessage(plugin.getLanguageManager().getMessage(
                         getDefaultLanguage(), 
-                        "player_not_found"
+                        MessageKey.PLAYER_NOT_FOUND
                     ));
                     return true;
                 }
@@ -278,31 +278,34 @@ public class CommandManager implements CommandExecutor, TabCompleter {
                     plugin.getConfigManager().getEconomyConfig().getDouble("starting_balance", 100.0));
                 sender.sendMessage(plugin.getLanguageManager().getMessage(
                     getDefaultLanguage(), 
-                    "admin.reset_success",
-                    "player", targetReset.getName()
+                    MessageKey.ADMIN_RESET_SUCCESS,
+                    "player", plugin.getPlayerNameIndex().getDisplayName(targetReset)
                 ));
                 
-                // Notify the player
-                targetReset.sendMessage(plugin.getLanguageManager().getMessage(
-                    getPlayerLanguage(targetReset), 
-                    "admin.balance_reset",
-                    "sender", sender.getName()
-                ));
+                // Notify the player, now or when they next join
+                plugin.getNotificationManager().queueNotification(targetReset, MessageKey.ADMIN_BALANCE_RESET,
+                    "sender", sender.getName());
+                break;
+                
+            case "flow":
+                showMoneyFlow(sender, args);
                 break;
                 
             case "reload":
                 plugin.getConfigManager().reloadConfigs();
+                plugin.getCurrencyRegistry().load();
                 plugin.getLanguageManager().reloadLanguages();
+                plugin.getGUIManager().rebuildTemplates();
                 sender.sendMessage(plugin.getLanguageManager().getMessage(
                     getDefaultLanguage(), 
-                    "admin.reload_success"
+                    MessageKey.ADMIN_RELOAD_SUCCESS
                 ));
                 break;
                 
             default:
                 sender.sendMessage(plugin.getLanguageManager().getMessage(
                     getDefaultLanguage(), 
-                    "admin.usage"
+                    MessageKey.ADMIN_USAGE
                 ));
                 break;
         }
@@ -310,6 +313,56 @@ public class CommandManager implements CommandExecutor, TabCompleter {
         return true;
     }
     
+    /**
+     * Shows the largest senders and receivers of the anomaly detector's current window,
+     * or one player's estimated flows.
+     */
+    private void showMoneyFlow(CommandSender sender, String[] args) {
+        TransactionAnalyzer analyzer = plugin.getSecurityManager().getTransactionAnalyzer();
+        long now = System.currentTimeMillis();
+        
+        if (args.length >= 2) {
+            UUID target = plugin.getPlayerNameIndex().getUUID(args[1]);
+            if (target == null) {
+                sender.sendMessage(plugin.getLanguageManager().getMessage(
+                    getDefaultLanguage(), 
+                    MessageKey.PLAYER_NOT_FOUND
+                ));
+                return;
+            }
+            
+            sender.sendMessage(plugin.getLanguageManager().getMessage(
+                getDefaultLanguage(), 
+                MessageKey.ADMIN_FLOW_PLAYER,
+                "player", plugin.getPlayerNameIndex().getDisplayName(target),
+                "outflow", plugin.getEconomyManager().format(analyzer.estimateOutflow(target, now)),
+                "inflow", plugin.getEconomyManager().format(analyzer.estimateInflow(target, now)),
+                "velocity", plugin.getEconomyManager().format(analyzer.getVelocity(target, now))
+            ));
+            return;
+        }
+        
+        sendFlowEntries(sender, MessageKey.ADMIN_FLOW_SENDERS, analyzer.getTopSenders(now));
+        sendFlowEntries(sender, MessageKey.ADMIN_FLOW_RECEIVERS, analyzer.getTopReceivers(now));
+    }
+    
+    private void sendFlowEntries(CommandSender sender, MessageKey header, List<TransactionAnalyzer.HeavyHitter> hitters) {
+        sender.sendMessage(plugin.getLanguageManager().getMessage(getDefaultLanguage(), header));
+        
+        int shown = Math.min(hitters.size(), FLOW_ENTRIES);
+        for (int i = 0; i < shown; i++) {
+            TransactionAnalyzer.HeavyHitter hitter = hitters.get(i);
+            sender.sendMessage(plugin.getLanguageManager().getMessage(
+                getDefaultLanguage(), 
+                MessageKey.ADMIN_FLOW_ENTRY,
+                "rank", i + 1,
+                "player", plugin.getPlayerNameIndex().getDisplayName(hitter.getPlayerUUID()),
+                "amount", plugin.getEconomyManager().format(hitter.getAmount()),
+                "guaranteed", plugin.getEconomyManager().format(hitter.getGuaranteedAmount())
+            ));
+        }
+    }
+    
     /**
      * Handles the bank command.
      */
@@ -332,7 +385,7 @@ public class CommandManager implements CommandExecutor, TabCompleter {
                 double bankBalance = plugin.getBankManager().getBankBalance(player);
                 sender.sendMessage(plugin.getLanguageManager().getMessage(
                     getPlayerLanguage(player), 
-                    "bank.balance",
+                    MessageKey.BANK_BALANCE,
                     "balance", plugin.getBankManager().format(bankBalance)
                 ));
                 break;
@@ -341,7 +394,7 @@ public class CommandManager implements CommandExecutor, TabCompleter {
                 if (args.length < 2) {
                     sender.sendMessage(plugin.getLanguageManager().getMessage(
                         getPlayerLanguage(player), 
-                        "bank.deposit_usage"
+                        MessageKey.BANK_DEPOSIT_USAGE
                     ));
                     return true;
                 }
@@ -352,13 +405,13 @@ public class CommandManager implements CommandExecutor, TabCompleter {
                     if (plugin.getBankManager().depositToBank(player, playerBalance)) {
                         sender.sendMessage(plugin.getLanguageManager().getMessage(
                             getPlayerLanguage(player), 
-                            "bank.deposit_success",
+                            MessageKey.BANK_DEPOSIT_SUCCESS,
                             "amount", plugin.getBankManager().format(playerBalance)
                         ));
                     } else {
                         sender.sendMessage(plugin.getLanguageManager().getMessage(
                             getPlayerLanguage(player), 
-                            "bank.deposit_failed"
+                            MessageKey.BANK_DEPOSIT_FAILED
                         ));
                     }
                 } else {
@@ -367,19 +420,19 @@ public class CommandManager implements CommandExecutor, TabCompleter {
                         if (plugin.getBankManager().depositToBank(player, amount)) {
                             sender.sendMessage(plugin.getLanguageManager().getMessage(
                                 getPlayerLanguage(player), 
-                                "bank.deposit_success",
+                                MessageKey.BANK_DEPOSIT_SUCCESS,
                                 "amount", plugin.getBankManager().format(amount)
                             ));
                         } else {
                             sender.sendMessage(plugin.getLanguageManager().getMessage(
                                 getPlayerLanguage(player), 
-                                "bank.deposit_failed"
+                                MessageKey.BANK_DEPOSIT_FAILED
                             ));
                         }
                     } catch (NumberFormatException e) {
                         sender.sendMessage(plugin.getLanguageManager().getMessage(
                             getPlayerLanguage(player), 
-                            "invalid_amount"
+                            MessageKey.INVALID_AMOUNT
                         ));
                     }
                 }
@@ -389,7 +442,7 @@ public class CommandManager implements CommandExecutor, TabCompleter {
                 if (args.length < 2) {
                     sender.sendMessage(plugin.getLanguageManager().getMessage(
                         getPlayerLanguage(player), 
-                        "bank.withdraw_usage"
+                        MessageKey.BANK_WITHDRAW_USAGE
                     ));
                     return true;
                 }
@@ -400,13 +453,13 @@ public class CommandManager implements CommandExecutor, TabCompleter {
                     if (plugin.getBankManager().withdrawFromBank(player, bankBalanceAmount)) {
                         sender.sendMessage(plugin.getLanguageManager().getMessage(
                             getPlayerLanguage(player), 
-                            "bank.withdraw_success",
+                            MessageKey.BANK_WITHDRAW_SUCCESS,
                             "amount", plugin.getBankManager().format(bankBalanceAmount)
                         ));
                     } else {
                         sender.sendMessage(plugin.getLanguageManager().getMessage(
                             getPlayerLanguage(player), 
-                            "bank.withdraw_failed"
+                            MessageKey.BANK_WITHDRAW_FAILED
                         ));
                     }
                 } else {
@@ -415,28 +468,32 @@ public class CommandManager implements CommandExecutor, TabCompleter {
                         if (plugin.getBankManager().withdrawFromBank(player, amount)) {
                             sender.sendMessage(plugin.getLanguageManager().getMessage(
                                 getPlayerLanguage(player), 
-                                "bank.withdraw_success",
+                                MessageKey.BANK_WITHDRAW_SUCCESS,
                                 "amount", plugin.getBankManager().format(amount)
                             ));
                         } else {
                             sender.sendMessage(plugin.getLanguageManager().getMessage(
                                 getPlayerLanguage(player), 
-                                "bank.withdraw_failed"
+                                MessageKey.BANK_WITHDRAW_FAILED
                             ));
                         }
                     } catch (NumberFormatException e) {
                         sender.sendMessage(plugin.getLanguageManager().getMessage(
                             getPlayerLanguage(player), 
-                            "invalid_amount"
+                            MessageKey.INVALID_AMOUNT
                         ));
                     }
                 }
                 break;
                 
+            case "shared":
+                handleSharedBankCommand(player, args);
+                break;
+                
             default:
                 sender.sendMessage(plugin.getLanguageManager().getMessage(
                     getPlayerLanguage(player), 
-                    "bank.usage"
+                    MessageKey.BANK_USAGE
                 ));
                 break;
         }
@@ -444,6 +501,68 @@ public class CommandManager implements CommandExecutor, TabCompleter {
         return true;
     }
     
+    /**
+     * Handles /bank shared: lists the player's shared banks, or lets a bank's owner add
+     * and remove members. The banks themselves are created through Vault by other plugins.
+     */
+    private void handleSharedBankCommand(Player player, String[] args) {
+        String language = getPlayerLanguage(player);
+        if (!player.hasPermission("smpeconomy.bank.shared")) {
+            player.sendMessage(plugin.getLanguageManager().getMessage(language, MessageKey.NO_PERMISSION));
+            return;
+        }
+        
+        SharedBankManager sharedBanks = plugin.getSharedBankManager();
+        if (args.length == 1) {
+            Set<String> names = sharedBanks.getBanks(player.getUniqueId());
+            if (names.isEmpty()) {
+                player.sendMessage(plugin.getLanguageManager().getMessage(language, MessageKey.BANK_SHARED_NONE));
+                return;
+            }
+            player.sendMessage(plugin.getLanguageManager().getMessage(language, MessageKey.BANK_SHARED_LIST));
+            for (String name : names) {
+                SharedBankManager.SharedBank bank = sharedBanks.getBank(name);
+                if (bank != null) {
+                    player.sendMessage(plugin.getLanguageManager().getMessage(language, MessageKey.BANK_SHARED_ENTRY,
+                        "bank", bank.getName(),
+                        "balance", plugin.getEconomyManager().format(bank.getBalance()),
+                        "owner", plugin.getPlayerNameIndex().getDisplayName(bank.getOwnerUUID())
+                    ));
+                }
+            }
+            return;
+        }
+        
+        boolean add = args[1].equalsIgnoreCase("add");
+        if (args.length < 4 || !(add || args[1].equalsIgnoreCase("remove"))) {
+            player.sendMessage(plugin.getLanguageManager().getMessage(language, MessageKey.BANK_SHARED_USAGE));
+            return;
+        }
+        
+        SharedBankManager.SharedBank bank = sharedBanks.getBank(args[2]);
+        if (bank == null || !bank.isOwner(player.getUniqueId())) {
+            player.sendMessage(plugin.getLanguageManager().getMessage(language, MessageKey.BANK_SHARED_NOT_OWNER,
+                "bank", args[2]));
+            return;
+        }
+        
+        UUID memberUUID = plugin.getPlayerNameIndex().getUUID(args[3]);
+        if (memberUUID == null) {
+            player.sendMessage(plugin.getLanguageManager().getMessage(language, MessageKey.PLAYER_NOT_FOUND));
+            return;
+        }
+        
+        boolean changed = add 
+            ? sharedBanks.addMember(bank.getName(), memberUUID) 
+            : sharedBanks.removeMember(bank.getName(), memberUUID);
+        MessageKey result = !changed ? MessageKey.BANK_SHARED_MEMBER_FAILED 
+            : add ? MessageKey.BANK_SHARED_MEMBER_ADDED : MessageKey.BANK_SHARED_MEMBER_REMOVED;
+        player.sendMessage(plugin.getLanguageManager().getMessage(language, result,
+            "bank", bank.getName(),
+            "player", plugin.getPlayerNameIndex().getDisplayName(memberUUID)
+        ));
+    }
+    
     /**
      * Handles the auction command.
      */
@@ -477,10 +596,79 @@ public class CommandManager implements CommandExecutor, TabCompleter {
                 plugin.getGUIManager().openBidHistoryGUI(player);
                 break;
                 
+            case "buyout":
+                if (args.length < 2) {
+                    sender.sendMessage(plugin.getLanguageManager().getMessage(
+                        getPlayerLanguage(player), 
+                        MessageKey.AUCTION_BUYOUT_USAGE
+                    ));
+                    return true;
+                }
+                
+                try {
+                    int auctionId = Integer.parseInt(args[1]);
+                    AuctionHouseManager.Auction auction = plugin.getAuctionHouseManager().getAuctionById(auctionId);
+                    if (auction == null) {
+                        sender.sendMessage(plugin.getLanguageManager().getMessage(
+                            getPlayerLanguage(player), 
+                            MessageKey.AUCTION_NOT_FOUND
+                        ));
+                    } else if (plugin.getAuctionHouseManager().buyoutAuction(player, auctionId)) {
+                        sender.sendMessage(plugin.getLanguageManager().getMessage(
+                            getPlayerLanguage(player), 
+                            MessageKey.AUCTION_BUY_SUCCESS,
+                            "item", auction.getItemName(),
+                            "price", plugin.getEconomyManager().format(auction.getBuyoutPrice())
+                        ));
+                    } else {
+                        sender.sendMessage(plugin.getLanguageManager().getMessage(
+                            getPlayerLanguage(player), 
+                            MessageKey.AUCTION_BUYOUT_FAILED
+                        ));
+                    }
+                } catch (NumberFormatException e) {
+                    sender.sendMessage(plugin.getLanguageManager().getMessage(
+                        getPlayerLanguage(player), 
+                        MessageKey.AUCTION_NOT_FOUND
+                    ));
+                }
+                break;
+                
+            case "search":
+                // Optional sort flag: -time (ending soon), -highest (price descending); default is cheapest first
+                int queryStart = 1;
+                AuctionSearchIndex.SortOrder order = AuctionSearchIndex.SortOrder.PRICE_ASC;
+                if (args.length > 1 && args[1].startsWith("-")) {
+                    switch (args[1].toLowerCase()) {
+                        case "-time":
+                            order = AuctionSearchIndex.SortOrder.ENDING_SOON;
+                            break;
+                        case "-highest":
+                            order = AuctionSearchIndex.SortOrder.PRICE_DESC;
+                            break;
+                        default:
+                            order = AuctionSearchIndex.SortOrder.PRICE_ASC;
+                            break;
+                    }
+                    queryStart = 2;
+                }
+                
+                if (args.length <= queryStart) {
+                    sender.sendMessage(plugin.getLanguageManager().getMessage(
+                        getPlayerLanguage(player), 
+                        MessageKey.AUCTION_SEARCH_USAGE
+                    ));
+                    return true;
+                }
+                
+                String query = String.join(" ", Arrays.copyOfRange(args, queryStart, args.length));
+                plugin.getGUIManager().searchAuctions(player, query, order);
+                break;
+                
             default:
                 sender.sendMessage(plugin.getLanguageManager().getMessage(
                     getPlayerLanguage(player), 
-                    "auction.usage"
+                    MessageKey.AUCTION_USAGE
                 ));
                 break;
         }
@@ -500,57 +688,98 @@ public class CommandManager implements CommandExecutor, TabCompleter {
                         .filter(arg -> arg.startsWith(args[0].toLowerCase()))
                         .collect(Collectors.toList());
                 } else if (args.length == 2 && args[0].equalsIgnoreCase("pay")) {
-                    return plugin.getServer().getOnlinePlayers().stream()
-                        .map(player -> player.getName())
-                        .filter(name -> name.toLowerCase().startsWith(args[1].toLowerCase()))
-                        .collect(Collectors.toList());
+                    return completePlayerNames(args[1]);
                 }
                 break;
                 
             case "ecoadmin":
                 if (args.length == 1 && sender.hasPermission("smpeconomy.admin")) {
-                    return Arrays.asList("give", "set", "reset", "reload")
+                    return Arrays.asList("give", "set", "reset", "flow", "reload")
                         .stream()
                         .filter(arg -> arg.startsWith(args[0].toLowerCase()))
                         .collect(Collectors.toList());
                 } else if (args.length == 2 && (args[0].equalsIgnoreCase("give") || 
-                           args[0].equalsIgnoreCase("set") || args[0].equalsIgnoreCase("reset")) && 
+                           args[0].equalsIgnoreCase("set") || args[0].equalsIgnoreCase("reset") ||
+                           args[0].equalsIgnoreCase("flow")) && 
                            sender.hasPermission("smpeconomy.admin")) {
-                    return plugin.getServer().getOnlinePlayers().stream()
-                        .map(player -> player.getName())
-                        .filter(name -> name.toLowerCase().startsWith(args[1].toLowerCase()))
-                        .collect(Collectors.toList());
+                    return completePlayerNames(args[1]);
                 }
                 break;
                 
             case "bank":
                 if (args.length == 1) {
-                    return Arrays.asList("balance", "deposit", "withdraw")
+                    return Arrays.asList("balance", "deposit", "withdraw", "shared")
                         .stream()
                         .filter(arg -> arg.startsWith(args[0].toLowerCase()))
                         .collect(Collectors.toList());
                 }
+                if (args[0].equalsIgnoreCase("shared") && sender instanceof Player
+                        && sender.hasPermission("smpeconomy.bank.shared")) {
+                    if (args.length == 2) {
+                        return Arrays.asList("add", "remove")
+                            .stream()
+                            .filter(arg -> arg.startsWith(args[1].toLowerCase()))
+                            .collect(Collectors.toList());
+                    }
+                    if (args.length == 3) {
+                        // Only banks the player owns can have their members changed
+                        UUID playerUUID = ((Player) sender).getUniqueId();
+                        return plugin.getSharedBankManager().getBanks(playerUUID)
+                            .stream()
+                            .filter(name -> {
+                                SharedBankManager.SharedBank bank = plugin.getSharedBankManager().getBank(name);
+                                return bank != null && bank.isOwner(playerUUID);
+                            })
+                            .filter(name -> name.toLowerCase().startsWith(args[2].toLowerCase()))
+                            .collect(Collectors.toList());
+                    }
+                    if (args.length == 4) {
+                        return completePlayerNames(args[3]);
+                    }
+                }
                 break;
                 
             case "ah":
                 if (args.length == 1) {
-                    return Arrays.asList("my", "create", "bids")
+                    return Arrays.asList("my", "create", "bids", "buyout", "search")
                         .stream()
                         .filter(arg -> arg.startsWith(args[0].toLowerCase()))
                         .collect(Collectors.toList());
                 }
+                if (args.length == 2 && args[0].equalsIgnoreCase("buyout")) {
+                    return plugin.getAuctionHouseManager().completeAuctionIds(args[1], getCompletionLimit());
+                }
+                if (args.length == 2 && args[0].equalsIgnoreCase("search")) {
+                    return Arrays.asList("-time", "-highest")
+                        .stream()
+                        .filter(arg -> arg.startsWith(args[1].toLowerCase()))
+                        .collect(Collectors.toList());
+                }
                 break;
         }
         
         return new ArrayList<>();
     }
     
+    /**
+     * Completes any known player name, online or not.
+     */
+    private List<String> completePlayerNames(String prefix) {
+        return plugin.getPlayerNameIndex().complete(prefix, getCompletionLimit());
+    }
+    
+    /**
+     * Gets the most suggestions to offer for a player or auction argument.
+     */
+    private int getCompletionLimit() {
+        return Math.max(1, plugin.getConfigManager().getPerformanceConfig().getInt("tab_completion_limit", 50));
+    }
+    
     /**
      * Gets the player's language.
      */
     private String getPlayerLanguage(Player player) {
-        // In a real implementation, this would get the player's language from the database
-        return plugin.getLanguageManager().getDefaultLanguage();
+        return plugin.getLocaleResolver().getLanguage(player);
     }
     
     /**
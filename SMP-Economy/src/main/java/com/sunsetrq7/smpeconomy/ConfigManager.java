@@ -4,6 +4,7 @@ import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.logging.Level;
 
 /**
@@ -249,6 +250,23 @@ public class ConfigManager {
         if (!economyConfig.contains("currency_symbol")) {
             economyConfig.set("currency_symbol", "$");
         }
+        
+        if (!economyConfig.contains("daily_transfer_limit")) {
+            economyConfig.set("daily_transfer_limit", 1000000.0);
+        }
+        
+        if (!economyConfig.contains("weekly_transfer_limit")) {
+            economyConfig.set("weekly_transfer_limit", 10000000.0);
+        }
+        
+        // Extra currencies besides the default one, and which worlds use them
+        if (!economyConfig.contains("currencies")) {
+            economyConfig.set("currencies", new ArrayList<String>());
+        }
+        
+        if (!economyConfig.contains("world_currencies")) {
+            economyConfig.createSection("world_currencies");
+        }
     }
     
     /**
@@ -297,6 +315,22 @@ public class ConfigManager {
         if (!auctionConfig.contains("bid_cooldown_seconds")) {
             auctionConfig.set("bid_cooldown_seconds", 5);
         }
+        
+        if (!auctionConfig.contains("anti_snipe_window_seconds")) {
+            auctionConfig.set("anti_snipe_window_seconds", 30);
+        }
+        
+        if (!auctionConfig.contains("anti_snipe_extension_seconds")) {
+            auctionConfig.set("anti_snipe_extension_seconds", 30);
+        }
+        
+        if (!auctionConfig.contains("market_stats_window_hours")) {
+            auctionConfig.set("market_stats_window_hours", 24);
+        }
+        
+        if (!auctionConfig.contains("market_stats_retention_days")) {
+            auctionConfig.set("market_stats_retention_days", 30);
+        }
     }
     
     /**
@@ -393,6 +427,43 @@ public class ConfigManager {
         if (!securityConfig.contains("enable_anti_exploit")) {
             securityConfig.set("enable_anti_exploit", true);
         }
+        
+        if (!securityConfig.contains("input_validation.sql_patterns")) {
+            securityConfig.set("input_validation.sql_patterns", java.util.Arrays.asList("'", "\"", ";", "--", "/*", "*/", 
+                "xp_", "exec", "select", "insert", "update", "delete", "drop", "create", "alter", "union", "script"));
+        }
+        
+        if (!securityConfig.contains("input_validation.command_patterns")) {
+            securityConfig.set("input_validation.command_patterns", java.util.Arrays.asList("|", "&", "$", "`", "\\", "(", ")"));
+        }
+        
+        if (!securityConfig.contains("anomaly_detection.enabled")) {
+            securityConfig.set("anomaly_detection.enabled", true);
+        }
+        
+        if (!securityConfig.contains("anomaly_detection.window_minutes")) {
+            securityConfig.set("anomaly_detection.window_minutes", 10);
+        }
+        
+        if (!securityConfig.contains("anomaly_detection.window_volume_threshold")) {
+            securityConfig.set("anomaly_detection.window_volume_threshold", 1000000.0);
+        }
+        
+        if (!securityConfig.contains("anomaly_detection.velocity_half_life_seconds")) {
+            securityConfig.set("anomaly_detection.velocity_half_life_seconds", 300);
+        }
+        
+        if (!securityConfig.contains("anomaly_detection.velocity_threshold")) {
+            securityConfig.set("anomaly_detection.velocity_threshold", 100000.0);
+        }
+        
+        if (!securityConfig.contains("anomaly_detection.heavy_hitters")) {
+            securityConfig.set("anomaly_detection.heavy_hitters", 32);
+        }
+        
+        if (!securityConfig.contains("anomaly_detection.alert_cooldown_seconds")) {
+            securityConfig.set("anomaly_detection.alert_cooldown_seconds", 300);
+        }
     }
     
     /**
@@ -433,6 +504,50 @@ public class ConfigManager {
         if (!performanceConfig.contains("enable_metrics")) {
             performanceConfig.set("enable_metrics", true);
         }
+        
+        if (!performanceConfig.contains("auction_item_cache_size")) {
+            performanceConfig.set("auction_item_cache_size", 512);
+        }
+        
+        if (!performanceConfig.contains("market_stats_flush_minutes")) {
+            performanceConfig.set("market_stats_flush_minutes", 5);
+        }
+        
+        if (!performanceConfig.contains("rate_limiter_capacity")) {
+            performanceConfig.set("rate_limiter_capacity", 4096);
+        }
+        
+        if (!performanceConfig.contains("rolling_limits_flush_minutes")) {
+            performanceConfig.set("rolling_limits_flush_minutes", 5);
+        }
+        
+        if (!performanceConfig.contains("anomaly_tracker_capacity")) {
+            performanceConfig.set("anomaly_tracker_capacity", 4096);
+        }
+        
+        if (!performanceConfig.contains("anomaly_sketch_width")) {
+            performanceConfig.set("anomaly_sketch_width", 2048);
+        }
+        
+        if (!performanceConfig.contains("notification_flush_ticks")) {
+            performanceConfig.set("notification_flush_ticks", 20);
+        }
+        
+        if (!performanceConfig.contains("permission_cache_refresh_ticks")) {
+            performanceConfig.set("permission_cache_refresh_ticks", 600);
+        }
+        
+        if (!performanceConfig.contains("gui_refresh_slots_per_tick")) {
+            performanceConfig.set("gui_refresh_slots_per_tick", 64);
+        }
+        
+        if (!performanceConfig.contains("tab_completion_limit")) {
+            performanceConfig.set("tab_completion_limit", 50);
+        }
+        
+        if (!performanceConfig.contains("vault_deposit_coalesce_ticks")) {
+            performanceConfig.set("vault_deposit_coalesce_ticks", 0);
+        }
     }
     
     /**
@@ -0,0 +1,105 @@
+package com.sunsetrq7.smpeconomy;
+
+import org.bukkit.configuration.ConfigurationSection;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.logging.Level;
+
+/**
+ * Assigns the economy's currencies compact integer ids and maps worlds to them.
+ *
+ * The default currency always has id 0 and keeps living in {@code players.balance}, so
+ * single-currency servers work exactly as before. Extra currencies are listed under
+ * {@code currencies} in economy.yml and get ids stored in the currencies table, so an id
+ * never changes once given out; their balances are rows in currency_balances keyed by
+ * (player, currency id). Worlds listed under {@code world_currencies} use that currency;
+ * every other world uses the default one.
+ */
+public class CurrencyRegistry {
+
+    public static final int DEFAULT_CURRENCY = 0;
+    public static final String DEFAULT_CURRENCY_NAME = "default";
+
+    private final SMP_Economy plugin;
+
+    // Replaced as a whole on load, so readers never see a half-built mapping
+    private volatile Map<String, Integer> worldCurrencies;
+
+    public CurrencyRegistry(SMP_Economy plugin) {
+        this.plugin = plugin;
+        this.worldCurrencies = Map.of();
+    }
+
+    /**
+     * Loads currency ids, registering newly configured currencies, and the world mapping.
+     */
+    public void load() {
+        Map<String, Integer> loadedIds = new HashMap<>();
+        loadedIds.put(DEFAULT_CURRENCY_NAME, DEFAULT_CURRENCY);
+        int maxId = DEFAULT_CURRENCY;
+
+        try (Connection connection = plugin.getDatabaseManager().getConnection()) {
+            try (PreparedStatement stmt = connection.prepareStatement("SELECT id, name FROM currencies");
+                 ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    int id = rs.getInt("id");
+                    loadedIds.put(rs.getString("name"), id);
+                    maxId = Math.max(maxId, id);
+                }
+            }
+
+            List<String> configured = plugin.getConfigManager().getEconomyConfig().getStringList("currencies");
+            for (String currency : configured) {
+                String name = currency.toLowerCase(Locale.ROOT);
+                if (loadedIds.containsKey(name)) {
+                    continue;
+                }
+
+                int id = ++maxId;
+                try (PreparedStatement stmt = connection.prepareStatement("INSERT INTO currencies (id, name) VALUES (?, ?)")) {
+                    stmt.setInt(1, id);
+                    stmt.setString(2, name);
+                    stmt.executeUpdate();
+                }
+                loadedIds.put(name, id);
+            }
+        } catch (SQLException e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to load currencies", e);
+        }
+
+        Map<String, Integer> loadedWorlds = new HashMap<>();
+        ConfigurationSection section = plugin.getConfigManager().getEconomyConfig().getConfigurationSection("world_currencies");
+        if (section != null) {
+            for (String world : section.getKeys(false)) {
+                String currency = section.getString(world, DEFAULT_CURRENCY_NAME).toLowerCase(Locale.ROOT);
+                Integer id = loadedIds.get(currency);
+                if (id == null) {
+                    plugin.getLogger().warning("World " + world + " uses unknown currency " + currency + "; using the default currency");
+                    continue;
+                }
+                loadedWorlds.put(world, id);
+            }
+        }
+
+        worldCurrencies = loadedWorlds;
+
+        plugin.getLogger().info("Loaded " + loadedIds.size() + " currencies, " + loadedWorlds.size() + " mapped to worlds.");
+    }
+
+    /**
+     * Gets the currency used in a world; null or unmapped worlds use the default.
+     */
+    public int getCurrencyForWorld(String worldName) {
+        if (worldName == null) {
+            return DEFAULT_CURRENCY;
+        }
+        Integer id = worldCurrencies.get(worldName);
+        return id != null ? id : DEFAULT_CURRENCY;
+    }
+}
@@ -0,0 +1,116 @@
+package com.sunsetrq7.smpeconomy;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Merges small Vault deposits per player and writes them in bulk.
+ *
+ * Jobs and mob-reward plugins deposit once per block or kill. When coalescing is on
+ * ({@code vault_deposit_coalesce_ticks} above zero) each such deposit only adds to the
+ * player's pending sum; every window the sums are written with one
+ * {@link EconomyManager#applyDeltas(Map, String)} call, giving one balance update and
+ * one journal row per player instead of one read-modify-write per deposit. Balance
+ * reads and checks through the EconomyManager (Vault, /balance, placeholders, transfer
+ * checks) and Vault withdrawals write the player's pending sum first, so they include it.
+ * Cached views such as open menus and the balance top list show it only once its
+ * window has been written. The window is read once at startup, when the flush task is
+ * scheduled, so changing it takes a restart rather than a reload.
+ */
+public class DepositCoalescer {
+
+    private static final String TRANSACTION_TYPE = "vault_deposit";
+
+    private final SMP_Economy plugin;
+    private final Map<UUID, Double> pending;
+    private final int windowTicks;
+
+    public DepositCoalescer(SMP_Economy plugin) {
+        this(plugin, plugin.getConfigManager().getPerformanceConfig().getInt("vault_deposit_coalesce_ticks", 0));
+    }
+
+    DepositCoalescer(SMP_Economy plugin, int windowTicks) {
+        this.plugin = plugin;
+        this.pending = new ConcurrentHashMap<>();
+        this.windowTicks = windowTicks;
+    }
+
+    /**
+     * Checks whether deposits should be coalesced.
+     */
+    public boolean isEnabled() {
+        return windowTicks > 0;
+    }
+
+    /**
+     * Gets how many ticks deposits are merged for before being written, or 0 when off.
+     */
+    public int getWindowTicks() {
+        return windowTicks;
+    }
+
+    /**
+     * Adds a deposit to the player's pending sum. Safe to call from any thread.
+     */
+    public void add(UUID playerUUID, double amount) {
+        pending.merge(playerUUID, amount, Double::sum);
+    }
+
+    /**
+     * Gets the total a player has waiting to be written.
+     */
+    public double getPending(UUID playerUUID) {
+        Double amount = pending.get(playerUUID);
+        return amount != null ? amount : 0.0;
+    }
+
+    /**
+     * Writes one player's pending sum now, e.g. before a withdrawal that may depend on it.
+     */
+    public void settle(UUID playerUUID) {
+        Double amount = pending.remove(playerUUID);
+        if (amount != null) {
+            write(Map.of(playerUUID, amount));
+        }
+    }
+
+    /**
+     * Writes every pending sum in one bulk operation.
+     */
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        Map<UUID, Double> batch = new HashMap<>();
+        for (UUID playerUUID : pending.keySet()) {
+            // remove() takes the sum atomically; later deposits start a new one
+            Double amount = pending.remove(playerUUID);
+            if (amount != null) {
+                batch.put(playerUUID, amount);
+            }
+        }
+        write(batch);
+    }
+
+    private void write(Map<UUID, Double> batch) {
+        EconomyManager economyManager = plugin.getEconomyManager();
+        Set<UUID> rejected = economyManager.applyDeltas(batch, TRANSACTION_TYPE);
+
+        // The bulk path skips players without an account or at the balance cap; the
+        // single deposit creates the account or caps the balance as a direct deposit would.
+        // A deposit was already reported as done to its caller, so if that fails too it
+        // goes back into the pending sum for the next window rather than being dropped
+        for (UUID playerUUID : rejected) {
+            double amount = batch.get(playerUUID);
+            if (!economyManager.deposit(playerUUID, amount).isSuccess()) {
+                pending.merge(playerUUID, amount, Double::sum);
+                plugin.getLogger().warning("Failed to write coalesced deposit of " + economyManager.format(amount) +
+                    " for " + playerUUID + "; retrying next window");
+            }
+        }
+    }
+}
@@ -8,6 +8,9 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.logging.Level;
 
@@ -24,6 +27,13 @@ public class EconomyManager {
     // Constants for economy configuration
     private static final double MAX_BALANCE = 1_000_000_000.0; // 1 billion
     private static final double MIN_TRANSACTION = 0.01; // Minimum transaction amount
+    private static final BigDecimal MAX_BALANCE_DECIMAL = BigDecimal.valueOf(MAX_BALANCE);
+    
+    // Tries before a balance change loses to concurrent writers
+    private static final int BALANCE_UPDATE_ATTEMPTS = 5;
+
+    // Stored as the name of accounts created before the player's name is known
+    public static final String UNKNOWN_USERNAME = "Unknown";
     
     public EconomyManager(SMP_Economy plugin) {
         this.plugin = plugin;
@@ -40,9 +50,21 @@ public class EconomyManager {
     }
     
     /**
-     * Gets a player's balance by UUID.
+     * Gets a player's balance by UUID. Coalesced Vault deposits still waiting for their
+     * window are written first, so the balance includes them.
      */
     public double getBalance(UUID playerUUID) {
+        DepositCoalescer coalescer = plugin.getDepositCoalescer();
+        if (coalescer != null) {
+            coalescer.settle(playerUUID);
+        }
+        return getStoredBalance(playerUUID);
+    }
+    
+    /**
+     * Gets a player's balance as written, without coalesced deposits still waiting.
+     */
+    public double getStoredBalance(UUID playerUUID) {
         try (Connection connection = databaseManager.getConnection()) {
             String sql = "SELECT balance FROM players WHERE uuid = ?";
             try (PreparedStatement stmt = connection.prepareStatement(sql)) {
@@ -109,44 +131,360 @@ public class EconomyManager {
      * Adds money to a player's balance by UUID.
      */
     public boolean addMoney(UUID playerUUID, double amount) {
+        return deposit(playerUUID, amount).isSuccess();
+    }
+    
+    /**
+     * Removes money from a player's balance.
+     */
+    public boolean removeMoney(Player player, double amount) {
+        return removeMoney(player.getUniqueId(), amount);
+    }
+    
+    /**
+     * Removes money from a player's balance by UUID.
+     */
+    public boolean removeMoney(UUID playerUUID, double amount) {
         if (amount <= 0) {
             return false;
         }
+        return changeBalance(playerUUID, CurrencyRegistry.DEFAULT_CURRENCY, -amount, false).isSuccess();
+    }
+    
+    /**
+     * Deposits money and returns the resulting balance, so callers don't read it again.
+     * The balance is capped at the maximum.
+     */
+    public BalanceChange deposit(UUID playerUUID, double amount) {
+        if (amount <= 0) {
+            return BalanceChange.failed(getBalance(playerUUID));
+        }
+        return changeBalance(playerUUID, CurrencyRegistry.DEFAULT_CURRENCY, amount, false);
+    }
+    
+    /**
+     * Withdraws money if the player has enough, as one check-and-withdraw, and returns
+     * the resulting balance. Unlike {@link #removeMoney(UUID, double)} this never takes
+     * less than the full amount.
+     */
+    public BalanceChange withdraw(UUID playerUUID, double amount) {
+        if (amount <= 0) {
+            return BalanceChange.failed(getBalance(playerUUID));
+        }
+        return changeBalance(playerUUID, CurrencyRegistry.DEFAULT_CURRENCY, -amount, true);
+    }
+    
+    /**
+     * Gets a player's balance in a currency. Players start every extra currency at zero.
+     */
+    public double getBalance(UUID playerUUID, int currencyId) {
+        if (currencyId == CurrencyRegistry.DEFAULT_CURRENCY) {
+            return getBalance(playerUUID);
+        }
         
-        double currentBalance = getBalance(playerUUID);
-        double newBalance = currentBalance + amount;
+        try (Connection connection = databaseManager.getConnection()) {
+            BigDecimal balance = readBalance(connection, playerUUID, currencyId);
+            return balance != null ? balance.doubleValue() : 0.0;
+        } catch (SQLException e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to get balance in currency " + currencyId + " for player: " + playerUUID, e);
+            return 0.0;
+        }
+    }
+    
+    /**
+     * Checks if a player has enough money in a currency.
+     */
+    public boolean has(UUID playerUUID, int currencyId, double amount) {
+        return getBalance(playerUUID, currencyId) >= amount;
+    }
+    
+    /**
+     * Deposits money in a currency and returns the resulting balance.
+     */
+    public BalanceChange deposit(UUID playerUUID, int currencyId, double amount) {
+        if (currencyId == CurrencyRegistry.DEFAULT_CURRENCY) {
+            return deposit(playerUUID, amount);
+        }
+        if (amount <= 0) {
+            return BalanceChange.failed(getBalance(playerUUID, currencyId));
+        }
+        return changeBalance(playerUUID, currencyId, amount, false);
+    }
+    
+    /**
+     * Withdraws money in a currency if the player has enough, and returns the resulting
+     * balance.
+     */
+    public BalanceChange withdraw(UUID playerUUID, int currencyId, double amount) {
+        if (currencyId == CurrencyRegistry.DEFAULT_CURRENCY) {
+            return withdraw(playerUUID, amount);
+        }
+        if (amount <= 0) {
+            return BalanceChange.failed(getBalance(playerUUID, currencyId));
+        }
+        return changeBalance(playerUUID, currencyId, -amount, true);
+    }
+    
+    /**
+     * Applies many balance changes in one transaction: one batched update for the
+     * balances and one batched insert for their journal rows. A change that would take a
+     * balance below zero or above the maximum, or names a player without an account, is
+     * skipped. Returns the players whose change was skipped.
+     */
+    public Set<UUID> applyDeltas(Map<UUID, Double> deltas, String type) {
+        UUID[] players = new UUID[deltas.size()];
+        BigDecimal[] changes = new BigDecimal[deltas.size()];
+        int count = 0;
+        for (Map.Entry<UUID, Double> entry : deltas.entrySet()) {
+            BigDecimal change = BigDecimal.valueOf(entry.getValue()).setScale(2, RoundingMode.HALF_UP);
+            if (change.signum() != 0) {
+                players[count] = entry.getKey();
+                changes[count] = change;
+                count++;
+            }
+        }
         
-        // Check if new balance exceeds maximum
-        if (newBalance > MAX_BALANCE) {
-            newBalance = MAX_BALANCE;
+        Set<UUID> rejected = new HashSet<>();
+        if (count == 0) {
+            return rejected;
         }
         
-        return setBalance(playerUUID, newBalance);
+        boolean[] applied = new boolean[count];
+        try (Connection connection = databaseManager.getConnection()) {
+            connection.setAutoCommit(false);
+            
+            try {
+                String sql = "UPDATE players SET balance = balance + ?, last_updated = CURRENT_TIMESTAMP " +
+                            "WHERE uuid = ? AND balance + ? BETWEEN 0 AND ?";
+                try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+                    for (int i = 0; i < count; i++) {
+                        stmt.setBigDecimal(1, changes[i]);
+                        stmt.setString(2, players[i].toString());
+                        stmt.setBigDecimal(3, changes[i]);
+                        stmt.setBigDecimal(4, MAX_BALANCE_DECIMAL);
+                        stmt.addBatch();
+                    }
+                    
+                    int[] updated = stmt.executeBatch();
+                    for (int i = 0; i < count; i++) {
+                        applied[i] = updated[i] > 0;
+                    }
+                }
+                
+                String journalSql = "INSERT INTO transactions (from_uuid, to_uuid, amount, type, description) VALUES (?, ?, ?, ?, ?)";
+                try (PreparedStatement stmt = connection.prepareStatement(journalSql)) {
+                    boolean any = false;
+                    for (int i = 0; i < count; i++) {
+                        if (!applied[i]) {
+                            continue;
+                        }
+                        boolean credit = changes[i].signum() > 0;
+                        stmt.setString(1, credit ? null : players[i].toString());
+                        stmt.setString(2, credit ? players[i].toString() : null);
+                        stmt.setBigDecimal(3, changes[i].abs());
+                        stmt.setString(4, type);
+                        stmt.setString(5, "Bulk balance change");
+                        stmt.addBatch();
+                        any = true;
+                    }
+                    if (any) {
+                        stmt.executeBatch();
+                    }
+                }
+                
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to apply " + count + " bulk balance changes", e);
+            for (int i = 0; i < count; i++) {
+                rejected.add(players[i]);
+            }
+            return rejected;
+        }
+        
+        for (int i = 0; i < count; i++) {
+            if (applied[i]) {
+                applyCachedDelta(players[i], changes[i].doubleValue());
+            } else {
+                rejected.add(players[i]);
+            }
+        }
+        return rejected;
     }
     
     /**
-     * Removes money from a player's balance.
+     * Applies a balance change on one connection: read the balance, then write the new
+     * one only if the row still holds what was read, retrying if another write got in
+     * between. Negative results fail when {@code requireFunds} is set and are clamped
+     * to zero otherwise. The default currency lives in the players table; others in
+     * currency_balances.
      */
-    public boolean removeMoney(Player player, double amount) {
-        return removeMoney(player.getUniqueId(), amount);
+    private BalanceChange changeBalance(UUID playerUUID, int currencyId, double delta, boolean requireFunds) {
+        boolean defaultCurrency = currencyId == CurrencyRegistry.DEFAULT_CURRENCY;
+        BigDecimal change = BigDecimal.valueOf(delta).setScale(2, RoundingMode.HALF_UP);
+        
+        try (Connection connection = databaseManager.getConnection()) {
+            for (int attempt = 0; attempt < BALANCE_UPDATE_ATTEMPTS; attempt++) {
+                BigDecimal current = readBalance(connection, playerUUID, currencyId);
+                if (current == null) {
+                    // Player doesn't exist yet, create them with the starting balance
+                    // (or a zero balance in an extra currency)
+                    if (!defaultCurrency) {
+                        createCurrencyBalance(connection, playerUUID, currencyId);
+                    } else if (!createPlayerAccount(playerUUID, null)) {
+                        return BalanceChange.failed(0.0);
+                    }
+                    continue;
+                }
+                
+                BigDecimal next = current.add(change);
+                if (next.signum() < 0) {
+                    if (requireFunds) {
+                        return BalanceChange.failed(current.doubleValue());
+                    }
+                    next = BigDecimal.ZERO;
+                }
+                if (next.compareTo(MAX_BALANCE_DECIMAL) > 0) {
+                    next = MAX_BALANCE_DECIMAL;
+                }
+                next = next.setScale(2, RoundingMode.HALF_UP);
+                
+                String sql = defaultCurrency
+                    ? "UPDATE players SET balance = ?, last_updated = CURRENT_TIMESTAMP WHERE uuid = ? AND balance = ?"
+                    : "UPDATE currency_balances SET balance = ? WHERE uuid = ? AND balance = ? AND currency_id = ?";
+                try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+                    stmt.setBigDecimal(1, next);
+                    stmt.setString(2, playerUUID.toString());
+                    stmt.setBigDecimal(3, current);
+                    if (!defaultCurrency) {
+                        stmt.setInt(4, currencyId);
+                    }
+                    if (stmt.executeUpdate() == 0) {
+                        continue;
+                    }
+                }
+                
+                double newBalance = next.doubleValue();
+                double applied = next.subtract(current).doubleValue();
+                if (defaultCurrency) {
+                    playerDataManager.updatePlayerBalance(playerUUID, newBalance);
+                    recordBalanceChange(playerUUID, applied);
+                }
+                return new BalanceChange(true, Math.abs(applied), newBalance);
+            }
+        } catch (SQLException e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to change balance for player: " + playerUUID, e);
+            return BalanceChange.failed(0.0);
+        }
+        
+        plugin.getLogger().warning("Gave up changing balance for " + playerUUID + " after " + BALANCE_UPDATE_ATTEMPTS + " concurrent updates");
+        return BalanceChange.failed(getBalance(playerUUID, currencyId));
     }
     
     /**
-     * Removes money from a player's balance by UUID.
+     * Reads a balance exactly as stored, or null if the player has no balance row.
      */
-    public boolean removeMoney(UUID playerUUID, double amount) {
+    private BigDecimal readBalance(Connection connection, UUID playerUUID, int currencyId) throws SQLException {
+        boolean defaultCurrency = currencyId == CurrencyRegistry.DEFAULT_CURRENCY;
+        String sql = defaultCurrency
+            ? "SELECT balance FROM players WHERE uuid = ?"
+            : "SELECT balance FROM currency_balances WHERE uuid = ? AND currency_id = ?";
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setString(1, playerUUID.toString());
+            if (!defaultCurrency) {
+                stmt.setInt(2, currencyId);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getBigDecimal("balance") : null;
+            }
+        }
+    }
+    
+    /**
+     * Creates a zero balance row in an extra currency, tolerating one created concurrently.
+     */
+    private void createCurrencyBalance(Connection connection, UUID playerUUID, int currencyId) throws SQLException {
+        String sql = databaseManager.isSQLite()
+            ? "INSERT OR IGNORE INTO currency_balances (uuid, currency_id, balance) VALUES (?, ?, 0.00)"
+            : "INSERT IGNORE INTO currency_balances (uuid, currency_id, balance) VALUES (?, ?, 0.00)";
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setString(1, playerUUID.toString());
+            stmt.setInt(2, currencyId);
+            stmt.executeUpdate();
+        }
+    }
+    
+    /**
+     * Debits a player's balance inside the caller's transaction.
+     * Fails without changing anything if the balance is insufficient.
+     * Call {@link #applyCachedDelta(UUID, double)} once the transaction commits.
+     */
+    public boolean debit(Connection connection, UUID playerUUID, double amount) throws SQLException {
         if (amount <= 0) {
             return false;
         }
         
-        double currentBalance = getBalance(playerUUID);
-        double newBalance = currentBalance - amount;
-        
-        if (newBalance < 0) {
-            newBalance = 0;
+        String sql = "UPDATE players SET balance = balance - ?, last_updated = CURRENT_TIMESTAMP WHERE uuid = ? AND balance >= ?";
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            BigDecimal value = BigDecimal.valueOf(amount).setScale(2, RoundingMode.HALF_UP);
+            stmt.setBigDecimal(1, value);
+            stmt.setString(2, playerUUID.toString());
+            stmt.setBigDecimal(3, value);
+            return stmt.executeUpdate() > 0;
+        }
+    }
+    
+    /**
+     * Credits a player's balance inside the caller's transaction.
+     * Call {@link #applyCachedDelta(UUID, double)} once the transaction commits.
+     */
+    public boolean credit(Connection connection, UUID playerUUID, double amount) throws SQLException {
+        if (amount <= 0) {
+            return false;
         }
         
-        return setBalance(playerUUID, newBalance);
+        String sql = "UPDATE players SET balance = balance + ?, last_updated = CURRENT_TIMESTAMP WHERE uuid = ?";
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setBigDecimal(1, BigDecimal.valueOf(amount).setScale(2, RoundingMode.HALF_UP));
+            stmt.setString(2, playerUUID.toString());
+            return stmt.executeUpdate() > 0;
+        }
+    }
+    
+    /**
+     * Applies a committed balance change to the cached player data, if cached,
+     * and reports it to the anomaly detector. The cache is only for display; it is
+     * never written back over the committed balance.
+     */
+    public void applyCachedDelta(UUID playerUUID, double delta) {
+        PlayerDataManager.PlayerData data = playerDataManager.getPlayerDataFromCache(playerUUID);
+        if (data != null) {
+            playerDataManager.updatePlayerBalance(playerUUID, data.getBalance() + delta);
+        }
+        recordBalanceChange(playerUUID, delta);
+    }
+    
+    /**
+     * Feeds a balance change into the security manager's anomaly detector.
+     */
+    private void recordBalanceChange(UUID playerUUID, double delta) {
+        SecurityManager securityManager = plugin.getSecurityManager();
+        if (securityManager != null) {
+            securityManager.recordBalanceChange(playerUUID, delta);
+        }
+    }
+    
+    /**
+     * Logs a ledger entry inside the caller's transaction.
+     */
+    public void logTransaction(Connection connection, UUID fromUUID, UUID toUUID, double amount, 
+                               String type, String description) throws SQLException {
+        transactionLogger.logTransaction(connection, fromUUID, toUUID, amount, type, description);
     }
     
     /**
@@ -247,7 +585,7 @@ public class EconomyManager {
             String insertSql = "INSERT INTO players (uuid, username, balance, bank_balance) VALUES (?, ?, ?, ?)";
             try (PreparedStatement insertStmt = connection.prepareStatement(insertSql)) {
                 insertStmt.setString(1, playerUUID.toString());
-                insertStmt.setString(2, username != null ? username : "Unknown");
+                insertStmt.setString(2, username != null ? username : UNKNOWN_USERNAME);
                 insertStmt.setBigDecimal(3, BigDecimal.valueOf(startingBalance).setScale(2, RoundingMode.HALF_UP));
                 insertStmt.setBigDecimal(4, BigDecimal.valueOf(0.0).setScale(2, RoundingMode.HALF_UP));
                 
@@ -255,6 +593,7 @@ public class EconomyManager {
                 if (rowsAffected > 0) {
                     // Create default settings for the player
                     createPlayerSettings(connection, playerUUID);
+                    plugin.getPlayerNameIndex().put(playerUUID, username);
                     return true;
                 }
             }
@@ -265,13 +604,13 @@ public class EconomyManager {
     }
     
     /**
-     * Creates default settings for a new player.
+     * Creates default settings for a new player. The language is left unset so the
+     * player follows the server's default language.
      */
     private void createPlayerSettings(Connection connection, UUID playerUUID) throws SQLException {
-        String sql = "INSERT INTO player_settings (uuid, language) VALUES (?, ?)";
+        String sql = "INSERT INTO player_settings (uuid) VALUES (?)";
         try (PreparedStatement stmt = connection.prepareStatement(sql)) {
             stmt.setString(1, playerUUID.toString());
-            stmt.setString(2, plugin.getConfigManager().getMainConfig().getString("default_language", "en_US"));
             stmt.executeUpdate();
         }
     }
@@ -349,6 +688,38 @@ public class EconomyManager {
         }
     }
     
+    /**
+     * The outcome of a deposit or withdrawal: whether it was applied, how much moved and
+     * the balance afterwards (or the unchanged balance if it failed).
+     */
+    public static class BalanceChange {
+        private final boolean success;
+        private final double amount;
+        private final double balance;
+        
+        public BalanceChange(boolean success, double amount, double balance) {
+            this.success = success;
+            this.amount = amount;
+            this.balance = balance;
+        }
+        
+        static BalanceChange failed(double balance) {
+            return new BalanceChange(false, 0.0, balance);
+        }
+        
+        public boolean isSuccess() {
+            return success;
+        }
+        
+        public double getAmount() {
+            return amount;
+        }
+        
+        public double getBalance() {
+            return balance;
+        }
+    }
+    
     /**
      * Private class for handling transaction logging.
      */
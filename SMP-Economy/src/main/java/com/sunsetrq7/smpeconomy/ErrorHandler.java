@@ -1,5 +1,6 @@
 package com.sunsetrq7.smpeconomy;
 
+import org.bukkit.entity.Player;
 import java.util.logging.Level;
 
 /**
@@ -96,11 +97,14 @@ public class ErrorHandler {
      * Notifies online admins about an issue.
      */
     private void notifyAdmins(String message) {
-        plugin.getServer().getOnlinePlayers().stream()
-            .filter(player -> player.hasPermission("smpeconomy.admin"))
-            .forEach(player -> {
-                player.sendMessage("§c[SMPEconomy] §4" + message);
-            });
+        // Errors can be reported before the notification manager exists
+        NotificationManager notificationManager = plugin.getNotificationManager();
+        if (notificationManager == null) {
+            return;
+        }
+        for (Player player : notificationManager.getPermissionHolders().getHolders("smpeconomy.admin")) {
+            player.sendMessage("§c[SMPEconomy] §4" + message);
+        }
     }
     
     /**
@@ -1,344 +1,719 @@
 package com.sunsetrq7.smpeconomy;
 
-import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
-import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * Manages all GUI systems for the plugin.
  */
 public class GUIManager {
     
+    // Where list screens show their loading placeholder
+    private static final int LOADING_SLOT = 22;
+    
     private final SMP_Economy plugin;
     
+    // Static layouts rendered once per language, indexed by screen
+    private final Map<String, MenuTemplate[]> templates;
+    
+    // Message generation the templates were rendered from
+    private int templateGeneration;
+    
+    // Players whose next chat message is an auction search query
+    private final Set<UUID> searchPrompts;
+    
+    /**
+     * The screens that have a pre-rendered layout.
+     */
+    private enum Screen {
+        MAIN, BANK, AUCTION_HOUSE, AUCTION_SEARCH, CREATE_AUCTION, MY_AUCTIONS, BID_HISTORY
+    }
+    
     public GUIManager(SMP_Economy plugin) {
         this.plugin = plugin;
+        this.templates = new HashMap<>();
+        this.templateGeneration = -1;
+        this.searchPrompts = ConcurrentHashMap.newKeySet();
+    }
+    
+    /**
+     * Renders the static layout of every screen for every loaded language. Called at
+     * startup and after a reload; layouts are also re-rendered on first use whenever
+     * the messages have changed since.
+     */
+    public void rebuildTemplates() {
+        templates.clear();
+        templateGeneration = plugin.getLanguageManager().getMessageGeneration();
+        for (String language : plugin.getLanguageManager().getAvailableLanguages()) {
+            templates.put(language, renderTemplates(language));
+        }
     }
     
     /**
-     * Opens the main economy GUI for a player.
+     * Opens the main economy GUI for a player. The menu opens straight away with
+     * loading placeholders; balances and top players are filled in as they arrive,
+     * and the balances then follow changes while the menu stays open.
      */
     public void openMainEconomyGUI(Player player) {
-        Inventory gui = Bukkit.createInventory(null, 54, 
-            ChatColor.translateAlternateColorCodes('&', 
-                plugin.getLanguageManager().getMessage(getPlayerLanguage(player), "gui.main.title")));
+        Menu gui = getTemplate(player, Screen.MAIN).instantiate();
+        gui.open(player);
         
-        // Add balance display item
-        ItemStack balanceItem = createItem(Material.GOLD_INGOT, 
-            plugin.getLanguageManager().getMessage(getPlayerLanguage(player), "gui.main.balance.name"),
-            plugin.getLanguageManager().getMessage(getPlayerLanguage(player), "gui.main.balance.lore",
-                "balance", plugin.getEconomyManager().format(plugin.getEconomyManager().getBalance(player))));
+        String language = getPlayerLanguage(player);
+        UUID playerUUID = player.getUniqueId();
+        plugin.getMenuRefresher().subscribe(gui, MenuRefresher.balanceTopic(playerUUID));
         
-        gui.setItem(10, balanceItem);
+        // Add balance display item
+        loadAsync(gui, language, new int[] { 10 }, () -> plugin.getEconomyManager().getBalance(playerUUID), balance -> {
+            showBalance(gui, 10, playerUUID, false, plugin.getEconomyManager().format(balance), 
+                formatted -> createItem(Material.GOLD_INGOT, 
+                    plugin.getLanguageManager().getMessage(language, MessageKey.GUI_MAIN_BALANCE_NAME),
+                    plugin.getLanguageManager().getMessage(language, MessageKey.GUI_MAIN_BALANCE_LORE,
+                        "balance", formatted)));
+        });
         
         // Add bank balance display item
-        ItemStack bankItem = createItem(Material.BOOK, 
-            plugin.getLanguageManager().getMessage(getPlayerLanguage(player), "gui.main.bank.name"),
-            plugin.getLanguageManager().getMessage(getPlayerLanguage(player), "gui.main.bank.lore",
-                "balance", plugin.getBankManager().format(plugin.getBankManager().getBankBalance(player))));
-        
-        gui.setItem(12, bankItem);
+        loadAsync(gui, language, new int[] { 12 }, () -> plugin.getBankManager().getBankBalance(playerUUID), bankBalance -> {
+            showBalance(gui, 12, playerUUID, true, plugin.getBankManager().format(bankBalance), 
+                formatted -> createItem(Material.BOOK, 
+                    plugin.getLanguageManager().getMessage(language, MessageKey.GUI_MAIN_BANK_NAME),
+                    plugin.getLanguageManager().getMessage(language, MessageKey.GUI_MAIN_BANK_LORE,
+                        "balance", formatted)));
+        });
         
         // Add top balances display
-        List<EconomyManager.PlayerBalance> topBalances = plugin.getEconomyManager().getTopBalances(5);
-        for (int i = 0; i < Math.min(topBalances.size(), 5); i++) {
-            EconomyManager.PlayerBalance pb = topBalances.get(i);
-            ItemStack topItem = createItem(Material.PLAYER_HEAD,
-                plugin.getLanguageManager().getMessage(getPlayerLanguage(player), "gui.main.top.name", 
-                    "position", String.valueOf(i + 1), 
-                    "player", pb.getUsername()),
-                plugin.getLanguageManager().getMessage(getPlayerLanguage(player), "gui.main.top.lore", 
-                    "balance", plugin.getEconomyManager().format(pb.getBalance())));
-            
-            // This would require setting the player head texture in a real implementation
-            gui.setItem(20 + i, topItem);
-        }
-        
-        // Add quick action buttons
-        ItemStack payButton = createItem(Material.EMERALD,
-            plugin.getLanguageManager().getMessage(getPlayerLanguage(player), "gui.main.pay.name"),
-            plugin.getLanguageManager().getMessage(getPlayerLanguage(player), "gui.main.pay.lore"));
-        
-        gui.setItem(30, payButton);
-        
-        ItemStack bankButton = createItem(Material.CHEST,
-            plugin.getLanguageManager().getMessage(getPlayerLanguage(player), "gui.main.bank.name"),
-            plugin.getLanguageManager().getMessage(getPlayerLanguage(player), "gui.main.bank.lore"));
-        
-        gui.setItem(32, bankButton);
+        loadAsync(gui, language, new int[] { 20, 21, 22, 23, 24 }, () -> plugin.getEconomyManager().getTopBalances(5), topBalances -> {
+            for (int i = 0; i < 5; i++) {
+                if (i >= topBalances.size()) {
+                    gui.setItem(20 + i, null);
+                    continue;
+                }
+                
+                EconomyManager.PlayerBalance pb = topBalances.get(i);
+                ItemStack topItem = createItem(Material.PLAYER_HEAD,
+                    plugin.getLanguageManager().getMessage(language, MessageKey.GUI_MAIN_TOP_NAME, 
+                        "position", String.valueOf(i + 1), 
+                        "player", pb.getUsername()),
+                    plugin.getLanguageManager().getMessage(language, MessageKey.GUI_MAIN_TOP_LORE, 
+                        "balance", plugin.getEconomyManager().format(pb.getBalance())));
+                
+                // This would require setting the player head texture in a real implementation
+                gui.setItem(20 + i, topItem);
+            }
+        });
+    }
+    
+    /**
+     * Opens the bank GUI for a player, filling in the balances once they are loaded
+     * and keeping them current while the menu stays open.
+     */
+    public void openBankGUI(Player player) {
+        Menu gui = getTemplate(player, Screen.BANK).instantiate();
+        gui.open(player);
         
-        ItemStack auctionButton = createItem(Material.ANVIL,
-            plugin.getLanguageManager().getMessage(getPlayerLanguage(player), "gui.main.auction.name"),
-            plugin.getLanguageManager().getMessage(getPlayerLanguage(player), "gui.main.auction.lore"));
+        String language = getPlayerLanguage(player);
+        UUID playerUUID = player.getUniqueId();
+        plugin.getMenuRefresher().subscribe(gui, MenuRefresher.balanceTopic(playerUUID));
         
-        gui.setItem(40, auctionButton);
+        // Display current balances
+        loadAsync(gui, language, new int[] { 10 }, () -> plugin.getEconomyManager().getBalance(playerUUID), balance -> {
+            showBalance(gui, 10, playerUUID, false, plugin.getEconomyManager().format(balance), 
+                formatted -> createItem(Material.GOLD_INGOT, 
+                    plugin.getLanguageManager().getMessage(language, MessageKey.GUI_BANK_PLAYER_BALANCE_NAME),
+                    plugin.getLanguageManager().getMessage(language, MessageKey.GUI_BANK_PLAYER_BALANCE_LORE,
+                        "balance", formatted)));
+        });
+        
+        loadAsync(gui, language, new int[] { 12 }, () -> plugin.getBankManager().getBankBalance(playerUUID), bankBalance -> {
+            showBalance(gui, 12, playerUUID, true, plugin.getBankManager().format(bankBalance), 
+                formatted -> createItem(Material.BOOK, 
+                    plugin.getLanguageManager().getMessage(language, MessageKey.GUI_BANK_BANK_BALANCE_NAME),
+                    plugin.getLanguageManager().getMessage(language, MessageKey.GUI_BANK_BANK_BALANCE_LORE,
+                        "balance", formatted)));
+        });
+    }
+    
+    /**
+     * Opens the auction house GUI for a player, filling in the auctions once they are
+     * loaded. Bids and time left stay current while the menu is open.
+     */
+    public void openAuctionHouseGUI(Player player) {
+        Menu gui = getTemplate(player, Screen.AUCTION_HOUSE).instantiate();
+        gui.open(player);
         
-        player.openInventory(gui);
+        // Display active auctions
+        loadAsync(gui, getPlayerLanguage(player), new int[] { LOADING_SLOT }, () -> plugin.getAuctionHouseManager().getActiveAuctions(), auctions -> {
+            gui.setItem(LOADING_SLOT, null);
+            showAuctions(gui, player, auctions.subList(0, Math.min(auctions.size(), 45)));
+        });
     }
     
     /**
-     * Opens the bank GUI for a player.
+     * Opens the auction search results GUI for a player.
      */
-    public void openBankGUI(Player player) {
-        Inventory gui = Bukkit.createInventory(null, 54, 
-            ChatColor.translateAlternateColorCodes('&', 
-                plugin.getLanguageManager().getMessage(getPlayerLanguage(player), "gui.bank.title")));
+    public void openAuctionSearchGUI(Player player, String query, AuctionSearchIndex.SortOrder order) {
+        Menu gui = getTemplate(player, Screen.AUCTION_SEARCH).instantiate(
+            plugin.getLanguageManager().getMessage(getPlayerLanguage(player), MessageKey.GUI_AUCTION_SEARCH_TITLE,
+                "query", query));
         
-        // Display current balances
-        ItemStack balanceItem = createItem(Material.GOLD_INGOT, 
-            plugin.getLanguageManager().getMessage(getPlayerLanguage(player), "gui.bank.player_balance.name"),
-            plugin.getLanguageManager().getMessage(getPlayerLanguage(player), "gui.bank.player_balance.lore",
-                "balance", plugin.getEconomyManager().format(plugin.getEconomyManager().getBalance(player))));
+        // Results come from the in-memory index, already ranked
+        showAuctions(gui, player, plugin.getAuctionHouseManager().searchAuctions(query, order, 45));
         
-        gui.setItem(10, balanceItem);
+        gui.open(player);
+    }
+    
+    /**
+     * Opens the search results for a query, or tells the player that nothing matched.
+     */
+    public void searchAuctions(Player player, String query, AuctionSearchIndex.SortOrder order) {
+        if (plugin.getAuctionHouseManager().searchAuctions(query, order, 1).isEmpty()) {
+            player.sendMessage(plugin.getLanguageManager().getMessage(getPlayerLanguage(player), 
+                MessageKey.AUCTION_SEARCH_NO_RESULTS, 
+                "query", query));
+        } else {
+            openAuctionSearchGUI(player, query, order);
+        }
+    }
+    
+    /**
+     * Closes the player's menu and asks them to type a search query in chat.
+     */
+    private void promptAuctionSearch(Player player) {
+        player.closeInventory();
+        searchPrompts.add(player.getUniqueId());
+        player.sendMessage(plugin.getLanguageManager().getMessage(getPlayerLanguage(player), MessageKey.AUCTION_SEARCH_PROMPT));
+    }
+    
+    /**
+     * Clears a player's pending search prompt, returning whether there was one. Safe to
+     * call from the async chat thread.
+     */
+    public boolean takeSearchPrompt(UUID playerUUID) {
+        return searchPrompts.remove(playerUUID);
+    }
+    
+    /**
+     * Opens the create auction GUI for a player.
+     */
+    public void openCreateAuctionGUI(Player player) {
+        getTemplate(player, Screen.CREATE_AUCTION).instantiate().open(player);
+    }
+    
+    /**
+     * Opens the player's auctions GUI, filling in the auctions once they are loaded.
+     * Auctions that are still running stay current while the menu is open.
+     */
+    public void openMyAuctionsGUI(Player player) {
+        Menu gui = getTemplate(player, Screen.MY_AUCTIONS).instantiate();
+        gui.open(player);
         
-        ItemStack bankBalanceItem = createItem(Material.BOOK, 
-            plugin.getLanguageManager().getMessage(getPlayerLanguage(player), "gui.bank.bank_balance.name"),
-            plugin.getLanguageManager().getMessage(getPlayerLanguage(player), "gui.bank.bank_balance.lore",
-                "balance", plugin.getBankManager().format(plugin.getBankManager().getBankBalance(player))));
+        String language = getPlayerLanguage(player);
+        UUID playerUUID = player.getUniqueId();
         
-        gui.setItem(12, bankBalanceItem);
+        // Get player's auctions
+        loadAsync(gui, language, new int[] { LOADING_SLOT }, () -> plugin.getAuctionHouseManager().getAuctionsBySeller(playerUUID), auctions -> {
+            gui.setItem(LOADING_SLOT, null);
+            
+            List<String> topics = new ArrayList<>();
+            topics.add(MenuRefresher.CLOCK_TOPIC);
+            for (int i = 0; i < Math.min(auctions.size(), 45); i++) {
+                AuctionHouseManager.Auction auction = auctions.get(i);
+                gui.setItem(i, createMyAuctionItem(language, auction));
+                
+                // Finished auctions don't change; running ones follow the active set
+                int auctionId = auction.getId();
+                if (plugin.getAuctionHouseManager().getActiveAuction(auctionId) == null) {
+                    continue;
+                }
+                Menu.LiveSlot live = new Menu.LiveSlot() {
+                    @Override
+                    public String key() {
+                        AuctionHouseManager.Auction active = plugin.getAuctionHouseManager().getActiveAuction(auctionId);
+                        return active != null ? auctionKey(active) : null;
+                    }
+                    
+                    @Override
+                    public ItemStack build() {
+                        return createMyAuctionItem(language, plugin.getAuctionHouseManager().getActiveAuction(auctionId));
+                    }
+                };
+                gui.bindLive(i, live, auctionKey(auction));
+                topics.add(MenuRefresher.auctionTopic(auctionId));
+            }
+            
+            plugin.getMenuRefresher().subscribe(gui, topics.toArray(new String[0]));
+            plugin.getMenuRefresher().requestRefresh(gui);
+        });
+    }
+    
+    /**
+     * Opens the bid history GUI for a player.
+     */
+    public void openBidHistoryGUI(Player player) {
+        getTemplate(player, Screen.BID_HISTORY).instantiate().open(player);
+    }
+    
+    /**
+     * Shows one of a player's balances in a slot and keeps it in step with the cached
+     * balance while the menu is open. The slot keeps its click action.
+     */
+    private void showBalance(Menu gui, int slot, UUID playerUUID, boolean bank, String formatted, 
+                             Function<String, ItemStack> itemBuilder) {
+        gui.updateItem(slot, itemBuilder.apply(formatted));
+        gui.bindLive(slot, new Menu.LiveSlot() {
+            private String current;
+            
+            @Override
+            public String key() {
+                // Viewers are online, so their cached data is up to date
+                PlayerDataManager.PlayerData data = plugin.getPlayerDataManager().getPlayerDataFromCache(playerUUID);
+                if (data == null) {
+                    return null;
+                }
+                current = bank ? plugin.getBankManager().format(data.getBankBalance()) 
+                               : plugin.getEconomyManager().format(data.getBalance());
+                return current;
+            }
+            
+            @Override
+            public ItemStack build() {
+                return itemBuilder.apply(current);
+            }
+        }, formatted);
         
-        // Deposit and withdraw buttons
-        ItemStack depositButton = createItem(Material.GREEN_STAINED_GLASS_PANE,
-            plugin.getLanguageManager().getMessage(getPlayerLanguage(player), "gui.bank.deposit.name"),
-            plugin.getLanguageManager().getMessage(getPlayerLanguage(player), "gui.bank.deposit.lore"));
+        // The balance may have changed while it was loading
+        plugin.getMenuRefresher().requestRefresh(gui);
+    }
+    
+    /**
+     * Fills the first slots with active auctions and keeps their bids and time left
+     * current. Auctions that end are cleared from the menu.
+     */
+    private void showAuctions(Menu gui, Player player, List<AuctionHouseManager.Auction> auctions) {
+        String[] topics = new String[auctions.size() + 1];
+        topics[0] = MenuRefresher.CLOCK_TOPIC;
         
-        gui.setItem(20, depositButton);
+        for (int i = 0; i < auctions.size(); i++) {
+            AuctionHouseManager.Auction auction = auctions.get(i);
+            gui.setItem(i, createAuctionItem(player, auction));
+            
+            int auctionId = auction.getId();
+            Menu.LiveSlot live = new Menu.LiveSlot() {
+                @Override
+                public String key() {
+                    AuctionHouseManager.Auction active = plugin.getAuctionHouseManager().getActiveAuction(auctionId);
+                    return active != null ? auctionKey(active) : "";
+                }
+                
+                @Override
+                public ItemStack build() {
+                    AuctionHouseManager.Auction active = plugin.getAuctionHouseManager().getActiveAuction(auctionId);
+                    return active != null ? createAuctionItem(player, active) : null;
+                }
+            };
+            gui.bindLive(i, live, auctionKey(auction));
+            topics[i + 1] = MenuRefresher.auctionTopic(auctionId);
+        }
         
-        ItemStack withdrawButton = createItem(Material.RED_STAINED_GLASS_PANE,
-            plugin.getLanguageManager().getMessage(getPlayerLanguage(player), "gui.bank.withdraw.name"),
-            plugin.getLanguageManager().getMessage(getPlayerLanguage(player), "gui.bank.withdraw.lore"));
+        plugin.getMenuRefresher().subscribe(gui, topics);
+        plugin.getMenuRefresher().requestRefresh(gui);
+    }
+    
+    /**
+     * Describes the changing parts of an auction's display item: its bid and time left.
+     */
+    private String auctionKey(AuctionHouseManager.Auction auction) {
+        return plugin.getEconomyManager().format(auction.getCurrentBid()) + '|' + formatTimeLeft(auction.getEndTime());
+    }
+    
+    /**
+     * Runs a loader off the main thread and hands its result to {@code fill} back on
+     * the main thread. Results for a menu that has been closed in the meantime are
+     * dropped. If the loader fails, the error is logged and the slots waiting for its
+     * data show an error item instead of loading forever.
+     */
+    private <T> void loadAsync(Menu gui, String language, int[] slots, Supplier<T> loader, Consumer<T> fill) {
+        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+            T result;
+            try {
+                result = loader.get();
+            } catch (RuntimeException e) {
+                plugin.getErrorHandler().logError("Failed to load menu data", e);
+                plugin.getServer().getScheduler().runTask(plugin, () -> {
+                    if (gui.isOpen()) {
+                        ItemStack error = createErrorItem(language);
+                        for (int slot : slots) {
+                            gui.updateItem(slot, error);
+                        }
+                    }
+                });
+                return;
+            }
+            
+            plugin.getServer().getScheduler().runTask(plugin, () -> {
+                if (gui.isOpen()) {
+                    fill.accept(result);
+                }
+            });
+        });
+    }
+    
+    /**
+     * Gets the layout of a screen in the player's language, re-rendering all layouts
+     * first if any message changed since they were built.
+     */
+    private MenuTemplate getTemplate(Player player, Screen screen) {
+        if (templateGeneration != plugin.getLanguageManager().getMessageGeneration()) {
+            rebuildTemplates();
+        }
+        return templates.computeIfAbsent(getPlayerLanguage(player), this::renderTemplates)[screen.ordinal()];
+    }
+    
+    /**
+     * Renders every screen's layout in one language.
+     */
+    private MenuTemplate[] renderTemplates(String language) {
+        MenuTemplate[] rendered = new MenuTemplate[Screen.values().length];
+        rendered[Screen.MAIN.ordinal()] = renderMainTemplate(language);
+        rendered[Screen.BANK.ordinal()] = renderBankTemplate(language);
+        rendered[Screen.AUCTION_HOUSE.ordinal()] = renderAuctionHouseTemplate(language);
+        rendered[Screen.AUCTION_SEARCH.ordinal()] = renderAuctionSearchTemplate(language);
+        rendered[Screen.CREATE_AUCTION.ordinal()] = renderCreateAuctionTemplate(language);
+        rendered[Screen.MY_AUCTIONS.ordinal()] = renderMyAuctionsTemplate(language);
+        rendered[Screen.BID_HISTORY.ordinal()] = renderBidHistoryTemplate(language);
+        return rendered;
+    }
+    
+    /**
+     * Renders the main economy layout. Balances and top players are filled in per player.
+     */
+    private MenuTemplate renderMainTemplate(String language) {
+        MenuTemplate gui = new MenuTemplate(54,
+            title(plugin.getLanguageManager().getMessage(language, MessageKey.GUI_MAIN_TITLE)));
+        
+        // Placeholders until the player's data has loaded; the bank balance item opens the bank too
+        ItemStack loading = createLoadingItem(language);
+        gui.setItem(10, loading);
+        gui.setItem(12, loading, (p, click) -> openBankGUI(p));
+        for (int i = 0; i < 5; i++) {
+            gui.setItem(20 + i, loading);
+        }
         
-        gui.setItem(22, withdrawButton);
+        // Add quick action buttons
+        ItemStack payButton = createItem(Material.EMERALD,
+            plugin.getLanguageManager().getMessage(language, MessageKey.GUI_MAIN_PAY_NAME),
+            plugin.getLanguageManager().getMessage(language, MessageKey.GUI_MAIN_PAY_LORE));
         
-        // Quick deposit/withdraw buttons
-        ItemStack quickDeposit100 = createItem(Material.PAPER,
-            plugin.getLanguageManager().getMessage(getPlayerLanguage(player), "gui.bank.quick_deposit.name", "amount", "100"),
-            plugin.getLanguageManager().getMessage(getPlayerLanguage(player), "gui.bank.quick_deposit.lore"));
+        gui.setItem(30, payButton, instruction(MessageKey.GUI_CLICK_PAY_INSTRUCTION));
         
-        gui.setItem(30, quickDeposit100);
+        ItemStack bankButton = createItem(Material.CHEST,
+            plugin.getLanguageManager().getMessage(language, MessageKey.GUI_MAIN_BANK_NAME),
+            plugin.getLanguageManager().getMessage(language, MessageKey.GUI_MAIN_BANK_LORE));
         
-        ItemStack quickDeposit1000 = createItem(Material.PAPER,
-            plugin.getLanguageManager().getMessage(getPlayerLanguage(player), "gui.bank.quick_deposit.name", "amount", "1000"),
-            plugin.getLanguageManager().getMessage(getPlayerLanguage(player), "gui.bank.quick_deposit.lore"));
+        gui.setItem(32, bankButton, (p, click) -> openBankGUI(p));
         
-        gui.setItem(31, quickDeposit1000);
+        ItemStack auctionButton = createItem(Material.ANVIL,
+            plugin.getLanguageManager().getMessage(language, MessageKey.GUI_MAIN_AUCTION_NAME),
+            plugin.getLanguageManager().getMessage(language, MessageKey.GUI_MAIN_AUCTION_LORE));
         
-        ItemStack quickDeposit10000 = createItem(Material.PAPER,
-            plugin.getLanguageManager().getMessage(getPlayerLanguage(player), "gui.bank.quick_deposit.name", "amount", "10000"),
-            plugin.getLanguageManager().getMessage(getPlayerLanguage(player), "gui.bank.quick_deposit.lore"));
+        gui.setItem(40, auctionButton, (p, click) -> openAuctionHouseGUI(p));
         
-        gui.setItem(32, quickDeposit10000);
+        return gui;
+    }
+    
+    /**
+     * Renders the bank layout. The two balances are filled in per player.
+     */
+    private MenuTemplate renderBankTemplate(String language) {
+        MenuTemplate gui = new MenuTemplate(54,
+            title(plugin.getLanguageManager().getMessage(language, MessageKey.GUI_BANK_TITLE)));
         
-        ItemStack quickWithdraw100 = createItem(Material.PAPER,
-            plugin.getLanguageManager().getMessage(getPlayerLanguage(player), "gui.bank.quick_withdraw.name", "amount", "100"),
-            plugin.getLanguageManager().getMessage(getPlayerLanguage(player), "gui.bank.quick_withdraw.lore"));
+        // Placeholders until the balances have loaded
+        ItemStack loading = createLoadingItem(language);
+        gui.setItem(10, loading);
+        gui.setItem(12, loading);
         
-        gui.setItem(40, quickWithdraw100);
+        // Deposit and withdraw buttons
+        ItemStack depositButton = createItem(Material.GREEN_STAINED_GLASS_PANE,
+            plugin.getLanguageManager().getMessage(language, MessageKey.GUI_BANK_DEPOSIT_NAME),
+            plugin.getLanguageManager().getMessage(language, MessageKey.GUI_BANK_DEPOSIT_LORE));
         
-        ItemStack quickWithdraw1000 = createItem(Material.PAPER,
-            plugin.getLanguageManager().getMessage(getPlayerLanguage(player), "gui.bank.quick_withdraw.name", "amount", "1000"),
-            plugin.getLanguageManager().getMessage(getPlayerLanguage(player), "gui.bank.quick_withdraw.lore"));
+        gui.setItem(20, depositButton, instruction(MessageKey.GUI_CLICK_DEPOSIT_INSTRUCTION));
         
-        gui.setItem(41, quickWithdraw1000);
+        ItemStack withdrawButton = createItem(Material.RED_STAINED_GLASS_PANE,
+            plugin.getLanguageManager().getMessage(language, MessageKey.GUI_BANK_WITHDRAW_NAME),
+            plugin.getLanguageManager().getMessage(language, MessageKey.GUI_BANK_WITHDRAW_LORE));
         
-        ItemStack quickWithdraw10000 = createItem(Material.PAPER,
-            plugin.getLanguageManager().getMessage(getPlayerLanguage(player), "gui.bank.quick_withdraw.name", "amount", "10000"),
-            plugin.getLanguageManager().getMessage(getPlayerLanguage(player), "gui.bank.quick_withdraw.lore"));
+        gui.setItem(22, withdrawButton, instruction(MessageKey.GUI_CLICK_WITHDRAW_INSTRUCTION));
         
-        gui.setItem(42, quickWithdraw10000);
+        // Quick deposit/withdraw buttons
+        String[] quickAmounts = { "100", "1000", "10000" };
+        for (int i = 0; i < quickAmounts.length; i++) {
+            ItemStack quickDeposit = createItem(Material.PAPER,
+                plugin.getLanguageManager().getMessage(language, MessageKey.GUI_BANK_QUICK_DEPOSIT_NAME, "amount", quickAmounts[i]),
+                plugin.getLanguageManager().getMessage(language, MessageKey.GUI_BANK_QUICK_DEPOSIT_LORE));
+            
+            gui.setItem(30 + i, quickDeposit, instruction(MessageKey.GUI_CLICK_DEPOSIT_INSTRUCTION));
+            
+            ItemStack quickWithdraw = createItem(Material.PAPER,
+                plugin.getLanguageManager().getMessage(language, MessageKey.GUI_BANK_QUICK_WITHDRAW_NAME, "amount", quickAmounts[i]),
+                plugin.getLanguageManager().getMessage(language, MessageKey.GUI_BANK_QUICK_WITHDRAW_LORE));
+            
+            gui.setItem(40 + i, quickWithdraw, instruction(MessageKey.GUI_CLICK_WITHDRAW_INSTRUCTION));
+        }
         
-        player.openInventory(gui);
+        return gui;
     }
     
     /**
-     * Opens the auction house GUI for a player.
+     * Renders the auction house layout. Auctions fill the first 45 slots per player.
      */
-    public void openAuctionHouseGUI(Player player) {
-        Inventory gui = Bukkit.createInventory(null, 54, 
-            ChatColor.translateAlternateColorCodes('&', 
-                plugin.getLanguageManager().getMessage(getPlayerLanguage(player), "gui.auction.title")));
+    private MenuTemplate renderAuctionHouseTemplate(String language) {
+        MenuTemplate gui = new MenuTemplate(54,
+            title(plugin.getLanguageManager().getMessage(language, MessageKey.GUI_AUCTION_TITLE)));
         
-        // Display active auctions
-        List<AuctionHouseManager.Auction> auctions = plugin.getAuctionHouseManager().getActiveAuctions();
-        
-        for (int i = 0; i < Math.min(auctions.size(), 45); i++) {
-            AuctionHouseManager.Auction auction = auctions.get(i);
-            
-            ItemStack auctionItem = createItem(Material.valueOf(auction.getItemName()),
-                plugin.getLanguageManager().getMessage(getPlayerLanguage(player), "gui.auction.item.name",
-                    "item", auction.getItemName(), 
-                    "current_bid", plugin.getEconomyManager().format(auction.getCurrentBid())),
-                plugin.getLanguageManager().getMessage(getPlayerLanguage(player), "gui.auction.item.lore",
-                    "starting_bid", plugin.getEconomyManager().format(auction.getStartingBid()),
-                    "current_bid", plugin.getEconomyManager().format(auction.getCurrentBid()),
-                    "seller", Bukkit.getOfflinePlayer(auction.getSellerUuid()).getName(),
-                    "time_left", formatTimeLeft(auction.getEndTime())));
-            
-            gui.setItem(i, auctionItem);
-        }
+        // Placeholder until the auctions have loaded
+        gui.setItem(LOADING_SLOT, createLoadingItem(language));
         
         // Add category filter buttons
         ItemStack allCategory = createItem(Material.COMPASS,
-            plugin.getLanguageManager().getMessage(getPlayerLanguage(player), "gui.auction.category.all.name"),
-            plugin.getLanguageManager().getMessage(getPlayerLanguage(player), "gui.auction.category.all.lore"));
+            plugin.getLanguageManager().getMessage(language, MessageKey.GUI_AUCTION_CATEGORY_ALL_NAME),
+            plugin.getLanguageManager().getMessage(language, MessageKey.GUI_AUCTION_CATEGORY_ALL_LORE));
         
         gui.setItem(45, allCategory);
         
         ItemStack toolsCategory = createItem(Material.IRON_PICKAXE,
-            plugin.getLanguageManager().getMessage(getPlayerLanguage(player), "gui.auction.category.tools.name"),
-            plugin.getLanguageManager().getMessage(getPlayerLanguage(player), "gui.auction.category.tools.lore"));
+            plugin.getLanguageManager().getMessage(language, MessageKey.GUI_AUCTION_CATEGORY_TOOLS_NAME),
+            plugin.getLanguageManager().getMessage(language, MessageKey.GUI_AUCTION_CATEGORY_TOOLS_LORE));
         
         gui.setItem(46, toolsCategory);
         
         ItemStack armorCategory = createItem(Material.IRON_CHESTPLATE,
-            plugin.getLanguageManager().getMessage(getPlayerLanguage(player), "gui.auction.category.armor.name"),
-            plugin.getLanguageManager().getMessage(getPlayerLanguage(player), "gui.auction.category.armor.lore"));
+            plugin.getLanguageManager().getMessage(language, MessageKey.GUI_AUCTION_CATEGORY_ARMOR_NAME),
+            plugin.getLanguageManager().getMessage(language, MessageKey.GUI_AUCTION_CATEGORY_ARMOR_LORE));
         
         gui.setItem(47, armorCategory);
         
         ItemStack weaponsCategory = createItem(Material.IRON_SWORD,
-            plugin.getLanguageManager().getMessage(getPlayerLanguage(player), "gui.auction.category.weapons.name"),
-            plugin.getLanguageManager().getMessage(getPlayerLanguage(player), "gui.auction.category.weapons.lore"));
+            plugin.getLanguageManager().getMessage(language, MessageKey.GUI_AUCTION_CATEGORY_WEAPONS_NAME),
+            plugin.getLanguageManager().getMessage(language, MessageKey.GUI_AUCTION_CATEGORY_WEAPONS_LORE));
         
         gui.setItem(48, weaponsCategory);
         
         ItemStack otherCategory = createItem(Material.CHEST,
-            plugin.getLanguageManager().getMessage(getPlayerLanguage(player), "gui.auction.category.other.name"),
-            plugin.getLanguageManager().getMessage(getPlayerLanguage(player), "gui.auction.category.other.lore"));
+            plugin.getLanguageManager().getMessage(language, MessageKey.GUI_AUCTION_CATEGORY_OTHER_NAME),
+            plugin.getLanguageManager().getMessage(language, MessageKey.GUI_AUCTION_CATEGORY_OTHER_LORE));
         
         gui.setItem(49, otherCategory);
         
         // Search button
         ItemStack searchButton = createItem(Material.BOOK,
-            plugin.getLanguageManager().getMessage(getPlayerLanguage(player), "gui.auction.search.name"),
-            plugin.getLanguageManager().getMessage(getPlayerLanguage(player), "gui.auction.search.lore"));
+            plugin.getLanguageManager().getMessage(language, MessageKey.GUI_AUCTION_SEARCH_NAME),
+            plugin.getLanguageManager().getMessage(language, MessageKey.GUI_AUCTION_SEARCH_LORE));
         
-        gui.setItem(50, searchButton);
+        gui.setItem(50, searchButton, (p, click) -> promptAuctionSearch(p));
         
         // Create auction button
         ItemStack createButton = createItem(Material.ANVIL,
-            plugin.getLanguageManager().getMessage(getPlayerLanguage(player), "gui.auction.create.name"),
-            plugin.getLanguageManager().getMessage(getPlayerLanguage(player), "gui.auction.create.lore"));
+            plugin.getLanguageManager().getMessage(language, MessageKey.GUI_AUCTION_CREATE_NAME),
+            plugin.getLanguageManager().getMessage(language, MessageKey.GUI_AUCTION_CREATE_LORE));
         
-        gui.setItem(53, createButton);
+        gui.setItem(53, createButton, (p, click) -> openCreateAuctionGUI(p));
         
-        player.openInventory(gui);
+        return gui;
     }
     
     /**
-     * Opens the create auction GUI for a player.
+     * Renders the search results layout. The title (which shows the query) and the
+     * results are filled in per search.
      */
-    public void openCreateAuctionGUI(Player player) {
-        Inventory gui = Bukkit.createInventory(null, 54, 
-            ChatColor.translateAlternateColorCodes('&', 
-                plugin.getLanguageManager().getMessage(getPlayerLanguage(player), "gui.auction.create.title")));
+    private MenuTemplate renderAuctionSearchTemplate(String language) {
+        MenuTemplate gui = new MenuTemplate(54,
+            title(plugin.getLanguageManager().getMessage(language, MessageKey.GUI_AUCTION_TITLE)));
+        
+        // Back button
+        ItemStack backButton = createItem(Material.ARROW,
+            plugin.getLanguageManager().getMessage(language, MessageKey.GUI_AUCTION_SEARCH_BACK_NAME),
+            plugin.getLanguageManager().getMessage(language, MessageKey.GUI_AUCTION_SEARCH_BACK_LORE));
+        
+        gui.setItem(49, backButton, (p, click) -> openAuctionHouseGUI(p));
+        
+        return gui;
+    }
+    
+    /**
+     * Renders the create auction layout, which is the same for every player.
+     */
+    private MenuTemplate renderCreateAuctionTemplate(String language) {
+        MenuTemplate gui = new MenuTemplate(54,
+            title(plugin.getLanguageManager().getMessage(language, MessageKey.GUI_AUCTION_CREATE_TITLE)));
         
         // Instructions
         ItemStack instructions = createItem(Material.BOOK,
-            plugin.getLanguageManager().getMessage(getPlayerLanguage(player), "gui.auction.create.instructions.name"),
-            plugin.getLanguageManager().getMessage(getPlayerLanguage(player), "gui.auction.create.instructions.lore"));
+            plugin.getLanguageManager().getMessage(language, MessageKey.GUI_AUCTION_CREATE_INSTRUCTIONS_NAME),
+            plugin.getLanguageManager().getMessage(language, MessageKey.GUI_AUCTION_CREATE_INSTRUCTIONS_LORE));
         
         gui.setItem(4, instructions);
         
         // Item slot
         ItemStack itemSlot = createItem(Material.CHEST,
-            plugin.getLanguageManager().getMessage(getPlayerLanguage(player), "gui.auction.create.item_slot.name"),
-            plugin.getLanguageManager().getMessage(getPlayerLanguage(player), "gui.auction.create.item_slot.lore"));
+            plugin.getLanguageManager().getMessage(language, MessageKey.GUI_AUCTION_CREATE_ITEM_SLOT_NAME),
+            plugin.getLanguageManager().getMessage(language, MessageKey.GUI_AUCTION_CREATE_ITEM_SLOT_LORE));
         
         gui.setItem(20, itemSlot);
         
         // Starting bid input
         ItemStack bidSlot = createItem(Material.GOLD_INGOT,
-            plugin.getLanguageManager().getMessage(getPlayerLanguage(player), "gui.auction.create.bid_slot.name"),
-            plugin.getLanguageManager().getMessage(getPlayerLanguage(player), "gui.auction.create.bid_slot.lore"));
+            plugin.getLanguageManager().getMessage(language, MessageKey.GUI_AUCTION_CREATE_BID_SLOT_NAME),
+            plugin.getLanguageManager().getMessage(language, MessageKey.GUI_AUCTION_CREATE_BID_SLOT_LORE));
         
         gui.setItem(22, bidSlot);
         
         // Duration selection
         ItemStack durationSlot = createItem(Material.CLOCK,
-            plugin.getLanguageManager().getMessage(getPlayerLanguage(player), "gui.auction.create.duration_slot.name"),
-            plugin.getLanguageManager().getMessage(getPlayerLanguage(player), "gui.auction.create.duration_slot.lore"));
+            plugin.getLanguageManager().getMessage(language, MessageKey.GUI_AUCTION_CREATE_DURATION_SLOT_NAME),
+            plugin.getLanguageManager().getMessage(language, MessageKey.GUI_AUCTION_CREATE_DURATION_SLOT_LORE));
         
         gui.setItem(24, durationSlot);
         
         // Confirm button
         ItemStack confirmButton = createItem(Material.LIME_STAINED_GLASS_PANE,
-            plugin.getLanguageManager().getMessage(getPlayerLanguage(player), "gui.auction.create.confirm.name"),
-            plugin.getLanguageManager().getMessage(getPlayerLanguage(player), "gui.auction.create.confirm.lore"));
+            plugin.getLanguageManager().getMessage(language, MessageKey.GUI_AUCTION_CREATE_CONFIRM_NAME),
+            plugin.getLanguageManager().getMessage(language, MessageKey.GUI_AUCTION_CREATE_CONFIRM_LORE));
         
         gui.setItem(49, confirmButton);
         
         // Cancel button
         ItemStack cancelButton = createItem(Material.RED_STAINED_GLASS_PANE,
-            plugin.getLanguageManager().getMessage(getPlayerLanguage(player), "gui.auction.create.cancel.name"),
-            plugin.getLanguageManager().getMessage(getPlayerLanguage(player), "gui.auction.create.cancel.lore"));
+            plugin.getLanguageManager().getMessage(language, MessageKey.GUI_AUCTION_CREATE_CANCEL_NAME),
+            plugin.getLanguageManager().getMessage(language, MessageKey.GUI_AUCTION_CREATE_CANCEL_LORE));
         
-        gui.setItem(51, cancelButton);
+        gui.setItem(51, cancelButton, (p, click) -> openAuctionHouseGUI(p));
         
-        player.openInventory(gui);
+        return gui;
     }
     
     /**
-     * Opens the player's auctions GUI.
+     * Renders the player's auctions layout, which is empty until the auctions have loaded.
      */
-    public void openMyAuctionsGUI(Player player) {
-        Inventory gui = Bukkit.createInventory(null, 54, 
-            ChatColor.translateAlternateColorCodes('&', 
-                plugin.getLanguageManager().getMessage(getPlayerLanguage(player), "gui.auction.my.title")));
+    private MenuTemplate renderMyAuctionsTemplate(String language) {
+        MenuTemplate gui = new MenuTemplate(54,
+            title(plugin.getLanguageManager().getMessage(language, MessageKey.GUI_AUCTION_MY_TITLE)));
         
-        // Get player's auctions
-        List<AuctionHouseManager.Auction> auctions = plugin.getAuctionHouseManager().getAuctionsBySeller(player.getUniqueId());
-        
-        for (int i = 0; i < Math.min(auctions.size(), 45); i++) {
-            AuctionHouseManager.Auction auction = auctions.get(i);
-            
-            ItemStack auctionItem = createItem(Material.valueOf(auction.getItemName()),
-                plugin.getLanguageManager().getMessage(getPlayerLanguage(player), "gui.auction.my.item.name",
-                    "item", auction.getItemName(), 
-                    "status", auction.getStatus()),
-                plugin.getLanguageManager().getMessage(getPlayerLanguage(player), "gui.auction.my.item.lore",
-                    "starting_bid", plugin.getEconomyManager().format(auction.getStartingBid()),
-                    "current_bid", plugin.getEconomyManager().format(auction.getCurrentBid()),
-                    "time_left", formatTimeLeft(auction.getEndTime()),
-                    "status", auction.getStatus()));
-            
-            gui.setItem(i, auctionItem);
-        }
+        gui.setItem(LOADING_SLOT, createLoadingItem(language));
         
-        player.openInventory(gui);
+        return gui;
     }
     
     /**
-     * Opens the bid history GUI for a player.
+     * Renders the bid history layout.
      */
-    public void openBidHistoryGUI(Player player) {
-        Inventory gui = Bukkit.createInventory(null, 54, 
-            ChatColor.translateAlternateColorCodes('&', 
-                plugin.getLanguageManager().getMessage(getPlayerLanguage(player), "gui.auction.bids.title")));
+    private MenuTemplate renderBidHistoryTemplate(String language) {
+        MenuTemplate gui = new MenuTemplate(54,
+            title(plugin.getLanguageManager().getMessage(language, MessageKey.GUI_AUCTION_BIDS_TITLE)));
         
         // In a real implementation, this would show the player's bid history
         ItemStack historyItem = createItem(Material.BOOK,
-            plugin.getLanguageManager().getMessage(getPlayerLanguage(player), "gui.auction.bids.history.name"),
-            plugin.getLanguageManager().getMessage(getPlayerLanguage(player), "gui.auction.bids.history.lore"));
+            plugin.getLanguageManager().getMessage(language, MessageKey.GUI_AUCTION_BIDS_HISTORY_NAME),
+            plugin.getLanguageManager().getMessage(language, MessageKey.GUI_AUCTION_BIDS_HISTORY_LORE));
         
         gui.setItem(4, historyItem);
         
-        player.openInventory(gui);
+        return gui;
+    }
+    
+    /**
+     * Creates an action that closes the menu and tells the player which command to use.
+     */
+    private Menu.ClickAction instruction(MessageKey key) {
+        return (p, click) -> {
+            p.closeInventory();
+            p.sendMessage(plugin.getLanguageManager().getMessage(getPlayerLanguage(p), key));
+        };
+    }
+    
+    /**
+     * Creates the display item for one of the player's own auctions.
+     */
+    private ItemStack createMyAuctionItem(String language, AuctionHouseManager.Auction auction) {
+        return createItem(plugin.getAuctionHouseManager().getAuctionItem(auction),
+            plugin.getLanguageManager().getMessage(language, MessageKey.GUI_AUCTION_MY_ITEM_NAME,
+                "item", auction.getItemName(), 
+                "status", auction.getStatus()),
+            plugin.getLanguageManager().getMessage(language, MessageKey.GUI_AUCTION_MY_ITEM_LORE,
+                "starting_bid", plugin.getEconomyManager().format(auction.getStartingBid()),
+                "current_bid", plugin.getEconomyManager().format(auction.getCurrentBid()),
+                "time_left", formatTimeLeft(auction.getEndTime()),
+                "status", auction.getStatus()));
+    }
+    
+    /**
+     * Creates the display item for an active auction.
+     */
+    private ItemStack createAuctionItem(Player player, AuctionHouseManager.Auction auction) {
+        MarketStatsManager.MarketStats stats = plugin.getMarketStatsManager().getStats(auction.getItemName());
+        String averagePrice = stats != null ? plugin.getEconomyManager().format(stats.getAveragePrice()) : "N/A";
+        
+        return createItem(plugin.getAuctionHouseManager().getAuctionItem(auction),
+            plugin.getLanguageManager().getMessage(getPlayerLanguage(player), MessageKey.GUI_AUCTION_ITEM_NAME,
+                "item", auction.getItemName(),
+                "current_bid", plugin.getEconomyManager().format(auction.getCurrentBid())),
+            plugin.getLanguageManager().getMessage(getPlayerLanguage(player), MessageKey.GUI_AUCTION_ITEM_LORE,
+                "starting_bid", plugin.getEconomyManager().format(auction.getStartingBid()),
+                "current_bid", plugin.getEconomyManager().format(auction.getCurrentBid()),
+                "seller", plugin.getPlayerNameIndex().getDisplayName(auction.getSellerUuid()),
+                "time_left", formatTimeLeft(auction.getEndTime()),
+                "avg_price", averagePrice));
+    }
+    
+    /**
+     * Creates the placeholder shown in slots whose data is still loading.
+     */
+    private ItemStack createLoadingItem(String language) {
+        return createItem(Material.GRAY_STAINED_GLASS_PANE,
+            plugin.getLanguageManager().getMessage(language, MessageKey.GUI_LOADING_NAME),
+            plugin.getLanguageManager().getMessage(language, MessageKey.GUI_LOADING_LORE));
+    }
+    
+    /**
+     * Creates the item shown in slots whose data failed to load.
+     */
+    private ItemStack createErrorItem(String language) {
+        return createItem(Material.BARRIER,
+            plugin.getLanguageManager().getMessage(language, MessageKey.GUI_ERROR_NAME),
+            plugin.getLanguageManager().getMessage(language, MessageKey.GUI_ERROR_LORE));
+    }
+    
+    /**
+     * Translates color codes in a menu title.
+     */
+    private String title(String message) {
+        return ChatColor.translateAlternateColorCodes('&', message);
     }
     
     /**
      * Creates an item stack with name and lore.
      */
     private ItemStack createItem(Material material, String name, String lore) {
-        ItemStack item = new ItemStack(material);
+        return createItem(new ItemStack(material), name, lore);
+    }
+    
+    /**
+     * Applies a name and lore to an existing item stack.
+     */
+    private ItemStack createItem(ItemStack item, String name, String lore) {
         ItemMeta meta = item.getItemMeta();
         
         if (meta != null) {
@@ -385,7 +760,6 @@ public class GUIManager {
      * Gets the player's language.
      */
     private String getPlayerLanguage(Player player) {
-        // In a real implementation, this would get the player's language from the database
-        return plugin.getLanguageManager().getDefaultLanguage();
+        return plugin.getLocaleResolver().getLanguage(player);
     }
-}
\ No newline at end of file
+}
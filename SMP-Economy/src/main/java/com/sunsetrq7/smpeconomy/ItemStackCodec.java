@@ -0,0 +1,362 @@
+package com.sunsetrq7.smpeconomy;
+
+import org.bukkit.Material;
+import org.bukkit.configuration.serialization.ConfigurationSerializable;
+import org.bukkit.configuration.serialization.ConfigurationSerialization;
+import org.bukkit.inventory.ItemStack;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compact, versioned binary codec for ItemStacks stored in auctions.item_data.
+ *
+ * The item is flattened through Bukkit's ConfigurationSerializable tree, so every
+ * piece of meta Bukkit can round-trip (enchantments, names, lore, attributes,
+ * books, banners, ...) is preserved. The tree is written as tagged binary values
+ * and deflated when it grows past {@link #COMPRESSION_THRESHOLD} bytes.
+ *
+ * Layout: [version:1][flags:1][rawLength:varint if compressed][payload], Base64 encoded.
+ */
+public final class ItemStackCodec {
+
+    // Format version written as the first byte of every encoded item
+    public static final int FORMAT_VERSION = 1;
+
+    // Payloads larger than this are deflated
+    private static final int COMPRESSION_THRESHOLD = 256;
+
+    // Largest payload accepted when decoding; real items are far smaller
+    private static final int MAX_PAYLOAD_LENGTH = 2 * 1024 * 1024;
+
+    private static final int FLAG_COMPRESSED = 0x01;
+
+    // Value tags
+    private static final int TAG_NULL = 0;
+    private static final int TAG_STRING = 1;
+    private static final int TAG_INT = 2;
+    private static final int TAG_LONG = 3;
+    private static final int TAG_DOUBLE = 4;
+    private static final int TAG_FLOAT = 5;
+    private static final int TAG_SHORT = 6;
+    private static final int TAG_BYTE = 7;
+    private static final int TAG_TRUE = 8;
+    private static final int TAG_FALSE = 9;
+    private static final int TAG_LIST = 10;
+    private static final int TAG_MAP = 11;
+    private static final int TAG_SERIALIZABLE = 12;
+
+    private ItemStackCodec() {
+    }
+
+    /**
+     * Encodes an ItemStack into its Base64 binary form.
+     */
+    public static String encode(ItemStack item) {
+        try {
+            ByteArrayOutputStream raw = new ByteArrayOutputStream(128);
+            DataOutputStream out = new DataOutputStream(raw);
+            writeMap(out, item.serialize());
+            out.flush();
+
+            byte[] payload = raw.toByteArray();
+            ByteArrayOutputStream encoded = new ByteArrayOutputStream(payload.length + 8);
+            DataOutputStream header = new DataOutputStream(encoded);
+            header.writeByte(FORMAT_VERSION);
+
+            if (payload.length > COMPRESSION_THRESHOLD) {
+                header.writeByte(FLAG_COMPRESSED);
+                writeVarInt(header, payload.length);
+                header.write(deflate(payload));
+            } else {
+                header.writeByte(0);
+                header.write(payload);
+            }
+
+            header.flush();
+            return Base64.getEncoder().encodeToString(encoded.toByteArray());
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to encode item " + item.getType(), e);
+        }
+    }
+
+    /**
+     * Decodes an ItemStack previously produced by {@link #encode(ItemStack)}.
+     * Legacy "MATERIAL:amount" values are still understood. Every length read from the
+     * data is checked against the bytes that remain, so corrupt data fails with an
+     * IllegalArgumentException instead of a huge allocation.
+     */
+    public static ItemStack decode(String data) {
+        if (data == null || data.isEmpty()) {
+            return null;
+        }
+
+        if (isLegacyFormat(data)) {
+            return decodeLegacy(data);
+        }
+
+        try {
+            byte[] bytes = Base64.getDecoder().decode(data);
+            DataInputStream header = new DataInputStream(new ByteArrayInputStream(bytes));
+            int version = header.readUnsignedByte();
+            if (version != FORMAT_VERSION) {
+                throw new IllegalArgumentException("Unsupported item format version: " + version);
+            }
+
+            int flags = header.readUnsignedByte();
+            byte[] payload;
+            if ((flags & FLAG_COMPRESSED) != 0) {
+                int rawLength = readVarInt(header);
+                if (rawLength < 0 || rawLength > MAX_PAYLOAD_LENGTH) {
+                    throw new IOException("Invalid item payload length: " + rawLength);
+                }
+                payload = inflate(header.readAllBytes(), rawLength);
+            } else {
+                payload = header.readAllBytes();
+            }
+
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+            Map<String, Object> map = readMap(in);
+            return ItemStack.deserialize(map);
+        } catch (IOException | DataFormatException e) {
+            throw new IllegalArgumentException("Corrupt item data", e);
+        } catch (IllegalArgumentException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            // Well-formed data whose values don't fit what Bukkit expects
+            throw new IllegalArgumentException("Invalid item data", e);
+        }
+    }
+
+    /**
+     * Checks whether a stored value uses the old "MATERIAL:amount" format.
+     */
+    private static boolean isLegacyFormat(String data) {
+        int separator = data.indexOf(':');
+        if (separator <= 0 || separator == data.length() - 1) {
+            return false;
+        }
+
+        for (int i = separator + 1; i < data.length(); i++) {
+            if (!Character.isDigit(data.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Decodes the old "MATERIAL:amount" format.
+     */
+    private static ItemStack decodeLegacy(String data) {
+        int separator = data.indexOf(':');
+        Material material = Material.matchMaterial(data.substring(0, separator));
+        if (material == null) {
+            return null;
+        }
+        return new ItemStack(material, Integer.parseInt(data.substring(separator + 1)));
+    }
+
+    private static void writeMap(DataOutputStream out, Map<String, Object> map) throws IOException {
+        writeVarInt(out, map.size());
+        for (Map.Entry<String, Object> entry : map.entrySet()) {
+            writeString(out, entry.getKey());
+            writeValue(out, entry.getValue());
+        }
+    }
+
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(TAG_NULL);
+        } else if (value instanceof String s) {
+            out.writeByte(TAG_STRING);
+            writeString(out, s);
+        } else if (value instanceof Integer i) {
+            out.writeByte(TAG_INT);
+            writeVarInt(out, (i << 1) ^ (i >> 31));
+        } else if (value instanceof Long l) {
+            out.writeByte(TAG_LONG);
+            out.writeLong(l);
+        } else if (value instanceof Double d) {
+            out.writeByte(TAG_DOUBLE);
+            out.writeDouble(d);
+        } else if (value instanceof Float f) {
+            out.writeByte(TAG_FLOAT);
+            out.writeFloat(f);
+        } else if (value instanceof Short s) {
+            out.writeByte(TAG_SHORT);
+            out.writeShort(s);
+        } else if (value instanceof Byte b) {
+            out.writeByte(TAG_BYTE);
+            out.writeByte(b);
+        } else if (value instanceof Boolean b) {
+            out.writeByte(b ? TAG_TRUE : TAG_FALSE);
+        } else if (value instanceof ConfigurationSerializable serializable) {
+            out.writeByte(TAG_SERIALIZABLE);
+            writeString(out, ConfigurationSerialization.getAlias(serializable.getClass()));
+            writeMap(out, serializable.serialize());
+        } else if (value instanceof Map<?, ?> map) {
+            out.writeByte(TAG_MAP);
+            writeVarInt(out, map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                writeString(out, String.valueOf(entry.getKey()));
+                writeValue(out, entry.getValue());
+            }
+        } else if (value instanceof List<?> list) {
+            out.writeByte(TAG_LIST);
+            writeVarInt(out, list.size());
+            for (Object element : list) {
+                writeValue(out, element);
+            }
+        } else {
+            throw new IOException("Unsupported item value type: " + value.getClass().getName());
+        }
+    }
+
+    private static Map<String, Object> readMap(DataInputStream in) throws IOException {
+        // Each entry takes at least a key length and a value tag
+        int size = readLength(in, 2);
+        Map<String, Object> map = new LinkedHashMap<>(Math.max(4, size * 2));
+        for (int i = 0; i < size; i++) {
+            String key = readString(in);
+            map.put(key, readValue(in));
+        }
+        return map;
+    }
+
+    private static Object readValue(DataInputStream in) throws IOException {
+        int tag = in.readUnsignedByte();
+        switch (tag) {
+            case TAG_NULL:
+                return null;
+            case TAG_STRING:
+                return readString(in);
+            case TAG_INT:
+                int zigzag = readVarInt(in);
+                return (zigzag >>> 1) ^ -(zigzag & 1);
+            case TAG_LONG:
+                return in.readLong();
+            case TAG_DOUBLE:
+                return in.readDouble();
+            case TAG_FLOAT:
+                return in.readFloat();
+            case TAG_SHORT:
+                return in.readShort();
+            case TAG_BYTE:
+                return in.readByte();
+            case TAG_TRUE:
+                return Boolean.TRUE;
+            case TAG_FALSE:
+                return Boolean.FALSE;
+            case TAG_LIST:
+                int length = readLength(in, 1);
+                List<Object> list = new ArrayList<>(length);
+                for (int i = 0; i < length; i++) {
+                    list.add(readValue(in));
+                }
+                return list;
+            case TAG_MAP:
+                return readMap(in);
+            case TAG_SERIALIZABLE:
+                String alias = readString(in);
+                Map<String, Object> fields = readMap(in);
+                fields.put(ConfigurationSerialization.SERIALIZED_TYPE_KEY, alias);
+                return ConfigurationSerialization.deserializeObject(fields);
+            default:
+                throw new IOException("Unknown item value tag: " + tag);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[readLength(in, 1)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    /**
+     * Reads a count of elements that take at least {@code minBytes} each, rejecting
+     * counts the remaining data can't hold.
+     */
+    private static int readLength(DataInputStream in, int minBytes) throws IOException {
+        int length = readVarInt(in);
+        if (length < 0 || (long) length * minBytes > in.available()) {
+            throw new IOException("Invalid length " + length + " with " + in.available() + " bytes left");
+        }
+        return length;
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("VarInt too long");
+    }
+
+    private static byte[] deflate(byte[] input) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(input.length / 2);
+            byte[] buffer = new byte[512];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] input, int rawLength) throws DataFormatException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(input);
+            byte[] output = new byte[rawLength];
+            int read = 0;
+            while (read < rawLength && !inflater.finished()) {
+                int n = inflater.inflate(output, read, rawLength - read);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new DataFormatException("Truncated item data");
+                }
+                read += n;
+            }
+            if (read < rawLength) {
+                throw new DataFormatException("Truncated item data");
+            }
+            return output;
+        } finally {
+            inflater.end();
+        }
+    }
+}
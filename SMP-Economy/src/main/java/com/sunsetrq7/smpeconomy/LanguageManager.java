@@ -1,13 +1,19 @@
 package com.sunsetrq7.smpeconomy;
 
+import org.bukkit.configuration.Configuration;
+import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 
 /**
@@ -17,11 +23,26 @@ public class LanguageManager {
     
     private final SMP_Economy plugin;
     private final Map<String, FileConfiguration> languageFiles;
+    
+    // Messages parsed once per language at load time
+    private final Map<String, Map<String, MessageTemplate>> languageTemplates;
+    
+    // Per language, a flat table indexed by MessageKey id with default-language fallbacks filled in
+    private volatile Map<String, MessageTemplate[]> messageTables;
+    
+    // Bumped every time the tables are rebuilt, so caches of rendered text can tell they are stale
+    private volatile int messageGeneration;
+    
+    // Unregistered keys that have already been warned about
+    private final Set<String> reportedMissingKeys;
     private String defaultLanguage;
     
     public LanguageManager(SMP_Economy plugin) {
         this.plugin = plugin;
         this.languageFiles = new HashMap<>();
+        this.languageTemplates = new HashMap<>();
+        this.messageTables = new HashMap<>();
+        this.reportedMissingKeys = ConcurrentHashMap.newKeySet();
         this.defaultLanguage = "en_US";
     }
     
@@ -48,10 +69,51 @@ public class LanguageManager {
         
         // Set default language from config
         defaultLanguage = plugin.getConfigManager().getMainConfig().getString("default_language", "en_US");
+        buildMessageTables();
         
         plugin.getLogger().info("Loaded " + languageFiles.size() + " language files.");
     }
     
+    /**
+     * Builds the per-language message tables for every registered key, resolving
+     * default-language fallbacks up front. Keys the default language doesn't have
+     * either are reported here, once, and render as the key itself.
+     */
+    private void buildMessageTables() {
+        Map<String, MessageTemplate> defaults = languageTemplates.getOrDefault(defaultLanguage, Map.of());
+        
+        List<String> missing = new ArrayList<>();
+        MessageTemplate[] fallback = new MessageTemplate[MessageKey.count()];
+        for (MessageKey key : MessageKey.values()) {
+            MessageTemplate template = defaults.get(key.getPath());
+            if (template == null) {
+                missing.add(key.getPath());
+                template = MessageTemplate.compile(key.getPath());
+            }
+            fallback[key.getId()] = template;
+        }
+        
+        Map<String, MessageTemplate[]> tables = new HashMap<>();
+        for (Map.Entry<String, Map<String, MessageTemplate>> entry : languageTemplates.entrySet()) {
+            MessageTemplate[] table = fallback.clone();
+            for (MessageKey key : MessageKey.values()) {
+                MessageTemplate template = entry.getValue().get(key.getPath());
+                if (template != null) {
+                    table[key.getId()] = template;
+                }
+            }
+            tables.put(entry.getKey(), table);
+        }
+        tables.putIfAbsent(defaultLanguage, fallback);
+        messageTables = tables;
+        messageGeneration++;
+        
+        if (!missing.isEmpty()) {
+            plugin.getLogger().warning("Missing " + missing.size() + " translation keys in default language " + 
+                defaultLanguage + ": " + String.join(", ", missing));
+        }
+    }
+    
     /**
      * Loads a specific language file.
      */
@@ -75,40 +137,103 @@ public class LanguageManager {
         }
         
         languageFiles.put(languageCode, config);
+        languageTemplates.put(languageCode, compileTemplates(config));
         
         plugin.getLogger().info("Loaded language file: " + languageCode);
     }
     
     /**
-     * Gets a message in the specified language.
+     * Parses every message of a language file (including keys only present in the
+     * bundled defaults) into templates.
      */
-    public String getMessage(String languageCode, String key) {
-        FileConfiguration config = languageFiles.get(languageCode);
+    private Map<String, MessageTemplate> compileTemplates(FileConfiguration config) {
+        Map<String, MessageTemplate> templates = new HashMap<>();
         
-        // If the specific language doesn't exist, use default
-        if (config == null) {
-            config = languageFiles.get(defaultLanguage);
+        Configuration defaults = config.getDefaults();
+        if (defaults != null) {
+            compileSection(defaults, templates);
         }
+        compileSection(config, templates);
         
-        // If the key doesn't exist in the specific language, try default
-        if (config == null || !config.contains(key)) {
-            config = languageFiles.get(defaultLanguage);
+        return templates;
+    }
+    
+    private void compileSection(ConfigurationSection section, Map<String, MessageTemplate> templates) {
+        for (String key : section.getKeys(true)) {
+            if (section.isConfigurationSection(key)) {
+                continue;
+            }
+            
+            String message = section.getString(key);
+            if (message != null) {
+                templates.put(key, MessageTemplate.compile(message));
+            }
         }
+    }
+    
+    /**
+     * Gets the template for a message key, falling back to the default language.
+     * Returns null if no language has the key.
+     */
+    public MessageTemplate getTemplate(String languageCode, String key) {
+        Map<String, MessageTemplate> templates = languageTemplates.get(languageCode);
+        MessageTemplate template = templates != null ? templates.get(key) : null;
         
-        // If it still doesn't exist, return the key itself
-        if (config == null || !config.contains(key)) {
-            plugin.getLogger().log(Level.WARNING, "Missing translation key: " + key + " for language: " + languageCode);
-            return key;
+        if (template == null) {
+            Map<String, MessageTemplate> defaultTemplates = languageTemplates.get(defaultLanguage);
+            template = defaultTemplates != null ? defaultTemplates.get(key) : null;
         }
         
-        String message = config.getString(key);
+        return template;
+    }
+    
+    /**
+     * Gets the template for a registered key, falling back to the default language.
+     */
+    public MessageTemplate getTemplate(String languageCode, MessageKey key) {
+        Map<String, MessageTemplate[]> tables = messageTables;
+        MessageTemplate[] table = tables.get(languageCode);
+        if (table == null) {
+            table = tables.get(defaultLanguage);
+        }
         
-        // Replace color codes
-        if (message != null) {
-            message = formatColors(message);
+        return table != null ? table[key.getId()] : null;
+    }
+    
+    /**
+     * Gets a message in the specified language.
+     */
+    public String getMessage(String languageCode, MessageKey key) {
+        MessageTemplate template = getTemplate(languageCode, key);
+        return template != null ? template.getText() : key.getPath();
+    }
+    
+    /**
+     * Gets a message with placeholders replaced.
+     */
+    public String getMessage(String languageCode, MessageKey key, Object... placeholders) {
+        MessageTemplate template = getTemplate(languageCode, key);
+        return template != null ? template.render(placeholders) : key.getPath();
+    }
+    
+    /**
+     * Gets a message in the specified language.
+     */
+    public String getMessage(String languageCode, String key) {
+        MessageKey messageKey = MessageKey.fromPath(key);
+        if (messageKey != null) {
+            return getMessage(languageCode, messageKey);
         }
         
-        return message;
+        MessageTemplate template = getTemplate(languageCode, key);
+        
+        // If it doesn't exist in any language, return the key itself
+        if (template == null) {
+            reportMissingKey(key);
+            return key;
+        }
+        
+        return template.getText();
     }
     
     /**
@@ -122,31 +247,28 @@ public class LanguageManager {
      * Gets a message with placeholders replaced.
      */
     public String getMessage(String languageCode, String key, Object... placeholders) {
-        String message = getMessage(languageCode, key);
-        
-        if (placeholders.length > 0) {
-            for (int i = 0; i < placeholders.length; i += 2) {
-                if (i + 1 < placeholders.length) {
-                    String placeholder = "{" + placeholders[i] + "}";
-                    String value = String.valueOf(placeholders[i + 1]);
-                    message = message.replace(placeholder, value);
-                }
-            }
+        MessageKey messageKey = MessageKey.fromPath(key);
+        if (messageKey != null) {
+            return getMessage(languageCode, messageKey, placeholders);
+        }
+        
+        MessageTemplate template = getTemplate(languageCode, key);
+        
+        if (template == null) {
+            reportMissingKey(key);
+            return key;
         }
         
-        return message;
+        return template.render(placeholders);
     }
     
     /**
-     * Formats color codes in a message.
+     * Warns about a missing unregistered key the first time it is requested.
      */
-    private String formatColors(String message) {
-        if (message == null) {
-            return null;
+    private void reportMissingKey(String key) {
+        if (reportedMissingKeys.add(key)) {
+            plugin.getLogger().log(Level.WARNING, "Missing translation key: " + key);
         }
-        
-        // Replace & with § for Minecraft color codes
-        return message.replace("&", "§");
     }
     
     /**
@@ -156,6 +278,13 @@ public class LanguageManager {
         return languageFiles.keySet();
     }
     
+    /**
+     * Gets a counter that changes whenever any message may have changed.
+     */
+    public int getMessageGeneration() {
+        return messageGeneration;
+    }
+    
     /**
      * Gets the default language.
      */
@@ -169,6 +298,7 @@ public class LanguageManager {
     public void setDefaultLanguage(String languageCode) {
         if (languageFiles.containsKey(languageCode)) {
             this.defaultLanguage = languageCode;
+            buildMessageTables();
         }
     }
     
@@ -177,6 +307,8 @@ public class LanguageManager {
      */
     public void reloadLanguages() {
         languageFiles.clear();
+        languageTemplates.clear();
+        reportedMissingKeys.clear();
         loadLanguages();
     }
     
@@ -208,6 +340,15 @@ public class LanguageManager {
         FileConfiguration config = languageFiles.get(languageCode);
         if (config != null) {
             config.set(key, value);
+            
+            // Removing a key may expose the bundled default
+            String message = config.getString(key);
+            if (message != null) {
+                languageTemplates.get(languageCode).put(key, MessageTemplate.compile(message));
+            } else {
+                languageTemplates.get(languageCode).remove(key);
+            }
+            buildMessageTables();
         }
     }
     
@@ -1,14 +1,19 @@
 package com.sunsetrq7.smpeconomy;
 
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerChatEvent;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.event.inventory.InventoryCloseEvent;
-import org.bukkit.inventory.Inventory;
+import org.bukkit.event.inventory.InventoryDragEvent;
+import org.bukkit.inventory.InventoryHolder;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.PluginManager;
+import java.util.UUID;
 
 /**
  * Manages event listeners for the plugin.
@@ -38,8 +43,29 @@ public class ListenerManager implements Listener {
     public void onPlayerJoin(PlayerJoinEvent event) {
         Player player = event.getPlayer();
         
-        // Load player data
-        plugin.getPlayerDataManager().loadPlayerData(player.getUniqueId(), player.getName());
+        // Keep name lookups current for players who joined under a new name
+        plugin.getPlayerNameIndex().put(player.getUniqueId(), player.getName());
+        
+        // Track the permissions we notify by
+        plugin.getNotificationManager().getPermissionHolders().refresh(player);
+        
+        // Load player data (including their language) and rolling limit windows off the
+        // main thread so the first check doesn't hit the database
+        UUID playerUUID = player.getUniqueId();
+        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+            plugin.getPlayerDataManager().loadPlayerData(playerUUID, player.getName());
+            plugin.getTransferManager().loadTransferLimits(playerUUID);
+            plugin.getBankManager().loadDepositLimits(playerUUID);
+            plugin.getNotificationManager().deliverMailbox(playerUUID);
+            
+            // Quits run on the main thread, so checking there tells whether the player
+            // left while we were loading and the quit's cleanup has to be repeated
+            plugin.getServer().getScheduler().runTask(plugin, () -> {
+                if (plugin.getServer().getPlayer(playerUUID) == null) {
+                    unloadPlayer(playerUUID);
+                }
+            });
+        });
         
         // Check for updates if player is OP
         if (player.isOp()) {
@@ -52,89 +78,84 @@ public class ListenerManager implements Listener {
      */
     @EventHandler
     public void onPlayerQuit(PlayerQuitEvent event) {
-        Player player = event.getPlayer();
+        unloadPlayer(event.getPlayer().getUniqueId());
+    }
+    
+    /**
+     * Drops a player's cached data and saves and unloads their rolling limit windows.
+     */
+    private void unloadPlayer(UUID playerUUID) {
+        plugin.getPlayerDataManager().removePlayerFromCache(playerUUID);
+        plugin.getLocaleResolver().remove(playerUUID);
+        plugin.getNotificationManager().getPermissionHolders().remove(playerUUID);
+        plugin.getGUIManager().takeSearchPrompt(playerUUID);
         
-        // Save player data
-        plugin.getPlayerDataManager().removePlayerFromCache(player.getUniqueId());
+        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+            plugin.getTransferManager().unloadTransferLimits(playerUUID);
+            plugin.getBankManager().unloadDepositLimits(playerUUID);
+        });
     }
     
     /**
-     * Handles inventory click events for GUIs.
+     * Handles world changes, which can change per-world permissions.
      */
     @EventHandler
-    public void onInventoryClick(InventoryClickEvent event) {
-        if (event.getClickedInventory() == null) {
+    public void onPlayerChangedWorld(PlayerChangedWorldEvent event) {
+        plugin.getNotificationManager().getPermissionHolders().refresh(event.getPlayer());
+    }
+    
+    /**
+     * Takes the auction search query from players who clicked the search button, instead
+     * of sending it to chat.
+     */
+    @EventHandler(priority = EventPriority.LOWEST, ignoreCancelled = true)
+    public void onPlayerChat(AsyncPlayerChatEvent event) {
+        Player player = event.getPlayer();
+        if (!plugin.getGUIManager().takeSearchPrompt(player.getUniqueId())) {
             return;
         }
+        event.setCancelled(true);
         
-        Player player = (Player) event.getWhoClicked();
-        Inventory inventory = event.getClickedInventory();
-        
-        // Check if this is one of our GUIs
-        if (isEconomyGUI(inventory)) {
-            event.setCancelled(true);
-            
-            // Handle GUI clicks based on the item clicked
-            if (event.getCurrentItem() != null) {
-                String itemName = event.getCurrentItem().getItemMeta().getDisplayName();
-                
-                // Handle specific clicks based on item name
-                if (itemName.contains("Bank")) {
-                    plugin.getGUIManager().openBankGUI(player);
-                } else if (itemName.contains("Auction")) {
-                    plugin.getGUIManager().openAuctionHouseGUI(player);
-                } else if (itemName.contains("Pay")) {
-                    // Open pay GUI or send message
-                    player.closeInventory();
-                    player.sendMessage(plugin.getLanguageManager().getMessage(
-                        getPlayerLanguage(player), 
-                        "gui.click.pay_instruction"));
-                } else if (itemName.contains("Deposit")) {
-                    // Handle deposit action
-                    player.closeInventory();
-                    player.sendMessage(plugin.getLanguageManager().getMessage(
-                        getPlayerLanguage(player), 
-                        "gui.click.deposit_instruction"));
-                } else if (itemName.contains("Withdraw")) {
-                    // Handle withdraw action
-                    player.closeInventory();
-                    player.sendMessage(plugin.getLanguageManager().getMessage(
-                        getPlayerLanguage(player), 
-                        "gui.click.withdraw_instruction"));
-                }
+        // Menus can only be opened on the main thread
+        String query = event.getMessage().trim();
+        plugin.getServer().getScheduler().runTask(plugin, () -> {
+            if (player.isOnline() && !query.isEmpty() && !query.equalsIgnoreCase("cancel")) {
+                plugin.getGUIManager().searchAuctions(player, query, AuctionSearchIndex.SortOrder.PRICE_ASC);
             }
-        }
+        });
     }
     
     /**
-     * Handles inventory close events.
+     * Handles inventory click events for GUIs.
      */
     @EventHandler
-    public void onInventoryClose(InventoryCloseEvent event) {
-        // Perform cleanup when GUI is closed
-        if (isEconomyGUI(event.getInventory())) {
-            // Any cleanup needed when GUI is closed
+    public void onInventoryClick(InventoryClickEvent event) {
+        // Our GUIs are the holders of their own inventories
+        InventoryHolder holder = event.getInventory().getHolder();
+        if (holder instanceof Menu) {
+            ((Menu) holder).handleClick(event);
         }
     }
     
     /**
-     * Checks if an inventory is one of our economy GUIs.
+     * Stops items being dragged into our GUIs.
      */
-    private boolean isEconomyGUI(Inventory inventory) {
-        String title = inventory.getTitle();
-        return title.contains("Economy") || 
-               title.contains("Bank") || 
-               title.contains("Auction") || 
-               title.contains("Auction House") ||
-               title.contains("My Auctions") ||
-               title.contains("Create Auction");
+    @EventHandler
+    public void onInventoryDrag(InventoryDragEvent event) {
+        if (event.getInventory().getHolder() instanceof Menu) {
+            event.setCancelled(true);
+        }
     }
     
     /**
-     * Gets the player's language.
+     * Handles inventory close events.
      */
-    private String getPlayerLanguage(Player player) {
-        // In a real implementation, this would get the player's language from the database
-        return plugin.getLanguageManager().getDefaultLanguage();
+    @EventHandler
+    public void onInventoryClose(InventoryCloseEvent event) {
+        // Stop live updates for the closed GUI
+        InventoryHolder holder = event.getInventory().getHolder();
+        if (holder instanceof Menu) {
+            plugin.getMenuRefresher().unsubscribe((Menu) holder);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,209 @@
+package com.sunsetrq7.smpeconomy;
+
+import org.bukkit.entity.Player;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Resolves the language each player's messages are rendered in.
+ *
+ * Languages are interned to small indexes and every loaded player holds a one-byte
+ * slot in an open-addressed table of packed longs (56-bit UUID fingerprint, 8-bit
+ * language index). Lookups are a few array reads with no locking, boxing or map
+ * access; writes happen only on join and quit and are serialized. Players without a
+ * slot, or with index 0 (no language saved in their settings), use the server's
+ * default language, so changing default_language applies to them.
+ */
+public class LocaleResolver {
+
+    private static final long EMPTY = 0L;
+    private static final long TOMBSTONE = 1L;
+    private static final long KEY_MASK = ~0xFFL;
+    private static final int MAX_LANGUAGES = 255;
+
+    private final SMP_Economy plugin;
+
+    // Index 0 is reserved for "server default"; codes are only ever appended
+    private volatile String[] languages;
+
+    private volatile AtomicLongArray table;
+    private int used;
+    private int tombstones;
+
+    public LocaleResolver(SMP_Economy plugin) {
+        this.plugin = plugin;
+        this.languages = new String[] { null };
+        this.table = new AtomicLongArray(64);
+    }
+
+    /**
+     * Gets the language code for a player.
+     */
+    public String getLanguage(Player player) {
+        return getLanguage(player.getUniqueId());
+    }
+
+    /**
+     * Gets the language code for a player by UUID.
+     */
+    public String getLanguage(UUID playerUUID) {
+        String language = getLanguageCode(getLanguageIndex(playerUUID));
+        return language != null ? language : plugin.getLanguageManager().getDefaultLanguage();
+    }
+
+    /**
+     * Gets the interned language index for a player (0 means the server default).
+     */
+    public int getLanguageIndex(UUID playerUUID) {
+        long key = key(playerUUID);
+        AtomicLongArray current = table;
+        int mask = current.length() - 1;
+
+        for (int slot = home(key, mask), probes = 0; probes <= mask; slot = (slot + 1) & mask, probes++) {
+            long entry = current.get(slot);
+            if (entry == EMPTY) {
+                return 0;
+            }
+            if ((entry & KEY_MASK) == key) {
+                return (int) (entry & 0xFF);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Gets the language code for an interned index, or null for the server default.
+     */
+    public String getLanguageCode(int index) {
+        String[] current = languages;
+        return index > 0 && index < current.length ? current[index] : null;
+    }
+
+    /**
+     * Sets a loaded player's language in memory. A null code means the server default.
+     */
+    public synchronized void setLocale(UUID playerUUID, String languageCode) {
+        int index = intern(languageCode);
+        long key = key(playerUUID);
+
+        AtomicLongArray current = table;
+        int mask = current.length() - 1;
+        int free = -1;
+        for (int slot = home(key, mask), probes = 0; probes <= mask; slot = (slot + 1) & mask, probes++) {
+            long entry = current.get(slot);
+            if ((entry & KEY_MASK) == key) {
+                current.set(slot, key | index);
+                return;
+            }
+            if (entry == TOMBSTONE && free < 0) {
+                free = slot;
+            }
+            if (entry == EMPTY) {
+                if (free < 0) {
+                    free = slot;
+                }
+                break;
+            }
+        }
+
+        // The table is kept at most half full, so a free slot always exists
+        if (current.get(free) == TOMBSTONE) {
+            tombstones--;
+        }
+        used++;
+        current.set(free, key | index);
+        if ((used + tombstones) * 2 > current.length()) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Forgets a player's language (called when they leave).
+     */
+    public synchronized void remove(UUID playerUUID) {
+        long key = key(playerUUID);
+        AtomicLongArray current = table;
+        int mask = current.length() - 1;
+
+        for (int slot = home(key, mask), probes = 0; probes <= mask; slot = (slot + 1) & mask, probes++) {
+            long entry = current.get(slot);
+            if (entry == EMPTY) {
+                return;
+            }
+            if ((entry & KEY_MASK) == key) {
+                current.set(slot, TOMBSTONE);
+                used--;
+                tombstones++;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Gets the index for a language code, adding it if new.
+     */
+    private int intern(String languageCode) {
+        if (languageCode == null || languageCode.isEmpty()) {
+            return 0;
+        }
+
+        String[] current = languages;
+        for (int i = 1; i < current.length; i++) {
+            if (current[i].equals(languageCode)) {
+                return i;
+            }
+        }
+        if (current.length > MAX_LANGUAGES) {
+            return 0;
+        }
+
+        String[] grown = Arrays.copyOf(current, current.length + 1);
+        grown[current.length] = languageCode;
+        languages = grown;
+        return current.length;
+    }
+
+    /**
+     * Copies live entries into a fresh table (doubling it when mostly full) and
+     * publishes it, dropping tombstones.
+     */
+    private void rebuild() {
+        AtomicLongArray current = table;
+        int size = used * 4 > current.length() ? current.length() * 2 : current.length();
+        AtomicLongArray rebuilt = new AtomicLongArray(size);
+        int mask = size - 1;
+
+        for (int i = 0; i < current.length(); i++) {
+            long entry = current.get(i);
+            if (entry == EMPTY || entry == TOMBSTONE) {
+                continue;
+            }
+            int slot = home(entry & KEY_MASK, mask);
+            while (rebuilt.get(slot) != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            rebuilt.set(slot, entry);
+        }
+
+        tombstones = 0;
+        table = rebuilt;
+    }
+
+    private static int home(long key, int mask) {
+        return (int) (key ^ (key >>> 32)) & mask;
+    }
+
+    /**
+     * Mixes a UUID into a key with the low byte clear and some higher bit set, so it
+     * never collides with the empty and tombstone markers.
+     */
+    private static long key(UUID playerUUID) {
+        long z = playerUUID.getMostSignificantBits() * 0x9E3779B97F4A7C15L ^ playerUUID.getLeastSignificantBits();
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z ^= z >>> 31;
+        z &= KEY_MASK;
+        return z != 0 ? z : 0x100L;
+    }
+}
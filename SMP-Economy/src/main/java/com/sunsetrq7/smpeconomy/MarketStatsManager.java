@@ -0,0 +1,520 @@
+package com.sunsetrq7.smpeconomy;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+
+/**
+ * Keeps rolling per-material market statistics fed by auction settlements.
+ *
+ * Each material has a fixed ring of hourly buckets holding OHLC unit prices, trade
+ * count, quantity, turnover and a constant-size P² median estimator, so memory stays
+ * bounded no matter how many sales happen. Dirty buckets are flushed periodically
+ * to the market_stats table and reloaded on startup.
+ */
+public class MarketStatsManager {
+
+    private static final long MILLIS_PER_HOUR = 60L * 60L * 1000L;
+
+    private final SMP_Economy plugin;
+    private final DatabaseManager databaseManager;
+
+    // Rolling bucket series keyed by upper-case material name
+    private final Map<String, Series> series;
+
+    // Buckets evicted from a ring before they were flushed
+    private final List<Bucket> pendingFlush;
+
+    private final int windowHours;
+    private final int retentionDays;
+
+    public MarketStatsManager(SMP_Economy plugin) {
+        this.plugin = plugin;
+        this.databaseManager = plugin.getDatabaseManager();
+        this.series = new ConcurrentHashMap<>();
+        this.pendingFlush = new ArrayList<>();
+        this.windowHours = Math.max(1, plugin.getConfigManager().getAuctionConfig().getInt("market_stats_window_hours", 24));
+        this.retentionDays = plugin.getConfigManager().getAuctionConfig().getInt("market_stats_retention_days", 30);
+    }
+
+    /**
+     * Loads the buckets of the current window from the database.
+     */
+    public void initialize() {
+        initialize(System.currentTimeMillis());
+    }
+
+    void initialize(long nowMillis) {
+        long fromHour = hourOf(nowMillis) - windowHours + 1;
+        int loaded = 0;
+
+        try (Connection connection = databaseManager.getConnection()) {
+            String sql = "SELECT * FROM market_stats WHERE bucket_hour >= ?";
+            try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+                stmt.setLong(1, fromHour);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        Bucket bucket = new Bucket(rs.getString("material"), rs.getLong("bucket_hour"));
+                        bucket.open = rs.getDouble("open_price");
+                        bucket.high = rs.getDouble("high_price");
+                        bucket.low = rs.getDouble("low_price");
+                        bucket.close = rs.getDouble("close_price");
+                        bucket.trades = rs.getInt("trades");
+                        bucket.quantity = rs.getLong("quantity");
+                        bucket.turnover = rs.getDouble("turnover");
+                        bucket.median = MedianEstimator.decode(rs.getString("median_state"));
+
+                        Series materialSeries = getSeries(bucket.material);
+                        synchronized (materialSeries) {
+                            materialSeries.ring[materialSeries.index(bucket.hour)] = bucket;
+                        }
+                        loaded++;
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to load market statistics", e);
+        }
+
+        plugin.getLogger().info("Market statistics loaded. " + loaded + " buckets across " + series.size() + " materials.");
+    }
+
+    /**
+     * Records a settled sale of {@code quantity} items of a material for a total price.
+     */
+    public void recordSale(String material, int quantity, double totalPrice) {
+        recordSale(material, quantity, totalPrice, System.currentTimeMillis());
+    }
+
+    void recordSale(String material, int quantity, double totalPrice, long nowMillis) {
+        if (material == null || quantity <= 0 || totalPrice <= 0) {
+            return;
+        }
+
+        double unitPrice = totalPrice / quantity;
+        long hour = hourOf(nowMillis);
+        Series materialSeries = getSeries(material);
+
+        synchronized (materialSeries) {
+            int index = materialSeries.index(hour);
+            Bucket bucket = materialSeries.ring[index];
+            if (bucket == null || bucket.hour != hour) {
+                if (bucket != null && bucket.dirty) {
+                    synchronized (pendingFlush) {
+                        pendingFlush.add(bucket);
+                    }
+                }
+                bucket = new Bucket(materialSeries.material, hour);
+                materialSeries.ring[index] = bucket;
+            }
+            bucket.record(unitPrice, quantity, totalPrice);
+        }
+    }
+
+    /**
+     * Gets the statistics for a material over the configured window, or null if it has not traded.
+     */
+    public MarketStats getStats(String material) {
+        return getStats(material, windowHours);
+    }
+
+    /**
+     * Gets the statistics for a material over the last {@code hours} hours, or null if it has not traded.
+     */
+    public MarketStats getStats(String material, int hours) {
+        return getStats(material, hours, System.currentTimeMillis());
+    }
+
+    MarketStats getStats(String material, int hours, long nowMillis) {
+        Series materialSeries = series.get(normalize(material));
+        if (materialSeries == null) {
+            return null;
+        }
+
+        long toHour = hourOf(nowMillis);
+        long fromHour = toHour - Math.min(hours, windowHours) + 1;
+
+        synchronized (materialSeries) {
+            double open = 0, high = 0, low = 0, close = 0, turnover = 0;
+            int trades = 0;
+            long quantity = 0;
+            double[] medians = new double[materialSeries.ring.length];
+            double[] weights = new double[materialSeries.ring.length];
+            int medianCount = 0;
+
+            // Walk the window oldest to newest so open/close come from the right buckets
+            for (long hour = fromHour; hour <= toHour; hour++) {
+                Bucket bucket = materialSeries.ring[materialSeries.index(hour)];
+                if (bucket == null || bucket.hour != hour || bucket.trades == 0) {
+                    continue;
+                }
+
+                if (trades == 0) {
+                    open = bucket.open;
+                    high = bucket.high;
+                    low = bucket.low;
+                } else {
+                    high = Math.max(high, bucket.high);
+                    low = Math.min(low, bucket.low);
+                }
+                close = bucket.close;
+                trades += bucket.trades;
+                quantity += bucket.quantity;
+                turnover += bucket.turnover;
+                medians[medianCount] = bucket.median.get();
+                weights[medianCount] = bucket.trades;
+                medianCount++;
+            }
+
+            if (trades == 0) {
+                return null;
+            }
+
+            return new MarketStats(materialSeries.material, open, high, low, close, trades, quantity,
+                turnover / quantity, weightedMedian(medians, weights, medianCount, trades));
+        }
+    }
+
+    /**
+     * Writes all changed buckets to the database and prunes expired history.
+     */
+    public void flush() {
+        flush(System.currentTimeMillis());
+    }
+
+    void flush(long nowMillis) {
+        List<Bucket> dirty = new ArrayList<>();
+        synchronized (pendingFlush) {
+            dirty.addAll(pendingFlush);
+            pendingFlush.clear();
+        }
+
+        List<Object[]> rows = new ArrayList<>();
+        for (Series materialSeries : series.values()) {
+            synchronized (materialSeries) {
+                for (Bucket bucket : materialSeries.ring) {
+                    if (bucket != null && bucket.dirty) {
+                        dirty.add(bucket);
+                    }
+                }
+            }
+        }
+
+        // Snapshot under the series lock so rows are consistent
+        for (Bucket bucket : dirty) {
+            synchronized (getSeries(bucket.material)) {
+                rows.add(bucket.toRow());
+                bucket.dirty = false;
+            }
+        }
+
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        try (Connection connection = databaseManager.getConnection()) {
+            connection.setAutoCommit(false);
+
+            try {
+                String sql = "REPLACE INTO market_stats (material, bucket_hour, open_price, high_price, low_price, " +
+                            "close_price, trades, quantity, turnover, median_price, median_state) " +
+                            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+                try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+                    for (Object[] row : rows) {
+                        for (int i = 0; i < row.length; i++) {
+                            stmt.setObject(i + 1, row[i]);
+                        }
+                        stmt.addBatch();
+                    }
+                    stmt.executeBatch();
+                }
+
+                if (retentionDays > 0) {
+                    String pruneSql = "DELETE FROM market_stats WHERE bucket_hour < ?";
+                    try (PreparedStatement stmt = connection.prepareStatement(pruneSql)) {
+                        stmt.setLong(1, hourOf(nowMillis) - retentionDays * 24L);
+                        stmt.executeUpdate();
+                    }
+                }
+
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to flush market statistics", e);
+
+            // Keep the buckets dirty so the next flush retries them
+            for (Bucket bucket : dirty) {
+                synchronized (getSeries(bucket.material)) {
+                    bucket.dirty = true;
+                }
+            }
+        }
+    }
+
+    private Series getSeries(String material) {
+        return series.computeIfAbsent(normalize(material), name -> new Series(name, windowHours + 1));
+    }
+
+    private static String normalize(String material) {
+        return material.toUpperCase(Locale.ROOT);
+    }
+
+    private static long hourOf(long millis) {
+        return millis / MILLIS_PER_HOUR;
+    }
+
+    /**
+     * Combines per-bucket medians, weighting each by its trade count.
+     */
+    private static double weightedMedian(double[] values, double[] weights, int count, int totalWeight) {
+        if (count == 1) {
+            return values[0];
+        }
+
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(values[a], values[b]));
+
+        double half = totalWeight / 2.0;
+        double cumulative = 0;
+        for (Integer i : order) {
+            cumulative += weights[i];
+            if (cumulative >= half) {
+                return values[i];
+            }
+        }
+        return values[order[count - 1]];
+    }
+
+    /**
+     * Ring of hourly buckets for one material.
+     */
+    private static class Series {
+        private final String material;
+        private final Bucket[] ring;
+
+        Series(String material, int size) {
+            this.material = material;
+            this.ring = new Bucket[size];
+        }
+
+        int index(long hour) {
+            return (int) Math.floorMod(hour, (long) ring.length);
+        }
+    }
+
+    /**
+     * One hour of trading for one material.
+     */
+    private static class Bucket {
+        private final String material;
+        private final long hour;
+        private double open;
+        private double high;
+        private double low;
+        private double close;
+        private int trades;
+        private long quantity;
+        private double turnover;
+        private MedianEstimator median;
+        private boolean dirty;
+
+        Bucket(String material, long hour) {
+            this.material = material;
+            this.hour = hour;
+            this.median = new MedianEstimator();
+        }
+
+        void record(double unitPrice, int amount, double totalPrice) {
+            if (trades == 0) {
+                open = unitPrice;
+                high = unitPrice;
+                low = unitPrice;
+            } else {
+                high = Math.max(high, unitPrice);
+                low = Math.min(low, unitPrice);
+            }
+            close = unitPrice;
+            trades++;
+            quantity += amount;
+            turnover += totalPrice;
+            median.add(unitPrice);
+            dirty = true;
+        }
+
+        Object[] toRow() {
+            return new Object[] { material, hour, open, high, low, close, trades, quantity, turnover,
+                median.get(), median.encode() };
+        }
+    }
+
+    /**
+     * P² streaming median estimator (Jain and Chlamtac) using five markers.
+     */
+    static class MedianEstimator {
+        private static final double P = 0.5;
+        private static final double[] INCREMENTS = { 0, P / 2, P, (1 + P) / 2, 1 };
+        private static final double[] INITIAL_POSITIONS = { 0, 2 * P, 4 * P, 2 + 2 * P, 4 };
+
+        private final double[] heights = new double[5];
+        private final int[] positions = { 0, 1, 2, 3, 4 };
+        private final double[] desired = INITIAL_POSITIONS.clone();
+        private int count;
+
+        void add(double x) {
+            if (count < 5) {
+                heights[count++] = x;
+                if (count == 5) {
+                    Arrays.sort(heights);
+                }
+                return;
+            }
+            count++;
+
+            int k;
+            if (x < heights[0]) {
+                heights[0] = x;
+                k = 0;
+            } else if (x >= heights[4]) {
+                heights[4] = x;
+                k = 3;
+            } else {
+                k = 0;
+                while (x >= heights[k + 1]) {
+                    k++;
+                }
+            }
+
+            for (int i = k + 1; i < 5; i++) {
+                positions[i]++;
+            }
+            for (int i = 0; i < 5; i++) {
+                desired[i] += INCREMENTS[i];
+            }
+
+            // Move the three middle markers towards their desired positions
+            for (int i = 1; i <= 3; i++) {
+                double d = desired[i] - positions[i];
+                if ((d >= 1 && positions[i + 1] - positions[i] > 1) || (d <= -1 && positions[i - 1] - positions[i] < -1)) {
+                    int step = d > 0 ? 1 : -1;
+                    double candidate = parabolic(i, step);
+                    if (heights[i - 1] < candidate && candidate < heights[i + 1]) {
+                        heights[i] = candidate;
+                    } else {
+                        heights[i] += step * (heights[i + step] - heights[i]) / (positions[i + step] - positions[i]);
+                    }
+                    positions[i] += step;
+                }
+            }
+        }
+
+        double get() {
+            if (count == 0) {
+                return 0;
+            }
+            if (count >= 5) {
+                return heights[2];
+            }
+            double[] sorted = Arrays.copyOf(heights, count);
+            Arrays.sort(sorted);
+            return count % 2 == 1 ? sorted[count / 2] : (sorted[count / 2 - 1] + sorted[count / 2]) / 2;
+        }
+
+        private double parabolic(int i, int step) {
+            return heights[i] + step / (double) (positions[i + 1] - positions[i - 1])
+                * ((positions[i] - positions[i - 1] + step) * (heights[i + 1] - heights[i]) / (positions[i + 1] - positions[i])
+                + (positions[i + 1] - positions[i] - step) * (heights[i] - heights[i - 1]) / (positions[i] - positions[i - 1]));
+        }
+
+        /**
+         * Encodes the estimator state as "count;h0,h1,h2,h3,h4;n0,n1,n2,n3,n4".
+         */
+        String encode() {
+            StringBuilder sb = new StringBuilder().append(count).append(';');
+            for (int i = 0; i < 5; i++) {
+                sb.append(i > 0 ? "," : "").append(heights[i]);
+            }
+            sb.append(';');
+            for (int i = 0; i < 5; i++) {
+                sb.append(i > 0 ? "," : "").append(positions[i]);
+            }
+            return sb.toString();
+        }
+
+        static MedianEstimator decode(String state) {
+            MedianEstimator estimator = new MedianEstimator();
+            if (state == null || state.isEmpty()) {
+                return estimator;
+            }
+
+            try {
+                String[] parts = state.split(";");
+                String[] heightParts = parts[1].split(",");
+                String[] positionParts = parts[2].split(",");
+                estimator.count = Integer.parseInt(parts[0]);
+                for (int i = 0; i < 5; i++) {
+                    estimator.heights[i] = Double.parseDouble(heightParts[i]);
+                    estimator.positions[i] = Integer.parseInt(positionParts[i]);
+                    // Desired positions advance linearly with every observation after the fifth
+                    estimator.desired[i] = INITIAL_POSITIONS[i] + Math.max(0, estimator.count - 5) * INCREMENTS[i];
+                }
+            } catch (RuntimeException e) {
+                return new MedianEstimator();
+            }
+            return estimator;
+        }
+    }
+
+    /**
+     * Immutable snapshot of a material's market statistics.
+     */
+    public static class MarketStats {
+        private final String material;
+        private final double open;
+        private final double high;
+        private final double low;
+        private final double close;
+        private final int trades;
+        private final long quantity;
+        private final double averagePrice;
+        private final double medianPrice;
+
+        public MarketStats(String material, double open, double high, double low, double close,
+                          int trades, long quantity, double averagePrice, double medianPrice) {
+            this.material = material;
+            this.open = open;
+            this.high = high;
+            this.low = low;
+            this.close = close;
+            this.trades = trades;
+            this.quantity = quantity;
+            this.averagePrice = averagePrice;
+            this.medianPrice = medianPrice;
+        }
+
+        public String getMaterial() { return material; }
+        public double getOpen() { return open; }
+        public double getHigh() { return high; }
+        public double getLow() { return low; }
+        public double getClose() { return close; }
+        public int getTrades() { return trades; }
+        public long getQuantity() { return quantity; }
+        public double getAveragePrice() { return averagePrice; }
+        public double getMedianPrice() { return medianPrice; }
+    }
+}
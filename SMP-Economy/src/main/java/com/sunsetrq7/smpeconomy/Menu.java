@@ -0,0 +1,195 @@
+package com.sunsetrq7.smpeconomy;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.inventory.ClickType;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
+import org.bukkit.inventory.ItemStack;
+
+/**
+ * A chest GUI owned by the plugin.
+ *
+ * The menu is the holder of its own inventory, so listeners recognise our GUIs by
+ * {@code getHolder() instanceof Menu} rather than by their (translated) title. Each
+ * slot's click action is stored in a table indexed by slot, so handling a click is one
+ * array read with no item meta or string inspection.
+ *
+ * Slots bound to a {@link LiveSlot} follow live data: when the menu is refreshed each
+ * live slot renders a cheap key of what it should show, and the item is rebuilt and
+ * sent only for slots whose key changed.
+ */
+public class Menu implements InventoryHolder {
+
+    /**
+     * What happens when a slot is clicked.
+     */
+    public interface ClickAction {
+        void onClick(Player player, ClickType click);
+    }
+
+    /**
+     * A slot whose content follows live data. Both methods run on the main thread.
+     */
+    public interface LiveSlot {
+        /**
+         * Describes what the slot should show, e.g. the formatted values in it. The item
+         * is only rebuilt when this changes.
+         */
+        String key();
+
+        /**
+         * Builds the item for the current data, or null to empty the slot.
+         */
+        ItemStack build();
+    }
+
+    private final Inventory inventory;
+    private final ClickAction[] actions;
+
+    // Live slots, the key each one last rendered, and where an unfinished refresh resumes
+    private LiveSlot[] liveSlots;
+    private String[] liveKeys;
+    private int refreshCursor;
+    private boolean refreshPending;
+
+    public Menu(int size, String title) {
+        this.inventory = Bukkit.createInventory(this, size, title);
+        this.actions = new ClickAction[size];
+    }
+
+    /**
+     * Creates a menu pre-filled from a template's contents and actions.
+     */
+    Menu(String title, ItemStack[] contents, ClickAction[] actions) {
+        this.inventory = Bukkit.createInventory(this, contents.length, title);
+        this.inventory.setContents(contents);
+        this.actions = actions.clone();
+    }
+
+    /**
+     * Places a display-only item.
+     */
+    public void setItem(int slot, ItemStack item) {
+        setItem(slot, item, null);
+    }
+
+    /**
+     * Places an item that runs an action when clicked.
+     */
+    public void setItem(int slot, ItemStack item, ClickAction action) {
+        inventory.setItem(slot, item);
+        actions[slot] = action;
+    }
+
+    /**
+     * Replaces the item in a slot, keeping its action.
+     */
+    public void updateItem(int slot, ItemStack item) {
+        inventory.setItem(slot, item);
+    }
+
+    /**
+     * Binds a slot to live data, given the key of what the slot shows right now.
+     */
+    public void bindLive(int slot, LiveSlot live, String shownKey) {
+        if (liveSlots == null) {
+            liveSlots = new LiveSlot[actions.length];
+            liveKeys = new String[actions.length];
+        }
+        liveSlots[slot] = live;
+        liveKeys[slot] = shownKey;
+    }
+
+    /**
+     * Re-renders the live slots and updates those whose content changed, writing at
+     * most {@code budget} slots. Returns the number of slots written; if the budget ran
+     * out first, {@link #isRefreshPending()} is true and the next call carries on from
+     * where this one stopped.
+     */
+    public int refresh(int budget) {
+        refreshPending = false;
+        if (liveSlots == null) {
+            return 0;
+        }
+
+        int written = 0;
+        for (int scanned = 0; scanned < liveSlots.length; scanned++) {
+            int slot = (refreshCursor + scanned) % liveSlots.length;
+            LiveSlot live = liveSlots[slot];
+            if (live == null) {
+                continue;
+            }
+
+            String key = live.key();
+            if (key == null || key.equals(liveKeys[slot])) {
+                continue;
+            }
+            if (written == budget) {
+                refreshCursor = slot;
+                refreshPending = true;
+                return written;
+            }
+
+            inventory.setItem(slot, live.build());
+            liveKeys[slot] = key;
+            written++;
+        }
+
+        refreshCursor = 0;
+        return written;
+    }
+
+    /**
+     * Checks whether the last refresh stopped early because its budget ran out.
+     */
+    public boolean isRefreshPending() {
+        return refreshPending;
+    }
+
+    /**
+     * Handles a click anywhere in a view showing this menu. Every click is cancelled so
+     * items can't be taken out or shift-clicked in; only clicks on the menu's own slots
+     * run actions.
+     */
+    public void handleClick(InventoryClickEvent event) {
+        event.setCancelled(true);
+
+        int slot = event.getRawSlot();
+        if (slot < 0 || slot >= actions.length) {
+            return;
+        }
+
+        ClickAction action = actions[slot];
+        if (action != null) {
+            action.onClick((Player) event.getWhoClicked(), event.getClick());
+        }
+    }
+
+    /**
+     * Opens the menu for a player.
+     */
+    public void open(Player player) {
+        player.openInventory(inventory);
+    }
+
+    /**
+     * Checks whether anyone still has the menu open.
+     */
+    public boolean isOpen() {
+        return !inventory.getViewers().isEmpty();
+    }
+
+    /**
+     * Gets the number of slots in the menu.
+     */
+    public int getSize() {
+        return actions.length;
+    }
+
+    @Override
+    public Inventory getInventory() {
+        return inventory;
+    }
+}
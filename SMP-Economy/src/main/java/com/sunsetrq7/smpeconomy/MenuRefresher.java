@@ -0,0 +1,146 @@
+package com.sunsetrq7.smpeconomy;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Keeps open menus up to date with the data they show.
+ *
+ * Menus subscribe to topics (a player's balances, an auction, the clock). When data
+ * changes, from any thread, its topic is marked and every subscribed menu is queued
+ * once. Once per tick the main thread works through the queue, letting each menu
+ * update only the slots whose rendered content changed, until the tick's slot budget
+ * is used up; whatever is left carries over to the next tick.
+ */
+public class MenuRefresher {
+
+    // Published every second for menus showing a countdown
+    public static final String CLOCK_TOPIC = "clock";
+
+    private static final int TICKS_PER_SECOND = 20;
+
+    private final SMP_Economy plugin;
+
+    private final Map<String, Set<Menu>> subscribers;
+    private final Map<Menu, String[]> subscriptions;
+
+    // Menus waiting for a refresh; the set keeps each one queued only once
+    private final Set<Menu> dirty;
+    private final Queue<Menu> queue;
+
+    private int ticks;
+
+    public MenuRefresher(SMP_Economy plugin) {
+        this.plugin = plugin;
+        this.subscribers = new ConcurrentHashMap<>();
+        this.subscriptions = new ConcurrentHashMap<>();
+        this.dirty = ConcurrentHashMap.newKeySet();
+        this.queue = new ConcurrentLinkedQueue<>();
+    }
+
+    /**
+     * Gets the topic for a player's wallet and bank balances.
+     */
+    public static String balanceTopic(UUID playerUUID) {
+        return "balance:" + playerUUID;
+    }
+
+    /**
+     * Gets the topic for one auction's bid, end time and status.
+     */
+    public static String auctionTopic(int auctionId) {
+        return "auction:" + auctionId;
+    }
+
+    /**
+     * Subscribes a menu to topics, replacing any earlier subscriptions.
+     */
+    public void subscribe(Menu menu, String... topics) {
+        unsubscribe(menu);
+        subscriptions.put(menu, topics);
+        for (String topic : topics) {
+            subscribers.computeIfAbsent(topic, t -> ConcurrentHashMap.newKeySet()).add(menu);
+        }
+    }
+
+    /**
+     * Drops a menu's subscriptions (called when it closes). A queued refresh for it is
+     * discarded when tick() reaches it.
+     */
+    public void unsubscribe(Menu menu) {
+        String[] topics = subscriptions.remove(menu);
+        if (topics == null) {
+            return;
+        }
+
+        for (String topic : topics) {
+            subscribers.computeIfPresent(topic, (t, menus) -> {
+                menus.remove(menu);
+                return menus.isEmpty() ? null : menus;
+            });
+        }
+        dirty.remove(menu);
+    }
+
+    /**
+     * Marks a topic as changed. Safe to call from any thread.
+     */
+    public void markChanged(String topic) {
+        Set<Menu> menus = subscribers.get(topic);
+        if (menus == null) {
+            return;
+        }
+
+        for (Menu menu : menus) {
+            requestRefresh(menu);
+        }
+    }
+
+    /**
+     * Queues a menu for a refresh, e.g. after it was filled with data that may already
+     * have changed while it loaded.
+     */
+    public void requestRefresh(Menu menu) {
+        if (dirty.add(menu)) {
+            queue.add(menu);
+        }
+    }
+
+    /**
+     * Refreshes queued menus within the per-tick slot budget. Runs every tick on the
+     * main thread.
+     */
+    public void tick() {
+        if (++ticks % TICKS_PER_SECOND == 0) {
+            markChanged(CLOCK_TOPIC);
+        }
+
+        int budget = Math.max(1, plugin.getConfigManager().getPerformanceConfig().getInt("gui_refresh_slots_per_tick", 64));
+        int queued = queue.size();
+        for (int i = 0; i < queued && budget > 0; i++) {
+            Menu menu = queue.poll();
+            if (menu == null) {
+                break;
+            }
+
+            // Unmark before rendering so a change made meanwhile queues the menu again;
+            // an entry left behind by unsubscribe is no longer marked and is skipped
+            if (!dirty.remove(menu)) {
+                continue;
+            }
+            if (!menu.isOpen()) {
+                unsubscribe(menu);
+                continue;
+            }
+
+            budget -= menu.refresh(budget);
+            if (menu.isRefreshPending()) {
+                requestRefresh(menu);
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.sunsetrq7.smpeconomy;
+
+import org.bukkit.inventory.ItemStack;
+
+/**
+ * The static part of a menu in one language: title, fixed buttons and their actions.
+ *
+ * Templates are rendered once per language and stamped out with {@link #instantiate()},
+ * which only copies the prepared contents and action table into a new inventory, so
+ * opening a menu costs nothing for the slots that are the same for every player.
+ */
+public final class MenuTemplate {
+
+    private final String title;
+    private final ItemStack[] contents;
+    private final Menu.ClickAction[] actions;
+
+    public MenuTemplate(int size, String title) {
+        this.title = title;
+        this.contents = new ItemStack[size];
+        this.actions = new Menu.ClickAction[size];
+    }
+
+    /**
+     * Places a display-only item.
+     */
+    public void setItem(int slot, ItemStack item) {
+        setItem(slot, item, null);
+    }
+
+    /**
+     * Places an item that runs an action when clicked. The item may be null for a
+     * slot whose item is filled in per player but whose action is fixed.
+     */
+    public void setItem(int slot, ItemStack item, Menu.ClickAction action) {
+        contents[slot] = item;
+        actions[slot] = action;
+    }
+
+    /**
+     * Creates a menu from the template.
+     */
+    public Menu instantiate() {
+        return instantiate(title);
+    }
+
+    /**
+     * Creates a menu from the template with a title rendered for this player.
+     */
+    public Menu instantiate(String title) {
+        // The inventory copies the items it is given, so templates can be shared
+        return new Menu(title, contents, actions);
+    }
+
+    public String getTitle() {
+        return title;
+    }
+}
@@ -0,0 +1,215 @@
+package com.sunsetrq7.smpeconomy;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Registry of the message keys the plugin renders.
+ *
+ * Every key is a constant with a dense integer id, so each language can be held as a
+ * flat array of templates indexed by id and a lookup never walks the YAML tree or
+ * hashes the key string. The language loader reports keys that no language file
+ * provides once at startup.
+ */
+public final class MessageKey {
+
+    private static final List<MessageKey> KEYS = new ArrayList<>();
+    private static final Map<String, MessageKey> BY_PATH = new HashMap<>();
+
+    // Top-level keys
+    public static final MessageKey AUCTION_BUY_SUCCESS = register("auction_buy_success");
+    public static final MessageKey AUCTION_NOT_FOUND = register("auction_not_found");
+    public static final MessageKey AUCTION_SOLD = register("auction_sold");
+    public static final MessageKey INVALID_AMOUNT = register("invalid_amount");
+    public static final MessageKey NO_PERMISSION = register("no_permission");
+    public static final MessageKey PLAYER_NOT_FOUND = register("player_not_found");
+
+    // Economy commands
+    public static final MessageKey ECONOMY_BALANCE = register("economy.balance");
+    public static final MessageKey ECONOMY_PAY_FAILED = register("economy.pay_failed");
+    public static final MessageKey ECONOMY_PAY_SUCCESS = register("economy.pay_success");
+    public static final MessageKey ECONOMY_PAY_USAGE = register("economy.pay_usage");
+    public static final MessageKey ECONOMY_TOP_HEADER = register("economy.top_header");
+    public static final MessageKey ECONOMY_USAGE = register("economy.usage");
+
+    // Transfers
+    public static final MessageKey TRANSFER_RECEIVED = register("transfer.received");
+    public static final MessageKey TRANSFER_SENT = register("transfer.sent");
+
+    // Bank
+    public static final MessageKey BANK_BALANCE = register("bank.balance");
+    public static final MessageKey BANK_DEPOSIT_FAILED = register("bank.deposit_failed");
+    public static final MessageKey BANK_DEPOSIT_SUCCESS = register("bank.deposit_success");
+    public static final MessageKey BANK_DEPOSIT_USAGE = register("bank.deposit_usage");
+    public static final MessageKey BANK_SHARED_ENTRY = register("bank.shared_entry");
+    public static final MessageKey BANK_SHARED_LIST = register("bank.shared_list");
+    public static final MessageKey BANK_SHARED_MEMBER_ADDED = register("bank.shared_member_added");
+    public static final MessageKey BANK_SHARED_MEMBER_FAILED = register("bank.shared_member_failed");
+    public static final MessageKey BANK_SHARED_MEMBER_REMOVED = register("bank.shared_member_removed");
+    public static final MessageKey BANK_SHARED_NONE = register("bank.shared_none");
+    public static final MessageKey BANK_SHARED_NOT_OWNER = register("bank.shared_not_owner");
+    public static final MessageKey BANK_SHARED_USAGE = register("bank.shared_usage");
+    public static final MessageKey BANK_USAGE = register("bank.usage");
+    public static final MessageKey BANK_WITHDRAW_FAILED = register("bank.withdraw_failed");
+    public static final MessageKey BANK_WITHDRAW_SUCCESS = register("bank.withdraw_success");
+    public static final MessageKey BANK_WITHDRAW_USAGE = register("bank.withdraw_usage");
+
+    // Admin commands
+    public static final MessageKey ADMIN_BALANCE_RESET = register("admin.balance_reset");
+    public static final MessageKey ADMIN_BALANCE_SET = register("admin.balance_set");
+    public static final MessageKey ADMIN_FLOW_ENTRY = register("admin.flow_entry");
+    public static final MessageKey ADMIN_FLOW_PLAYER = register("admin.flow_player");
+    public static final MessageKey ADMIN_FLOW_RECEIVERS = register("admin.flow_receivers");
+    public static final MessageKey ADMIN_FLOW_SENDERS = register("admin.flow_senders");
+    public static final MessageKey ADMIN_GIVE_SUCCESS = register("admin.give_success");
+    public static final MessageKey ADMIN_GIVE_USAGE = register("admin.give_usage");
+    public static final MessageKey ADMIN_MONEY_GIVEN = register("admin.money_given");
+    public static final MessageKey ADMIN_RELOAD_SUCCESS = register("admin.reload_success");
+    public static final MessageKey ADMIN_RESET_SUCCESS = register("admin.reset_success");
+    public static final MessageKey ADMIN_RESET_USAGE = register("admin.reset_usage");
+    public static final MessageKey ADMIN_SET_SUCCESS = register("admin.set_success");
+    public static final MessageKey ADMIN_SET_USAGE = register("admin.set_usage");
+    public static final MessageKey ADMIN_USAGE = register("admin.usage");
+
+    // Auction house
+    public static final MessageKey AUCTION_BUYOUT_FAILED = register("auction.buyout_failed");
+    public static final MessageKey AUCTION_BUYOUT_USAGE = register("auction.buyout_usage");
+    public static final MessageKey AUCTION_CANCELLED = register("auction.cancelled");
+    public static final MessageKey AUCTION_EXTENDED = register("auction.extended");
+    public static final MessageKey AUCTION_NO_BIDS = register("auction.no_bids");
+    public static final MessageKey AUCTION_SEARCH_NO_RESULTS = register("auction.search_no_results");
+    public static final MessageKey AUCTION_SEARCH_PROMPT = register("auction.search_prompt");
+    public static final MessageKey AUCTION_SEARCH_USAGE = register("auction.search_usage");
+    public static final MessageKey AUCTION_USAGE = register("auction.usage");
+    public static final MessageKey AUCTION_WON = register("auction.won");
+
+    // Notifications
+    public static final MessageKey NOTIFICATION_AUCTION_SOLD_SUMMARY = register("notification.auction_sold_summary");
+    public static final MessageKey NOTIFICATION_MAILBOX_HEADER = register("notification.mailbox_header");
+    public static final MessageKey NOTIFICATION_TRANSFER_RECEIVED_SUMMARY = register("notification.transfer_received_summary");
+
+    // Security
+    public static final MessageKey SECURITY_VIOLATION_NOTIFY = register("security.violation_notify");
+
+    // Updates
+    public static final MessageKey UPDATE_CURRENT_VERSION = register("update.current_version");
+
+    // GUIs
+    public static final MessageKey GUI_AUCTION_BIDS_HISTORY_LORE = register("gui.auction.bids.history.lore");
+    public static final MessageKey GUI_AUCTION_BIDS_HISTORY_NAME = register("gui.auction.bids.history.name");
+    public static final MessageKey GUI_AUCTION_BIDS_TITLE = register("gui.auction.bids.title");
+    public static final MessageKey GUI_AUCTION_CATEGORY_ALL_LORE = register("gui.auction.category.all.lore");
+    public static final MessageKey GUI_AUCTION_CATEGORY_ALL_NAME = register("gui.auction.category.all.name");
+    public static final MessageKey GUI_AUCTION_CATEGORY_ARMOR_LORE = register("gui.auction.category.armor.lore");
+    public static final MessageKey GUI_AUCTION_CATEGORY_ARMOR_NAME = register("gui.auction.category.armor.name");
+    public static final MessageKey GUI_AUCTION_CATEGORY_OTHER_LORE = register("gui.auction.category.other.lore");
+    public static final MessageKey GUI_AUCTION_CATEGORY_OTHER_NAME = register("gui.auction.category.other.name");
+    public static final MessageKey GUI_AUCTION_CATEGORY_TOOLS_LORE = register("gui.auction.category.tools.lore");
+    public static final MessageKey GUI_AUCTION_CATEGORY_TOOLS_NAME = register("gui.auction.category.tools.name");
+    public static final MessageKey GUI_AUCTION_CATEGORY_WEAPONS_LORE = register("gui.auction.category.weapons.lore");
+    public static final MessageKey GUI_AUCTION_CATEGORY_WEAPONS_NAME = register("gui.auction.category.weapons.name");
+    public static final MessageKey GUI_AUCTION_CREATE_BID_SLOT_LORE = register("gui.auction.create.bid_slot.lore");
+    public static final MessageKey GUI_AUCTION_CREATE_BID_SLOT_NAME = register("gui.auction.create.bid_slot.name");
+    public static final MessageKey GUI_AUCTION_CREATE_CANCEL_LORE = register("gui.auction.create.cancel.lore");
+    public static final MessageKey GUI_AUCTION_CREATE_CANCEL_NAME = register("gui.auction.create.cancel.name");
+    public static final MessageKey GUI_AUCTION_CREATE_CONFIRM_LORE = register("gui.auction.create.confirm.lore");
+    public static final MessageKey GUI_AUCTION_CREATE_CONFIRM_NAME = register("gui.auction.create.confirm.name");
+    public static final MessageKey GUI_AUCTION_CREATE_DURATION_SLOT_LORE = register("gui.auction.create.duration_slot.lore");
+    public static final MessageKey GUI_AUCTION_CREATE_DURATION_SLOT_NAME = register("gui.auction.create.duration_slot.name");
+    public static final MessageKey GUI_AUCTION_CREATE_INSTRUCTIONS_LORE = register("gui.auction.create.instructions.lore");
+    public static final MessageKey GUI_AUCTION_CREATE_INSTRUCTIONS_NAME = register("gui.auction.create.instructions.name");
+    public static final MessageKey GUI_AUCTION_CREATE_ITEM_SLOT_LORE = register("gui.auction.create.item_slot.lore");
+    public static final MessageKey GUI_AUCTION_CREATE_ITEM_SLOT_NAME = register("gui.auction.create.item_slot.name");
+    public static final MessageKey GUI_AUCTION_CREATE_LORE = register("gui.auction.create.lore");
+    public static final MessageKey GUI_AUCTION_CREATE_NAME = register("gui.auction.create.name");
+    public static final MessageKey GUI_AUCTION_CREATE_TITLE = register("gui.auction.create.title");
+    public static final MessageKey GUI_AUCTION_ITEM_LORE = register("gui.auction.item.lore");
+    public static final MessageKey GUI_AUCTION_ITEM_NAME = register("gui.auction.item.name");
+    public static final MessageKey GUI_AUCTION_MY_ITEM_LORE = register("gui.auction.my.item.lore");
+    public static final MessageKey GUI_AUCTION_MY_ITEM_NAME = register("gui.auction.my.item.name");
+    public static final MessageKey GUI_AUCTION_MY_TITLE = register("gui.auction.my.title");
+    public static final MessageKey GUI_AUCTION_SEARCH_BACK_LORE = register("gui.auction.search.back.lore");
+    public static final MessageKey GUI_AUCTION_SEARCH_BACK_NAME = register("gui.auction.search.back.name");
+    public static final MessageKey GUI_AUCTION_SEARCH_LORE = register("gui.auction.search.lore");
+    public static final MessageKey GUI_AUCTION_SEARCH_NAME = register("gui.auction.search.name");
+    public static final MessageKey GUI_AUCTION_SEARCH_TITLE = register("gui.auction.search.title");
+    public static final MessageKey GUI_AUCTION_TITLE = register("gui.auction.title");
+    public static final MessageKey GUI_BANK_BANK_BALANCE_LORE = register("gui.bank.bank_balance.lore");
+    public static final MessageKey GUI_BANK_BANK_BALANCE_NAME = register("gui.bank.bank_balance.name");
+    public static final MessageKey GUI_BANK_DEPOSIT_LORE = register("gui.bank.deposit.lore");
+    public static final MessageKey GUI_BANK_DEPOSIT_NAME = register("gui.bank.deposit.name");
+    public static final MessageKey GUI_BANK_PLAYER_BALANCE_LORE = register("gui.bank.player_balance.lore");
+    public static final MessageKey GUI_BANK_PLAYER_BALANCE_NAME = register("gui.bank.player_balance.name");
+    public static final MessageKey GUI_BANK_QUICK_DEPOSIT_LORE = register("gui.bank.quick_deposit.lore");
+    public static final MessageKey GUI_BANK_QUICK_DEPOSIT_NAME = register("gui.bank.quick_deposit.name");
+    public static final MessageKey GUI_BANK_QUICK_WITHDRAW_LORE = register("gui.bank.quick_withdraw.lore");
+    public static final MessageKey GUI_BANK_QUICK_WITHDRAW_NAME = register("gui.bank.quick_withdraw.name");
+    public static final MessageKey GUI_BANK_TITLE = register("gui.bank.title");
+    public static final MessageKey GUI_BANK_WITHDRAW_LORE = register("gui.bank.withdraw.lore");
+    public static final MessageKey GUI_BANK_WITHDRAW_NAME = register("gui.bank.withdraw.name");
+    public static final MessageKey GUI_CLICK_DEPOSIT_INSTRUCTION = register("gui.click.deposit_instruction");
+    public static final MessageKey GUI_CLICK_PAY_INSTRUCTION = register("gui.click.pay_instruction");
+    public static final MessageKey GUI_CLICK_WITHDRAW_INSTRUCTION = register("gui.click.withdraw_instruction");
+    public static final MessageKey GUI_ERROR_LORE = register("gui.error.lore");
+    public static final MessageKey GUI_ERROR_NAME = register("gui.error.name");
+    public static final MessageKey GUI_LOADING_LORE = register("gui.loading.lore");
+    public static final MessageKey GUI_LOADING_NAME = register("gui.loading.name");
+    public static final MessageKey GUI_MAIN_AUCTION_LORE = register("gui.main.auction.lore");
+    public static final MessageKey GUI_MAIN_AUCTION_NAME = register("gui.main.auction.name");
+    public static final MessageKey GUI_MAIN_BALANCE_LORE = register("gui.main.balance.lore");
+    public static final MessageKey GUI_MAIN_BALANCE_NAME = register("gui.main.balance.name");
+    public static final MessageKey GUI_MAIN_BANK_LORE = register("gui.main.bank.lore");
+    public static final MessageKey GUI_MAIN_BANK_NAME = register("gui.main.bank.name");
+    public static final MessageKey GUI_MAIN_PAY_LORE = register("gui.main.pay.lore");
+    public static final MessageKey GUI_MAIN_PAY_NAME = register("gui.main.pay.name");
+    public static final MessageKey GUI_MAIN_TITLE = register("gui.main.title");
+    public static final MessageKey GUI_MAIN_TOP_LORE = register("gui.main.top.lore");
+    public static final MessageKey GUI_MAIN_TOP_NAME = register("gui.main.top.name");
+
+    private final int id;
+    private final String path;
+
+    private MessageKey(int id, String path) {
+        this.id = id;
+        this.path = path;
+    }
+
+    private static MessageKey register(String path) {
+        MessageKey key = new MessageKey(KEYS.size(), path);
+        KEYS.add(key);
+        BY_PATH.put(path, key);
+        return key;
+    }
+
+    /**
+     * Gets the registered key for a language file path, or null if it isn't registered.
+     */
+    public static MessageKey fromPath(String path) {
+        return BY_PATH.get(path);
+    }
+
+    /**
+     * Gets every registered key, in id order.
+     */
+    public static List<MessageKey> values() {
+        return Collections.unmodifiableList(KEYS);
+    }
+
+    /**
+     * Gets the number of registered keys.
+     */
+    public static int count() {
+        return KEYS.size();
+    }
+
+    public int getId() { return id; }
+    public String getPath() { return path; }
+
+    @Override
+    public String toString() {
+        return path;
+    }
+}
@@ -0,0 +1,145 @@
+package com.sunsetrq7.smpeconomy;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An immutable, pre-parsed message.
+ *
+ * The raw text is split once into literal segments and {@code {name}} slots, with
+ * color codes already translated, so rendering is a single StringBuilder pass that
+ * appends literals and looks up slot values among the (name, value) pairs given.
+ * Slots without a matching pair are rendered back as {@code {name}}.
+ */
+public final class MessageTemplate {
+
+    // Literal text and slot names in order; slotFlags marks the slot names
+    private final String[] segments;
+    private final boolean[] slotFlags;
+    private final int literalLength;
+    private final boolean hasSlots;
+
+    // The message with every slot left unfilled
+    private final String text;
+
+    private MessageTemplate(String text, String[] segments, boolean[] slotFlags, int literalLength) {
+        this.text = text;
+        this.segments = segments;
+        this.slotFlags = slotFlags;
+        this.literalLength = literalLength;
+
+        boolean anySlot = false;
+        for (boolean slot : slotFlags) {
+            anySlot |= slot;
+        }
+        this.hasSlots = anySlot;
+    }
+
+    /**
+     * Parses a raw message, translating {@code &} color codes.
+     */
+    public static MessageTemplate compile(String raw) {
+        String text = raw.replace('&', '§');
+
+        List<String> segments = new ArrayList<>();
+        List<Boolean> slots = new ArrayList<>();
+        int literalLength = 0;
+        int literalStart = 0;
+        int i = 0;
+        while (i < text.length()) {
+            int close = text.charAt(i) == '{' ? slotEnd(text, i + 1) : -1;
+            if (close < 0) {
+                i++;
+                continue;
+            }
+            if (i > literalStart) {
+                segments.add(text.substring(literalStart, i));
+                slots.add(false);
+                literalLength += i - literalStart;
+            }
+            segments.add(text.substring(i + 1, close));
+            slots.add(true);
+            i = close + 1;
+            literalStart = i;
+        }
+        if (literalStart < text.length()) {
+            segments.add(text.substring(literalStart));
+            slots.add(false);
+            literalLength += text.length() - literalStart;
+        }
+
+        boolean[] slotFlags = new boolean[slots.size()];
+        for (int s = 0; s < slotFlags.length; s++) {
+            slotFlags[s] = slots.get(s);
+        }
+        return new MessageTemplate(text, segments.toArray(new String[0]), slotFlags, literalLength);
+    }
+
+    /**
+     * Finds the closing brace of a slot name starting at {@code from}, or -1 if the
+     * text there is not a slot (names are letters, digits, '_', '-' and '.').
+     */
+    private static int slotEnd(String text, int from) {
+        for (int i = from; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '}') {
+                return i > from ? i : -1;
+            }
+            if (!Character.isLetterOrDigit(c) && c != '_' && c != '-' && c != '.') {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Renders the message with the given (name, value) pairs.
+     */
+    public String render(Object... placeholders) {
+        if (!hasSlots || placeholders.length < 2) {
+            return text;
+        }
+
+        StringBuilder sb = new StringBuilder(literalLength + 16 * segments.length);
+        for (int s = 0; s < segments.length; s++) {
+            String segment = segments[s];
+            if (!slotFlags[s]) {
+                sb.append(segment);
+                continue;
+            }
+
+            int match = -1;
+            for (int p = 0; p + 1 < placeholders.length; p += 2) {
+                if (segment.equals(String.valueOf(placeholders[p]))) {
+                    match = p + 1;
+                    break;
+                }
+            }
+            if (match >= 0) {
+                sb.append(placeholders[match]);
+            } else {
+                sb.append('{').append(segment).append('}');
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Gets the message with all slots unfilled.
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * Checks whether the message has any slots.
+     */
+    public boolean hasSlots() {
+        return hasSlots;
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+}
@@ -2,6 +2,20 @@ package com.sunsetrq7.smpeconomy;
 
 import org.bukkit.ChatColor;
 import org.bukkit.entity.Player;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
 
 /**
  * Manages in-game notifications for the plugin.
@@ -10,8 +24,270 @@ public class NotificationManager {
     
     private final SMP_Economy plugin;
     
+    // Messages merged into one summary when several arrive within a flush window
+    private static final Map<MessageKey, MessageKey> SUMMARY_KEYS = Map.of(
+        MessageKey.TRANSFER_RECEIVED, MessageKey.NOTIFICATION_TRANSFER_RECEIVED_SUMMARY,
+        MessageKey.AUCTION_SOLD, MessageKey.NOTIFICATION_AUCTION_SOLD_SUMMARY
+    );
+    
+    // Placeholder names and values are stored in the mailbox separated by this character
+    private static final char MAILBOX_SEPARATOR = '\u001F';
+    
+    // Notifications waiting for the next flush, per player
+    private final Map<UUID, List<PendingNotification>> pendingNotifications;
+    
+    private final PermissionHolderCache permissionHolders;
+    
     public NotificationManager(SMP_Economy plugin) {
         this.plugin = plugin;
+        this.pendingNotifications = new ConcurrentHashMap<>();
+        this.permissionHolders = new PermissionHolderCache(plugin);
+    }
+    
+    /**
+     * Queues a notification for a player, online or not. Queued notifications are sent
+     * together on the next flush, or kept in the player's mailbox if they are offline.
+     * Safe to call from any thread.
+     */
+    public void queueNotification(UUID playerUUID, MessageKey key, Object... placeholders) {
+        queue(playerUUID, key, 0.0, placeholders);
+    }
+    
+    /**
+     * Queues a notification about an amount of money. Several of the same kind within
+     * one flush window (or waiting in the mailbox) are merged into a single summary
+     * with their count and total.
+     */
+    public void queueAmountNotification(UUID playerUUID, MessageKey key, double amount, Object... placeholders) {
+        queue(playerUUID, key, amount, placeholders);
+    }
+    
+    private void queue(UUID playerUUID, MessageKey key, double amount, Object... placeholders) {
+        String[] values = new String[placeholders.length];
+        for (int i = 0; i < placeholders.length; i++) {
+            values[i] = String.valueOf(placeholders[i]);
+        }
+        
+        queue(playerUUID, new PendingNotification(key, values, amount, 1));
+    }
+    
+    private void queue(UUID playerUUID, PendingNotification notification) {
+        // compute() holds the entry while merging, so a concurrent flush takes the list whole
+        pendingNotifications.compute(playerUUID, (uuid, pending) -> {
+            if (pending == null) {
+                pending = new ArrayList<>();
+            }
+            merge(pending, notification);
+            return pending;
+        });
+    }
+    
+    /**
+     * Adds a notification to a list, folding it into an earlier one of the same
+     * summarizable kind if there is one.
+     */
+    private void merge(List<PendingNotification> pending, PendingNotification notification) {
+        if (SUMMARY_KEYS.containsKey(notification.key)) {
+            for (PendingNotification existing : pending) {
+                if (existing.key == notification.key) {
+                    existing.count += notification.count;
+                    existing.amount += notification.amount;
+                    return;
+                }
+            }
+        }
+        pending.add(notification);
+    }
+    
+    /**
+     * Sends everything queued to online players and moves the rest to the mailbox.
+     * Runs on the main thread.
+     */
+    public void flushNotifications() {
+        List<MailboxEntry> offline = new ArrayList<>();
+        
+        for (UUID playerUUID : new ArrayList<>(pendingNotifications.keySet())) {
+            List<PendingNotification> pending = pendingNotifications.remove(playerUUID);
+            if (pending == null) {
+                continue;
+            }
+            
+            Player player = plugin.getServer().getPlayer(playerUUID);
+            if (player != null && player.isOnline()) {
+                deliver(player, pending);
+            } else {
+                for (PendingNotification notification : pending) {
+                    offline.add(new MailboxEntry(playerUUID, notification));
+                }
+            }
+        }
+        
+        if (!offline.isEmpty()) {
+            plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> saveToMailbox(offline));
+        }
+    }
+    
+    /**
+     * Saves every queued notification to the mailbox (used on shutdown).
+     */
+    public void saveNotifications() {
+        List<MailboxEntry> entries = new ArrayList<>();
+        for (UUID playerUUID : new ArrayList<>(pendingNotifications.keySet())) {
+            List<PendingNotification> pending = pendingNotifications.remove(playerUUID);
+            if (pending != null) {
+                for (PendingNotification notification : pending) {
+                    entries.add(new MailboxEntry(playerUUID, notification));
+                }
+            }
+        }
+        saveToMailbox(entries);
+    }
+    
+    /**
+     * Loads and clears a player's mailbox, then delivers it in one batch on the main
+     * thread. Call off the main thread when the player joins.
+     */
+    public void deliverMailbox(UUID playerUUID) {
+        List<PendingNotification> mail = new ArrayList<>();
+        
+        try (Connection connection = plugin.getDatabaseManager().getConnection()) {
+            connection.setAutoCommit(false);
+            
+            try {
+                long lastId = 0;
+                String sql = "SELECT id, message_key, placeholders, amount, count FROM notification_mailbox WHERE uuid = ? ORDER BY id";
+                try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+                    stmt.setString(1, playerUUID.toString());
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            lastId = rs.getLong("id");
+                            MessageKey key = MessageKey.fromPath(rs.getString("message_key"));
+                            if (key != null) {
+                                merge(mail, new PendingNotification(key, decodePlaceholders(rs.getString("placeholders")), 
+                                    rs.getDouble("amount"), rs.getInt("count")));
+                            }
+                        }
+                    }
+                }
+                
+                if (lastId == 0) {
+                    connection.rollback();
+                    return;
+                }
+                
+                String deleteSql = "DELETE FROM notification_mailbox WHERE uuid = ? AND id <= ?";
+                try (PreparedStatement stmt = connection.prepareStatement(deleteSql)) {
+                    stmt.setString(1, playerUUID.toString());
+                    stmt.setLong(2, lastId);
+                    stmt.executeUpdate();
+                }
+                
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to load mailbox for player: " + playerUUID, e);
+            return;
+        }
+        
+        plugin.getServer().getScheduler().runTask(plugin, () -> {
+            Player player = plugin.getServer().getPlayer(playerUUID);
+            if (player != null && player.isOnline()) {
+                player.sendMessage(plugin.getLanguageManager().getMessage(getPlayerLanguage(player), 
+                    MessageKey.NOTIFICATION_MAILBOX_HEADER, "count", mail.size()));
+                deliver(player, mail);
+            } else {
+                // Left again before delivery; keep it for next time with its count and total
+                for (PendingNotification notification : mail) {
+                    queue(playerUUID, notification);
+                }
+            }
+        });
+    }
+    
+    /**
+     * Renders notifications in the player's language and sends them.
+     */
+    private void deliver(Player player, List<PendingNotification> notifications) {
+        String language = getPlayerLanguage(player);
+        for (PendingNotification notification : notifications) {
+            if (notification.count > 1) {
+                player.sendMessage(plugin.getLanguageManager().getMessage(language, SUMMARY_KEYS.get(notification.key), 
+                    "count", notification.count, 
+                    "total", plugin.getEconomyManager().format(notification.amount)));
+            } else {
+                player.sendMessage(plugin.getLanguageManager().getMessage(language, notification.key, 
+                    (Object[]) notification.placeholders));
+            }
+        }
+    }
+    
+    /**
+     * Writes notifications to the mailbox. Summarizable kinds are added onto the row
+     * already waiting for that player, so repeated payments stay a single row.
+     */
+    private void saveToMailbox(List<MailboxEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        
+        try (Connection connection = plugin.getDatabaseManager().getConnection()) {
+            connection.setAutoCommit(false);
+            
+            try {
+                String updateSql = "UPDATE notification_mailbox SET amount = amount + ?, count = count + ? WHERE uuid = ? AND message_key = ?";
+                String insertSql = "INSERT INTO notification_mailbox (uuid, message_key, placeholders, amount, count) VALUES (?, ?, ?, ?, ?)";
+                try (PreparedStatement updateStmt = connection.prepareStatement(updateSql);
+                     PreparedStatement insertStmt = connection.prepareStatement(insertSql)) {
+                    for (MailboxEntry entry : entries) {
+                        PendingNotification notification = entry.notification;
+                        BigDecimal amount = BigDecimal.valueOf(notification.amount).setScale(2, RoundingMode.HALF_UP);
+                        
+                        if (SUMMARY_KEYS.containsKey(notification.key)) {
+                            updateStmt.setBigDecimal(1, amount);
+                            updateStmt.setInt(2, notification.count);
+                            updateStmt.setString(3, entry.playerUUID.toString());
+                            updateStmt.setString(4, notification.key.getPath());
+                            if (updateStmt.executeUpdate() > 0) {
+                                continue;
+                            }
+                        }
+                        
+                        insertStmt.setString(1, entry.playerUUID.toString());
+                        insertStmt.setString(2, notification.key.getPath());
+                        insertStmt.setString(3, encodePlaceholders(notification.placeholders));
+                        insertStmt.setBigDecimal(4, amount);
+                        insertStmt.setInt(5, notification.count);
+                        insertStmt.addBatch();
+                    }
+                    insertStmt.executeBatch();
+                }
+                
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to save " + entries.size() + " notifications to the mailbox", e);
+        }
+    }
+    
+    private static String encodePlaceholders(String[] placeholders) {
+        return String.join(String.valueOf(MAILBOX_SEPARATOR), placeholders);
+    }
+    
+    private static String[] decodePlaceholders(String encoded) {
+        if (encoded == null || encoded.isEmpty()) {
+            return new String[0];
+        }
+        return encoded.split(String.valueOf(MAILBOX_SEPARATOR), -1);
     }
     
     /**
@@ -39,6 +315,50 @@ public class NotificationManager {
         sendNotification(player, formattedMessage);
     }
     
+    /**
+     * Sends a message to every online player in their own language.
+     */
+    public void broadcastNotification(MessageKey key, Object... placeholders) {
+        fanOut(plugin.getServer().getOnlinePlayers(), key, placeholders);
+    }
+    
+    /**
+     * Sends a message to every online player holding a permission, in their own language.
+     */
+    public void notifyPermissionHolders(String permission, MessageKey key, Object... placeholders) {
+        fanOut(permissionHolders.getHolders(permission), key, placeholders);
+    }
+    
+    /**
+     * Sends a message to each recipient, rendering it only once per language in use.
+     */
+    private void fanOut(Collection<? extends Player> recipients, MessageKey key, Object... placeholders) {
+        if (recipients.isEmpty()) {
+            return;
+        }
+        
+        LocaleResolver localeResolver = plugin.getLocaleResolver();
+        LanguageManager languageManager = plugin.getLanguageManager();
+        
+        // Rendered text per interned language index; index 0 is the server default
+        String[] rendered = new String[8];
+        for (Player player : recipients) {
+            int index = localeResolver.getLanguageIndex(player.getUniqueId());
+            if (index >= rendered.length) {
+                rendered = Arrays.copyOf(rendered, Math.max(index + 1, rendered.length * 2));
+            }
+            
+            String message = rendered[index];
+            if (message == null) {
+                String language = localeResolver.getLanguageCode(index);
+                message = languageManager.getMessage(language != null ? language : languageManager.getDefaultLanguage(), 
+                    key, placeholders);
+                rendered[index] = message;
+            }
+            player.sendMessage(message);
+        }
+    }
+    
     /**
      * Sends a notification to all online players.
      */
@@ -60,17 +380,23 @@ public class NotificationManager {
      */
     public void notifyPermissionHolders(String permission, String message) {
         String formattedMessage = ChatColor.translateAlternateColorCodes('&', message);
-        plugin.getServer().getOnlinePlayers().stream()
-            .filter(player -> player.hasPermission(permission))
-            .forEach(player -> player.sendMessage(formattedMessage));
+        for (Player player : permissionHolders.getHolders(permission)) {
+            player.sendMessage(formattedMessage);
+        }
+    }
+    
+    /**
+     * Gets the cache of online permission holders.
+     */
+    public PermissionHolderCache getPermissionHolders() {
+        return permissionHolders;
     }
     
     /**
      * Gets the player's language.
      */
     private String getPlayerLanguage(Player player) {
-        // In a real implementation, this would get the player's language from the database
-        return plugin.getLanguageManager().getDefaultLanguage();
+        return plugin.getLocaleResolver().getLanguage(player);
     }
     
     /**
@@ -104,4 +430,34 @@ public class NotificationManager {
         String infoMessage = "&b" + message; // Blue color
         sendNotification(player, infoMessage);
     }
+    
+    /**
+     * A queued notification; summarizable ones carry a count and running total.
+     */
+    private static class PendingNotification {
+        private final MessageKey key;
+        private final String[] placeholders;
+        private double amount;
+        private int count;
+        
+        PendingNotification(MessageKey key, String[] placeholders, double amount, int count) {
+            this.key = key;
+            this.placeholders = placeholders;
+            this.amount = amount;
+            this.count = count;
+        }
+    }
+    
+    /**
+     * A notification on its way to a player's mailbox.
+     */
+    private static class MailboxEntry {
+        private final UUID playerUUID;
+        private final PendingNotification notification;
+        
+        MailboxEntry(UUID playerUUID, PendingNotification notification) {
+            this.playerUUID = playerUUID;
+            this.notification = notification;
+        }
+    }
 }
\ No newline at end of file
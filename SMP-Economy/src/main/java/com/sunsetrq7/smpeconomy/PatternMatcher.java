@@ -0,0 +1,168 @@
+package com.sunsetrq7.smpeconomy;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * Case-insensitive multi-pattern substring matcher.
+ *
+ * The patterns are compiled once into an Aho-Corasick automaton whose failure
+ * links are folded into a complete transition table (a DFA), so scanning an input
+ * is a single pass of one table lookup per character with no allocation and no
+ * backtracking. Characters are lower-cased one at a time while scanning and the
+ * input itself is never copied.
+ */
+public final class PatternMatcher {
+
+    private static final int ASCII = 128;
+
+    // Character class 0 is every character that appears in no pattern
+    private final int[] asciiClasses;
+    private final char[] otherChars;
+    private final int[] otherClasses;
+    private final int alphabetSize;
+
+    // transitions[offset + class] -> offset of the next state (state * alphabetSize),
+    // with the sign bit set when the next state completes a pattern
+    private final int[] transitions;
+    private final int patternCount;
+
+    public PatternMatcher(Collection<String> patterns) {
+        // Assign a character class to every distinct (lower-cased) pattern character
+        List<String> folded = new ArrayList<>();
+        Map<Character, Integer> classes = new HashMap<>();
+        for (String pattern : patterns) {
+            if (pattern == null || pattern.isEmpty()) {
+                continue;
+            }
+            StringBuilder sb = new StringBuilder(pattern.length());
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = Character.toLowerCase(pattern.charAt(i));
+                classes.putIfAbsent(c, classes.size() + 1);
+                sb.append(c);
+            }
+            folded.add(sb.toString());
+        }
+
+        this.patternCount = folded.size();
+        this.alphabetSize = classes.size() + 1;
+        this.asciiClasses = new int[ASCII];
+
+        List<Character> others = new ArrayList<>();
+        for (Map.Entry<Character, Integer> entry : classes.entrySet()) {
+            char c = entry.getKey();
+            if (c < ASCII) {
+                asciiClasses[c] = entry.getValue();
+                // Fold upper-case ASCII onto the same class
+                if (c >= 'a' && c <= 'z') {
+                    asciiClasses[c - 'a' + 'A'] = entry.getValue();
+                }
+            } else {
+                others.add(c);
+            }
+        }
+        others.sort(null);
+        this.otherChars = new char[others.size()];
+        this.otherClasses = new int[others.size()];
+        for (int i = 0; i < others.size(); i++) {
+            otherChars[i] = others.get(i);
+            otherClasses[i] = classes.get(others.get(i));
+        }
+
+        // Build the trie
+        List<int[]> trie = new ArrayList<>();
+        List<Boolean> terminal = new ArrayList<>();
+        trie.add(new int[alphabetSize]);
+        terminal.add(false);
+        for (String pattern : folded) {
+            int state = 0;
+            for (int i = 0; i < pattern.length(); i++) {
+                int cls = classes.get(pattern.charAt(i));
+                if (trie.get(state)[cls] == 0) {
+                    trie.get(state)[cls] = trie.size();
+                    trie.add(new int[alphabetSize]);
+                    terminal.add(false);
+                }
+                state = trie.get(state)[cls];
+            }
+            terminal.set(state, true);
+        }
+
+        // Breadth-first pass: resolve failure links into direct transitions
+        int states = trie.size();
+        int[] next = new int[states * alphabetSize];
+        boolean[] accepting = new boolean[states];
+        int[] failure = new int[states];
+        Queue<Integer> queue = new ArrayDeque<>();
+
+        accepting[0] = terminal.get(0);
+        for (int cls = 0; cls < alphabetSize; cls++) {
+            int child = trie.get(0)[cls];
+            next[cls] = child;
+            if (child != 0) {
+                failure[child] = 0;
+                queue.add(child);
+            }
+        }
+
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            accepting[state] = terminal.get(state) || accepting[failure[state]];
+
+            for (int cls = 0; cls < alphabetSize; cls++) {
+                int child = trie.get(state)[cls];
+                if (child != 0) {
+                    failure[child] = next[failure[state] * alphabetSize + cls];
+                    next[state * alphabetSize + cls] = child;
+                    queue.add(child);
+                } else {
+                    next[state * alphabetSize + cls] = next[failure[state] * alphabetSize + cls];
+                }
+            }
+        }
+
+        // Pre-multiply target states and tag accepting ones so a scan step is one lookup
+        this.transitions = new int[next.length];
+        for (int i = 0; i < next.length; i++) {
+            transitions[i] = next[i] * alphabetSize | (accepting[next[i]] ? Integer.MIN_VALUE : 0);
+        }
+    }
+
+    /**
+     * Checks whether the input contains any of the patterns, ignoring case.
+     */
+    public boolean containsAny(CharSequence input) {
+        int offset = 0;
+        for (int i = 0, length = input.length(); i < length; i++) {
+            offset = transitions[offset + classOf(input.charAt(i))];
+            if (offset < 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the number of compiled patterns.
+     */
+    public int getPatternCount() {
+        return patternCount;
+    }
+
+    private int classOf(char c) {
+        if (c < ASCII) {
+            return asciiClasses[c];
+        }
+        if (otherChars.length == 0) {
+            return 0;
+        }
+        int index = Arrays.binarySearch(otherChars, Character.toLowerCase(c));
+        return index >= 0 ? otherClasses[index] : 0;
+    }
+}
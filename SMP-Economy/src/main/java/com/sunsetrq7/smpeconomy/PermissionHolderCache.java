@@ -0,0 +1,82 @@
+package com.sunsetrq7.smpeconomy;
+
+import org.bukkit.entity.Player;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the set of online players holding each permission we notify by.
+ *
+ * A permission is tracked from the first time its holders are asked for; after that
+ * sending to its holders walks only those players instead of checking every online
+ * player. Bukkit has no permission-change event, so a player's entries are refreshed
+ * when they join, quit or change worlds, and every tracked permission is re-checked
+ * periodically to pick up changes made by permission plugins or /op.
+ */
+public class PermissionHolderCache {
+
+    private final SMP_Economy plugin;
+
+    private final Map<String, Map<UUID, Player>> holders;
+
+    public PermissionHolderCache(SMP_Economy plugin) {
+        this.plugin = plugin;
+        this.holders = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Gets the online players holding a permission. Must be called on the main thread
+     * the first time a permission is used.
+     */
+    public Collection<Player> getHolders(String permission) {
+        Map<UUID, Player> players = holders.get(permission);
+        if (players == null) {
+            players = holders.computeIfAbsent(permission, this::scan);
+        }
+        return Collections.unmodifiableCollection(players.values());
+    }
+
+    /**
+     * Re-checks every tracked permission for one player.
+     */
+    public void refresh(Player player) {
+        for (Map.Entry<String, Map<UUID, Player>> entry : holders.entrySet()) {
+            if (player.isOnline() && player.hasPermission(entry.getKey())) {
+                entry.getValue().put(player.getUniqueId(), player);
+            } else {
+                entry.getValue().remove(player.getUniqueId());
+            }
+        }
+    }
+
+    /**
+     * Drops a player who left.
+     */
+    public void remove(UUID playerUUID) {
+        for (Map<UUID, Player> players : holders.values()) {
+            players.remove(playerUUID);
+        }
+    }
+
+    /**
+     * Re-checks every tracked permission for every online player.
+     */
+    public void refreshAll() {
+        for (Map.Entry<String, Map<UUID, Player>> entry : holders.entrySet()) {
+            entry.setValue(scan(entry.getKey()));
+        }
+    }
+
+    private Map<UUID, Player> scan(String permission) {
+        Map<UUID, Player> players = new ConcurrentHashMap<>();
+        for (Player player : plugin.getServer().getOnlinePlayers()) {
+            if (player.hasPermission(permission)) {
+                players.put(player.getUniqueId(), player);
+            }
+        }
+        return players;
+    }
+}
@@ -36,7 +36,12 @@ public class PlaceholderManager extends PlaceholderExpansion {
     }
     
     @Override
-    public String onPlaceholderRequest(OfflinePlayer player, String identifier) {
+    public String onRequest(OfflinePlayer player, String identifier) {
+        // Market placeholders don't depend on the player
+        if (identifier.toLowerCase().startsWith("market_")) {
+            return getMarketPlaceholder(identifier.substring("market_".length()));
+        }
+        
         if (player == null) {
             return null;
         }
@@ -93,6 +98,42 @@ public class PlaceholderManager extends PlaceholderExpansion {
         return String.valueOf(rank);
     }
     
+    /**
+     * Resolves market placeholders of the form {@code <stat>_<material>},
+     * e.g. {@code avg_diamond} or {@code median_iron_ingot}.
+     */
+    private String getMarketPlaceholder(String identifier) {
+        int separator = identifier.indexOf('_');
+        if (separator <= 0 || separator == identifier.length() - 1) {
+            return null;
+        }
+        
+        String stat = identifier.substring(0, separator).toLowerCase();
+        MarketStatsManager.MarketStats stats = plugin.getMarketStatsManager().getStats(identifier.substring(separator + 1));
+        if (stats == null) {
+            return "N/A";
+        }
+        
+        switch (stat) {
+            case "avg":
+                return plugin.getEconomyManager().format(stats.getAveragePrice());
+            case "median":
+                return plugin.getEconomyManager().format(stats.getMedianPrice());
+            case "high":
+                return plugin.getEconomyManager().format(stats.getHigh());
+            case "low":
+                return plugin.getEconomyManager().format(stats.getLow());
+            case "last":
+                return plugin.getEconomyManager().format(stats.getClose());
+            case "volume":
+                return String.valueOf(stats.getQuantity());
+            case "trades":
+                return String.valueOf(stats.getTrades());
+            default:
+                return null;
+        }
+    }
+    
     /**
      * Registers the placeholder expansion.
      */
@@ -59,7 +59,9 @@ public class PlayerDataManager {
         }
         
         try (Connection connection = databaseManager.getConnection()) {
-            String sql = "SELECT uuid, username, balance, bank_balance, total_earned, total_spent, created_at, last_seen FROM players WHERE uuid = ?";
+            String sql = "SELECT p.uuid, p.username, p.balance, p.bank_balance, p.total_earned, p.total_spent, " +
+                        "p.created_at, p.last_seen, s.language FROM players p " +
+                        "LEFT JOIN player_settings s ON s.uuid = p.uuid WHERE p.uuid = ?";
             try (PreparedStatement stmt = connection.prepareStatement(sql)) {
                 stmt.setString(1, playerUUID.toString());
                 try (ResultSet rs = stmt.executeQuery()) {
@@ -78,6 +80,7 @@ public class PlayerDataManager {
                         // Update cache
                         playerCache.put(playerUUID, data);
                         lastSaveTime.put(playerUUID, System.currentTimeMillis());
+                        plugin.getLocaleResolver().setLocale(playerUUID, rs.getString("language"));
                         
                         return data;
                     } else {
@@ -100,7 +103,7 @@ public class PlayerDataManager {
         
         PlayerData data = new PlayerData(
             playerUUID,
-            username != null ? username : "Unknown",
+            username != null ? username : EconomyManager.UNKNOWN_USERNAME,
             startingBalance,
             0.0, // Bank balance starts at 0
             0.0, // Total earned starts at 0
@@ -120,20 +123,18 @@ public class PlayerDataManager {
     }
     
     /**
-     * Saves player data to the database.
+     * Saves player data to the database. Balances are not written: every balance change
+     * is already committed by the ledger, and the cached copies may trail it.
      */
     public boolean savePlayerData(PlayerData data) {
         try (Connection connection = databaseManager.getConnection()) {
-            String sql = "UPDATE players SET username = ?, balance = ?, bank_balance = ?, " +
-                        "total_earned = ?, total_spent = ?, last_seen = CURRENT_TIMESTAMP, " +
-                        "last_updated = CURRENT_TIMESTAMP WHERE uuid = ?";
+            String sql = "UPDATE players SET username = ?, total_earned = ?, total_spent = ?, " +
+                        "last_seen = CURRENT_TIMESTAMP, last_updated = CURRENT_TIMESTAMP WHERE uuid = ?";
             try (PreparedStatement stmt = connection.prepareStatement(sql)) {
                 stmt.setString(1, data.getUsername());
-                stmt.setDouble(2, data.getBalance());
-                stmt.setDouble(3, data.getBankBalance());
-                stmt.setDouble(4, data.getTotalEarned());
-                stmt.setDouble(5, data.getTotalSpent());
-                stmt.setString(6, data.getUuid().toString());
+                stmt.setDouble(2, data.getTotalEarned());
+                stmt.setDouble(3, data.getTotalSpent());
+                stmt.setString(4, data.getUuid().toString());
                 
                 boolean success = stmt.executeUpdate() > 0;
                 if (success) {
@@ -184,6 +185,7 @@ public class PlayerDataManager {
             
             playerCache.put(playerUUID, updatedData);
             lastSaveTime.put(playerUUID, System.currentTimeMillis());
+            publishBalanceChange(playerUUID);
         }
     }
     
@@ -207,6 +209,17 @@ public class PlayerDataManager {
             
             playerCache.put(playerUUID, updatedData);
             lastSaveTime.put(playerUUID, System.currentTimeMillis());
+            publishBalanceChange(playerUUID);
+        }
+    }
+    
+    /**
+     * Lets open menus showing this player's balances know they changed.
+     */
+    private void publishBalanceChange(UUID playerUUID) {
+        MenuRefresher menuRefresher = plugin.getMenuRefresher();
+        if (menuRefresher != null) {
+            menuRefresher.markChanged(MenuRefresher.balanceTopic(playerUUID));
         }
     }
     
@@ -0,0 +1,140 @@
+package com.sunsetrq7.smpeconomy;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+
+/**
+ * Resolves player names to UUIDs without leaving the process.
+ *
+ * Every account's name is loaded from the players table at startup and kept current as
+ * players join, so commands and Vault callers can find offline players by name without
+ * {@code Bukkit.getOfflinePlayer(String)}, which may block on a Mojang profile lookup.
+ * Lookups are case-insensitive; when two accounts have used the same name, the one seen
+ * most recently owns it. Names are also kept in a {@link PrefixIndex} so completing a
+ * player argument doesn't scan every account.
+ */
+public class PlayerNameIndex {
+
+    private final SMP_Economy plugin;
+
+    // Lower-case name to UUID, and each UUID's name as the player spells it
+    private final Map<String, UUID> uuids;
+    private final Map<UUID, String> names;
+    private final PrefixIndex completions;
+
+    public PlayerNameIndex(SMP_Economy plugin) {
+        this.plugin = plugin;
+        this.uuids = new ConcurrentHashMap<>();
+        this.names = new ConcurrentHashMap<>();
+        this.completions = new PrefixIndex();
+    }
+
+    /**
+     * Loads every known account name, oldest first so later owners of a name win.
+     * Accounts created without a name hold a placeholder, which is not indexed; their
+     * real name is picked up when they join.
+     */
+    public void load() {
+        String sql = "SELECT uuid, username FROM players WHERE username <> ? ORDER BY last_seen";
+        try (Connection connection = plugin.getDatabaseManager().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setString(1, EconomyManager.UNKNOWN_USERNAME);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    index(UUID.fromString(rs.getString("uuid")), rs.getString("username"));
+                }
+            }
+        } catch (SQLException e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to load player names", e);
+        }
+
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            index(player.getUniqueId(), player.getName());
+        }
+        completions.addAll(names.values());
+
+        plugin.getLogger().info("Indexed " + names.size() + " player names.");
+    }
+
+    /**
+     * Records a player's current name, e.g. when they join.
+     */
+    public synchronized void put(UUID playerUUID, String name) {
+        String oldName = index(playerUUID, name);
+        if (oldName != null) {
+            completions.remove(oldName);
+        }
+        if (name != null && !name.isEmpty()) {
+            completions.add(name);
+        }
+    }
+
+    /**
+     * Updates the lookup maps, returning the player's old name if it was released.
+     */
+    private String index(UUID playerUUID, String name) {
+        if (name == null || name.isEmpty()) {
+            return null;
+        }
+
+        String key = name.toLowerCase(Locale.ROOT);
+        String oldName = names.put(playerUUID, name);
+        String released = null;
+        if (oldName != null && !oldName.equalsIgnoreCase(name)
+                && uuids.remove(oldName.toLowerCase(Locale.ROOT), playerUUID)) {
+            released = oldName;
+        }
+
+        UUID previousOwner = uuids.put(key, playerUUID);
+        if (previousOwner != null && !previousOwner.equals(playerUUID)) {
+            names.remove(previousOwner);
+        }
+        return released;
+    }
+
+    /**
+     * Gets the UUID of the account with a name, ignoring case, or null if none is known.
+     */
+    public UUID getUUID(String name) {
+        return name == null ? null : uuids.get(name.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Gets a player's name as they spell it, or null if the UUID is unknown.
+     */
+    public String getName(UUID playerUUID) {
+        return names.get(playerUUID);
+    }
+
+    /**
+     * Gets a player's name for showing in messages, or their UUID if no name is known.
+     */
+    public String getDisplayName(UUID playerUUID) {
+        String name = names.get(playerUUID);
+        return name != null ? name : playerUUID.toString();
+    }
+
+    /**
+     * Gets up to {@code limit} known names starting with a prefix, ignoring case.
+     */
+    public List<String> complete(String prefix, int limit) {
+        return completions.complete(prefix, limit);
+    }
+
+    /**
+     * Gets the number of known names.
+     */
+    public int size() {
+        return names.size();
+    }
+}
@@ -0,0 +1,164 @@
+package com.sunsetrq7.smpeconomy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Case-insensitive prefix lookup over a set of strings, for tab completion.
+ *
+ * Entries are kept in a sorted array of lower-case keys with their original spelling
+ * alongside, so a completion is a binary search for the first key at or after the
+ * prefix followed by a walk over the matching run, stopping at the limit. Adding or
+ * removing one entry shifts the tail of the arrays; bulk loads sort once.
+ */
+public class PrefixIndex {
+
+    private final ReentrantReadWriteLock lock;
+
+    private String[] keys;
+    private String[] values;
+    private int size;
+
+    public PrefixIndex() {
+        this.lock = new ReentrantReadWriteLock();
+        this.keys = new String[16];
+        this.values = new String[16];
+    }
+
+    /**
+     * Adds an entry, replacing one that differs only in case.
+     */
+    public void add(String value) {
+        String key = value.toLowerCase(Locale.ROOT);
+
+        lock.writeLock().lock();
+        try {
+            int index = Arrays.binarySearch(keys, 0, size, key);
+            if (index >= 0) {
+                values[index] = value;
+                return;
+            }
+
+            index = -index - 1;
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            System.arraycopy(keys, index, keys, index + 1, size - index);
+            System.arraycopy(values, index, values, index + 1, size - index);
+            keys[index] = key;
+            values[index] = value;
+            size++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds many entries at once, sorting them together rather than one by one.
+     */
+    public void addAll(Collection<String> newValues) {
+        lock.writeLock().lock();
+        try {
+            Map<String, String> merged = new TreeMap<>();
+            for (int i = 0; i < size; i++) {
+                merged.put(keys[i], values[i]);
+            }
+            for (String value : newValues) {
+                merged.put(value.toLowerCase(Locale.ROOT), value);
+            }
+
+            int capacity = Math.max(16, merged.size());
+            keys = merged.keySet().toArray(new String[capacity]);
+            values = merged.values().toArray(new String[capacity]);
+            size = merged.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes an entry, ignoring case.
+     */
+    public void remove(String value) {
+        String key = value.toLowerCase(Locale.ROOT);
+
+        lock.writeLock().lock();
+        try {
+            int index = Arrays.binarySearch(keys, 0, size, key);
+            if (index < 0) {
+                return;
+            }
+
+            System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+            System.arraycopy(values, index + 1, values, index, size - index - 1);
+            size--;
+            keys[size] = null;
+            values[size] = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes every entry.
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            Arrays.fill(keys, 0, size, null);
+            Arrays.fill(values, 0, size, null);
+            size = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Gets up to {@code limit} entries starting with a prefix, ignoring case, in
+     * alphabetical order.
+     */
+    public List<String> complete(String prefix, int limit) {
+        String key = prefix.toLowerCase(Locale.ROOT);
+
+        lock.readLock().lock();
+        try {
+            int start = Arrays.binarySearch(keys, 0, size, key);
+            if (start < 0) {
+                start = -start - 1;
+            }
+
+            int end = start;
+            int last = start + Math.min(size - start, limit);
+            while (end < last && keys[end].startsWith(key)) {
+                end++;
+            }
+
+            List<String> matches = new ArrayList<>(end - start);
+            for (int i = start; i < end; i++) {
+                matches.add(values[i]);
+            }
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the number of entries.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.sunsetrq7.smpeconomy;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free sliding-window rate limiter keyed by player UUID.
+ *
+ * State lives in a fixed open-addressed table of interleaved (fingerprint, state)
+ * longs. The state packs the window number (16 bits) with the previous and current
+ * window counts (24 bits each); the usage estimate is the current count plus the
+ * previous count weighted by how much of the previous window still overlaps the
+ * sliding window. Checks are O(1), allocate nothing and update with a single CAS.
+ * Entries idle for two windows are reclaimed in place by the next key that probes
+ * them, so no cleanup task is needed. If no slot is free within the probe limit the
+ * limiter fails open.
+ */
+public class RateLimiter {
+
+    // Largest count a window can hold; permits and limits saturate here
+    public static final int MAX_COUNT = (1 << 24) - 1;
+
+    private static final int MAX_PROBES = 8;
+    private static final long COUNT_MASK = MAX_COUNT;
+    private static final int WINDOW_MASK = 0xFFFF;
+
+    private final AtomicLongArray table;
+    private final int mask;
+    private final long windowMillis;
+
+    public RateLimiter(int capacity, long windowMillis) {
+        if (windowMillis <= 0) {
+            throw new IllegalArgumentException("Window must be positive: " + windowMillis);
+        }
+
+        int size = Integer.highestOneBit(Math.max(16, capacity - 1) << 1);
+        this.table = new AtomicLongArray(size * 2);
+        this.mask = size - 1;
+        this.windowMillis = windowMillis;
+    }
+
+    /**
+     * Records {@code permits} uses for the key if that keeps its sliding-window usage
+     * within {@code limit}. Returns false (recording nothing) if the limit would be exceeded.
+     */
+    public boolean tryAcquire(UUID key, int permits, int limit, long nowMillis) {
+        long fingerprint = fingerprint(key);
+        int window = (int) (Math.floorDiv(nowMillis, windowMillis) & WINDOW_MASK);
+
+        // Two attempts: a lost race for a free slot means another thread just claimed it
+        for (int attempt = 0; attempt < 2; attempt++) {
+            int start = (int) (fingerprint ^ (fingerprint >>> 32)) & mask;
+            int candidate = -1;
+            long candidateKey = 0;
+
+            for (int probe = 0; probe < MAX_PROBES; probe++) {
+                int slot = (start + probe) & mask;
+                long current = table.get(slot << 1);
+
+                if (current == fingerprint) {
+                    return acquire(slot, window, nowMillis, permits, limit);
+                }
+                if (current == 0) {
+                    // Keys are never removed, so an empty slot ends the probe sequence
+                    if (candidate < 0) {
+                        candidate = slot;
+                        candidateKey = 0;
+                    }
+                    break;
+                }
+                if (candidate < 0 && isStale(table.get((slot << 1) + 1), window)) {
+                    candidate = slot;
+                    candidateKey = current;
+                }
+            }
+
+            if (candidate < 0) {
+                return true;
+            }
+            if (table.compareAndSet(candidate << 1, candidateKey, fingerprint)) {
+                return acquire(candidate, window, nowMillis, permits, limit);
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Gets the current sliding-window usage for a key.
+     */
+    public long getUsage(UUID key, long nowMillis) {
+        long fingerprint = fingerprint(key);
+        int window = (int) (Math.floorDiv(nowMillis, windowMillis) & WINDOW_MASK);
+        int start = (int) (fingerprint ^ (fingerprint >>> 32)) & mask;
+
+        for (int probe = 0; probe < MAX_PROBES; probe++) {
+            int slot = (start + probe) & mask;
+            long current = table.get(slot << 1);
+            if (current == fingerprint) {
+                return estimate(table.get((slot << 1) + 1), window, nowMillis);
+            }
+            if (current == 0) {
+                break;
+            }
+        }
+        return 0;
+    }
+
+    private boolean acquire(int slot, int window, long nowMillis, int permits, int limit) {
+        int index = (slot << 1) + 1;
+        long weight = Math.min(Math.max(permits, 0), MAX_COUNT);
+
+        while (true) {
+            long state = table.get(index);
+            long previous = (state >>> 24) & COUNT_MASK;
+            long current = state & COUNT_MASK;
+
+            // Roll the counts forward to the current window
+            int elapsed = (window - (int) (state >>> 48)) & WINDOW_MASK;
+            if (elapsed == 1) {
+                previous = current;
+                current = 0;
+            } else if (elapsed != 0) {
+                previous = 0;
+                current = 0;
+            }
+
+            long remaining = windowMillis - Math.floorMod(nowMillis, windowMillis);
+            if (current + previous * remaining / windowMillis + weight > Math.min(limit, MAX_COUNT)) {
+                return false;
+            }
+
+            long next = ((long) window << 48) | (previous << 24) | Math.min(current + weight, COUNT_MASK);
+            if (table.compareAndSet(index, state, next)) {
+                return true;
+            }
+        }
+    }
+
+    private long estimate(long state, int window, long nowMillis) {
+        long previous = (state >>> 24) & COUNT_MASK;
+        long current = state & COUNT_MASK;
+
+        int elapsed = (window - (int) (state >>> 48)) & WINDOW_MASK;
+        if (elapsed == 1) {
+            previous = current;
+            current = 0;
+        } else if (elapsed != 0) {
+            return 0;
+        }
+
+        long remaining = windowMillis - Math.floorMod(nowMillis, windowMillis);
+        return current + previous * remaining / windowMillis;
+    }
+
+    /**
+     * Checks whether a slot has seen no use in the current or previous window.
+     */
+    private static boolean isStale(long state, int window) {
+        return ((window - (int) (state >>> 48)) & WINDOW_MASK) >= 2;
+    }
+
+    /**
+     * Mixes a UUID into a non-zero 64-bit fingerprint (zero marks an empty slot).
+     */
+    private static long fingerprint(UUID key) {
+        long z = key.getMostSignificantBits() * 0x9E3779B97F4A7C15L ^ key.getLeastSignificantBits();
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z ^= z >>> 31;
+        return z != 0 ? z : 1;
+    }
+}
@@ -0,0 +1,382 @@
+package com.sunsetrq7.smpeconomy;
+
+import org.bukkit.Bukkit;
+import java.io.ByteArrayOutputStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+
+/**
+ * Tracks per-player amounts over rolling 24 hour and 7 day windows.
+ *
+ * Each player has a ring of 168 hourly buckets (in cents) with running day and week
+ * sums, so checking and recording are O(1) apart from rolling the ring forward.
+ * Windows are persisted to the rolling_limits table as varint-packed buckets and
+ * rebuilt from the transactions table when no saved window exists. One tracker
+ * exists per kind of limited action (transfers, bank deposits, ...).
+ */
+public class RollingLimitTracker {
+
+    private static final int HOURS_PER_DAY = 24;
+    private static final int BUCKETS = 7 * HOURS_PER_DAY;
+    private static final long MILLIS_PER_HOUR = 60L * 60L * 1000L;
+
+    // Returned by tryRecord when a limit would be exceeded
+    public static final long REFUSED = -1;
+
+    private final SMP_Economy plugin;
+    private final DatabaseManager databaseManager;
+
+    // Key in rolling_limits and the transactions type used to rebuild windows
+    private final String kind;
+    private final String transactionType;
+
+    private final Map<UUID, Window> windows;
+
+    public RollingLimitTracker(SMP_Economy plugin, String kind, String transactionType) {
+        this.plugin = plugin;
+        this.databaseManager = plugin.getDatabaseManager();
+        this.kind = kind;
+        this.transactionType = transactionType;
+        this.windows = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Records an amount if it keeps the player within both limits. A limit of zero or less
+     * disables that window. Returns the hour the amount was recorded in, to hand back to
+     * {@link #release}, or {@link #REFUSED} (recording nothing) if a limit would be exceeded.
+     */
+    public long tryRecord(UUID playerUUID, double amount, double dailyLimit, double weeklyLimit) {
+        return tryRecord(playerUUID, amount, dailyLimit, weeklyLimit, System.currentTimeMillis());
+    }
+
+    long tryRecord(UUID playerUUID, double amount, double dailyLimit, double weeklyLimit, long nowMillis) {
+        long cents = toCents(amount);
+        long dailyCents = dailyLimit > 0 ? toCents(dailyLimit) : Long.MAX_VALUE;
+        long weeklyCents = weeklyLimit > 0 ? toCents(weeklyLimit) : Long.MAX_VALUE;
+        long hour = hourOf(nowMillis);
+
+        Window window = getWindow(playerUUID, hour);
+        synchronized (window) {
+            window.advance(hour);
+            if (window.daySum + cents > dailyCents || window.weekSum + cents > weeklyCents) {
+                return REFUSED;
+            }
+            window.add(cents);
+            return window.headHour;
+        }
+    }
+
+    /**
+     * Gives back an amount recorded by {@link #tryRecord} when the action did not go through.
+     * The amount comes off the bucket it was recorded in, even if the hour has rolled over since.
+     */
+    public void release(UUID playerUUID, double amount, long recordedHour) {
+        release(playerUUID, amount, recordedHour, System.currentTimeMillis());
+    }
+
+    void release(UUID playerUUID, double amount, long recordedHour, long nowMillis) {
+        long hour = hourOf(nowMillis);
+        Window window = getWindow(playerUUID, hour);
+        synchronized (window) {
+            window.advance(hour);
+            window.remove(recordedHour, toCents(amount));
+        }
+    }
+
+    /**
+     * Gets the amount recorded over the last 24 hours.
+     */
+    public double getDailyTotal(UUID playerUUID) {
+        return getDailyTotal(playerUUID, System.currentTimeMillis());
+    }
+
+    double getDailyTotal(UUID playerUUID, long nowMillis) {
+        long hour = hourOf(nowMillis);
+        Window window = getWindow(playerUUID, hour);
+        synchronized (window) {
+            window.advance(hour);
+            return window.daySum / 100.0;
+        }
+    }
+
+    /**
+     * Gets the amount recorded over the last 7 days.
+     */
+    public double getWeeklyTotal(UUID playerUUID) {
+        return getWeeklyTotal(playerUUID, System.currentTimeMillis());
+    }
+
+    double getWeeklyTotal(UUID playerUUID, long nowMillis) {
+        long hour = hourOf(nowMillis);
+        Window window = getWindow(playerUUID, hour);
+        synchronized (window) {
+            window.advance(hour);
+            return window.weekSum / 100.0;
+        }
+    }
+
+    /**
+     * Loads a player's window ahead of time so later checks don't touch the database.
+     */
+    public void preload(UUID playerUUID) {
+        getWindow(playerUUID, hourOf(System.currentTimeMillis()));
+    }
+
+    /**
+     * Saves and forgets a player's window. The window stays cached until its save has
+     * finished, so a player who rejoins meanwhile keeps using it rather than loading the
+     * older saved row; it is only dropped if it is still unchanged and they are offline.
+     */
+    public void unload(UUID playerUUID) {
+        Window window = windows.get(playerUUID);
+        if (window == null) {
+            return;
+        }
+
+        if (window.dirty) {
+            save(List.of(window));
+        }
+        windows.computeIfPresent(playerUUID, (uuid, current) ->
+            current == window && !current.dirty && Bukkit.getPlayer(uuid) == null ? null : current);
+    }
+
+    /**
+     * Saves every changed window and drops windows of players who are offline.
+     */
+    public void flush() {
+        List<Window> dirty = new ArrayList<>();
+        for (Window window : windows.values()) {
+            if (window.dirty) {
+                dirty.add(window);
+            }
+        }
+        save(dirty);
+
+        windows.entrySet().removeIf(entry -> !entry.getValue().dirty && Bukkit.getPlayer(entry.getKey()) == null);
+    }
+
+    private Window getWindow(UUID playerUUID, long hour) {
+        Window window = windows.get(playerUUID);
+        if (window == null) {
+            window = windows.computeIfAbsent(playerUUID, uuid -> loadWindow(uuid, hour));
+        }
+        return window;
+    }
+
+    /**
+     * Loads a saved window, or rebuilds it from the transaction log if none was saved.
+     * A saved window that can't be decoded is discarded and the window starts empty.
+     */
+    private Window loadWindow(UUID playerUUID, long hour) {
+        Window window = new Window(playerUUID);
+        window.headHour = hour;
+
+        try (Connection connection = databaseManager.getConnection()) {
+            String sql = "SELECT head_hour, buckets FROM rolling_limits WHERE uuid = ? AND kind = ?";
+            try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+                stmt.setString(1, playerUUID.toString());
+                stmt.setString(2, kind);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        try {
+                            window.decode(rs.getLong("head_hour"), rs.getString("buckets"));
+                            window.advance(hour);
+                        } catch (IllegalArgumentException e) {
+                            plugin.getLogger().warning("Discarding unreadable " + kind + " limits for player: " + playerUUID);
+                            window = new Window(playerUUID);
+                            window.headHour = hour;
+                            window.dirty = true;
+                        }
+                        return window;
+                    }
+                }
+            }
+
+            // No saved window yet: replay the last week of matching transactions
+            String rebuildSql = databaseManager.isSQLite()
+                ? "SELECT amount, CAST(strftime('%s', timestamp) AS INTEGER) AS epoch FROM transactions " +
+                  "WHERE from_uuid = ? AND type = ? AND timestamp >= datetime('now', '-7 days')"
+                : "SELECT amount, UNIX_TIMESTAMP(timestamp) AS epoch FROM transactions " +
+                  "WHERE from_uuid = ? AND type = ? AND timestamp >= NOW() - INTERVAL 7 DAY";
+            try (PreparedStatement stmt = connection.prepareStatement(rebuildSql)) {
+                stmt.setString(1, playerUUID.toString());
+                stmt.setString(2, transactionType);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        long entryHour = rs.getLong("epoch") * 1000L / MILLIS_PER_HOUR;
+                        if (entryHour > hour - BUCKETS && entryHour <= hour) {
+                            window.addAt(entryHour, toCents(rs.getDouble("amount")));
+                        }
+                    }
+                }
+            }
+            window.dirty = window.weekSum > 0;
+        } catch (SQLException e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to load " + kind + " limits for player: " + playerUUID, e);
+        }
+
+        return window;
+    }
+
+    private void save(List<Window> dirty) {
+        if (dirty.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> rows = new ArrayList<>(dirty.size());
+        for (Window window : dirty) {
+            synchronized (window) {
+                rows.add(new Object[] { window.playerUUID.toString(), window.headHour, window.encode() });
+                window.dirty = false;
+            }
+        }
+
+        try (Connection connection = databaseManager.getConnection()) {
+            String sql = "REPLACE INTO rolling_limits (uuid, kind, head_hour, buckets) VALUES (?, ?, ?, ?)";
+            try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+                for (Object[] row : rows) {
+                    stmt.setString(1, (String) row[0]);
+                    stmt.setString(2, kind);
+                    stmt.setLong(3, (Long) row[1]);
+                    stmt.setString(4, (String) row[2]);
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+            }
+        } catch (SQLException e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to save " + kind + " limits", e);
+            for (Window window : dirty) {
+                window.dirty = true;
+            }
+        }
+    }
+
+    private static long toCents(double amount) {
+        return Math.round(amount * 100.0);
+    }
+
+    private static long hourOf(long millis) {
+        return Math.floorDiv(millis, MILLIS_PER_HOUR);
+    }
+
+    /**
+     * Hourly buckets for one player with running day and week sums.
+     */
+    private static class Window {
+        private final UUID playerUUID;
+        private final long[] buckets = new long[BUCKETS];
+        private long headHour;
+        private long daySum;
+        private long weekSum;
+        private volatile boolean dirty;
+
+        Window(UUID playerUUID) {
+            this.playerUUID = playerUUID;
+        }
+
+        int index(long hour) {
+            return (int) Math.floorMod(hour, (long) BUCKETS);
+        }
+
+        /**
+         * Rolls the ring forward so the newest bucket is the given hour.
+         */
+        void advance(long hour) {
+            if (hour <= headHour) {
+                return;
+            }
+
+            if (hour - headHour >= BUCKETS) {
+                java.util.Arrays.fill(buckets, 0);
+                daySum = 0;
+                weekSum = 0;
+            } else {
+                for (long h = headHour + 1; h <= hour; h++) {
+                    // Hour h - 24 leaves the day window; the slot for h last held hour h - 168
+                    daySum -= buckets[index(h - HOURS_PER_DAY)];
+                    weekSum -= buckets[index(h)];
+                    buckets[index(h)] = 0;
+                }
+            }
+            headHour = hour;
+        }
+
+        void add(long cents) {
+            buckets[index(headHour)] += cents;
+            daySum += cents;
+            weekSum += cents;
+            dirty = true;
+        }
+
+        /**
+         * Takes up to the given amount back off an hour's bucket, if that hour is still
+         * inside the window.
+         */
+        void remove(long hour, long cents) {
+            if (hour > headHour || hour <= headHour - BUCKETS) {
+                return;
+            }
+
+            long removed = Math.min(cents, buckets[index(hour)]);
+            buckets[index(hour)] -= removed;
+            weekSum -= removed;
+            if (hour > headHour - HOURS_PER_DAY) {
+                daySum -= removed;
+            }
+            dirty = true;
+        }
+
+        /**
+         * Adds to an hour inside the current window (used while rebuilding).
+         */
+        void addAt(long hour, long cents) {
+            buckets[index(hour)] += cents;
+            weekSum += cents;
+            if (hour > headHour - HOURS_PER_DAY) {
+                daySum += cents;
+            }
+        }
+
+        /**
+         * Packs the buckets oldest first as unsigned varints, then Base64.
+         */
+        String encode() {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(BUCKETS);
+            for (int i = BUCKETS - 1; i >= 0; i--) {
+                long value = Math.max(0, buckets[index(headHour - i)]);
+                while ((value & ~0x7FL) != 0) {
+                    out.write((int) ((value & 0x7F) | 0x80));
+                    value >>>= 7;
+                }
+                out.write((int) value);
+            }
+            return Base64.getEncoder().encodeToString(out.toByteArray());
+        }
+
+        void decode(long savedHeadHour, String data) {
+            headHour = savedHeadHour;
+            byte[] bytes = Base64.getDecoder().decode(data);
+            int position = 0;
+            for (int i = BUCKETS - 1; i >= 0 && position < bytes.length; i--) {
+                long value = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    b = bytes[position++];
+                    value |= (long) (b & 0x7F) << shift;
+                    shift += 7;
+                } while ((b & 0x80) != 0 && position < bytes.length);
+                addAt(savedHeadHour - i, value);
+            }
+        }
+    }
+}
@@ -15,17 +15,24 @@ public class SMP_Economy extends JavaPlugin {
     // Manager instances
     private DatabaseManager databaseManager;
     private SchemaManager schemaManager;
+    private CurrencyRegistry currencyRegistry;
     private EconomyManager economyManager;
+    private DepositCoalescer depositCoalescer;
     private PlayerDataManager playerDataManager;
+    private PlayerNameIndex playerNameIndex;
     private AuctionHouseManager auctionHouseManager;
+    private MarketStatsManager marketStatsManager;
+    private TimingWheel auctionTimer;
     private BankManager bankManager;
+    private SharedBankManager sharedBankManager;
     private TransferManager transferManager;
     private CommandManager commandManager;
     private GUIManager guiManager;
+    private MenuRefresher menuRefresher;
     private ListenerManager listenerManager;
     private ConfigManager configManager;
     private LanguageManager languageManager;
-    private PermissionManager permissionManager;
+    private LocaleResolver localeResolver;
     private SecurityManager securityManager;
     private MetricsManager metricsManager;
     private UpdateManager updateManager;
@@ -34,17 +41,11 @@ public class SMP_Economy extends JavaPlugin {
     private BackupManager backupManager;
     private LoggerManager loggerManager;
     private ErrorHandler errorHandler;
-    private MigrationManager migrationManager;
     private CacheManager cacheManager;
     private NotificationManager notificationManager;
-    private SoundManager soundManager;
-    private ParticleManager particleManager;
     private PlaceholderManager placeholderManager;
     private VaultIntegration vaultIntegration;
     private UpdateChecker updateChecker;
-    private MetricsCollector metricsCollector;
-    private DebugManager debugManager;
-    private PluginMetrics pluginMetrics;
     
     private Logger logger;
     
@@ -63,6 +64,8 @@ public class SMP_Economy extends JavaPlugin {
             // Initialize language manager
             languageManager = new LanguageManager(this);
             languageManager.loadLanguages();
+            localeResolver = new LocaleResolver(this);
+            menuRefresher = new MenuRefresher(this);
             
             // Initialize error handler
             errorHandler = new ErrorHandler(this);
@@ -78,6 +81,10 @@ public class SMP_Economy extends JavaPlugin {
             schemaManager = new SchemaManager(this);
             schemaManager.initializeSchema();
             
+            // Load currency ids and the world to currency mapping
+            currencyRegistry = new CurrencyRegistry(this);
+            currencyRegistry.load();
+            
             // Initialize cache manager
             cacheManager = new CacheManager(this);
             
@@ -85,21 +92,35 @@ public class SMP_Economy extends JavaPlugin {
             playerDataManager = new PlayerDataManager(this);
             playerDataManager.initialize();
             
+            // Initialize the player name index
+            playerNameIndex = new PlayerNameIndex(this);
+            playerNameIndex.load();
+            
             // Initialize economy manager
             economyManager = new EconomyManager(this);
+            depositCoalescer = new DepositCoalescer(this);
             
             // Initialize bank manager
             bankManager = new BankManager(this);
             
+            // Initialize shared bank accounts
+            sharedBankManager = new SharedBankManager(this);
+            sharedBankManager.initialize();
+            
             // Initialize transfer manager
             transferManager = new TransferManager(this);
             
+            // Initialize market statistics manager
+            marketStatsManager = new MarketStatsManager(this);
+            marketStatsManager.initialize();
+            
+            // Initialize auction deadline timer (250ms ticks, settlements run async)
+            auctionTimer = new TimingWheel(250, System.currentTimeMillis(), 
+                task -> getServer().getScheduler().runTaskAsynchronously(this, task));
+            
             // Initialize auction house manager
             auctionHouseManager = new AuctionHouseManager(this);
-            
-            // Initialize permission manager
-            permissionManager = new PermissionManager(this);
-            permissionManager.setupDefaultPermissions();
+            auctionHouseManager.initialize();
             
             // Initialize security manager
             securityManager = new SecurityManager(this);
@@ -110,12 +131,6 @@ public class SMP_Economy extends JavaPlugin {
             // Initialize update checker
             updateChecker = new UpdateChecker(this);
             
-            // Initialize metrics collector
-            metricsCollector = new MetricsCollector(this);
-            
-            // Initialize plugin metrics
-            pluginMetrics = new PluginMetrics(this);
-            
             // Initialize metrics manager (bStats)
             metricsManager = new MetricsManager(this);
             metricsManager.setupMetrics();
@@ -131,22 +146,11 @@ public class SMP_Economy extends JavaPlugin {
             
             // Initialize GUI manager
             guiManager = new GUIManager(this);
-            
-            // Initialize sound manager
-            soundManager = new SoundManager(this);
-            
-            // Initialize particle manager
-            particleManager = new ParticleManager(this);
+            guiManager.rebuildTemplates();
             
             // Initialize notification manager
             notificationManager = new NotificationManager(this);
             
-            // Initialize migration manager
-            migrationManager = new MigrationManager(this);
-            
-            // Initialize debug manager
-            debugManager = new DebugManager(this);
-            
             // Initialize Vault integration if available
             vaultIntegration = new VaultIntegration(this);
             vaultIntegration.setupEconomy();
@@ -172,6 +176,27 @@ public class SMP_Economy extends JavaPlugin {
             // Schedule cleanup tasks
             taskManager.scheduleCleanup();
             
+            // Schedule the auction deadline timer
+            taskManager.scheduleAuctionTimer();
+            
+            // Schedule market statistics flushing
+            taskManager.scheduleMarketStatsFlush();
+            
+            // Schedule rolling limit saving
+            taskManager.scheduleRollingLimitsFlush();
+            
+            // Schedule notification delivery
+            taskManager.scheduleNotificationFlush();
+            
+            // Schedule permission holder refresh
+            taskManager.schedulePermissionRefresh();
+            
+            // Schedule live menu updates
+            taskManager.scheduleMenuRefresh();
+            
+            // Schedule coalesced Vault deposit writes
+            taskManager.scheduleDepositCoalescing();
+            
             logger.info("SMP-Economy has been enabled successfully!");
             
             // Check for updates
@@ -194,11 +219,34 @@ public class SMP_Economy extends JavaPlugin {
                 taskManager.shutdown();
             }
             
+            // Write coalesced deposits before balances are saved
+            if (depositCoalescer != null) {
+                depositCoalescer.flush();
+            }
+            
             // Save all player data
             if (playerDataManager != null) {
                 playerDataManager.saveAllPlayers();
             }
             
+            // Flush pending market statistics
+            if (marketStatsManager != null) {
+                marketStatsManager.flush();
+            }
+            
+            // Save rolling limit windows
+            if (transferManager != null) {
+                transferManager.saveTransferLimits();
+            }
+            if (bankManager != null) {
+                bankManager.saveDepositLimits();
+            }
+            
+            // Keep undelivered notifications for next login
+            if (notificationManager != null) {
+                notificationManager.saveNotifications();
+            }
+            
             // Close database connections
             if (databaseManager != null) {
                 databaseManager.closeConnections();
@@ -235,22 +283,46 @@ public class SMP_Economy extends JavaPlugin {
         return schemaManager;
     }
     
+    public CurrencyRegistry getCurrencyRegistry() {
+        return currencyRegistry;
+    }
+    
     public EconomyManager getEconomyManager() {
         return economyManager;
     }
     
+    public DepositCoalescer getDepositCoalescer() {
+        return depositCoalescer;
+    }
+    
     public PlayerDataManager getPlayerDataManager() {
         return playerDataManager;
     }
     
+    public PlayerNameIndex getPlayerNameIndex() {
+        return playerNameIndex;
+    }
+    
     public AuctionHouseManager getAuctionHouseManager() {
         return auctionHouseManager;
     }
     
+    public MarketStatsManager getMarketStatsManager() {
+        return marketStatsManager;
+    }
+    
+    public TimingWheel getAuctionTimer() {
+        return auctionTimer;
+    }
+    
     public BankManager getBankManager() {
         return bankManager;
     }
     
+    public SharedBankManager getSharedBankManager() {
+        return sharedBankManager;
+    }
+    
     public TransferManager getTransferManager() {
         return transferManager;
     }
@@ -263,6 +335,10 @@ public class SMP_Economy extends JavaPlugin {
         return guiManager;
     }
     
+    public MenuRefresher getMenuRefresher() {
+        return menuRefresher;
+    }
+    
     public ListenerManager getListenerManager() {
         return listenerManager;
     }
@@ -275,8 +351,8 @@ public class SMP_Economy extends JavaPlugin {
         return languageManager;
     }
     
-    public PermissionManager getPermissionManager() {
-        return permissionManager;
+    public LocaleResolver getLocaleResolver() {
+        return localeResolver;
     }
     
     public SecurityManager getSecurityManager() {
@@ -311,10 +387,6 @@ public class SMP_Economy extends JavaPlugin {
         return errorHandler;
     }
     
-    public MigrationManager getMigrationManager() {
-        return migrationManager;
-    }
-    
     public CacheManager getCacheManager() {
         return cacheManager;
     }
@@ -323,14 +395,6 @@ public class SMP_Economy extends JavaPlugin {
         return notificationManager;
     }
     
-    public SoundManager getSoundManager() {
-        return soundManager;
-    }
-    
-    public ParticleManager getParticleManager() {
-        return particleManager;
-    }
-    
     public PlaceholderManager getPlaceholderManager() {
         return placeholderManager;
     }
@@ -342,16 +406,4 @@ public class SMP_Economy extends JavaPlugin {
     public UpdateChecker getUpdateChecker() {
         return updateChecker;
     }
-    
-    public MetricsCollector getMetricsCollector() {
-        return metricsCollector;
-    }
-    
-    public DebugManager getDebugManager() {
-        return debugManager;
-    }
-    
-    public PluginMetrics getPluginMetrics() {
-        return pluginMetrics;
-    }
 }
\ No newline at end of file
@@ -96,6 +96,23 @@ public class SchemaManager {
                 // Create player_settings table
                 createPlayerSettingsTable(connection);
                 
+                // Create market_stats table
+                createMarketStatsTable(connection);
+                
+                // Create rolling_limits table
+                createRollingLimitsTable(connection);
+                
+                // Create notification_mailbox table
+                createNotificationMailboxTable(connection);
+                
+                // Create shared bank tables
+                createSharedBanksTable(connection);
+                createSharedBankMembersTable(connection);
+                
+                // Create currency tables
+                createCurrenciesTable(connection);
+                createCurrencyBalancesTable(connection);
+                
                 // Create schema_migrations table
                 createSchemaMigrationsTable(connection);
                 
@@ -307,7 +324,7 @@ public class SchemaManager {
             sql = """
                 CREATE TABLE player_settings (
                     uuid VARCHAR(36) PRIMARY KEY,
-                    language VARCHAR(10) DEFAULT 'en_US',
+                    language VARCHAR(10) DEFAULT NULL,
                     notifications_enabled BOOLEAN DEFAULT TRUE,
                     sounds_enabled BOOLEAN DEFAULT TRUE,
                     particles_enabled BOOLEAN DEFAULT TRUE,
@@ -319,7 +336,7 @@ public class SchemaManager {
             sql = """
                 CREATE TABLE player_settings (
                     uuid VARCHAR(36) PRIMARY KEY,
-                    language VARCHAR(10) DEFAULT 'en_US',
+                    language VARCHAR(10) DEFAULT NULL,
                     notifications_enabled BOOLEAN DEFAULT TRUE,
                     sounds_enabled BOOLEAN DEFAULT TRUE,
                     particles_enabled BOOLEAN DEFAULT TRUE,
@@ -336,6 +353,250 @@ public class SchemaManager {
         }
     }
     
+    /**
+     * Creates the market_stats table to store hourly per-material auction statistics.
+     */
+    private void createMarketStatsTable(Connection connection) throws SQLException {
+        String sql;
+        if (databaseManager.isSQLite()) {
+            sql = """
+                CREATE TABLE market_stats (
+                    material VARCHAR(64) NOT NULL,
+                    bucket_hour BIGINT NOT NULL,
+                    open_price DECIMAL(20, 4) NOT NULL,
+                    high_price DECIMAL(20, 4) NOT NULL,
+                    low_price DECIMAL(20, 4) NOT NULL,
+                    close_price DECIMAL(20, 4) NOT NULL,
+                    trades INTEGER NOT NULL DEFAULT 0,
+                    quantity BIGINT NOT NULL DEFAULT 0,
+                    turnover DECIMAL(20, 2) NOT NULL DEFAULT 0.00,
+                    median_price DECIMAL(20, 4) NOT NULL,
+                    median_state TEXT,
+                    PRIMARY KEY (material, bucket_hour)
+                )
+                """;
+        } else {
+            sql = """
+                CREATE TABLE market_stats (
+                    material VARCHAR(64) NOT NULL,
+                    bucket_hour BIGINT NOT NULL,
+                    open_price DECIMAL(20, 4) NOT NULL,
+                    high_price DECIMAL(20, 4) NOT NULL,
+                    low_price DECIMAL(20, 4) NOT NULL,
+                    close_price DECIMAL(20, 4) NOT NULL,
+                    trades INT NOT NULL DEFAULT 0,
+                    quantity BIGINT NOT NULL DEFAULT 0,
+                    turnover DECIMAL(20, 2) NOT NULL DEFAULT 0.00,
+                    median_price DECIMAL(20, 4) NOT NULL,
+                    median_state TEXT,
+                    PRIMARY KEY (material, bucket_hour),
+                    INDEX idx_bucket_hour (bucket_hour)
+                ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+                """;
+        }
+        
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute(sql);
+            plugin.getLogger().info("Created market_stats table");
+        }
+    }
+    
+    /**
+     * Creates the rolling_limits table to store per-player hourly limit buckets.
+     */
+    private void createRollingLimitsTable(Connection connection) throws SQLException {
+        String sql;
+        if (databaseManager.isSQLite()) {
+            sql = """
+                CREATE TABLE rolling_limits (
+                    uuid VARCHAR(36) NOT NULL,
+                    kind VARCHAR(32) NOT NULL,
+                    head_hour BIGINT NOT NULL,
+                    buckets TEXT NOT NULL,
+                    PRIMARY KEY (uuid, kind)
+                )
+                """;
+        } else {
+            sql = """
+                CREATE TABLE rolling_limits (
+                    uuid VARCHAR(36) NOT NULL,
+                    kind VARCHAR(32) NOT NULL,
+                    head_hour BIGINT NOT NULL,
+                    buckets TEXT NOT NULL,
+                    PRIMARY KEY (uuid, kind)
+                ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+                """;
+        }
+        
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute(sql);
+            plugin.getLogger().info("Created rolling_limits table");
+        }
+    }
+    
+    /**
+     * Creates the notification_mailbox table to hold notifications for offline players.
+     */
+    private void createNotificationMailboxTable(Connection connection) throws SQLException {
+        String sql;
+        if (databaseManager.isSQLite()) {
+            sql = """
+                CREATE TABLE notification_mailbox (
+                    id INTEGER PRIMARY KEY AUTOINCREMENT,
+                    uuid VARCHAR(36) NOT NULL,
+                    message_key VARCHAR(64) NOT NULL,
+                    placeholders TEXT,
+                    amount DECIMAL(20, 2) NOT NULL DEFAULT 0.00,
+                    count INTEGER NOT NULL DEFAULT 1,
+                    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+                )
+                """;
+        } else {
+            sql = """
+                CREATE TABLE notification_mailbox (
+                    id INT AUTO_INCREMENT PRIMARY KEY,
+                    uuid VARCHAR(36) NOT NULL,
+                    message_key VARCHAR(64) NOT NULL,
+                    placeholders TEXT,
+                    amount DECIMAL(20, 2) NOT NULL DEFAULT 0.00,
+                    count INT NOT NULL DEFAULT 1,
+                    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                    INDEX idx_uuid_key (uuid, message_key)
+                ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+                """;
+        }
+        
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute(sql);
+            if (databaseManager.isSQLite()) {
+                stmt.execute("CREATE INDEX idx_notification_mailbox_uuid_key ON notification_mailbox (uuid, message_key)");
+            }
+            plugin.getLogger().info("Created notification_mailbox table");
+        }
+    }
+    
+    /**
+     * Creates the shared_banks table holding one balance row per named bank account.
+     */
+    private void createSharedBanksTable(Connection connection) throws SQLException {
+        String sql;
+        if (databaseManager.isSQLite()) {
+            sql = """
+                CREATE TABLE shared_banks (
+                    name VARCHAR(64) PRIMARY KEY,
+                    owner_uuid VARCHAR(36) NOT NULL,
+                    balance DECIMAL(20, 2) NOT NULL DEFAULT 0.00,
+                    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+                )
+                """;
+        } else {
+            sql = """
+                CREATE TABLE shared_banks (
+                    name VARCHAR(64) PRIMARY KEY,
+                    owner_uuid VARCHAR(36) NOT NULL,
+                    balance DECIMAL(20, 2) NOT NULL DEFAULT 0.00,
+                    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+                ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+                """;
+        }
+        
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute(sql);
+            plugin.getLogger().info("Created shared_banks table");
+        }
+    }
+    
+    /**
+     * Creates the shared_bank_members table mapping banks to the players who may use them.
+     */
+    private void createSharedBankMembersTable(Connection connection) throws SQLException {
+        String sql;
+        if (databaseManager.isSQLite()) {
+            sql = """
+                CREATE TABLE shared_bank_members (
+                    bank_name VARCHAR(64) NOT NULL,
+                    uuid VARCHAR(36) NOT NULL,
+                    PRIMARY KEY (bank_name, uuid)
+                )
+                """;
+        } else {
+            sql = """
+                CREATE TABLE shared_bank_members (
+                    bank_name VARCHAR(64) NOT NULL,
+                    uuid VARCHAR(36) NOT NULL,
+                    PRIMARY KEY (bank_name, uuid),
+                    INDEX idx_uuid (uuid)
+                ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+                """;
+        }
+        
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute(sql);
+            if (databaseManager.isSQLite()) {
+                stmt.execute("CREATE INDEX idx_shared_bank_members_uuid ON shared_bank_members (uuid)");
+            }
+            plugin.getLogger().info("Created shared_bank_members table");
+        }
+    }
+    
+    /**
+     * Creates the currencies table assigning each extra currency a permanent small id.
+     */
+    private void createCurrenciesTable(Connection connection) throws SQLException {
+        String sql;
+        if (databaseManager.isSQLite()) {
+            sql = """
+                CREATE TABLE currencies (
+                    id SMALLINT PRIMARY KEY,
+                    name VARCHAR(32) NOT NULL UNIQUE
+                )
+                """;
+        } else {
+            sql = """
+                CREATE TABLE currencies (
+                    id SMALLINT PRIMARY KEY,
+                    name VARCHAR(32) NOT NULL UNIQUE
+                ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+                """;
+        }
+        
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute(sql);
+            plugin.getLogger().info("Created currencies table");
+        }
+    }
+    
+    /**
+     * Creates the currency_balances table holding one row per player and extra currency.
+     */
+    private void createCurrencyBalancesTable(Connection connection) throws SQLException {
+        String sql;
+        if (databaseManager.isSQLite()) {
+            sql = """
+                CREATE TABLE currency_balances (
+                    uuid VARCHAR(36) NOT NULL,
+                    currency_id SMALLINT NOT NULL,
+                    balance DECIMAL(20, 2) NOT NULL DEFAULT 0.00,
+                    PRIMARY KEY (uuid, currency_id)
+                )
+                """;
+        } else {
+            sql = """
+                CREATE TABLE currency_balances (
+                    uuid VARCHAR(36) NOT NULL,
+                    currency_id SMALLINT NOT NULL,
+                    balance DECIMAL(20, 2) NOT NULL DEFAULT 0.00,
+                    PRIMARY KEY (uuid, currency_id)
+                ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+                """;
+        }
+        
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute(sql);
+            plugin.getLogger().info("Created currency_balances table");
+        }
+    }
+    
     /**
      * Creates the schema_migrations table to track migration versions.
      */
@@ -395,6 +656,55 @@ public class SchemaManager {
             // For now, we just log that an update is needed
             plugin.getLogger().info("Schema update would be applied here if needed");
         }
+        
+        createMissingTables();
+    }
+    
+    /**
+     * Creates tables added after the initial schema on databases that predate them.
+     */
+    private void createMissingTables() throws SQLException {
+        if (!tableExists("market_stats")) {
+            try (Connection connection = databaseManager.getConnection()) {
+                createMarketStatsTable(connection);
+            }
+        }
+        
+        if (!tableExists("rolling_limits")) {
+            try (Connection connection = databaseManager.getConnection()) {
+                createRollingLimitsTable(connection);
+            }
+        }
+        
+        if (!tableExists("notification_mailbox")) {
+            try (Connection connection = databaseManager.getConnection()) {
+                createNotificationMailboxTable(connection);
+            }
+        }
+        
+        if (!tableExists("shared_banks")) {
+            try (Connection connection = databaseManager.getConnection()) {
+                createSharedBanksTable(connection);
+            }
+        }
+        
+        if (!tableExists("shared_bank_members")) {
+            try (Connection connection = databaseManager.getConnection()) {
+                createSharedBankMembersTable(connection);
+            }
+        }
+        
+        if (!tableExists("currencies")) {
+            try (Connection connection = databaseManager.getConnection()) {
+                createCurrenciesTable(connection);
+            }
+        }
+        
+        if (!tableExists("currency_balances")) {
+            try (Connection connection = databaseManager.getConnection()) {
+                createCurrencyBalancesTable(connection);
+            }
+        }
     }
     
     /**
@@ -1,8 +1,9 @@
 package com.sunsetrq7.smpeconomy;
 
+import org.bukkit.OfflinePlayer;
 import org.bukkit.entity.Player;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 import java.util.logging.Level;
 
@@ -13,20 +14,42 @@ public class SecurityManager {
     
     private final SMP_Economy plugin;
     
+    // Sliding one-minute windows per player
+    private static final long RATE_LIMIT_WINDOW_MILLIS = 60000;
+    
     // Rate limiting
-    private final Map<UUID, Integer> commandUsageCount;
-    private final Map<UUID, Long> commandUsageTime;
+    private final RateLimiter commandLimiter;
+    
+    // Transaction tracking (amounts are counted in whole currency units, or coarser ones
+    // for limits above RateLimiter.MAX_COUNT)
+    private final RateLimiter transactionCountLimiter;
+    private final RateLimiter transactionAmountLimiter;
+    
+    // Input validation patterns, compiled into a single matcher
+    private final PatternMatcher inputPatternMatcher;
     
-    // Transaction tracking
-    private final Map<UUID, Double> transactionAmountThisMinute;
-    private final Map<UUID, Integer> transactionCountThisMinute;
+    // Streaming detection of unusual money flow
+    private final TransactionAnalyzer transactionAnalyzer;
     
     public SecurityManager(SMP_Economy plugin) {
         this.plugin = plugin;
-        this.commandUsageCount = new HashMap<>();
-        this.commandUsageTime = new HashMap<>();
-        this.transactionAmountThisMinute = new HashMap<>();
-        this.transactionCountThisMinute = new HashMap<>();
+        
+        int capacity = plugin.getConfigManager().getPerformanceConfig().getInt("rate_limiter_capacity", 4096);
+        this.commandLimiter = new RateLimiter(capacity, RATE_LIMIT_WINDOW_MILLIS);
+        this.transactionCountLimiter = new RateLimiter(capacity, RATE_LIMIT_WINDOW_MILLIS);
+        this.transactionAmountLimiter = new RateLimiter(capacity, RATE_LIMIT_WINDOW_MILLIS);
+        
+        List<String> patterns = new ArrayList<>();
+        patterns.addAll(plugin.getConfigManager().getSecurityConfig().getStringList("input_validation.sql_patterns"));
+        patterns.addAll(plugin.getConfigManager().getSecurityConfig().getStringList("input_validation.command_patterns"));
+        this.inputPatternMatcher = new PatternMatcher(patterns);
+        
+        this.transactionAnalyzer = new TransactionAnalyzer(
+            plugin.getConfigManager().getPerformanceConfig().getInt("anomaly_tracker_capacity", 4096),
+            plugin.getConfigManager().getPerformanceConfig().getInt("anomaly_sketch_width", 2048),
+            plugin.getConfigManager().getSecurityConfig().getInt("anomaly_detection.heavy_hitters", 32),
+            Math.max(1, plugin.getConfigManager().getSecurityConfig().getLong("anomaly_detection.window_minutes", 10)) * 60000L,
+            Math.max(1, plugin.getConfigManager().getSecurityConfig().getLong("anomaly_detection.velocity_half_life_seconds", 300)) * 1000L);
     }
     
     /**
@@ -37,25 +60,9 @@ public class SecurityManager {
             return true;
         }
         
-        UUID playerId = player.getUniqueId();
-        long currentTime = System.currentTimeMillis();
-        long timeWindow = 60000; // 1 minute
-        
-        // Check if we need to reset the counters
-        Long lastTime = commandUsageTime.get(playerId);
-        if (lastTime == null || (currentTime - lastTime) > timeWindow) {
-            commandUsageCount.put(playerId, 1);
-            commandUsageTime.put(playerId, currentTime);
-            return true;
-        }
-        
-        // Increment count and check limits
-        int currentCount = commandUsageCount.getOrDefault(playerId, 0) + 1;
-        commandUsageCount.put(playerId, currentCount);
-        
         int maxCommandsPerMinute = plugin.getConfigManager().getSecurityConfig().getInt("max_transactions_per_minute", 10);
         
-        return currentCount <= maxCommandsPerMinute;
+        return commandLimiter.tryAcquire(player.getUniqueId(), 1, maxCommandsPerMinute, System.currentTimeMillis());
     }
     
     /**
@@ -78,86 +85,102 @@ public class SecurityManager {
         
         UUID playerId = player.getUniqueId();
         long currentTime = System.currentTimeMillis();
-        long timeWindow = 60000; // 1 minute
-        
-        // Check transaction count
-        Long lastTransactionTime = transactionCountThisMinute.get(playerId);
-        if (lastTransactionTime == null || (currentTime - lastTransactionTime) > timeWindow) {
-            transactionCountThisMinute.put(playerId, 1);
-            transactionAmountThisMinute.put(playerId, amount);
-            return true;
-        }
-        
-        // Increment counters
-        int currentCount = transactionCountThisMinute.getOrDefault(playerId, 0) + 1;
-        double currentAmount = transactionAmountThisMinute.getOrDefault(playerId, 0.0) + amount;
-        
-        transactionCountThisMinute.put(playerId, currentCount);
-        transactionAmountThisMinute.put(playerId, currentAmount);
         
         int maxTransactionsPerMinute = plugin.getConfigManager().getSecurityConfig().getInt("max_transactions_per_minute", 10);
         double maxAmountPerMinute = plugin.getConfigManager().getSecurityConfig().getDouble("max_amount_per_minute", 1000000.0);
         
-        return currentCount <= maxTransactionsPerMinute && currentAmount <= maxAmountPerMinute;
+        // Amounts are counted in whole units, rounded up. Limits too large for the limiter's
+        // counters are counted in coarser units instead, so the configured limit still holds
+        double unit = Math.max(1.0, Math.ceil(maxAmountPerMinute / RateLimiter.MAX_COUNT));
+        int amountUnits = (int) Math.min(RateLimiter.MAX_COUNT, Math.ceil(Math.max(amount, 0) / unit));
+        int amountLimit = (int) Math.min(RateLimiter.MAX_COUNT, Math.floor(maxAmountPerMinute / unit));
+        
+        return transactionCountLimiter.tryAcquire(playerId, 1, maxTransactionsPerMinute, currentTime)
+            && transactionAmountLimiter.tryAcquire(playerId, amountUnits, amountLimit, currentTime);
     }
     
     /**
      * Validates user input to prevent injection attacks.
+     * The SQL and command patterns from the security config are matched case-insensitively in one pass.
      */
     public boolean isValidInput(String input) {
         if (input == null) {
             return false;
         }
         
-        // Check for SQL injection patterns
-        String lowerInput = input.toLowerCase();
-        String[] sqlPatterns = {"'", "\"", ";", "--", "/*", "*/", "xp_", "exec", "select", "insert", "update", "delete", "drop", "create", "alter", "union", "script"};
-        
-        for (String pattern : sqlPatterns) {
-            if (lowerInput.contains(pattern)) {
-                return false;
-            }
+        return !inputPatternMatcher.containsAny(input);
+    }
+    
+    /**
+     * Feeds a committed balance change into the anomaly detector.
+     * Negative deltas are money leaving the player, positive deltas money arriving.
+     */
+    public void recordBalanceChange(UUID playerUUID, double delta) {
+        if (!plugin.getConfigManager().getSecurityConfig().getBoolean("anomaly_detection.enabled", true)) {
+            return;
         }
         
-        // Check for command injection patterns
-        String[] cmdPatterns = {"|", "&", "$", "`", "\\", "(", ")"};
-        for (String pattern : cmdPatterns) {
-            if (input.contains(pattern)) {
-                return false;
-            }
+        double windowThreshold = plugin.getConfigManager().getSecurityConfig().getDouble("anomaly_detection.window_volume_threshold", 1000000.0);
+        double velocityThreshold = plugin.getConfigManager().getSecurityConfig().getDouble("anomaly_detection.velocity_threshold", 100000.0);
+        long cooldownMillis = plugin.getConfigManager().getSecurityConfig().getLong("anomaly_detection.alert_cooldown_seconds", 300) * 1000L;
+        
+        TransactionAnalyzer.Alert alert = transactionAnalyzer.record(
+            playerUUID, delta, windowThreshold, velocityThreshold, cooldownMillis, System.currentTimeMillis());
+        if (alert == null) {
+            return;
         }
         
-        return true;
+        String details = String.format("%s %s: %.2f this window, %.2f per minute",
+            alert.isOutflow() ? "outflow" : "inflow", alert.getReason(), alert.getWindowVolume(), alert.getVelocity());
+        
+        // Balance changes also happen off the main thread; report from the main thread
+        plugin.getServer().getScheduler().runTask(plugin, () -> 
+            logSecurityViolation(playerUUID, "money_velocity", details));
+    }
+    
+    /**
+     * Gets the transaction anomaly detector.
+     */
+    public TransactionAnalyzer getTransactionAnalyzer() {
+        return transactionAnalyzer;
     }
     
     /**
      * Logs a security violation.
      */
     public void logSecurityViolation(Player player, String violationType, String details) {
+        logSecurityViolation(player.getUniqueId(), player.getName(), violationType, details);
+    }
+    
+    /**
+     * Logs a security violation by a player who may be offline.
+     */
+    public void logSecurityViolation(UUID playerUUID, String violationType, String details) {
+        OfflinePlayer player = plugin.getServer().getOfflinePlayer(playerUUID);
+        String name = player.getName() != null ? player.getName() : playerUUID.toString();
+        logSecurityViolation(playerUUID, name, violationType, details);
+    }
+    
+    private void logSecurityViolation(UUID playerUUID, String playerName, String violationType, String details) {
         if (plugin.getConfigManager().getSecurityConfig().getBoolean("log_admin_commands", true)) {
             plugin.getLogger().log(Level.WARNING, 
-                "Security violation by " + player.getName() + " (" + player.getUniqueId() + "): " + 
+                "Security violation by " + playerName + " (" + playerUUID + "): " + 
                 violationType + " - " + details);
             
             // Optionally notify admins
-            notifyAdmins(player, violationType, details);
+            notifyAdmins(playerName, violationType, details);
         }
     }
     
     /**
      * Notifies admins about a security violation.
      */
-    private void notifyAdmins(Player player, String violationType, String details) {
-        plugin.getServer().getOnlinePlayers().stream()
-            .filter(p -> p.hasPermission("smpeconomy.admin"))
-            .forEach(admin -> {
-                admin.sendMessage(plugin.getLanguageManager().getMessage(
-                    getPlayerLanguage(admin), 
-                    "security.violation_notify",
-                    "player", player.getName(),
-                    "violation", violationType,
-                    "details", details));
-            });
+    private void notifyAdmins(String playerName, String violationType, String details) {
+        plugin.getNotificationManager().notifyPermissionHolders("smpeconomy.admin", 
+            MessageKey.SECURITY_VIOLATION_NOTIFY,
+            "player", playerName,
+            "violation", violationType,
+            "details", details);
     }
     
     /**
@@ -166,27 +189,4 @@ public class SecurityManager {
     public boolean hasPermission(Player player, String permission) {
         return player.hasPermission(permission);
     }
-    
-    /**
-     * Gets the player's language.
-     */
-    private String getPlayerLanguage(Player player) {
-        // In a real implementation, this would get the player's language from the database
-        return plugin.getLanguageManager().getDefaultLanguage();
-    }
-    
-    /**
-     * Resets security tracking data periodically.
-     */
-    public void resetTrackingData() {
-        long currentTime = System.currentTimeMillis();
-        long timeWindow = 60000; // 1 minute
-        
-        // Clean up old entries
-        commandUsageTime.entrySet().removeIf(entry -> 
-            (currentTime - entry.getValue()) > timeWindow);
-        
-        transactionCountThisMinute.entrySet().removeIf(entry -> 
-            (currentTime - entry.getKey().getLeastSignificantBits()) > timeWindow); // This is a simplified approach
-    }
 }
\ No newline at end of file
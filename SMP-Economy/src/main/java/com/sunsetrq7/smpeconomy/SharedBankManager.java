@@ -0,0 +1,418 @@
+package com.sunsetrq7.smpeconomy;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+
+/**
+ * Manages named bank accounts shared by several players, e.g. for towns and factions.
+ *
+ * Each bank has one balance row and a membership list; the owner is always a member.
+ * All banks are held in memory and every change is written through to the database;
+ * deposits and withdrawals are also recorded in the transactions table.
+ * Changes to a bank run under one of a fixed set of striped locks chosen by the bank's
+ * name, so deposits and withdrawals on the same bank are serialised while different
+ * banks proceed in parallel without a lock object per bank.
+ */
+public class SharedBankManager {
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final SMP_Economy plugin;
+    private final DatabaseManager databaseManager;
+
+    private final Map<String, SharedBank> banks;
+    // Member UUID to the names of the banks they belong to
+    private final Map<UUID, Set<String>> memberships;
+    private final ReentrantLock[] locks;
+
+    public SharedBankManager(SMP_Economy plugin) {
+        this.plugin = plugin;
+        this.databaseManager = plugin.getDatabaseManager();
+        this.banks = new ConcurrentHashMap<>();
+        this.memberships = new ConcurrentHashMap<>();
+        this.locks = new ReentrantLock[LOCK_STRIPES];
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Loads every bank and its members.
+     */
+    public void initialize() {
+        banks.clear();
+        memberships.clear();
+
+        try (Connection connection = databaseManager.getConnection()) {
+            try (PreparedStatement stmt = connection.prepareStatement("SELECT name, owner_uuid, balance FROM shared_banks");
+                 ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    String name = rs.getString("name");
+                    banks.put(name, new SharedBank(name, UUID.fromString(rs.getString("owner_uuid")), rs.getDouble("balance")));
+                }
+            }
+
+            try (PreparedStatement stmt = connection.prepareStatement("SELECT bank_name, uuid FROM shared_bank_members");
+                 ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    SharedBank bank = banks.get(rs.getString("bank_name"));
+                    if (bank != null) {
+                        addMembership(bank, UUID.fromString(rs.getString("uuid")));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to load shared banks", e);
+        }
+
+        plugin.getLogger().info("Loaded " + banks.size() + " shared banks.");
+    }
+
+    /**
+     * Creates a bank owned by a player. Fails if the name is taken.
+     */
+    public boolean createBank(String name, UUID ownerUUID) {
+        ReentrantLock lock = lockFor(name);
+        lock.lock();
+        try {
+            if (banks.containsKey(name)) {
+                return false;
+            }
+
+            try (Connection connection = databaseManager.getConnection()) {
+                connection.setAutoCommit(false);
+                try {
+                    try (PreparedStatement stmt = connection.prepareStatement(
+                            "INSERT INTO shared_banks (name, owner_uuid, balance) VALUES (?, ?, ?)")) {
+                        stmt.setString(1, name);
+                        stmt.setString(2, ownerUUID.toString());
+                        stmt.setBigDecimal(3, BigDecimal.ZERO.setScale(2));
+                        stmt.executeUpdate();
+                    }
+                    insertMember(connection, name, ownerUUID);
+                    connection.commit();
+                } catch (SQLException e) {
+                    connection.rollback();
+                    throw e;
+                } finally {
+                    connection.setAutoCommit(true);
+                }
+            }
+
+            SharedBank bank = new SharedBank(name, ownerUUID, 0.0);
+            banks.put(name, bank);
+            addMembership(bank, ownerUUID);
+            return true;
+        } catch (SQLException e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to create shared bank: " + name, e);
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Deletes a bank and its membership list. Banks that still hold money can't be deleted;
+     * withdraw the balance first.
+     */
+    public boolean deleteBank(String name) {
+        ReentrantLock lock = lockFor(name);
+        lock.lock();
+        try {
+            SharedBank bank = banks.get(name);
+            if (bank == null || bank.balance != 0) {
+                return false;
+            }
+
+            try (Connection connection = databaseManager.getConnection()) {
+                connection.setAutoCommit(false);
+                try {
+                    // Only an empty bank row is removed, whatever the cached balance says
+                    try (PreparedStatement stmt = connection.prepareStatement("DELETE FROM shared_banks WHERE name = ? AND balance = 0")) {
+                        stmt.setString(1, name);
+                        if (stmt.executeUpdate() == 0) {
+                            connection.rollback();
+                            return false;
+                        }
+                    }
+                    try (PreparedStatement stmt = connection.prepareStatement("DELETE FROM shared_bank_members WHERE bank_name = ?")) {
+                        stmt.setString(1, name);
+                        stmt.executeUpdate();
+                    }
+                    connection.commit();
+                } catch (SQLException e) {
+                    connection.rollback();
+                    throw e;
+                } finally {
+                    connection.setAutoCommit(true);
+                }
+            }
+
+            banks.remove(name);
+            for (UUID member : bank.members) {
+                removeMembership(name, member);
+            }
+            return true;
+        } catch (SQLException e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to delete shared bank: " + name, e);
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets a bank, or null if there is none with that name.
+     */
+    public SharedBank getBank(String name) {
+        return name == null ? null : banks.get(name);
+    }
+
+    /**
+     * Gets the names of all banks.
+     */
+    public List<String> getBankNames() {
+        return new ArrayList<>(banks.keySet());
+    }
+
+    /**
+     * Gets the names of the banks a player belongs to.
+     */
+    public Set<String> getBanks(UUID playerUUID) {
+        Set<String> names = memberships.get(playerUUID);
+        return names != null ? Collections.unmodifiableSet(names) : Collections.emptySet();
+    }
+
+    /**
+     * Deposits money into a bank and returns its resulting balance.
+     */
+    public EconomyManager.BalanceChange deposit(String name, double amount) {
+        return changeBalance(name, amount > 0 ? amount : 0.0);
+    }
+
+    /**
+     * Withdraws money from a bank if it holds enough, and returns its resulting balance.
+     */
+    public EconomyManager.BalanceChange withdraw(String name, double amount) {
+        return changeBalance(name, amount > 0 ? -amount : 0.0);
+    }
+
+    private EconomyManager.BalanceChange changeBalance(String name, double delta) {
+        SharedBank bank = getBank(name);
+        if (bank == null) {
+            return EconomyManager.BalanceChange.failed(0.0);
+        }
+        BigDecimal change = BigDecimal.valueOf(delta).setScale(2, RoundingMode.HALF_UP);
+        if (change.signum() == 0) {
+            return EconomyManager.BalanceChange.failed(bank.balance);
+        }
+
+        ReentrantLock lock = lockFor(name);
+        lock.lock();
+        try {
+            // The bank may have been deleted while we waited for the lock
+            if (banks.get(name) != bank) {
+                return EconomyManager.BalanceChange.failed(0.0);
+            }
+
+            try (Connection connection = databaseManager.getConnection()) {
+                connection.setAutoCommit(false);
+                try {
+                    // Relative and guarded, so a withdrawal never overdraws whatever the row holds
+                    try (PreparedStatement stmt = connection.prepareStatement(
+                            "UPDATE shared_banks SET balance = balance + ? WHERE name = ? AND balance + ? >= 0")) {
+                        stmt.setBigDecimal(1, change);
+                        stmt.setString(2, name);
+                        stmt.setBigDecimal(3, change);
+                        if (stmt.executeUpdate() == 0) {
+                            connection.rollback();
+                            return EconomyManager.BalanceChange.failed(bank.balance);
+                        }
+                    }
+
+                    BigDecimal balance = readBalance(connection, name);
+                    logTransaction(connection, name, change);
+                    connection.commit();
+                    bank.balance = balance.doubleValue();
+                } catch (SQLException e) {
+                    connection.rollback();
+                    throw e;
+                } finally {
+                    connection.setAutoCommit(true);
+                }
+            }
+
+            return new EconomyManager.BalanceChange(true, change.abs().doubleValue(), bank.balance);
+        } catch (SQLException e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to update shared bank balance: " + name, e);
+            return EconomyManager.BalanceChange.failed(bank.balance);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private BigDecimal readBalance(Connection connection, String name) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement("SELECT balance FROM shared_banks WHERE name = ?")) {
+            stmt.setString(1, name);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) {
+                    throw new SQLException("Shared bank row disappeared: " + name);
+                }
+                return rs.getBigDecimal("balance");
+            }
+        }
+    }
+
+    /**
+     * Records a deposit or withdrawal in the transactions table. Vault doesn't say which
+     * player moved the money, so neither side is set and the bank is named in the description.
+     */
+    private void logTransaction(Connection connection, String name, BigDecimal change) throws SQLException {
+        boolean deposit = change.signum() > 0;
+        String sql = "INSERT INTO transactions (from_uuid, to_uuid, amount, type, description) VALUES (?, ?, ?, ?, ?)";
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setNull(1, Types.VARCHAR);
+            stmt.setNull(2, Types.VARCHAR);
+            stmt.setBigDecimal(3, change.abs());
+            stmt.setString(4, deposit ? "shared_bank_deposit" : "shared_bank_withdrawal");
+            stmt.setString(5, (deposit ? "Deposit to shared bank " : "Withdrawal from shared bank ") + name);
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Adds a member to a bank.
+     */
+    public boolean addMember(String name, UUID playerUUID) {
+        ReentrantLock lock = lockFor(name);
+        lock.lock();
+        try {
+            SharedBank bank = banks.get(name);
+            if (bank == null) {
+                return false;
+            }
+            if (bank.isMember(playerUUID)) {
+                return true;
+            }
+
+            try (Connection connection = databaseManager.getConnection()) {
+                insertMember(connection, name, playerUUID);
+            }
+            addMembership(bank, playerUUID);
+            return true;
+        } catch (SQLException e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to add member to shared bank: " + name, e);
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes a member from a bank. The owner can't be removed.
+     */
+    public boolean removeMember(String name, UUID playerUUID) {
+        ReentrantLock lock = lockFor(name);
+        lock.lock();
+        try {
+            SharedBank bank = banks.get(name);
+            if (bank == null || bank.isOwner(playerUUID) || !bank.isMember(playerUUID)) {
+                return false;
+            }
+
+            try (Connection connection = databaseManager.getConnection();
+                 PreparedStatement stmt = connection.prepareStatement("DELETE FROM shared_bank_members WHERE bank_name = ? AND uuid = ?")) {
+                stmt.setString(1, name);
+                stmt.setString(2, playerUUID.toString());
+                stmt.executeUpdate();
+            }
+            bank.members.remove(playerUUID);
+            removeMembership(name, playerUUID);
+            return true;
+        } catch (SQLException e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to remove member from shared bank: " + name, e);
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void insertMember(Connection connection, String name, UUID playerUUID) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement("INSERT INTO shared_bank_members (bank_name, uuid) VALUES (?, ?)")) {
+            stmt.setString(1, name);
+            stmt.setString(2, playerUUID.toString());
+            stmt.executeUpdate();
+        }
+    }
+
+    private void addMembership(SharedBank bank, UUID playerUUID) {
+        bank.members.add(playerUUID);
+        memberships.computeIfAbsent(playerUUID, uuid -> ConcurrentHashMap.newKeySet()).add(bank.name);
+    }
+
+    private void removeMembership(String name, UUID playerUUID) {
+        memberships.computeIfPresent(playerUUID, (uuid, names) -> {
+            names.remove(name);
+            return names.isEmpty() ? null : names;
+        });
+    }
+
+    private ReentrantLock lockFor(String name) {
+        return locks[(name.hashCode() & 0x7fffffff) % LOCK_STRIPES];
+    }
+
+    /**
+     * A shared bank account. The balance is only changed under the bank's stripe lock.
+     */
+    public static class SharedBank {
+        private final String name;
+        private final UUID ownerUUID;
+        private final Set<UUID> members;
+        private volatile double balance;
+
+        SharedBank(String name, UUID ownerUUID, double balance) {
+            this.name = name;
+            this.ownerUUID = ownerUUID;
+            this.members = ConcurrentHashMap.newKeySet();
+            this.balance = balance;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public UUID getOwnerUUID() {
+            return ownerUUID;
+        }
+
+        public double getBalance() {
+            return balance;
+        }
+
+        public boolean isOwner(UUID playerUUID) {
+            return ownerUUID.equals(playerUUID);
+        }
+
+        public boolean isMember(UUID playerUUID) {
+            return members.contains(playerUUID);
+        }
+
+        public Set<UUID> getMembers() {
+            return Collections.unmodifiableSet(members);
+        }
+    }
+}
@@ -54,9 +54,6 @@ public class TaskManager {
             // Clean up expired auctions
             plugin.getAuctionHouseManager().processEndedAuctions();
             
-            // Reset rate limiting counters
-            plugin.getSecurityManager().resetTrackingData();
-            
             // Clean up player data cache if needed
             // Additional cleanup tasks can be added here
         }, 20 * 60 * 60, 20 * 60 * 60); // Every hour
@@ -65,17 +62,97 @@ public class TaskManager {
     }
     
     /**
-     * Schedules metrics collection.
+     * Schedules the auction deadline timer. Expired auctions are settled as soon as their
+     * deadline passes; the hourly cleanup sweep remains as a fallback.
      */
-    public void scheduleMetrics() {
-        if (plugin.getConfigManager().getPerformanceConfig().getBoolean("enable_metrics", true)) {
-            // Collect metrics every 30 minutes
-            BukkitTask task = Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, () -> {
-                plugin.getMetricsCollector().collectMetrics();
-            }, 20 * 60 * 30, 20 * 60 * 30); // Every 30 minutes
-            
-            scheduledTasks.add(task);
+    public void scheduleAuctionTimer() {
+        // Advance every 5 ticks (250ms), matching the wheel's tick size
+        BukkitTask task = Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, () -> {
+            plugin.getAuctionTimer().advanceTo(System.currentTimeMillis());
+        }, 5, 5);
+        
+        scheduledTasks.add(task);
+    }
+    
+    /**
+     * Schedules periodic flushing of market statistics to the database.
+     */
+    public void scheduleMarketStatsFlush() {
+        int flushMinutes = Math.max(1, plugin.getConfigManager().getPerformanceConfig().getInt("market_stats_flush_minutes", 5));
+        
+        BukkitTask task = Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, () -> {
+            plugin.getMarketStatsManager().flush();
+        }, 20L * 60 * flushMinutes, 20L * 60 * flushMinutes); // Every configured minutes
+        
+        scheduledTasks.add(task);
+    }
+    
+    /**
+     * Schedules periodic saving of rolling transfer and deposit limit windows.
+     */
+    public void scheduleRollingLimitsFlush() {
+        int flushMinutes = Math.max(1, plugin.getConfigManager().getPerformanceConfig().getInt("rolling_limits_flush_minutes", 5));
+        
+        BukkitTask task = Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, () -> {
+            plugin.getTransferManager().saveTransferLimits();
+            plugin.getBankManager().saveDepositLimits();
+        }, 20L * 60 * flushMinutes, 20L * 60 * flushMinutes); // Every configured minutes
+        
+        scheduledTasks.add(task);
+    }
+    
+    /**
+     * Schedules delivery of queued notifications. Runs on the main thread; everything
+     * queued for a player within one interval is sent together.
+     */
+    public void scheduleNotificationFlush() {
+        int flushTicks = Math.max(1, plugin.getConfigManager().getPerformanceConfig().getInt("notification_flush_ticks", 20));
+        
+        BukkitTask task = Bukkit.getScheduler().runTaskTimer(plugin, () -> {
+            plugin.getNotificationManager().flushNotifications();
+        }, flushTicks, flushTicks);
+        
+        scheduledTasks.add(task);
+    }
+    
+    /**
+     * Schedules re-checking the cached permission holders, since permission plugins
+     * don't tell us when permissions change.
+     */
+    public void schedulePermissionRefresh() {
+        int refreshTicks = Math.max(20, plugin.getConfigManager().getPerformanceConfig().getInt("permission_cache_refresh_ticks", 600));
+        
+        BukkitTask task = Bukkit.getScheduler().runTaskTimer(plugin, () -> {
+            plugin.getNotificationManager().getPermissionHolders().refreshAll();
+        }, refreshTicks, refreshTicks);
+        
+        scheduledTasks.add(task);
+    }
+    
+    /**
+     * Schedules the per-tick refresh of open menus that show live data.
+     */
+    public void scheduleMenuRefresh() {
+        BukkitTask task = Bukkit.getScheduler().runTaskTimer(plugin, () -> {
+            plugin.getMenuRefresher().tick();
+        }, 1L, 1L);
+        
+        scheduledTasks.add(task);
+    }
+    
+    /**
+     * Schedules writing coalesced Vault deposits, if coalescing is enabled.
+     */
+    public void scheduleDepositCoalescing() {
+        DepositCoalescer coalescer = plugin.getDepositCoalescer();
+        if (!coalescer.isEnabled()) {
+            return;
         }
+        
+        int windowTicks = coalescer.getWindowTicks();        
+        BukkitTask task = Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, coalescer::flush, windowTicks, windowTicks);
+        
+        scheduledTasks.add(task);
     }
     
     /**
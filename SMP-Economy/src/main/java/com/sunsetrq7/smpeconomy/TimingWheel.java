@@ -0,0 +1,240 @@
+package com.sunsetrq7.smpeconomy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Hierarchical timing wheel for deadline callbacks (auction endings).
+ *
+ * Four levels of 64 slots each; level 0 slots are one tick wide and every higher
+ * level is 64 times coarser, with an overflow list for anything further out.
+ * Timeouts are nodes in doubly linked slot lists, so scheduling, cancelling and
+ * rescheduling are O(1). The wheel never reads the clock itself: whoever owns it
+ * calls {@link #advanceTo(long)} with the current time, which keeps it deterministic
+ * under a simulated clock. Expired callbacks are handed to the executor.
+ */
+public class TimingWheel {
+
+    private static final int LEVELS = 4;
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+
+    private final long tickMillis;
+    private final long originMillis;
+    private final Executor executor;
+
+    private final Slot[][] wheels;
+    private final Slot overflow;
+    private final Slot due;
+
+    // Last tick that has been processed
+    private long currentTick;
+    private int size;
+
+    public TimingWheel(long tickMillis, long originMillis, Executor executor) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick must be positive: " + tickMillis);
+        }
+
+        this.tickMillis = tickMillis;
+        this.originMillis = originMillis;
+        this.executor = executor;
+        this.wheels = new Slot[LEVELS][SLOTS];
+        for (int level = 0; level < LEVELS; level++) {
+            for (int i = 0; i < SLOTS; i++) {
+                wheels[level][i] = new Slot();
+            }
+        }
+        this.overflow = new Slot();
+        this.due = new Slot();
+    }
+
+    /**
+     * Schedules a task to run once the given deadline has passed.
+     */
+    public synchronized Timeout schedule(long deadlineMillis, Runnable task) {
+        Timeout timeout = new Timeout(task);
+        timeout.deadlineMillis = deadlineMillis;
+        place(timeout);
+        size++;
+        return timeout;
+    }
+
+    /**
+     * Moves a timeout to a new deadline. A timeout that already fired or was
+     * cancelled is scheduled again.
+     */
+    public synchronized void reschedule(Timeout timeout, long deadlineMillis) {
+        if (timeout.slot != null) {
+            timeout.slot.unlink(timeout);
+        } else {
+            size++;
+        }
+        timeout.deadlineMillis = deadlineMillis;
+        place(timeout);
+    }
+
+    /**
+     * Cancels a timeout. Returns false if it already fired or was cancelled.
+     */
+    public synchronized boolean cancel(Timeout timeout) {
+        if (timeout.slot == null) {
+            return false;
+        }
+        timeout.slot.unlink(timeout);
+        size--;
+        return true;
+    }
+
+    /**
+     * Gets the number of pending timeouts.
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Advances the wheel to the given time and dispatches every timeout whose
+     * deadline is at or before it.
+     */
+    public void advanceTo(long nowMillis) {
+        List<Runnable> expired = new ArrayList<>();
+
+        synchronized (this) {
+            long targetTick = Math.floorDiv(nowMillis - originMillis, tickMillis);
+
+            // Nothing can fire in between, so an empty wheel just jumps ahead
+            if (size == 0 && targetTick > currentTick) {
+                currentTick = targetTick;
+            }
+
+            drain(due, expired);
+            while (currentTick < targetTick) {
+                currentTick++;
+                cascade();
+                drain(wheels[0][(int) (currentTick & SLOT_MASK)], expired);
+                drain(due, expired);
+            }
+        }
+
+        for (Runnable task : expired) {
+            executor.execute(task);
+        }
+    }
+
+    /**
+     * Puts a timeout into the slot matching its deadline relative to the current tick.
+     */
+    private void place(Timeout timeout) {
+        // Round up so a timeout never fires before its deadline
+        long deadlineTick = -Math.floorDiv(originMillis - timeout.deadlineMillis, tickMillis);
+        long delta = deadlineTick - currentTick;
+
+        if (delta <= 0) {
+            due.link(timeout);
+            return;
+        }
+
+        for (int level = 0; level < LEVELS; level++) {
+            if (delta < 1L << (SLOT_BITS * (level + 1))) {
+                wheels[level][(int) ((deadlineTick >>> (SLOT_BITS * level)) & SLOT_MASK)].link(timeout);
+                return;
+            }
+        }
+        overflow.link(timeout);
+    }
+
+    /**
+     * Redistributes coarser slots whose period starts at the current tick, top level first,
+     * so timeouts moved down are cascaded again within the same tick if needed.
+     */
+    private void cascade() {
+        if ((currentTick & SLOT_MASK) != 0) {
+            return;
+        }
+
+        int highest = 1;
+        while (highest < LEVELS && (currentTick & ((1L << (SLOT_BITS * (highest + 1))) - 1)) == 0) {
+            highest++;
+        }
+
+        if (highest == LEVELS) {
+            replaceAll(overflow);
+            highest = LEVELS - 1;
+        }
+        for (int level = highest; level >= 1; level--) {
+            replaceAll(wheels[level][(int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK)]);
+        }
+    }
+
+    private void replaceAll(Slot slot) {
+        Timeout timeout = slot.head;
+        while (timeout != null) {
+            Timeout next = timeout.next;
+            slot.unlink(timeout);
+            place(timeout);
+            timeout = next;
+        }
+    }
+
+    private void drain(Slot slot, List<Runnable> expired) {
+        Timeout timeout = slot.head;
+        while (timeout != null) {
+            Timeout next = timeout.next;
+            slot.unlink(timeout);
+            size--;
+            expired.add(timeout.task);
+            timeout = next;
+        }
+    }
+
+    /**
+     * Handle for a scheduled task.
+     */
+    public static final class Timeout {
+        private final Runnable task;
+        private long deadlineMillis;
+        private Slot slot;
+        private Timeout prev;
+        private Timeout next;
+
+        private Timeout(Runnable task) {
+            this.task = task;
+        }
+
+        public long getDeadline() { return deadlineMillis; }
+    }
+
+    /**
+     * Doubly linked list of timeouts sharing a slot.
+     */
+    private static final class Slot {
+        private Timeout head;
+
+        void link(Timeout timeout) {
+            timeout.slot = this;
+            timeout.prev = null;
+            timeout.next = head;
+            if (head != null) {
+                head.prev = timeout;
+            }
+            head = timeout;
+        }
+
+        void unlink(Timeout timeout) {
+            if (timeout.prev != null) {
+                timeout.prev.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            }
+            timeout.slot = null;
+            timeout.prev = null;
+            timeout.next = null;
+        }
+    }
+}
@@ -0,0 +1,388 @@
+package com.sunsetrq7.smpeconomy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Streaming anomaly detector over balance changes.
+ *
+ * Every change is fed in as a signed amount: money leaving a player counts as an
+ * outflow, money arriving as an inflow. Per direction the analyzer keeps a Count-Min
+ * sketch of the amount moved in the current window (so any player's volume can be
+ * estimated without a per-player map) and a Space-Saving table of the heaviest
+ * players. On top of that each player has an exponentially decaying velocity in a
+ * fixed-size table. Memory is fixed at construction no matter how many players the
+ * server has seen. Methods are synchronized; each call is a handful of array updates.
+ */
+public class TransactionAnalyzer {
+
+    private static final int SKETCH_DEPTH = 4;
+    private static final int MAX_PROBES = 8;
+
+    private final long windowMillis;
+
+    // Velocity decay rate, ln 2 / half-life
+    private final double decayPerMilli;
+
+    private final Flow outflow;
+    private final Flow inflow;
+
+    // Velocity table: fingerprint, decayed rate (money per minute), last update and last alert
+    private final long[] fingerprints;
+    private final double[] rates;
+    private final long[] updated;
+    private final long[] alerted;
+    private final int mask;
+
+    private long windowStart;
+
+    public TransactionAnalyzer(int capacity, int sketchWidth, int heavyHitters, long windowMillis, long halfLifeMillis) {
+        if (windowMillis <= 0 || halfLifeMillis <= 0) {
+            throw new IllegalArgumentException("Window and half-life must be positive");
+        }
+
+        this.windowMillis = windowMillis;
+        this.decayPerMilli = Math.log(2) / halfLifeMillis;
+        this.outflow = new Flow(sketchWidth, heavyHitters);
+        this.inflow = new Flow(sketchWidth, heavyHitters);
+
+        int size = Integer.highestOneBit(Math.max(16, capacity - 1) << 1);
+        this.fingerprints = new long[size];
+        this.rates = new double[size];
+        this.updated = new long[size];
+        this.alerted = new long[size];
+        this.mask = size - 1;
+    }
+
+    /**
+     * Records a balance change and returns what it tripped, or null if nothing did.
+     * Alerts for the same player are suppressed for {@code cooldownMillis}.
+     */
+    public synchronized Alert record(UUID playerUUID, double delta, double windowThreshold,
+                                     double velocityThreshold, long cooldownMillis, long nowMillis) {
+        if (delta == 0 || Double.isNaN(delta)) {
+            return null;
+        }
+
+        rollWindow(nowMillis);
+
+        long fingerprint = fingerprint(playerUUID);
+        double amount = Math.abs(delta);
+        Flow flow = delta < 0 ? outflow : inflow;
+        double windowVolume = flow.add(playerUUID, fingerprint, Math.round(amount * 100.0)) / 100.0;
+
+        int slot = slotFor(fingerprint, nowMillis);
+        // Scaled so a steady flow of X per minute settles at a velocity of X
+        double velocity = decay(slot, nowMillis) + amount * decayPerMilli * 60000.0;
+        rates[slot] = velocity;
+        updated[slot] = nowMillis;
+
+        boolean windowTripped = windowThreshold > 0 && windowVolume > windowThreshold;
+        boolean velocityTripped = velocityThreshold > 0 && velocity > velocityThreshold;
+        if (!windowTripped && !velocityTripped) {
+            return null;
+        }
+        if (alerted[slot] != 0 && nowMillis - alerted[slot] < cooldownMillis) {
+            return null;
+        }
+        alerted[slot] = nowMillis;
+
+        return new Alert(playerUUID, delta < 0, windowTripped ? "volume" : "velocity", windowVolume, velocity);
+    }
+
+    /**
+     * Estimates how much a player sent in the current window (never an underestimate).
+     */
+    public synchronized double estimateOutflow(UUID playerUUID, long nowMillis) {
+        rollWindow(nowMillis);
+        return outflow.sketch.estimate(fingerprint(playerUUID)) / 100.0;
+    }
+
+    /**
+     * Estimates how much a player received in the current window (never an underestimate).
+     */
+    public synchronized double estimateInflow(UUID playerUUID, long nowMillis) {
+        rollWindow(nowMillis);
+        return inflow.sketch.estimate(fingerprint(playerUUID)) / 100.0;
+    }
+
+    /**
+     * Gets a player's current velocity in money per minute.
+     */
+    public synchronized double getVelocity(UUID playerUUID, long nowMillis) {
+        long fingerprint = fingerprint(playerUUID);
+        int start = (int) (fingerprint ^ (fingerprint >>> 32)) & mask;
+        for (int probe = 0; probe < MAX_PROBES; probe++) {
+            int slot = (start + probe) & mask;
+            if (fingerprints[slot] == fingerprint) {
+                return decay(slot, nowMillis);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Gets the heaviest senders of the current window, largest first.
+     */
+    public synchronized List<HeavyHitter> getTopSenders(long nowMillis) {
+        rollWindow(nowMillis);
+        return outflow.hitters.top();
+    }
+
+    /**
+     * Gets the heaviest receivers of the current window, largest first.
+     */
+    public synchronized List<HeavyHitter> getTopReceivers(long nowMillis) {
+        rollWindow(nowMillis);
+        return inflow.hitters.top();
+    }
+
+    /**
+     * Starts a new window once the current one has passed; velocities carry over.
+     */
+    private void rollWindow(long nowMillis) {
+        long start = nowMillis - Math.floorMod(nowMillis, windowMillis);
+        if (start != windowStart) {
+            windowStart = start;
+            outflow.clear();
+            inflow.clear();
+        }
+    }
+
+    /**
+     * Finds the velocity slot for a player, claiming an empty slot or evicting the
+     * slowest entry in the probe range.
+     */
+    private int slotFor(long fingerprint, long nowMillis) {
+        int start = (int) (fingerprint ^ (fingerprint >>> 32)) & mask;
+        int victim = start;
+        double victimRate = Double.MAX_VALUE;
+
+        for (int probe = 0; probe < MAX_PROBES; probe++) {
+            int slot = (start + probe) & mask;
+            if (fingerprints[slot] == fingerprint) {
+                return slot;
+            }
+            if (fingerprints[slot] == 0) {
+                victim = slot;
+                break;
+            }
+            double rate = decay(slot, nowMillis);
+            if (rate < victimRate) {
+                victim = slot;
+                victimRate = rate;
+            }
+        }
+
+        fingerprints[victim] = fingerprint;
+        rates[victim] = 0;
+        updated[victim] = nowMillis;
+        alerted[victim] = 0;
+        return victim;
+    }
+
+    private double decay(int slot, long nowMillis) {
+        long elapsed = Math.max(0, nowMillis - updated[slot]);
+        return rates[slot] * Math.exp(-elapsed * decayPerMilli);
+    }
+
+    /**
+     * Mixes a UUID into a non-zero 64-bit fingerprint (zero marks an empty slot).
+     */
+    private static long fingerprint(UUID key) {
+        long z = key.getMostSignificantBits() * 0x9E3779B97F4A7C15L ^ key.getLeastSignificantBits();
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z ^= z >>> 31;
+        return z != 0 ? z : 1;
+    }
+
+    /**
+     * Sketch and heavy hitters for one direction of money flow.
+     */
+    private static final class Flow {
+        private final CountMinSketch sketch;
+        private final SpaceSaving hitters;
+
+        Flow(int sketchWidth, int heavyHitters) {
+            this.sketch = new CountMinSketch(sketchWidth);
+            this.hitters = new SpaceSaving(heavyHitters);
+        }
+
+        long add(UUID playerUUID, long fingerprint, long cents) {
+            hitters.add(playerUUID, cents);
+            return sketch.add(fingerprint, cents);
+        }
+
+        void clear() {
+            sketch.clear();
+            hitters.clear();
+        }
+    }
+
+    /**
+     * Count-Min sketch with conservative update, counting cents.
+     */
+    private static final class CountMinSketch {
+        private final long[] counters;
+        private final int widthMask;
+        private final int[] cells = new int[SKETCH_DEPTH];
+
+        CountMinSketch(int width) {
+            int size = Integer.highestOneBit(Math.max(64, width - 1) << 1);
+            this.counters = new long[SKETCH_DEPTH * size];
+            this.widthMask = size - 1;
+        }
+
+        /**
+         * Adds to a key and returns its new estimate. Only the counters at the current
+         * minimum are raised, which keeps overestimates from other keys smaller.
+         */
+        long add(long fingerprint, long amount) {
+            long estimate = locate(fingerprint) + amount;
+            for (int row = 0; row < SKETCH_DEPTH; row++) {
+                if (counters[cells[row]] < estimate) {
+                    counters[cells[row]] = estimate;
+                }
+            }
+            return estimate;
+        }
+
+        long estimate(long fingerprint) {
+            return locate(fingerprint);
+        }
+
+        /**
+         * Fills in the key's cell in every row and returns the smallest counter.
+         */
+        private long locate(long fingerprint) {
+            // Double hashing: row i uses h1 + i * h2
+            int h1 = (int) fingerprint;
+            int h2 = (int) (fingerprint >>> 32) | 1;
+            long min = Long.MAX_VALUE;
+            for (int row = 0; row < SKETCH_DEPTH; row++) {
+                int cell = row * (widthMask + 1) + ((h1 + row * h2) & widthMask);
+                cells[row] = cell;
+                min = Math.min(min, counters[cell]);
+            }
+            return min;
+        }
+
+        void clear() {
+            Arrays.fill(counters, 0);
+        }
+    }
+
+    /**
+     * Space-Saving top-k table. A new key replaces the smallest entry and inherits its
+     * count as the possible error, so every key whose true count exceeds the smallest
+     * tracked count is guaranteed to be in the table.
+     */
+    private static final class SpaceSaving {
+        private final UUID[] keys;
+        private final long[] counts;
+        private final long[] errors;
+        private final Map<UUID, Integer> index;
+        private int size;
+
+        SpaceSaving(int capacity) {
+            int k = Math.max(1, capacity);
+            this.keys = new UUID[k];
+            this.counts = new long[k];
+            this.errors = new long[k];
+            this.index = new HashMap<>(k * 2);
+        }
+
+        void add(UUID key, long amount) {
+            Integer existing = index.get(key);
+            if (existing != null) {
+                counts[existing] += amount;
+                return;
+            }
+
+            if (size < keys.length) {
+                keys[size] = key;
+                counts[size] = amount;
+                errors[size] = 0;
+                index.put(key, size++);
+                return;
+            }
+
+            int smallest = 0;
+            for (int i = 1; i < size; i++) {
+                if (counts[i] < counts[smallest]) {
+                    smallest = i;
+                }
+            }
+            index.remove(keys[smallest]);
+            keys[smallest] = key;
+            errors[smallest] = counts[smallest];
+            counts[smallest] += amount;
+            index.put(key, smallest);
+        }
+
+        List<HeavyHitter> top() {
+            List<HeavyHitter> result = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                result.add(new HeavyHitter(keys[i], counts[i] / 100.0, (counts[i] - errors[i]) / 100.0));
+            }
+            result.sort((a, b) -> Double.compare(b.getAmount(), a.getAmount()));
+            return result;
+        }
+
+        void clear() {
+            Arrays.fill(keys, null);
+            index.clear();
+            size = 0;
+        }
+    }
+
+    /**
+     * A player in a heavy-hitter table. The true amount lies between the guaranteed
+     * amount and the estimated amount.
+     */
+    public static final class HeavyHitter {
+        private final UUID playerUUID;
+        private final double amount;
+        private final double guaranteedAmount;
+
+        HeavyHitter(UUID playerUUID, double amount, double guaranteedAmount) {
+            this.playerUUID = playerUUID;
+            this.amount = amount;
+            this.guaranteedAmount = guaranteedAmount;
+        }
+
+        public UUID getPlayerUUID() { return playerUUID; }
+        public double getAmount() { return amount; }
+        public double getGuaranteedAmount() { return guaranteedAmount; }
+    }
+
+    /**
+     * A tripped threshold.
+     */
+    public static final class Alert {
+        private final UUID playerUUID;
+        private final boolean outflow;
+        private final String reason;
+        private final double windowVolume;
+        private final double velocity;
+
+        Alert(UUID playerUUID, boolean outflow, String reason, double windowVolume, double velocity) {
+            this.playerUUID = playerUUID;
+            this.outflow = outflow;
+            this.reason = reason;
+            this.windowVolume = windowVolume;
+            this.velocity = velocity;
+        }
+
+        public UUID getPlayerUUID() { return playerUUID; }
+        public boolean isOutflow() { return outflow; }
+        public String getReason() { return reason; }
+        public double getWindowVolume() { return windowVolume; }
+        public double getVelocity() { return velocity; }
+    }
+}
@@ -6,9 +6,9 @@ import org.bukkit.entity.Player;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 
 /**
@@ -22,17 +22,17 @@ public class TransferManager {
     
     // Cooldown tracking
     private final Map<UUID, Long> lastTransferTime;
-    private final Map<UUID, Double> transferAmountToday;
-    private final Map<UUID, Double> transferAmountThisWeek;
+    
+    // Rolling 24h / 7d transfer totals
+    private final RollingLimitTracker transferLimits;
     
     public TransferManager(SMP_Economy plugin) {
         this.plugin = plugin;
         this.databaseManager = plugin.getDatabaseManager();
         this.economyManager = plugin.getEconomyManager();
         
-        this.lastTransferTime = new HashMap<>();
-        this.transferAmountToday = new HashMap<>();
-        this.transferAmountThisWeek = new HashMap<>();
+        this.lastTransferTime = new ConcurrentHashMap<>();
+        this.transferLimits = new RollingLimitTracker(plugin, "transfer", "money_transfer");
     }
     
     /**
@@ -61,11 +61,24 @@ public class TransferManager {
             return false;
         }
         
-        // Check daily transfer limits
-        if (!isWithinDailyLimit(senderUUID, amount)) {
+        // Reserve the amount against the rolling daily and weekly limits
+        long reservedHour = reserveTransferLimits(senderUUID, amount);
+        if (reservedHour == RollingLimitTracker.REFUSED) {
             return false;
         }
         
+        if (!executeTransfer(senderUUID, receiverUUID, amount)) {
+            transferLimits.release(senderUUID, amount, reservedHour);
+            return false;
+        }
+        
+        return true;
+    }
+    
+    /**
+     * Moves the money, logs the transfer and notifies both players.
+     */
+    private boolean executeTransfer(UUID senderUUID, UUID receiverUUID, double amount) {
         // Apply transaction fee if configured
         double feePercentage = plugin.getConfigManager().getEconomyConfig().getDouble("transaction_fee", 0.0);
         double feeAmount = amount * (feePercentage / 100.0);
@@ -103,24 +116,18 @@ public class TransferManager {
                 if (senderPlayer != null && senderPlayer.isOnline()) {
                     String message = plugin.getLanguageManager().getMessage(
                         getPlayerLanguage(senderUUID), 
-                        "transfer.sent", 
+                        MessageKey.TRANSFER_SENT, 
                         "amount", economyManager.format(transferAmount),
-                        "receiver", Bukkit.getOfflinePlayer(receiverUUID).getName(),
+                        "receiver", plugin.getPlayerNameIndex().getDisplayName(receiverUUID),
                         "fee", economyManager.format(feeAmount)
                     );
                     plugin.getNotificationManager().sendNotification(senderPlayer, message);
                 }
                 
-                Player receiverPlayer = Bukkit.getPlayer(receiverUUID);
-                if (receiverPlayer != null && receiverPlayer.isOnline()) {
-                    String message = plugin.getLanguageManager().getMessage(
-                        getPlayerLanguage(receiverUUID), 
-                        "transfer.received", 
-                        "amount", economyManager.format(transferAmount),
-                        "sender", Bukkit.getOfflinePlayer(senderUUID).getName()
-                    );
-                    plugin.getNotificationManager().sendNotification(receiverPlayer, message);
-                }
+                // Coalesced with other payments this tick window, or kept for when the receiver joins
+                plugin.getNotificationManager().queueAmountNotification(receiverUUID, MessageKey.TRANSFER_RECEIVED, transferAmount, 
+                    "amount", economyManager.format(transferAmount),
+                    "sender", plugin.getPlayerNameIndex().getDisplayName(senderUUID));
                 
                 return true;
                 
@@ -152,30 +159,25 @@ public class TransferManager {
     }
     
     /**
-     * Checks if a transfer is within the daily limit.
+     * Checks the rolling daily and weekly transfer limits and, if the transfer fits,
+     * records it against them. Returns the hour it was recorded in, or
+     * {@link RollingLimitTracker#REFUSED}.
      */
-    private boolean isWithinDailyLimit(UUID senderUUID, double amount) {
-        // This is a simplified check - in a real implementation you'd track actual daily amounts
-        double maxTransfersPerMinute = plugin.getConfigManager().getSecurityConfig().getInt("max_transactions_per_minute", 10);
+    private long reserveTransferLimits(UUID senderUUID, double amount) {
+        double dailyLimit = plugin.getConfigManager().getEconomyConfig().getDouble("daily_transfer_limit", 1000000.0);
+        double weeklyLimit = plugin.getConfigManager().getEconomyConfig().getDouble("weekly_transfer_limit", 10000000.0);
         
-        // For now, just ensure the amount is reasonable
-        return amount > 0;
+        if (amount <= 0) {
+            return RollingLimitTracker.REFUSED;
+        }
+        return transferLimits.tryRecord(senderUUID, amount, dailyLimit, weeklyLimit);
     }
     
     /**
-     * Updates transfer tracking for cooldown and limits.
+     * Updates transfer tracking for cooldown.
      */
     private void updateTransferTracking(UUID senderUUID, double amount) {
-        // Update last transfer time for cooldown
         lastTransferTime.put(senderUUID, System.currentTimeMillis());
-        
-        // Update daily transfer amount
-        double currentDailyAmount = transferAmountToday.getOrDefault(senderUUID, 0.0);
-        transferAmountToday.put(senderUUID, currentDailyAmount + amount);
-        
-        // Update weekly transfer amount
-        double currentWeeklyAmount = transferAmountThisWeek.getOrDefault(senderUUID, 0.0);
-        transferAmountThisWeek.put(senderUUID, currentWeeklyAmount + amount);
     }
     
     /**
@@ -198,37 +200,42 @@ public class TransferManager {
      * Gets the player's language preference.
      */
     private String getPlayerLanguage(UUID playerUUID) {
-        // This would typically get the player's language from the database
-        // For now, we'll return the default language
-        return plugin.getLanguageManager().getDefaultLanguage();
+        return plugin.getLocaleResolver().getLanguage(playerUUID);
     }
     
     /**
-     * Gets the amount transferred by a player today.
+     * Gets the amount transferred by a player over the last 24 hours.
      */
     public double getDailyTransferAmount(UUID playerUUID) {
-        return transferAmountToday.getOrDefault(playerUUID, 0.0);
+        return transferLimits.getDailyTotal(playerUUID);
     }
     
     /**
-     * Gets the amount transferred by a player this week.
+     * Gets the amount transferred by a player over the last 7 days.
      */
     public double getWeeklyTransferAmount(UUID playerUUID) {
-        return transferAmountThisWeek.getOrDefault(playerUUID, 0.0);
+        return transferLimits.getWeeklyTotal(playerUUID);
+    }
+    
+    /**
+     * Loads a player's transfer limit window (called off the main thread on join).
+     */
+    public void loadTransferLimits(UUID playerUUID) {
+        transferLimits.preload(playerUUID);
     }
     
     /**
-     * Resets daily transfer tracking (should be called daily).
+     * Saves and unloads a player's transfer limit window.
      */
-    public void resetDailyTransfers() {
-        transferAmountToday.clear();
+    public void unloadTransferLimits(UUID playerUUID) {
+        transferLimits.unload(playerUUID);
     }
     
     /**
-     * Resets weekly transfer tracking (should be called weekly).
+     * Saves all changed transfer limit windows.
      */
-    public void resetWeeklyTransfers() {
-        transferAmountThisWeek.clear();
+    public void saveTransferLimits() {
+        transferLimits.flush();
     }
     
     /**
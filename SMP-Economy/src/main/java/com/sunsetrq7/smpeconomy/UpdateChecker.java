@@ -40,7 +40,7 @@ public class UpdateChecker {
             String currentVersion = plugin.getDescription().getVersion();
             player.sendMessage(plugin.getLanguageManager().getMessage(
                 getPlayerLanguage(player), 
-                "update.current_version", 
+                MessageKey.UPDATE_CURRENT_VERSION, 
                 "version", currentVersion));
         }
     }
@@ -49,7 +49,6 @@ public class UpdateChecker {
      * Gets the player's language.
      */
     private String getPlayerLanguage(Player player) {
-        // In a real implementation, this would get the player's language from the database
-        return plugin.getLanguageManager().getDefaultLanguage();
+        return plugin.getLocaleResolver().getLanguage(player);
     }
 }
\ No newline at end of file
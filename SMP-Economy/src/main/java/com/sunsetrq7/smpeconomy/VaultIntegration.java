@@ -7,6 +7,9 @@ import org.bukkit.OfflinePlayer;
 import org.bukkit.plugin.RegisteredServiceProvider;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 import java.util.logging.Level;
 
 /**
@@ -15,11 +18,9 @@ import java.util.logging.Level;
 public class VaultIntegration implements Economy {
     
     private final SMP_Economy plugin;
-    private EconomyResponse notImplementedResponse;
     
     public VaultIntegration(SMP_Economy plugin) {
         this.plugin = plugin;
-        this.notImplementedResponse = new EconomyResponse(0, 0, EconomyResponse.ResponseType.NOT_IMPLEMENTED, "Method not implemented in this context");
     }
     
     /**
@@ -88,8 +89,7 @@ public class VaultIntegration implements Economy {
     
     @Override
     public boolean hasAccount(String playerName) {
-        OfflinePlayer player = Bukkit.getOfflinePlayer(playerName);
-        return player.hasPlayedBefore() || player.isOnline();
+        return resolve(playerName) != null;
     }
     
     @Override
@@ -109,164 +109,292 @@ public class VaultIntegration implements Economy {
     
     @Override
     public double getBalance(String playerName) {
-        OfflinePlayer player = Bukkit.getOfflinePlayer(playerName);
-        return getBalance(player);
+        UUID playerUUID = resolve(playerName);
+        return playerUUID != null ? balance(playerUUID, CurrencyRegistry.DEFAULT_CURRENCY) : 0.0;
     }
     
     @Override
     public double getBalance(OfflinePlayer player) {
-        return plugin.getEconomyManager().getBalance(player.getUniqueId());
+        return balance(player.getUniqueId(), CurrencyRegistry.DEFAULT_CURRENCY);
     }
     
     @Override
     public double getBalance(String playerName, String worldName) {
-        return getBalance(playerName);
+        UUID playerUUID = resolve(playerName);
+        return playerUUID != null ? balance(playerUUID, currency(worldName)) : 0.0;
     }
     
     @Override
     public double getBalance(OfflinePlayer player, String worldName) {
-        return getBalance(player);
+        return balance(player.getUniqueId(), currency(worldName));
+    }
+    
+    /**
+     * Gets a balance; the economy manager writes any coalesced deposits first.
+     */
+    private double balance(UUID playerUUID, int currencyId) {
+        return plugin.getEconomyManager().getBalance(playerUUID, currencyId);
     }
     
     @Override
     public boolean has(String playerName, double amount) {
-        OfflinePlayer player = Bukkit.getOfflinePlayer(playerName);
-        return has(player, amount);
+        UUID playerUUID = resolve(playerName);
+        return playerUUID != null && balance(playerUUID, CurrencyRegistry.DEFAULT_CURRENCY) >= amount;
     }
     
     @Override
     public boolean has(OfflinePlayer player, double amount) {
-        return plugin.getEconomyManager().has(player.getUniqueId(), amount);
+        return balance(player.getUniqueId(), CurrencyRegistry.DEFAULT_CURRENCY) >= amount;
     }
     
     @Override
     public boolean has(String playerName, String worldName, double amount) {
-        return has(playerName, amount);
+        UUID playerUUID = resolve(playerName);
+        return playerUUID != null && balance(playerUUID, currency(worldName)) >= amount;
     }
     
     @Override
     public boolean has(OfflinePlayer player, String worldName, double amount) {
-        return has(player, amount);
+        return balance(player.getUniqueId(), currency(worldName)) >= amount;
     }
     
     @Override
     public EconomyResponse withdrawPlayer(String playerName, double amount) {
-        OfflinePlayer player = Bukkit.getOfflinePlayer(playerName);
-        return withdrawPlayer(player, amount);
+        UUID playerUUID = resolve(playerName);
+        if (playerUUID == null) {
+            return unknownAccount(playerName);
+        }
+        return withdraw(playerUUID, CurrencyRegistry.DEFAULT_CURRENCY, amount);
     }
     
     @Override
     public EconomyResponse withdrawPlayer(OfflinePlayer player, double amount) {
-        if (plugin.getEconomyManager().removeMoney(player.getUniqueId(), amount)) {
-            return new EconomyResponse(amount, getBalance(player), EconomyResponse.ResponseType.SUCCESS, 
+        return withdraw(player.getUniqueId(), CurrencyRegistry.DEFAULT_CURRENCY, amount);
+    }
+    
+    private EconomyResponse withdraw(UUID playerUUID, int currencyId, double amount) {
+        // Pending deposits count towards what the player can spend
+        if (currencyId == CurrencyRegistry.DEFAULT_CURRENCY) {
+            plugin.getDepositCoalescer().settle(playerUUID);
+        }
+        
+        // Checks funds and withdraws in one step, so callers needn't call has() first
+        EconomyManager.BalanceChange result = plugin.getEconomyManager().withdraw(playerUUID, currencyId, amount);
+        if (result.isSuccess()) {
+            return new EconomyResponse(result.getAmount(), result.getBalance(), EconomyResponse.ResponseType.SUCCESS, 
                 "Successfully withdrew " + format(amount));
         } else {
-            return new EconomyResponse(0, getBalance(player), EconomyResponse.ResponseType.FAILURE, 
+            return new EconomyResponse(0, result.getBalance(), EconomyResponse.ResponseType.FAILURE, 
                 "Failed to withdraw " + format(amount));
         }
     }
     
     @Override
     public EconomyResponse withdrawPlayer(String playerName, String worldName, double amount) {
-        return withdrawPlayer(playerName, amount);
+        UUID playerUUID = resolve(playerName);
+        if (playerUUID == null) {
+            return unknownAccount(playerName);
+        }
+        return withdraw(playerUUID, currency(worldName), amount);
     }
     
     @Override
     public EconomyResponse withdrawPlayer(OfflinePlayer player, String worldName, double amount) {
-        return withdrawPlayer(player, amount);
+        return withdraw(player.getUniqueId(), currency(worldName), amount);
     }
     
     @Override
     public EconomyResponse depositPlayer(String playerName, double amount) {
-        OfflinePlayer player = Bukkit.getOfflinePlayer(playerName);
-        return depositPlayer(player, amount);
+        UUID playerUUID = resolve(playerName);
+        if (playerUUID == null) {
+            return unknownAccount(playerName);
+        }
+        return deposit(playerUUID, CurrencyRegistry.DEFAULT_CURRENCY, amount);
     }
     
     @Override
     public EconomyResponse depositPlayer(OfflinePlayer player, double amount) {
-        if (plugin.getEconomyManager().addMoney(player.getUniqueId(), amount)) {
-            return new EconomyResponse(amount, getBalance(player), EconomyResponse.ResponseType.SUCCESS, 
+        return deposit(player.getUniqueId(), CurrencyRegistry.DEFAULT_CURRENCY, amount);
+    }
+    
+    private EconomyResponse deposit(UUID playerUUID, int currencyId, double amount) {
+        DepositCoalescer coalescer = plugin.getDepositCoalescer();
+        if (currencyId == CurrencyRegistry.DEFAULT_CURRENCY && amount > 0 && coalescer.isEnabled()) {
+            // Only players with a cached balance are coalesced, so the response's balance
+            // needs no query; anyone else needs one either way and is deposited directly
+            PlayerDataManager.PlayerData data = plugin.getPlayerDataManager().getPlayerDataFromCache(playerUUID);
+            if (data != null) {
+                coalescer.add(playerUUID, amount);
+                return new EconomyResponse(amount, data.getBalance() + coalescer.getPending(playerUUID), 
+                    EconomyResponse.ResponseType.SUCCESS, "Successfully deposited " + format(amount));
+            }
+        }
+        
+        EconomyManager.BalanceChange result = plugin.getEconomyManager().deposit(playerUUID, currencyId, amount);
+        if (result.isSuccess()) {
+            return new EconomyResponse(result.getAmount(), result.getBalance(), EconomyResponse.ResponseType.SUCCESS, 
                 "Successfully deposited " + format(amount));
         } else {
-            return new EconomyResponse(0, getBalance(player), EconomyResponse.ResponseType.FAILURE, 
+            return new EconomyResponse(0, result.getBalance(), EconomyResponse.ResponseType.FAILURE, 
                 "Failed to deposit " + format(amount));
         }
     }
     
     @Override
     public EconomyResponse depositPlayer(String playerName, String worldName, double amount) {
-        return depositPlayer(playerName, amount);
+        UUID playerUUID = resolve(playerName);
+        if (playerUUID == null) {
+            return unknownAccount(playerName);
+        }
+        return deposit(playerUUID, currency(worldName), amount);
     }
     
     @Override
     public EconomyResponse depositPlayer(OfflinePlayer player, String worldName, double amount) {
-        return depositPlayer(player, amount);
+        return deposit(player.getUniqueId(), currency(worldName), amount);
     }
     
     @Override
     public EconomyResponse createBank(String name, String player) {
-        return notImplementedResponse;
+        UUID ownerUUID = resolve(player);
+        if (ownerUUID == null) {
+            return unknownAccount(player);
+        }
+        return createBank(name, ownerUUID);
     }
     
     @Override
     public EconomyResponse createBank(String name, OfflinePlayer player) {
-        return notImplementedResponse;
+        return createBank(name, player.getUniqueId());
+    }
+    
+    private EconomyResponse createBank(String name, UUID ownerUUID) {
+        if (plugin.getSharedBankManager().createBank(name, ownerUUID)) {
+            return new EconomyResponse(0, 0, EconomyResponse.ResponseType.SUCCESS, "Created bank " + name);
+        }
+        return new EconomyResponse(0, 0, EconomyResponse.ResponseType.FAILURE, "Could not create bank " + name);
     }
     
     @Override
     public EconomyResponse deleteBank(String name) {
-        return notImplementedResponse;
+        SharedBankManager.SharedBank bank = plugin.getSharedBankManager().getBank(name);
+        if (bank == null) {
+            return unknownBank(name);
+        }
+        if (bank.getBalance() != 0) {
+            return new EconomyResponse(0, bank.getBalance(), EconomyResponse.ResponseType.FAILURE, 
+                "Bank " + name + " still holds " + format(bank.getBalance()));
+        }
+        if (plugin.getSharedBankManager().deleteBank(name)) {
+            return new EconomyResponse(0, 0, EconomyResponse.ResponseType.SUCCESS, "Deleted bank " + name);
+        }
+        return new EconomyResponse(0, bank.getBalance(), EconomyResponse.ResponseType.FAILURE, "Could not delete bank " + name);
     }
     
     @Override
     public EconomyResponse bankBalance(String name) {
-        return notImplementedResponse;
+        SharedBankManager.SharedBank bank = plugin.getSharedBankManager().getBank(name);
+        if (bank == null) {
+            return unknownBank(name);
+        }
+        return new EconomyResponse(0, bank.getBalance(), EconomyResponse.ResponseType.SUCCESS, null);
     }
     
     @Override
     public EconomyResponse bankHas(String name, double amount) {
-        return notImplementedResponse;
+        SharedBankManager.SharedBank bank = plugin.getSharedBankManager().getBank(name);
+        if (bank == null) {
+            return unknownBank(name);
+        }
+        if (bank.getBalance() < amount) {
+            return new EconomyResponse(0, bank.getBalance(), EconomyResponse.ResponseType.FAILURE, "Bank " + name + " does not have " + format(amount));
+        }
+        return new EconomyResponse(0, bank.getBalance(), EconomyResponse.ResponseType.SUCCESS, null);
     }
     
     @Override
     public EconomyResponse bankWithdraw(String name, double amount) {
-        return notImplementedResponse;
+        if (plugin.getSharedBankManager().getBank(name) == null) {
+            return unknownBank(name);
+        }
+        
+        EconomyManager.BalanceChange result = plugin.getSharedBankManager().withdraw(name, amount);
+        if (result.isSuccess()) {
+            return new EconomyResponse(result.getAmount(), result.getBalance(), EconomyResponse.ResponseType.SUCCESS, 
+                "Successfully withdrew " + format(amount));
+        }
+        return new EconomyResponse(0, result.getBalance(), EconomyResponse.ResponseType.FAILURE, 
+            "Failed to withdraw " + format(amount));
     }
     
     @Override
     public EconomyResponse bankDeposit(String name, double amount) {
-        return notImplementedResponse;
+        if (plugin.getSharedBankManager().getBank(name) == null) {
+            return unknownBank(name);
+        }
+        
+        EconomyManager.BalanceChange result = plugin.getSharedBankManager().deposit(name, amount);
+        if (result.isSuccess()) {
+            return new EconomyResponse(result.getAmount(), result.getBalance(), EconomyResponse.ResponseType.SUCCESS, 
+                "Successfully deposited " + format(amount));
+        }
+        return new EconomyResponse(0, result.getBalance(), EconomyResponse.ResponseType.FAILURE, 
+            "Failed to deposit " + format(amount));
     }
     
     @Override
     public EconomyResponse isBankOwner(String name, String playerName) {
-        return notImplementedResponse;
+        return isBankOwner(name, resolve(playerName));
     }
     
     @Override
     public EconomyResponse isBankOwner(String name, OfflinePlayer player) {
-        return notImplementedResponse;
+        return isBankOwner(name, player.getUniqueId());
+    }
+    
+    private EconomyResponse isBankOwner(String name, UUID playerUUID) {
+        SharedBankManager.SharedBank bank = plugin.getSharedBankManager().getBank(name);
+        if (bank == null) {
+            return unknownBank(name);
+        }
+        boolean owner = playerUUID != null && bank.isOwner(playerUUID);
+        return new EconomyResponse(0, bank.getBalance(), 
+            owner ? EconomyResponse.ResponseType.SUCCESS : EconomyResponse.ResponseType.FAILURE, 
+            owner ? null : "Not the owner of bank " + name);
     }
     
     @Override
     public EconomyResponse isBankMember(String name, String playerName) {
-        return notImplementedResponse;
+        return isBankMember(name, resolve(playerName));
     }
     
     @Override
     public EconomyResponse isBankMember(String name, OfflinePlayer player) {
-        return notImplementedResponse;
+        return isBankMember(name, player.getUniqueId());
+    }
+    
+    private EconomyResponse isBankMember(String name, UUID playerUUID) {
+        SharedBankManager.SharedBank bank = plugin.getSharedBankManager().getBank(name);
+        if (bank == null) {
+            return unknownBank(name);
+        }
+        boolean member = playerUUID != null && bank.isMember(playerUUID);
+        return new EconomyResponse(0, bank.getBalance(), 
+            member ? EconomyResponse.ResponseType.SUCCESS : EconomyResponse.ResponseType.FAILURE, 
+            member ? null : "Not a member of bank " + name);
     }
     
     @Override
     public List<String> getBanks() {
-        return java.util.Collections.emptyList();
+        return plugin.getSharedBankManager().getBankNames();
     }
     
     @Override
     public boolean createPlayerAccount(String playerName) {
-        OfflinePlayer player = Bukkit.getOfflinePlayer(playerName);
-        return createPlayerAccount(player);
+        // Without a UUID there is nothing to create the account under; players get
+        // their account when they first join
+        UUID playerUUID = resolve(playerName);
+        return playerUUID != null && plugin.getEconomyManager().createPlayerAccount(playerUUID, playerName);
     }
     
     @Override
@@ -284,6 +412,41 @@ public class VaultIntegration implements Economy {
         return createPlayerAccount(player);
     }
     
+    /**
+     * Applies many deposits (or, with negative amounts, withdrawals) in one ledger
+     * operation with one journal batch, for plugins that pay many players at once.
+     * Returns the players whose change was rejected because it would overdraw or
+     * exceed the maximum balance, or because they have no account.
+     *
+     * This is not part of Vault's Economy interface. It is an SMP-Economy extension, so
+     * callers must check that the registered provider is a VaultIntegration before using it.
+     */
+    public Set<UUID> depositPlayers(Map<UUID, Double> amounts) {
+        return plugin.getEconomyManager().applyDeltas(amounts, "vault_bulk");
+    }
+    
+    /**
+     * Resolves a player name from the name index, never from Mojang.
+     */
+    private UUID resolve(String playerName) {
+        return plugin.getPlayerNameIndex().getUUID(playerName);
+    }
+    
+    /**
+     * Gets the currency of the world a Vault call names.
+     */
+    private int currency(String worldName) {
+        return plugin.getCurrencyRegistry().getCurrencyForWorld(worldName);
+    }
+    
+    private EconomyResponse unknownAccount(String playerName) {
+        return new EconomyResponse(0, 0, EconomyResponse.ResponseType.FAILURE, "No account found for " + playerName);
+    }
+    
+    private EconomyResponse unknownBank(String name) {
+        return new EconomyResponse(0, 0, EconomyResponse.ResponseType.FAILURE, "No bank named " + name);
+    }
+    
     /**
      * Shuts down the Vault integration.
      */
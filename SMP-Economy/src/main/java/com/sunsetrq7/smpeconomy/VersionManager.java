@@ -14,13 +14,13 @@ public class VersionManager {
     public VersionManager(SMP_Economy plugin) {
         this.plugin = plugin;
         this.serverVersion = Bukkit.getBukkitVersion();
-        this.nmsVersion = getNMSVersion();
+        this.nmsVersion = detectNMSVersion();
     }
     
     /**
-     * Gets the NMS version string.
+     * Reads the NMS version string from the server's package name.
      */
-    private String getNMSVersion() {
+    private String detectNMSVersion() {
         String version = Bukkit.getServer().getClass().getPackage().getName();
         return version.substring(version.lastIndexOf('.') + 1);
     }
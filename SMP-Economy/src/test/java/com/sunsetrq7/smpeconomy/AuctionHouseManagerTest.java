@@ -0,0 +1,332 @@
+package com.sunsetrq7.smpeconomy;
+
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.MockedStatic;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.when;
+
+/**
+ * Races buyouts and cancellations against each other on a real SQLite database. Every
+ * race must have exactly one winner, and money must only move for that winner: the
+ * buyer charged once, the seller paid minus the fee, and any escrowed bid refunded.
+ */
+class AuctionHouseManagerTest {
+
+    private static final String SELLER_START = "0.00";
+    private static final String BUYER_START = "500.00";
+    private static final double FEE_PERCENT = 5.0;
+
+    @TempDir
+    Path directory;
+
+    private DatabaseManager databaseManager;
+    private AuctionHouseManager auctionHouse;
+    private ItemStack item;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        SMP_Economy plugin = mock(SMP_Economy.class);
+        databaseManager = TestDatabase.open(plugin, directory);
+
+        ConfigManager configManager = mock(ConfigManager.class);
+        FileConfiguration mainConfig = defaults();
+        FileConfiguration auctionConfig = defaults();
+        FileConfiguration performanceConfig = defaults();
+        when(auctionConfig.getDouble("fee_percentage", 5.0)).thenReturn(FEE_PERCENT);
+        when(configManager.getMainConfig()).thenReturn(mainConfig);
+        when(configManager.getAuctionConfig()).thenReturn(auctionConfig);
+        when(configManager.getPerformanceConfig()).thenReturn(performanceConfig);
+        when(plugin.getConfigManager()).thenReturn(configManager);
+
+        when(plugin.getPlayerDataManager()).thenReturn(mock(PlayerDataManager.class));
+        when(plugin.getMarketStatsManager()).thenReturn(mock(MarketStatsManager.class));
+        when(plugin.getNotificationManager()).thenReturn(mock(NotificationManager.class));
+        when(plugin.getLanguageManager()).thenReturn(mock(LanguageManager.class));
+        when(plugin.getLocaleResolver()).thenReturn(mock(LocaleResolver.class));
+        when(plugin.getMenuRefresher()).thenReturn(mock(MenuRefresher.class));
+        EconomyManager economyManager = new EconomyManager(plugin);
+        when(plugin.getEconomyManager()).thenReturn(economyManager);
+
+        auctionHouse = new AuctionHouseManager(plugin);
+
+        item = mock(ItemStack.class);
+        when(item.clone()).thenReturn(item);
+        when(item.getAmount()).thenReturn(1);
+
+        executor = Executors.newFixedThreadPool(8);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void concurrentBuyoutsSellOnceAndRefundTheEscrowedBid() throws Exception {
+        UUID seller = player(SELLER_START);
+        UUID bidder = player("80.00");
+        int auctionId = auction(seller, 10, 100.0, 20, bidder);
+        List<Player> buyers = buyers(8);
+
+        List<Boolean> results = race(buyers.stream()
+            .map(buyer -> (Callable<Boolean>) () -> auctionHouse.buyoutAuction(buyer, auctionId))
+            .toList());
+
+        int winner = results.indexOf(true);
+        assertEquals(1, results.stream().filter(won -> won).count());
+        for (int i = 0; i < buyers.size(); i++) {
+            UUID buyer = buyers.get(i).getUniqueId();
+            assertEquals(money(i == winner ? "400.00" : BUYER_START), TestDatabase.balance(databaseManager, buyer));
+        }
+        assertEquals(money("95.00"), TestDatabase.balance(databaseManager, seller));
+        assertEquals(money("100.00"), TestDatabase.balance(databaseManager, bidder));
+        assertEquals("SOLD", status(auctionId));
+        assertEquals(1, transactions("auction_buyout"));
+        assertEquals(1, transactions("auction_refund"));
+    }
+
+    @Test
+    void cancelRefundsABidAtTheStartingPrice() throws SQLException {
+        UUID seller = player(SELLER_START);
+        UUID bidder = player("90.00");
+        int auctionId = auction(seller, 10, null, 10, bidder);
+
+        assertTrue(auctionHouse.cancelAuction(online(seller), auctionId));
+
+        assertEquals("CANCELLED", status(auctionId));
+        assertEquals(money("100.00"), TestDatabase.balance(databaseManager, bidder));
+        assertEquals(1, transactions("auction_refund"));
+        assertFalse(auctionHouse.cancelAuction(online(seller), auctionId));
+    }
+
+    @Test
+    void cancelIsRefusedOnceOutbid() throws SQLException {
+        UUID seller = player(SELLER_START);
+        int auctionId = auction(seller, 10, null, 15, player("85.00"));
+
+        assertFalse(auctionHouse.cancelAuction(online(seller), auctionId));
+        assertEquals("ACTIVE", status(auctionId));
+    }
+
+    @Test
+    void cancelAndBuyoutRacesHaveExactlyOneWinner() throws Exception {
+        UUID seller = player(SELLER_START);
+        Player sellerPlayer = online(seller);
+        int rounds = 20;
+
+        int sold = 0;
+        for (int round = 0; round < rounds; round++) {
+            int auctionId = auction(seller, 10, 50.0, 0, null);
+            Player buyer = buyers(1).get(0);
+
+            List<Boolean> results = race(List.of(
+                () -> auctionHouse.cancelAuction(sellerPlayer, auctionId),
+                () -> auctionHouse.cancelAuction(sellerPlayer, auctionId),
+                () -> auctionHouse.buyoutAuction(buyer, auctionId)));
+
+            boolean bought = results.get(2);
+            assertEquals(1, results.stream().filter(won -> won).count(), "round " + round);
+            assertEquals(bought ? "SOLD" : "CANCELLED", status(auctionId));
+            assertEquals(money(bought ? "450.00" : BUYER_START), TestDatabase.balance(databaseManager, buyer.getUniqueId()));
+            if (bought) {
+                sold++;
+            }
+        }
+
+        BigDecimal sellerTotal = BigDecimal.valueOf(sold * 4750L, 2);
+        assertEquals(sellerTotal, TestDatabase.balance(databaseManager, seller));
+        assertEquals(sold, transactions("auction_buyout"));
+    }
+
+    @Test
+    void buyoutIsRefusedOnceBiddingReachesTheBuyoutPrice() throws SQLException {
+        UUID seller = player(SELLER_START);
+        UUID bidder = player("0.00");
+        Player buyer = buyers(1).get(0);
+        int auctionId = auction(seller, 10, 50.0, 60, bidder);
+
+        assertFalse(auctionHouse.buyoutAuction(buyer, auctionId));
+
+        assertEquals("ACTIVE", status(auctionId));
+        assertEquals(money(BUYER_START), TestDatabase.balance(databaseManager, buyer.getUniqueId()));
+        assertEquals(money("0.00"), TestDatabase.balance(databaseManager, bidder));
+    }
+
+    @Test
+    void highBidderCanBuyOutWithTheirEscrowedBid() throws SQLException {
+        UUID seller = player(SELLER_START);
+        // 80 escrowed, 20 left: the buyout only clears once the bid is refunded
+        UUID bidder = player("20.00");
+        int auctionId = auction(seller, 10, 100.0, 80, bidder);
+
+        assertTrue(auctionHouse.buyoutAuction(online(bidder), auctionId));
+
+        assertEquals("SOLD", status(auctionId));
+        assertEquals(money("0.00"), TestDatabase.balance(databaseManager, bidder));
+        assertEquals(money("95.00"), TestDatabase.balance(databaseManager, seller));
+    }
+
+    /**
+     * Four buyers compete for each of 100 auctions on eight threads. Exactly one buyout
+     * per auction may succeed, and the money moved must add up.
+     */
+    @Test
+    void buyoutsUnderContentionSellEachAuctionOnce() throws Exception {
+        UUID seller = player(SELLER_START);
+        int auctions = 100;
+        int buyersPerAuction = 4;
+
+        List<Callable<Boolean>> attempts = new ArrayList<>();
+        List<Player> buyers = buyers(auctions * buyersPerAuction);
+        for (int a = 0; a < auctions; a++) {
+            int auctionId = auction(seller, 10, 100.0, 0, null);
+            for (int b = 0; b < buyersPerAuction; b++) {
+                Player buyer = buyers.get(a * buyersPerAuction + b);
+                attempts.add(() -> auctionHouse.buyoutAuction(buyer, auctionId));
+            }
+        }
+
+        List<Boolean> results = race(attempts);
+
+        assertEquals(auctions, results.stream().filter(won -> won).count());
+        assertEquals(auctions, TestDatabase.count(databaseManager, "SELECT COUNT(*) FROM auctions WHERE status = ?", "SOLD"));
+        assertEquals(BigDecimal.valueOf(auctions * 9500L, 2), TestDatabase.balance(databaseManager, seller));
+        BigDecimal buyersTotal = BigDecimal.ZERO;
+        for (Player buyer : buyers) {
+            buyersTotal = buyersTotal.add(TestDatabase.balance(databaseManager, buyer.getUniqueId()));
+        }
+        assertEquals(new BigDecimal(BUYER_START).multiply(BigDecimal.valueOf(buyers.size())).subtract(BigDecimal.valueOf(auctions * 100L)).setScale(2),
+            buyersTotal);
+        assertEquals(auctions, transactions("auction_buyout"));
+    }
+
+    /**
+     * Runs the tasks on the pool, released together, and returns their results in order.
+     */
+    private List<Boolean> race(List<Callable<Boolean>> tasks) throws Exception {
+        CountDownLatch ready = new CountDownLatch(1);
+        List<Future<Boolean>> futures = new ArrayList<>();
+        for (Callable<Boolean> task : tasks) {
+            futures.add(executor.submit(() -> {
+                ready.await();
+                return task.call();
+            }));
+        }
+        ready.countDown();
+
+        List<Boolean> results = new ArrayList<>();
+        for (Future<Boolean> future : futures) {
+            results.add(future.get(60, TimeUnit.SECONDS));
+        }
+        return results;
+    }
+
+    private List<Player> buyers(int count) throws SQLException {
+        List<Player> buyers = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            buyers.add(online(player(BUYER_START)));
+        }
+        return buyers;
+    }
+
+    private UUID player(String balance) throws SQLException {
+        UUID playerUUID = UUID.randomUUID();
+        TestDatabase.insertPlayer(databaseManager, playerUUID, balance);
+        return playerUUID;
+    }
+
+    private static Player online(UUID playerUUID) {
+        Player player = mock(Player.class);
+        when(player.getUniqueId()).thenReturn(playerUUID);
+        return player;
+    }
+
+    /**
+     * Lists an auction directly in the table, with any bid already escrowed, and caches
+     * its item so settling it never needs a server to decode one.
+     */
+    private int auction(UUID seller, double startingBid, Double buyoutPrice, double currentBid, UUID bidder) throws SQLException {
+        long now = System.currentTimeMillis();
+        String sql = "INSERT INTO auctions (seller_uuid, item_name, item_data, starting_bid, buyout_price, current_bid, " +
+                    "highest_bidder_uuid, duration_seconds, start_time, end_time, status, category, created_at) " +
+                    "VALUES (?, 'DIAMOND', 'item', ?, ?, ?, ?, 3600, ?, ?, 'ACTIVE', 'misc', ?)";
+        int auctionId;
+        try (Connection connection = databaseManager.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            stmt.setString(1, seller.toString());
+            stmt.setDouble(2, startingBid);
+            stmt.setObject(3, buyoutPrice);
+            stmt.setDouble(4, currentBid);
+            stmt.setString(5, bidder != null ? bidder.toString() : null);
+            stmt.setTimestamp(6, new Timestamp(now));
+            stmt.setTimestamp(7, new Timestamp(now + 3_600_000L));
+            stmt.setTimestamp(8, new Timestamp(now));
+            stmt.executeUpdate();
+            try (ResultSet keys = stmt.getGeneratedKeys()) {
+                keys.next();
+                auctionId = keys.getInt(1);
+            }
+        }
+
+        try (MockedStatic<ItemStackCodec> codec = mockStatic(ItemStackCodec.class)) {
+            codec.when(() -> ItemStackCodec.decode(anyString())).thenReturn(item);
+            auctionHouse.getAuctionItem(auctionHouse.getAuctionById(auctionId));
+        }
+        return auctionId;
+    }
+
+    private String status(int auctionId) {
+        return auctionHouse.getAuctionById(auctionId).getStatus();
+    }
+
+    private int transactions(String type) throws SQLException {
+        return TestDatabase.count(databaseManager, "SELECT COUNT(*) FROM transactions WHERE type = ?", type);
+    }
+
+    private static BigDecimal money(String amount) {
+        return new BigDecimal(amount);
+    }
+
+    /**
+     * A configuration mock that answers every lookup with the caller's default.
+     */
+    private static FileConfiguration defaults() {
+        FileConfiguration config = mock(FileConfiguration.class);
+        when(config.getInt(anyString(), anyInt())).thenAnswer(invocation -> invocation.getArgument(1));
+        when(config.getDouble(anyString(), anyDouble())).thenAnswer(invocation -> invocation.getArgument(1));
+        return config;
+    }
+}
@@ -0,0 +1,148 @@
+package com.sunsetrq7.smpeconomy;
+
+import org.bukkit.configuration.file.FileConfiguration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Bank deposits against the rolling deposit limits, on a real SQLite database.
+ */
+class BankManagerTest {
+
+    private static final double DAILY_LIMIT = 100.0;
+    private static final double WEEKLY_LIMIT = 150.0;
+
+    @TempDir
+    Path directory;
+
+    private SMP_Economy plugin;
+    private DatabaseManager databaseManager;
+    private BankManager bankManager;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        plugin = mock(SMP_Economy.class);
+        databaseManager = TestDatabase.open(plugin, directory);
+
+        ConfigManager configManager = mock(ConfigManager.class);
+        FileConfiguration economyConfig = defaults();
+        FileConfiguration bankConfig = defaults();
+        FileConfiguration performanceConfig = defaults();
+        when(bankConfig.getDouble("daily_deposit_limit", 1_000_000.0)).thenReturn(DAILY_LIMIT);
+        when(bankConfig.getDouble("weekly_deposit_limit", 10_000_000.0)).thenReturn(WEEKLY_LIMIT);
+        when(configManager.getEconomyConfig()).thenReturn(economyConfig);
+        when(configManager.getBankConfig()).thenReturn(bankConfig);
+        when(configManager.getPerformanceConfig()).thenReturn(performanceConfig);
+        when(plugin.getConfigManager()).thenReturn(configManager);
+
+        when(plugin.getPlayerDataManager()).thenReturn(mock(PlayerDataManager.class));
+        when(plugin.getPlayerNameIndex()).thenReturn(mock(PlayerNameIndex.class));
+        EconomyManager economyManager = new EconomyManager(plugin);
+        when(plugin.getEconomyManager()).thenReturn(economyManager);
+
+        bankManager = new BankManager(plugin);
+    }
+
+    @Test
+    void depositsStopAtTheDailyLimit() throws SQLException {
+        UUID player = player("500.00");
+
+        assertTrue(bankManager.depositToBank(player, 60));
+        assertFalse(bankManager.depositToBank(player, 50));
+        assertTrue(bankManager.depositToBank(player, 40));
+        assertFalse(bankManager.depositToBank(player, 0.01));
+
+        assertEquals(100.0, bankManager.getDailyDepositAmount(player), 1e-9);
+        assertEquals(100.0, bankManager.getBankBalance(player), 1e-9);
+        assertEquals(new BigDecimal("400.00"), TestDatabase.balance(databaseManager, player));
+        assertEquals(2, TestDatabase.count(databaseManager,
+            "SELECT COUNT(*) FROM transactions WHERE from_uuid = ? AND type = 'bank_deposit'", player.toString()));
+    }
+
+    @Test
+    void withdrawalsDoNotFreeUpTheLimit() throws SQLException {
+        UUID player = player("500.00");
+
+        assertTrue(bankManager.depositToBank(player, 100));
+        assertTrue(bankManager.withdrawFromBank(player, 100));
+        assertFalse(bankManager.depositToBank(player, 1));
+        assertEquals(100.0, bankManager.getWeeklyDepositAmount(player), 1e-9);
+    }
+
+    @Test
+    void failedDepositsGiveTheirShareBack() throws SQLException {
+        UUID player = player("500.00");
+        // Deposits beyond the balance are refused before they reach the limits
+        assertFalse(bankManager.depositToBank(player, 600));
+        assertEquals(0.0, bankManager.getDailyDepositAmount(player), 1e-9);
+
+        // The balance check passes but the debit fails, as when the balance is spent in between
+        EconomyManager economyManager = mock(EconomyManager.class);
+        when(economyManager.has(any(UUID.class), anyDouble())).thenReturn(true);
+        when(plugin.getEconomyManager()).thenReturn(economyManager);
+        BankManager failingBank = new BankManager(plugin);
+
+        assertFalse(failingBank.depositToBank(player, 80));
+        assertEquals(0.0, failingBank.getDailyDepositAmount(player), 1e-9);
+        assertEquals(0, TestDatabase.count(databaseManager,
+            "SELECT COUNT(*) FROM transactions WHERE from_uuid = ?", player.toString()));
+    }
+
+    @Test
+    void concurrentDepositsNeverExceedTheLimit() throws Exception {
+        UUID player = player("1000.00");
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Callable<Boolean>> deposits = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            deposits.add(() -> bankManager.depositToBank(player, 7.5));
+        }
+
+        int succeeded = 0;
+        for (Future<Boolean> result : executor.invokeAll(deposits, 60, TimeUnit.SECONDS)) {
+            if (result.get()) {
+                succeeded++;
+            }
+        }
+        executor.shutdown();
+
+        // 13 deposits of 7.50 fit under the daily limit of 100
+        assertEquals(13, succeeded);
+        assertEquals(97.5, bankManager.getDailyDepositAmount(player), 1e-9);
+        assertEquals(new BigDecimal("902.50"), TestDatabase.balance(databaseManager, player));
+    }
+
+    private UUID player(String balance) throws SQLException {
+        UUID playerUUID = UUID.randomUUID();
+        TestDatabase.insertPlayer(databaseManager, playerUUID, balance);
+        return playerUUID;
+    }
+
+    private static FileConfiguration defaults() {
+        FileConfiguration config = mock(FileConfiguration.class);
+        when(config.getInt(anyString(), anyInt())).thenAnswer(invocation -> invocation.getArgument(1));
+        when(config.getDouble(anyString(), anyDouble())).thenAnswer(invocation -> invocation.getArgument(1));
+        return config;
+    }
+}
@@ -0,0 +1,189 @@
+package com.sunsetrq7.smpeconomy;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DepositCoalescerTest {
+
+    private static final String TRANSACTION_TYPE = "vault_deposit";
+
+    @TempDir
+    Path directory;
+
+    private SMP_Economy plugin;
+    private DepositCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        plugin = mock(SMP_Economy.class);
+        when(plugin.getLogger()).thenReturn(Logger.getLogger("DepositCoalescerTest"));
+        coalescer = new DepositCoalescer(plugin, 20);
+    }
+
+    @Test
+    void flushWritesEachPlayersSumInOneBulkCall() {
+        EconomyManager economyManager = mockEconomyManager();
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+
+        coalescer.add(first, 1.25);
+        coalescer.add(second, 2.5);
+        coalescer.add(first, 1.75);
+        assertEquals(3.0, coalescer.getPending(first), 1e-9);
+
+        coalescer.flush();
+
+        verify(economyManager, times(1)).applyDeltas(Map.of(first, 3.0, second, 2.5), TRANSACTION_TYPE);
+        verify(economyManager, never()).deposit(any(UUID.class), anyDouble());
+        assertEquals(0.0, coalescer.getPending(first), 1e-9);
+        assertEquals(0.0, coalescer.getPending(second), 1e-9);
+    }
+
+    @Test
+    void flushWithNothingPendingWritesNothing() {
+        EconomyManager economyManager = mockEconomyManager();
+
+        coalescer.flush();
+
+        verify(economyManager, never()).applyDeltas(anyMap(), anyString());
+    }
+
+    @Test
+    void settleWritesOnlyThatPlayer() {
+        EconomyManager economyManager = mockEconomyManager();
+        UUID settled = UUID.randomUUID();
+        UUID waiting = UUID.randomUUID();
+        coalescer.add(settled, 4);
+        coalescer.add(waiting, 6);
+
+        coalescer.settle(settled);
+        coalescer.settle(UUID.randomUUID());
+
+        verify(economyManager, times(1)).applyDeltas(Map.of(settled, 4.0), TRANSACTION_TYPE);
+        assertEquals(6.0, coalescer.getPending(waiting), 1e-9);
+    }
+
+    @Test
+    void rejectedDepositsFallBackToASingleDeposit() {
+        EconomyManager economyManager = mockEconomyManager();
+        UUID newPlayer = UUID.randomUUID();
+        when(economyManager.applyDeltas(anyMap(), anyString())).thenReturn(Set.of(newPlayer));
+        when(economyManager.deposit(newPlayer, 8.0)).thenReturn(new EconomyManager.BalanceChange(true, 8.0, 108.0));
+        coalescer.add(newPlayer, 8);
+
+        coalescer.flush();
+
+        verify(economyManager).deposit(newPlayer, 8.0);
+        assertEquals(0.0, coalescer.getPending(newPlayer), 1e-9);
+    }
+
+    @Test
+    void failedDepositsAreRetriedNextWindow() {
+        EconomyManager economyManager = mockEconomyManager();
+        UUID player = UUID.randomUUID();
+        when(economyManager.applyDeltas(anyMap(), anyString())).thenReturn(Set.of(player), Set.of());
+        when(economyManager.deposit(player, 5.0)).thenReturn(EconomyManager.BalanceChange.failed(0.0));
+
+        coalescer.add(player, 5);
+        coalescer.flush();
+        // Acknowledged to the caller, so it must not be dropped; later deposits join it
+        assertEquals(5.0, coalescer.getPending(player), 1e-9);
+
+        coalescer.add(player, 2);
+        coalescer.flush();
+        verify(economyManager).applyDeltas(Map.of(player, 7.0), TRANSACTION_TYPE);
+        assertEquals(0.0, coalescer.getPending(player), 1e-9);
+    }
+
+    @Test
+    void balanceReadsIncludePendingDeposits() throws SQLException {
+        DatabaseManager databaseManager = TestDatabase.open(plugin, directory);
+        EconomyManager economyManager = realEconomyManager();
+        UUID player = UUID.randomUUID();
+        TestDatabase.insertPlayer(databaseManager, player, "10.00");
+
+        coalescer.add(player, 2.5);
+        coalescer.add(player, 0.5);
+
+        assertEquals(10.0, economyManager.getStoredBalance(player), 1e-9);
+        assertEquals(13.0, economyManager.getBalance(player), 1e-9);
+        assertEquals(0.0, coalescer.getPending(player), 1e-9);
+        assertEquals(1, TestDatabase.count(databaseManager,
+            "SELECT COUNT(*) FROM transactions WHERE to_uuid = ? AND type = ?", player.toString(), TRANSACTION_TYPE));
+    }
+
+    /**
+     * Ten thousand micro-deposits across 200 players become one bulk write, with one
+     * balance update and one journal row per player and no single deposits.
+     */
+    @Test
+    void tenThousandDepositsAreWrittenInOneBatch() throws SQLException {
+        DatabaseManager databaseManager = TestDatabase.open(plugin, directory);
+        EconomyManager economyManager = spy(realEconomyManager());
+        when(plugin.getEconomyManager()).thenReturn(economyManager);
+        Random random = new Random(5);
+
+        List<UUID> players = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            UUID player = new UUID(random.nextLong(), random.nextLong());
+            TestDatabase.insertPlayer(databaseManager, player, "0.00");
+            players.add(player);
+        }
+
+        Map<UUID, Long> expectedCents = new HashMap<>();
+        for (int i = 0; i < 10_000; i++) {
+            UUID player = players.get(random.nextInt(players.size()));
+            long cents = 1 + random.nextInt(100);
+            expectedCents.merge(player, cents, Long::sum);
+            coalescer.add(player, cents / 100.0);
+        }
+        coalescer.flush();
+
+        verify(economyManager, times(1)).applyDeltas(anyMap(), anyString());
+        verify(economyManager, never()).deposit(any(UUID.class), anyDouble());
+        for (UUID player : players) {
+            BigDecimal expected = BigDecimal.valueOf(expectedCents.getOrDefault(player, 0L), 2);
+            assertEquals(expected, TestDatabase.balance(databaseManager, player));
+        }
+        assertEquals(expectedCents.size(), TestDatabase.count(databaseManager,
+            "SELECT COUNT(*) FROM transactions WHERE type = ?", TRANSACTION_TYPE));
+    }
+
+    private EconomyManager mockEconomyManager() {
+        EconomyManager economyManager = mock(EconomyManager.class);
+        when(plugin.getEconomyManager()).thenReturn(economyManager);
+        return economyManager;
+    }
+
+    private EconomyManager realEconomyManager() {
+        when(plugin.getPlayerDataManager()).thenReturn(mock(PlayerDataManager.class));
+        when(plugin.getDepositCoalescer()).thenReturn(coalescer);
+        EconomyManager economyManager = new EconomyManager(plugin);
+        when(plugin.getEconomyManager()).thenReturn(economyManager);
+        return economyManager;
+    }
+}
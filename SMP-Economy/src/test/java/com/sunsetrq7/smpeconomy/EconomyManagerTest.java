@@ -0,0 +1,168 @@
+package com.sunsetrq7.smpeconomy;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks the balance change path against mocked JDBC: one read and one guarded update
+ * per attempt, the post-update balance handed back, and a bounded number of retries
+ * when concurrent writers keep winning.
+ */
+class EconomyManagerTest {
+
+    private static final String SELECT_BALANCE = "SELECT balance FROM players";
+    private static final String UPDATE_BALANCE = "UPDATE players SET balance = ?";
+
+    private final UUID player = UUID.randomUUID();
+
+    private Connection connection;
+    private PreparedStatement select;
+    private PreparedStatement update;
+    private ResultSet balanceRow;
+    private PlayerDataManager playerDataManager;
+    private EconomyManager economyManager;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connection = mock(Connection.class);
+        select = mock(PreparedStatement.class);
+        update = mock(PreparedStatement.class);
+        balanceRow = mock(ResultSet.class);
+        when(connection.prepareStatement(startsWith(SELECT_BALANCE))).thenReturn(select);
+        when(connection.prepareStatement(startsWith(UPDATE_BALANCE))).thenReturn(update);
+        when(select.executeQuery()).thenReturn(balanceRow);
+        when(balanceRow.next()).thenReturn(true);
+
+        DatabaseManager databaseManager = mock(DatabaseManager.class);
+        when(databaseManager.getConnection()).thenReturn(connection);
+        playerDataManager = mock(PlayerDataManager.class);
+
+        SMP_Economy plugin = mock(SMP_Economy.class);
+        when(plugin.getDatabaseManager()).thenReturn(databaseManager);
+        when(plugin.getPlayerDataManager()).thenReturn(playerDataManager);
+        when(plugin.getLogger()).thenReturn(Logger.getLogger("EconomyManagerTest"));
+
+        economyManager = new EconomyManager(plugin);
+    }
+
+    @Test
+    void depositIssuesOneGuardedUpdateAndReturnsTheNewBalance() throws SQLException {
+        storedBalance("100.00");
+        when(update.executeUpdate()).thenReturn(1);
+
+        EconomyManager.BalanceChange result = economyManager.deposit(player, 25.5);
+
+        assertTrue(result.isSuccess());
+        assertEquals(25.5, result.getAmount(), 1e-9);
+        assertEquals(125.5, result.getBalance(), 1e-9);
+
+        verify(connection, times(1)).prepareStatement(startsWith(SELECT_BALANCE));
+        verify(connection, times(1)).prepareStatement(startsWith(UPDATE_BALANCE));
+        verify(connection, times(2)).prepareStatement(anyString());
+        // The update only applies if the balance is still the one that was read
+        verify(update).setBigDecimal(1, new BigDecimal("125.50"));
+        verify(update).setString(2, player.toString());
+        verify(update).setBigDecimal(3, new BigDecimal("100.00"));
+        verify(update, times(1)).executeUpdate();
+        verify(playerDataManager).updatePlayerBalance(player, 125.5);
+    }
+
+    @Test
+    void withdrawIssuesOneGuardedUpdateAndReturnsTheNewBalance() throws SQLException {
+        storedBalance("100.00");
+        when(update.executeUpdate()).thenReturn(1);
+
+        EconomyManager.BalanceChange result = economyManager.withdraw(player, 40);
+
+        assertTrue(result.isSuccess());
+        assertEquals(40.0, result.getAmount(), 1e-9);
+        assertEquals(60.0, result.getBalance(), 1e-9);
+
+        verify(connection, times(1)).prepareStatement(startsWith(UPDATE_BALANCE));
+        verify(update).setBigDecimal(1, new BigDecimal("60.00"));
+        verify(update).setBigDecimal(3, new BigDecimal("100.00"));
+        verify(update, times(1)).executeUpdate();
+        verify(playerDataManager).updatePlayerBalance(player, 60.0);
+    }
+
+    @Test
+    void withdrawWithoutFundsFailsWithoutWriting() throws SQLException {
+        storedBalance("30.00");
+
+        EconomyManager.BalanceChange result = economyManager.withdraw(player, 30.01);
+
+        assertFalse(result.isSuccess());
+        assertEquals(30.0, result.getBalance(), 1e-9);
+        verify(connection, never()).prepareStatement(startsWith(UPDATE_BALANCE));
+        verify(playerDataManager, never()).updatePlayerBalance(eq(player), anyDouble());
+    }
+
+    @Test
+    void depositIsCappedAtTheMaximumBalance() throws SQLException {
+        storedBalance("999999990.00");
+        when(update.executeUpdate()).thenReturn(1);
+
+        EconomyManager.BalanceChange result = economyManager.deposit(player, 100);
+
+        assertTrue(result.isSuccess());
+        assertEquals(10.0, result.getAmount(), 1e-9);
+        assertEquals(1_000_000_000.0, result.getBalance(), 1e-9);
+    }
+
+    @Test
+    void lostUpdateRereadsAndRetries() throws SQLException {
+        // Another writer changes the balance between the first read and its update
+        when(balanceRow.getBigDecimal("balance")).thenReturn(new BigDecimal("100.00"), new BigDecimal("110.00"));
+        when(update.executeUpdate()).thenReturn(0, 1);
+
+        EconomyManager.BalanceChange result = economyManager.deposit(player, 5);
+
+        assertTrue(result.isSuccess());
+        assertEquals(115.0, result.getBalance(), 1e-9);
+        verify(connection, times(2)).prepareStatement(startsWith(SELECT_BALANCE));
+        verify(connection, times(2)).prepareStatement(startsWith(UPDATE_BALANCE));
+        verify(update).setBigDecimal(3, new BigDecimal("110.00"));
+        verify(playerDataManager, times(1)).updatePlayerBalance(player, 115.0);
+    }
+
+    @Test
+    void givesUpAfterFiveLostUpdates() throws SQLException {
+        storedBalance("100.00");
+        when(balanceRow.getDouble("balance")).thenReturn(100.0);
+        when(update.executeUpdate()).thenReturn(0);
+
+        EconomyManager.BalanceChange result = economyManager.withdraw(player, 10);
+
+        assertFalse(result.isSuccess());
+        assertEquals(100.0, result.getBalance(), 1e-9);
+        verify(update, times(5)).executeUpdate();
+        verify(connection, times(5)).prepareStatement(startsWith(UPDATE_BALANCE));
+        // Five reads inside the loop, then one for the balance it reports back
+        verify(connection, times(6)).prepareStatement(startsWith(SELECT_BALANCE));
+        verify(playerDataManager, never()).updatePlayerBalance(eq(player), anyDouble());
+    }
+
+    private void storedBalance(String balance) throws SQLException {
+        when(balanceRow.getBigDecimal("balance")).thenReturn(new BigDecimal(balance));
+    }
+}
@@ -0,0 +1,179 @@
+package com.sunsetrq7.smpeconomy;
+
+import org.bukkit.configuration.file.FileConfiguration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MarketStatsManagerTest {
+
+    private static final long HOUR = 60L * 60L * 1000L;
+    private static final long START = 480_000 * HOUR;
+
+    @TempDir
+    Path directory;
+
+    private SMP_Economy plugin;
+    private DatabaseManager databaseManager;
+    private MarketStatsManager marketStats;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        plugin = mock(SMP_Economy.class);
+        databaseManager = TestDatabase.open(plugin, directory);
+
+        // Default window of 24 hours and retention of 30 days
+        FileConfiguration auctionConfig = mock(FileConfiguration.class);
+        when(auctionConfig.getInt(anyString(), anyInt())).thenAnswer(invocation -> invocation.getArgument(1));
+        ConfigManager configManager = mock(ConfigManager.class);
+        when(configManager.getAuctionConfig()).thenReturn(auctionConfig);
+        when(plugin.getConfigManager()).thenReturn(configManager);
+
+        marketStats = new MarketStatsManager(plugin);
+    }
+
+    @Test
+    void summarisesSalesByUnitPrice() {
+        marketStats.recordSale("DIAMOND", 2, 20, START);
+        marketStats.recordSale("diamond", 1, 14, START + 1);
+        marketStats.recordSale("DIAMOND", 4, 32, START + 2);
+        marketStats.recordSale("DIAMOND", 1, 12, START + 3);
+
+        MarketStatsManager.MarketStats stats = marketStats.getStats("Diamond", 24, START + 4);
+        assertEquals("DIAMOND", stats.getMaterial());
+        assertEquals(10.0, stats.getOpen(), 1e-9);
+        assertEquals(14.0, stats.getHigh(), 1e-9);
+        assertEquals(8.0, stats.getLow(), 1e-9);
+        assertEquals(12.0, stats.getClose(), 1e-9);
+        assertEquals(4, stats.getTrades());
+        assertEquals(8, stats.getQuantity());
+        assertEquals(78.0 / 8, stats.getAveragePrice(), 1e-9);
+        // Fewer than five samples: the exact median
+        assertEquals(11.0, stats.getMedianPrice(), 1e-9);
+    }
+
+    @Test
+    void ignoresEmptySalesAndUnknownMaterials() {
+        marketStats.recordSale("DIAMOND", 0, 10, START);
+        marketStats.recordSale("DIAMOND", 1, 0, START);
+        marketStats.recordSale(null, 1, 10, START);
+
+        assertNull(marketStats.getStats("DIAMOND", 24, START));
+        assertNull(marketStats.getStats("EMERALD", 24, START));
+    }
+
+    @Test
+    void bucketsRollOverHourly() {
+        marketStats.recordSale("DIAMOND", 1, 10, START);
+        marketStats.recordSale("DIAMOND", 1, 20, START + HOUR + 1);
+
+        MarketStatsManager.MarketStats lastHour = marketStats.getStats("DIAMOND", 1, START + HOUR + 2);
+        assertEquals(1, lastHour.getTrades());
+        assertEquals(20.0, lastHour.getOpen(), 1e-9);
+
+        MarketStatsManager.MarketStats window = marketStats.getStats("DIAMOND", 24, START + HOUR + 2);
+        assertEquals(2, window.getTrades());
+        assertEquals(10.0, window.getOpen(), 1e-9);
+        assertEquals(20.0, window.getClose(), 1e-9);
+
+        // The first hour leaves the window after 24 hours, the second an hour later
+        assertEquals(1, marketStats.getStats("DIAMOND", 24, START + 24 * HOUR).getTrades());
+        assertNull(marketStats.getStats("DIAMOND", 24, START + 25 * HOUR));
+    }
+
+    @Test
+    void bucketsReplacedInTheRingAreStillFlushed() throws SQLException {
+        // The ring holds 25 hours, so this sale lands in the same slot as the first
+        marketStats.recordSale("DIAMOND", 1, 10, START);
+        marketStats.recordSale("DIAMOND", 1, 30, START + 25 * HOUR);
+
+        marketStats.flush(START + 25 * HOUR);
+
+        assertEquals(2, TestDatabase.count(databaseManager, "SELECT COUNT(*) FROM market_stats WHERE material = ?", "DIAMOND"));
+        assertEquals(30.0, marketStats.getStats("DIAMOND", 24, START + 25 * HOUR).getOpen(), 1e-9);
+    }
+
+    @Test
+    void restartReloadsTheWindowFromTheDatabase() {
+        Random random = new Random(29);
+        for (int i = 0; i < 200; i++) {
+            long time = START + (i < 100 ? 0 : HOUR) + i;
+            marketStats.recordSale(i % 2 == 0 ? "DIAMOND" : "EMERALD", 1 + random.nextInt(4), 5 + random.nextInt(500) / 10.0, time);
+        }
+        marketStats.flush(START + HOUR + 200);
+
+        MarketStatsManager restarted = new MarketStatsManager(plugin);
+        restarted.initialize(START + HOUR + 300);
+
+        for (String material : new String[] { "DIAMOND", "EMERALD" }) {
+            MarketStatsManager.MarketStats before = marketStats.getStats(material, 24, START + HOUR + 300);
+            MarketStatsManager.MarketStats after = restarted.getStats(material, 24, START + HOUR + 300);
+            assertNotNull(after, material);
+            assertEquals(before.getOpen(), after.getOpen(), 1e-4);
+            assertEquals(before.getHigh(), after.getHigh(), 1e-4);
+            assertEquals(before.getLow(), after.getLow(), 1e-4);
+            assertEquals(before.getClose(), after.getClose(), 1e-4);
+            assertEquals(before.getTrades(), after.getTrades());
+            assertEquals(before.getQuantity(), after.getQuantity());
+            assertEquals(before.getAveragePrice(), after.getAveragePrice(), 1e-4);
+            assertEquals(before.getMedianPrice(), after.getMedianPrice(), 1e-9);
+        }
+
+        // Sales after a restart continue the reloaded buckets
+        restarted.recordSale("DIAMOND", 1, 1000, START + HOUR + 400);
+        assertEquals(1000.0, restarted.getStats("DIAMOND", 1, START + HOUR + 400).getHigh(), 1e-9);
+        assertEquals(marketStats.getStats("DIAMOND", 1, START + HOUR + 400).getTrades() + 1,
+            restarted.getStats("DIAMOND", 1, START + HOUR + 400).getTrades());
+    }
+
+    @Test
+    void medianEstimateStaysCloseToTheTrueMedian() {
+        Random random = new Random(7);
+        for (int run = 0; run < 20; run++) {
+            MarketStatsManager.MedianEstimator estimator = new MarketStatsManager.MedianEstimator();
+            double[] values = new double[2_000];
+            for (int i = 0; i < values.length; i++) {
+                // Skewed like real prices: mostly cheap with a long tail
+                values[i] = Math.exp(random.nextGaussian()) * 100;
+                estimator.add(values[i]);
+            }
+            Arrays.sort(values);
+            double median = (values[999] + values[1000]) / 2;
+
+            assertEquals(median, estimator.get(), median * 0.05, "run " + run);
+        }
+    }
+
+    @Test
+    void medianStateSurvivesEncoding() {
+        Random random = new Random(11);
+        MarketStatsManager.MedianEstimator estimator = new MarketStatsManager.MedianEstimator();
+        for (int i = 0; i < 500; i++) {
+            estimator.add(random.nextInt(10_000) / 100.0);
+        }
+
+        MarketStatsManager.MedianEstimator decoded = MarketStatsManager.MedianEstimator.decode(estimator.encode());
+        assertEquals(estimator.encode(), decoded.encode());
+        for (int i = 0; i < 500; i++) {
+            double value = random.nextInt(10_000) / 100.0;
+            estimator.add(value);
+            decoded.add(value);
+        }
+        assertEquals(estimator.get(), decoded.get(), 1e-6);
+
+        // Corrupt state starts a fresh estimator
+        assertEquals(0.0, MarketStatsManager.MedianEstimator.decode("3;1,2").get(), 1e-9);
+    }
+}
@@ -0,0 +1,163 @@
+package com.sunsetrq7.smpeconomy;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.inventory.ClickType;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
+import org.bukkit.inventory.ItemStack;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.MockedStatic;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks that menus stamped out of a template start from its contents and actions and
+ * never share mutable state with it or with each other. Inventories are mocks, since
+ * creating a real one needs a running server.
+ */
+class MenuTemplateTest {
+
+    private MockedStatic<Bukkit> bukkit;
+    private List<Inventory> inventories;
+    private List<String> titles;
+    private List<String> clicks;
+
+    @BeforeEach
+    void setUp() {
+        inventories = new ArrayList<>();
+        titles = new ArrayList<>();
+        clicks = new ArrayList<>();
+
+        bukkit = mockStatic(Bukkit.class);
+        bukkit.when(() -> Bukkit.createInventory(any(InventoryHolder.class), anyInt(), anyString()))
+            .thenAnswer(invocation -> {
+                Inventory inventory = mock(Inventory.class);
+                inventories.add(inventory);
+                titles.add(invocation.getArgument(2));
+                return inventory;
+            });
+    }
+
+    @AfterEach
+    void tearDown() {
+        bukkit.close();
+    }
+
+    @Test
+    void instantiateCopiesTheContentsIntoANewInventory() {
+        ItemStack close = mock(ItemStack.class);
+        ItemStack border = mock(ItemStack.class);
+        MenuTemplate template = new MenuTemplate(27, "Bank");
+        template.setItem(0, border);
+        template.setItem(26, close, record("close"));
+
+        Menu menu = template.instantiate();
+
+        assertEquals(27, menu.getSize());
+        assertEquals(List.of("Bank"), titles);
+        ArgumentCaptor<ItemStack[]> contents = ArgumentCaptor.forClass(ItemStack[].class);
+        verify(inventories.get(0)).setContents(contents.capture());
+        assertEquals(27, contents.getValue().length);
+        assertEquals(border, contents.getValue()[0]);
+        assertEquals(close, contents.getValue()[26]);
+    }
+
+    @Test
+    void instantiateWithATitleKeepsTheTemplateTitle() {
+        MenuTemplate template = new MenuTemplate(9, "Auction House");
+
+        template.instantiate("Auction House - page 2");
+
+        assertEquals(List.of("Auction House - page 2"), titles);
+        assertEquals("Auction House", template.getTitle());
+    }
+
+    @Test
+    void eachMenuGetsItsOwnInventory() {
+        MenuTemplate template = new MenuTemplate(9, "Top");
+
+        Menu first = template.instantiate();
+        Menu second = template.instantiate();
+
+        assertEquals(2, inventories.size());
+        assertNotSame(first.getInventory(), second.getInventory());
+    }
+
+    @Test
+    void menusRunTheTemplateActions() {
+        MenuTemplate template = new MenuTemplate(9, "Main");
+        template.setItem(4, mock(ItemStack.class), record("balance"));
+        // Filled per player, but the action is fixed
+        template.setItem(5, null, record("top"));
+
+        Menu menu = template.instantiate();
+        click(menu, 4);
+        click(menu, 5);
+        click(menu, 6);
+
+        assertEquals(List.of("balance", "top"), clicks);
+    }
+
+    @Test
+    void menusDoNotShareTheActionTable() {
+        MenuTemplate template = new MenuTemplate(9, "Main");
+        template.setItem(0, mock(ItemStack.class), record("template"));
+
+        Menu changed = template.instantiate();
+        changed.setItem(0, mock(ItemStack.class), record("changed"));
+        Menu fresh = template.instantiate();
+
+        click(changed, 0);
+        click(fresh, 0);
+        assertEquals(List.of("changed", "template"), clicks);
+
+        // Nor does a later change to the template reach menus already open
+        template.setItem(0, mock(ItemStack.class), record("later"));
+        clicks.clear();
+        click(fresh, 0);
+        assertEquals(List.of("template"), clicks);
+    }
+
+    @Test
+    void clicksOutsideTheMenuAreCancelledWithoutAnAction() {
+        MenuTemplate template = new MenuTemplate(9, "Main");
+        template.setItem(8, mock(ItemStack.class), record("last"));
+        Menu menu = template.instantiate();
+
+        InventoryClickEvent below = click(menu, 9);
+        InventoryClickEvent outside = click(menu, -999);
+
+        verify(below).setCancelled(true);
+        verify(outside).setCancelled(true);
+        assertTrue(clicks.isEmpty());
+    }
+
+    private Menu.ClickAction record(String name) {
+        return (player, click) -> clicks.add(name);
+    }
+
+    private static InventoryClickEvent click(Menu menu, int slot) {
+        InventoryClickEvent event = mock(InventoryClickEvent.class);
+        when(event.getRawSlot()).thenReturn(slot);
+        when(event.getWhoClicked()).thenReturn(mock(Player.class));
+        when(event.getClick()).thenReturn(ClickType.LEFT);
+        menu.handleClick(event);
+        return event;
+    }
+}
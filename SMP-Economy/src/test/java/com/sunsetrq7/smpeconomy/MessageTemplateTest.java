@@ -0,0 +1,75 @@
+package com.sunsetrq7.smpeconomy;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MessageTemplateTest {
+
+    @Test
+    void fillsSlotsFromPairs() {
+        MessageTemplate template = MessageTemplate.compile("{player} paid {target} {amount}.");
+
+        assertTrue(template.hasSlots());
+        assertEquals("Alex paid Steve $5.00.",
+            template.render("player", "Alex", "target", "Steve", "amount", "$5.00"));
+    }
+
+    @Test
+    void pairOrderDoesNotMatterAndSlotsMayRepeat() {
+        MessageTemplate template = MessageTemplate.compile("{a}-{b}-{a}");
+
+        assertEquals("1-2-1", template.render("b", 2, "a", 1));
+    }
+
+    @Test
+    void leavesUnmatchedSlotsAsWritten() {
+        MessageTemplate template = MessageTemplate.compile("Hi {player}, you have {balance}");
+
+        assertEquals("Hi Alex, you have {balance}", template.render("player", "Alex"));
+        assertEquals("Hi {player}, you have {balance}", template.render());
+        // A trailing name without a value is ignored
+        assertEquals("Hi {player}, you have {balance}", template.render("player"));
+    }
+
+    @Test
+    void translatesColorCodes() {
+        MessageTemplate template = MessageTemplate.compile("&aPaid &e{amount}");
+
+        assertEquals("§aPaid §e{amount}", template.getText());
+        assertEquals("§aPaid §e10", template.render("amount", 10));
+    }
+
+    @Test
+    void treatsBracesThatAreNotSlotsAsText() {
+        MessageTemplate template = MessageTemplate.compile("{} {a b} {x {y} z} {open");
+
+        assertEquals("{} {a b} {x Y z} {open", template.render("y", "Y"));
+    }
+
+    @Test
+    void acceptsDottedAndDashedNames() {
+        MessageTemplate template = MessageTemplate.compile("{item.name} x{item-count} {top_1}");
+
+        assertEquals("Diamond x3 Alex", template.render("item.name", "Diamond", "item-count", 3, "top_1", "Alex"));
+    }
+
+    @Test
+    void messagesWithoutSlotsRenderTheirText() {
+        MessageTemplate template = MessageTemplate.compile("&cNo permission.");
+
+        assertFalse(template.hasSlots());
+        assertSame(template.getText(), template.render("player", "Alex"));
+        assertEquals("§cNo permission.", template.toString());
+    }
+
+    @Test
+    void doesNotExpandValuesThatLookLikeSlots() {
+        MessageTemplate template = MessageTemplate.compile("{a}{b}");
+
+        assertEquals("{b}x", template.render("a", "{b}", "b", "x"));
+    }
+}
@@ -0,0 +1,114 @@
+package com.sunsetrq7.smpeconomy;
+
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PatternMatcherTest {
+
+    @Test
+    void findsPatternsAnywhereInTheInput() {
+        PatternMatcher matcher = new PatternMatcher(List.of("drop table", "<script", "../"));
+
+        assertTrue(matcher.containsAny("drop table players"));
+        assertTrue(matcher.containsAny("a <script> b"));
+        assertTrue(matcher.containsAny("x/../../etc"));
+        assertFalse(matcher.containsAny("drop the table"));
+        assertFalse(matcher.containsAny(""));
+    }
+
+    @Test
+    void ignoresCase() {
+        PatternMatcher matcher = new PatternMatcher(List.of("Union Select"));
+
+        assertTrue(matcher.containsAny("1 UNION SELECT *"));
+        assertTrue(matcher.containsAny("union select"));
+        assertFalse(matcher.containsAny("union_select"));
+    }
+
+    @Test
+    void ignoresCaseOutsideAscii() {
+        PatternMatcher matcher = new PatternMatcher(List.of("ÄRGER", "straße"));
+
+        assertTrue(matcher.containsAny("großer ärger"));
+        assertTrue(matcher.containsAny("STRAßE"));
+        assertFalse(matcher.containsAny("strasse"));
+    }
+
+    @Test
+    void followsFailureLinksIntoOverlappingPatterns() {
+        // Scanning "she" walks the "sh" branch before "he" completes via a failure link
+        PatternMatcher matcher = new PatternMatcher(List.of("hers", "she", "his"));
+        assertTrue(matcher.containsAny("ushe"));
+
+        // A pattern that is a suffix of a longer, unfinished one
+        PatternMatcher nested = new PatternMatcher(List.of("abcd", "bc"));
+        assertTrue(nested.containsAny("xabcx"));
+        assertFalse(nested.containsAny("xabx"));
+
+        PatternMatcher repeated = new PatternMatcher(List.of("aab"));
+        assertTrue(repeated.containsAny("aaab"));
+    }
+
+    @Test
+    void skipsNullAndEmptyPatterns() {
+        PatternMatcher matcher = new PatternMatcher(Arrays.asList("", null, "x"));
+
+        assertEquals(1, matcher.getPatternCount());
+        assertFalse(matcher.containsAny("abc"));
+        assertTrue(matcher.containsAny("axc"));
+    }
+
+    @Test
+    void emptyMatcherMatchesNothing() {
+        PatternMatcher matcher = new PatternMatcher(List.of());
+
+        assertEquals(0, matcher.getPatternCount());
+        assertFalse(matcher.containsAny("anything at all"));
+    }
+
+    @Test
+    void agreesWithNaiveSearch() {
+        Random random = new Random(42);
+        String alphabet = "abcAB-é";
+
+        for (int round = 0; round < 200; round++) {
+            List<String> patterns = new ArrayList<>();
+            for (int p = 0, count = 1 + random.nextInt(6); p < count; p++) {
+                patterns.add(randomString(random, alphabet, 1 + random.nextInt(4)));
+            }
+            PatternMatcher matcher = new PatternMatcher(patterns);
+
+            for (int i = 0; i < 20; i++) {
+                String input = randomString(random, alphabet, random.nextInt(16));
+                assertEquals(naiveContainsAny(patterns, input), matcher.containsAny(input),
+                    () -> patterns + " in \"" + input + "\"");
+            }
+        }
+    }
+
+    private static boolean naiveContainsAny(List<String> patterns, String input) {
+        String folded = input.toLowerCase(Locale.ROOT);
+        for (String pattern : patterns) {
+            if (folded.contains(pattern.toLowerCase(Locale.ROOT))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String randomString(Random random, String alphabet, int length) {
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return sb.toString();
+    }
+}
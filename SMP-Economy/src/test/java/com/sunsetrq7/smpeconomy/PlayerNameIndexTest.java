@@ -0,0 +1,91 @@
+package com.sunsetrq7.smpeconomy;
+
+import org.bukkit.Bukkit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.MockedStatic;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+
+class PlayerNameIndexTest {
+
+    @TempDir
+    Path directory;
+
+    private DatabaseManager databaseManager;
+    private PlayerNameIndex index;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        SMP_Economy plugin = mock(SMP_Economy.class);
+        databaseManager = TestDatabase.open(plugin, directory);
+        index = new PlayerNameIndex(plugin);
+    }
+
+    @Test
+    void placeholderNamesAreNotIndexed() throws SQLException {
+        UUID named = UUID.randomUUID();
+        UUID unnamed = UUID.randomUUID();
+        insertPlayer(named, "Notch");
+        insertPlayer(unnamed, EconomyManager.UNKNOWN_USERNAME);
+        load();
+
+        assertEquals(1, index.size());
+        assertEquals(named, index.getUUID("notch"));
+        assertNull(index.getUUID(EconomyManager.UNKNOWN_USERNAME));
+        assertNull(index.getName(unnamed));
+        assertEquals(List.of(), index.complete("Unk", 10));
+    }
+
+    @Test
+    void displayNameFallsBackToTheUUID() throws SQLException {
+        UUID named = UUID.randomUUID();
+        UUID unnamed = UUID.randomUUID();
+        insertPlayer(named, "Notch");
+        insertPlayer(unnamed, EconomyManager.UNKNOWN_USERNAME);
+        load();
+
+        assertEquals("Notch", index.getDisplayName(named));
+        assertEquals(unnamed.toString(), index.getDisplayName(unnamed));
+
+        // Once the player joins their name replaces the fallback
+        index.put(unnamed, "Dinnerbone");
+        assertEquals("Dinnerbone", index.getDisplayName(unnamed));
+    }
+
+    @Test
+    void renamedPlayersReleaseTheirOldName() {
+        UUID player = UUID.randomUUID();
+        index.put(player, "Notch");
+        index.put(player, "Jeb_");
+
+        assertNull(index.getUUID("Notch"));
+        assertEquals(player, index.getUUID("JEB_"));
+        assertEquals(List.of("Jeb_"), index.complete("", 10));
+    }
+
+    private void load() {
+        try (MockedStatic<Bukkit> bukkit = mockStatic(Bukkit.class)) {
+            index.load();
+        }
+    }
+
+    private void insertPlayer(UUID playerUUID, String username) throws SQLException {
+        try (Connection connection = databaseManager.getConnection();
+             PreparedStatement stmt = connection.prepareStatement("INSERT INTO players (uuid, username) VALUES (?, ?)")) {
+            stmt.setString(1, playerUUID.toString());
+            stmt.setString(2, username);
+            stmt.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.sunsetrq7.smpeconomy;
+
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PrefixIndexTest {
+
+    @Test
+    void completesInAlphabeticalOrderIgnoringCase() {
+        PrefixIndex index = new PrefixIndex();
+        index.add("steve");
+        index.add("Alex");
+        index.add("SteveJobs");
+        index.add("stan");
+        index.add("Sam");
+
+        assertEquals(List.of("stan", "steve", "SteveJobs"), index.complete("st", 10));
+        assertEquals(List.of("stan", "steve", "SteveJobs"), index.complete("ST", 10));
+        assertEquals(List.of("Sam", "stan", "steve", "SteveJobs"), index.complete("s", 10));
+        assertEquals(List.of("Alex"), index.complete("alex", 10));
+        assertTrue(index.complete("z", 10).isEmpty());
+        assertTrue(index.complete("stevejobsx", 10).isEmpty());
+    }
+
+    @Test
+    void emptyPrefixCompletesEverything() {
+        PrefixIndex index = new PrefixIndex();
+        index.addAll(List.of("b", "C", "a"));
+
+        assertEquals(List.of("a", "b", "C"), index.complete("", 10));
+    }
+
+    @Test
+    void stopsAtTheLimit() {
+        PrefixIndex index = new PrefixIndex();
+        index.addAll(List.of("p1", "p2", "p3", "p4", "q"));
+
+        assertEquals(List.of("p1", "p2"), index.complete("p", 2));
+        assertTrue(index.complete("p", 0).isEmpty());
+        assertEquals(List.of("q"), index.complete("q", 3));
+    }
+
+    @Test
+    void replacesEntriesDifferingOnlyInCase() {
+        PrefixIndex index = new PrefixIndex();
+        index.add("notch");
+        index.add("Notch");
+
+        assertEquals(1, index.size());
+        assertEquals(List.of("Notch"), index.complete("n", 10));
+
+        index.addAll(List.of("NOTCH", "jeb"));
+        assertEquals(2, index.size());
+        assertEquals(List.of("NOTCH"), index.complete("n", 10));
+    }
+
+    @Test
+    void removesIgnoringCase() {
+        PrefixIndex index = new PrefixIndex();
+        index.addAll(List.of("Dinnerbone", "Dream", "dan"));
+
+        index.remove("DREAM");
+        index.remove("nobody");
+
+        assertEquals(2, index.size());
+        assertEquals(List.of("dan", "Dinnerbone"), index.complete("d", 10));
+    }
+
+    @Test
+    void addAllMergesWithExistingEntries() {
+        PrefixIndex index = new PrefixIndex();
+        index.add("m2");
+        index.add("m4");
+        index.addAll(List.of("m3", "m1"));
+        index.add("m0");
+
+        assertEquals(List.of("m0", "m1", "m2", "m3", "m4"), index.complete("m", 10));
+    }
+
+    @Test
+    void clearRemovesEverything() {
+        PrefixIndex index = new PrefixIndex();
+        index.addAll(List.of("a", "b"));
+
+        index.clear();
+        assertEquals(0, index.size());
+        assertTrue(index.complete("", 10).isEmpty());
+
+        index.add("c");
+        assertEquals(List.of("c"), index.complete("", 10));
+    }
+
+    @Test
+    void agreesWithASortedMapThroughGrowthAndRemoval() {
+        Random random = new Random(3);
+        PrefixIndex index = new PrefixIndex();
+        TreeMap<String, String> expected = new TreeMap<>();
+
+        for (int i = 0; i < 2000; i++) {
+            String name = randomName(random);
+            String key = name.toLowerCase(Locale.ROOT);
+            if (random.nextInt(4) == 0) {
+                index.remove(name);
+                expected.remove(key);
+            } else {
+                index.add(name);
+                expected.put(key, name);
+            }
+        }
+
+        assertEquals(expected.size(), index.size());
+        for (String prefix : List.of("", "a", "B", "ab", "Cc", "bca")) {
+            List<String> matches = new ArrayList<>();
+            String lower = prefix.toLowerCase(Locale.ROOT);
+            for (String key : expected.tailMap(lower).keySet()) {
+                if (!key.startsWith(lower) || matches.size() == 25) {
+                    break;
+                }
+                matches.add(expected.get(key));
+            }
+            assertEquals(matches, index.complete(prefix, 25), () -> "prefix \"" + prefix + "\"");
+        }
+    }
+
+    private static String randomName(Random random) {
+        String alphabet = "abcABC";
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0, length = 1 + random.nextInt(5); i < length; i++) {
+            sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return sb.toString();
+    }
+}
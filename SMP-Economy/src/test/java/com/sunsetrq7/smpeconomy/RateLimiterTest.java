@@ -0,0 +1,173 @@
+package com.sunsetrq7.smpeconomy;
+
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.entity.Player;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RateLimiterTest {
+
+    private static final long WINDOW = 60_000;
+    private static final long START = 1_000 * WINDOW;
+
+    @Test
+    void allowsUpToTheLimitWithinAWindow() {
+        RateLimiter limiter = new RateLimiter(64, WINDOW);
+        UUID player = UUID.randomUUID();
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire(player, 1, 10, START + i), "request " + i);
+        }
+        assertFalse(limiter.tryAcquire(player, 1, 10, START + 10));
+        assertEquals(10, limiter.getUsage(player, START + 10));
+
+        // Other keys have their own counts
+        assertTrue(limiter.tryAcquire(UUID.randomUUID(), 10, 10, START + 10));
+    }
+
+    @Test
+    void rejectedRequestsRecordNothing() {
+        RateLimiter limiter = new RateLimiter(64, WINDOW);
+        UUID player = UUID.randomUUID();
+
+        assertTrue(limiter.tryAcquire(player, 7, 10, START));
+        assertFalse(limiter.tryAcquire(player, 4, 10, START + 1));
+        assertEquals(7, limiter.getUsage(player, START + 1));
+        assertTrue(limiter.tryAcquire(player, 3, 10, START + 2));
+    }
+
+    @Test
+    void previousWindowCountsByItsOverlap() {
+        RateLimiter limiter = new RateLimiter(64, WINDOW);
+        UUID player = UUID.randomUUID();
+        assertTrue(limiter.tryAcquire(player, 100, 100, START));
+
+        // A quarter into the next window, three quarters of the previous one still overlap
+        long quarter = START + WINDOW + WINDOW / 4;
+        assertEquals(75, limiter.getUsage(player, quarter));
+        assertTrue(limiter.tryAcquire(player, 25, 100, quarter));
+        assertFalse(limiter.tryAcquire(player, 1, 100, quarter));
+
+        // Halfway through, the previous window weighs 50
+        assertEquals(75, limiter.getUsage(player, START + WINDOW + WINDOW / 2));
+
+        // Two windows on, the first window no longer counts
+        assertEquals(0, limiter.getUsage(player, START + 3 * WINDOW));
+        assertTrue(limiter.tryAcquire(player, 100, 100, START + 3 * WINDOW));
+    }
+
+    @Test
+    void weightsAndLimitsSaturateAtTheMaximumCount() {
+        RateLimiter limiter = new RateLimiter(64, WINDOW);
+        UUID player = UUID.randomUUID();
+
+        assertTrue(limiter.tryAcquire(player, RateLimiter.MAX_COUNT, Integer.MAX_VALUE, START));
+        assertEquals(RateLimiter.MAX_COUNT, limiter.getUsage(player, START));
+        assertFalse(limiter.tryAcquire(player, 1, Integer.MAX_VALUE, START));
+
+        // Negative permits count as none
+        assertTrue(limiter.tryAcquire(UUID.randomUUID(), -5, 0, START));
+    }
+
+    @Test
+    void idleSlotsAreReclaimedByNewKeys() {
+        // The smallest table has 16 slots and probes at most 8 of them
+        RateLimiter limiter = new RateLimiter(1, WINDOW);
+        List<UUID> first = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            UUID player = UUID.randomUUID();
+            first.add(player);
+            limiter.tryAcquire(player, 1, 1, START);
+        }
+
+        // Once the first keys have been idle for two windows their slots are reused,
+        // so new keys are limited rather than failing open
+        for (int i = 0; i < 4; i++) {
+            UUID player = UUID.randomUUID();
+            assertTrue(limiter.tryAcquire(player, 1, 1, START + 2 * WINDOW));
+            assertFalse(limiter.tryAcquire(player, 1, 1, START + 2 * WINDOW), "player " + i);
+        }
+        for (UUID player : first) {
+            assertEquals(0, limiter.getUsage(player, START + 2 * WINDOW));
+        }
+    }
+
+    @Test
+    void concurrentRequestsNeverExceedTheLimit() throws Exception {
+        RateLimiter limiter = new RateLimiter(64, WINDOW);
+        UUID player = UUID.randomUUID();
+        int threads = 8;
+        int attempts = 10_000;
+        int limit = 25_000;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                int granted = 0;
+                for (int i = 0; i < attempts; i++) {
+                    if (limiter.tryAcquire(player, 1, limit, START)) {
+                        granted++;
+                    }
+                }
+                return granted;
+            }));
+        }
+        start.countDown();
+
+        int granted = 0;
+        for (Future<Integer> result : results) {
+            granted += result.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(limit, granted);
+        assertEquals(limit, limiter.getUsage(player, START));
+    }
+
+    @Test
+    void amountLimitsAboveTheCounterRangeStillHold() {
+        FileConfiguration securityConfig = mock(FileConfiguration.class);
+        when(securityConfig.getBoolean(anyString(), anyBoolean())).thenAnswer(invocation -> invocation.getArgument(1));
+        when(securityConfig.getInt(anyString(), anyInt())).thenAnswer(invocation -> invocation.getArgument(1));
+        when(securityConfig.getLong(anyString(), anyLong())).thenAnswer(invocation -> invocation.getArgument(1));
+        when(securityConfig.getDouble(anyString(), anyDouble())).thenAnswer(invocation -> invocation.getArgument(1));
+        when(securityConfig.getDouble("max_amount_per_minute", 1000000.0)).thenReturn(1_000_000_000.0);
+        FileConfiguration performanceConfig = mock(FileConfiguration.class);
+        when(performanceConfig.getInt(anyString(), anyInt())).thenAnswer(invocation -> invocation.getArgument(1));
+        ConfigManager configManager = mock(ConfigManager.class);
+        when(configManager.getSecurityConfig()).thenReturn(securityConfig);
+        when(configManager.getPerformanceConfig()).thenReturn(performanceConfig);
+        SMP_Economy plugin = mock(SMP_Economy.class);
+        when(plugin.getConfigManager()).thenReturn(configManager);
+
+        SecurityManager securityManager = new SecurityManager(plugin);
+        Player player = mock(Player.class);
+        when(player.getUniqueId()).thenReturn(UUID.randomUUID());
+
+        // Well past the 24-bit counters, but within the configured billion
+        assertTrue(securityManager.isTransactionAllowed(player, 600_000_000));
+        assertTrue(securityManager.isTransactionAllowed(player, 300_000_000));
+        assertFalse(securityManager.isTransactionAllowed(player, 200_000_000));
+    }
+}
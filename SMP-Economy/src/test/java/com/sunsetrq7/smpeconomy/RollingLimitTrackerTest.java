@@ -0,0 +1,141 @@
+package com.sunsetrq7.smpeconomy;
+
+import org.bukkit.Bukkit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.MockedStatic;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+
+class RollingLimitTrackerTest {
+
+    private static final long HOUR = 60L * 60L * 1000L;
+    private static final long START = 480_000 * HOUR;
+    private static final double EPSILON = 1e-9;
+
+    @TempDir
+    Path directory;
+
+    private SMP_Economy plugin;
+    private DatabaseManager databaseManager;
+    private RollingLimitTracker tracker;
+    private UUID player;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        plugin = mock(SMP_Economy.class);
+        databaseManager = TestDatabase.open(plugin, directory);
+        tracker = new RollingLimitTracker(plugin, "transfer", "money_transfer");
+        player = UUID.randomUUID();
+    }
+
+    @Test
+    void enforcesTheDailyAndWeeklyLimits() {
+        assertEquals(START / HOUR, tracker.tryRecord(player, 60, 100, 150, START));
+        assertEquals(RollingLimitTracker.REFUSED, tracker.tryRecord(player, 50, 100, 150, START + 1));
+        assertEquals(START / HOUR, tracker.tryRecord(player, 40, 100, 150, START + 2));
+        assertEquals(100.0, tracker.getDailyTotal(player, START + 2), EPSILON);
+
+        // A day later the daily window is empty but the week still holds 100
+        long nextDay = START + 24 * HOUR;
+        assertEquals(0.0, tracker.getDailyTotal(player, nextDay), EPSILON);
+        assertEquals(RollingLimitTracker.REFUSED, tracker.tryRecord(player, 60, 100, 150, nextDay));
+        assertEquals(nextDay / HOUR, tracker.tryRecord(player, 50, 100, 150, nextDay));
+        assertEquals(150.0, tracker.getWeeklyTotal(player, nextDay), EPSILON);
+
+        // And after a week it is empty too
+        assertEquals(0.0, tracker.getWeeklyTotal(player, START + 7 * 24 * HOUR + 24 * HOUR), EPSILON);
+    }
+
+    @Test
+    void zeroLimitsDisableTheirWindow() {
+        assertEquals(START / HOUR, tracker.tryRecord(player, 1_000_000, 0, -1, START));
+        assertEquals(START / HOUR, tracker.tryRecord(player, 1_000_000, 0, -1, START));
+        assertEquals(2_000_000.0, tracker.getWeeklyTotal(player, START), EPSILON);
+    }
+
+    @Test
+    void releaseCreditsTheHourTheAmountWasRecordedIn() {
+        long recorded = tracker.tryRecord(player, 30, 100, 1000, START + HOUR - 1);
+        tracker.tryRecord(player, 10, 100, 1000, START + HOUR);
+
+        // The hour rolled over between recording and releasing the first amount
+        tracker.release(player, 30, recorded, START + HOUR + 1);
+        assertEquals(10.0, tracker.getDailyTotal(player, START + HOUR + 1), EPSILON);
+
+        // The later amount is still there once the first hour leaves the day window
+        assertEquals(10.0, tracker.getDailyTotal(player, START + 24 * HOUR), EPSILON);
+        assertEquals(10.0, tracker.getWeeklyTotal(player, START + 24 * HOUR), EPSILON);
+    }
+
+    @Test
+    void releaseNeverTakesMoreThanWasRecorded() {
+        long recorded = tracker.tryRecord(player, 5, 100, 1000, START);
+        tracker.release(player, 50, recorded, START);
+        assertEquals(0.0, tracker.getWeeklyTotal(player, START), EPSILON);
+
+        // Hours that have left the week window have nothing left to release
+        tracker.tryRecord(player, 20, 100, 1000, START + 7 * 24 * HOUR);
+        tracker.release(player, 20, recorded, START + 7 * 24 * HOUR);
+        assertEquals(20.0, tracker.getWeeklyTotal(player, START + 7 * 24 * HOUR), EPSILON);
+    }
+
+    @Test
+    void savedWindowsAreReloaded() {
+        tracker.tryRecord(player, 12.34, 100, 1000, START);
+        tracker.tryRecord(player, 56.78, 100, 1000, START + 30 * HOUR);
+
+        try (MockedStatic<Bukkit> bukkit = mockStatic(Bukkit.class)) {
+            tracker.flush();
+        }
+
+        RollingLimitTracker reloaded = new RollingLimitTracker(plugin, "transfer", "money_transfer");
+        assertEquals(56.78, reloaded.getDailyTotal(player, START + 30 * HOUR), EPSILON);
+        assertEquals(69.12, reloaded.getWeeklyTotal(player, START + 30 * HOUR), EPSILON);
+        assertEquals(56.78, reloaded.getWeeklyTotal(player, START + 7 * 24 * HOUR), EPSILON);
+    }
+
+    @Test
+    void unreadableSavedWindowStartsEmpty() throws SQLException {
+        try (Connection connection = databaseManager.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(
+                 "INSERT INTO rolling_limits (uuid, kind, head_hour, buckets) VALUES (?, ?, ?, ?)")) {
+            stmt.setString(1, player.toString());
+            stmt.setString(2, "transfer");
+            stmt.setLong(3, START / HOUR);
+            stmt.setString(4, "not base64!");
+            stmt.executeUpdate();
+        }
+
+        assertEquals(0.0, tracker.getWeeklyTotal(player, START), EPSILON);
+        assertEquals(START / HOUR, tracker.tryRecord(player, 10, 100, 1000, START));
+    }
+
+    @Test
+    void windowsWithoutASaveAreRebuiltFromTransactions() throws SQLException {
+        try (Connection connection = databaseManager.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(
+                 "INSERT INTO transactions (from_uuid, to_uuid, amount, type, description) VALUES (?, ?, ?, ?, ?)")) {
+            for (String type : new String[] { "money_transfer", "money_transfer", "bank_deposit" }) {
+                stmt.setString(1, player.toString());
+                stmt.setString(2, UUID.randomUUID().toString());
+                stmt.setDouble(3, 25.5);
+                stmt.setString(4, type);
+                stmt.setString(5, "test");
+                stmt.executeUpdate();
+            }
+        }
+
+        long now = System.currentTimeMillis();
+        assertEquals(51.0, tracker.getDailyTotal(player, now), EPSILON);
+        assertEquals(51.0, tracker.getWeeklyTotal(player, now), EPSILON);
+    }
+}
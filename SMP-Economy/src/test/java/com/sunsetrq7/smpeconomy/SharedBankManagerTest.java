@@ -0,0 +1,126 @@
+package com.sunsetrq7.smpeconomy;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Shared bank balances, ledger rows and membership, on a real SQLite database.
+ */
+class SharedBankManagerTest {
+
+    private static final String BANK = "Riverside";
+
+    @TempDir
+    Path directory;
+
+    private SMP_Economy plugin;
+    private DatabaseManager databaseManager;
+    private SharedBankManager sharedBanks;
+    private UUID owner;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        plugin = mock(SMP_Economy.class);
+        databaseManager = TestDatabase.open(plugin, directory);
+        sharedBanks = new SharedBankManager(plugin);
+        owner = UUID.randomUUID();
+        assertTrue(sharedBanks.createBank(BANK, owner));
+    }
+
+    @Test
+    void depositsAndWithdrawalsAreLedgered() throws SQLException {
+        assertTrue(sharedBanks.deposit(BANK, 50).isSuccess());
+        EconomyManager.BalanceChange withdrawal = sharedBanks.withdraw(BANK, 20);
+        assertTrue(withdrawal.isSuccess());
+        assertEquals(20.0, withdrawal.getAmount(), 1e-9);
+        assertEquals(30.0, withdrawal.getBalance(), 1e-9);
+
+        // More than the bank holds is refused outright
+        EconomyManager.BalanceChange overdraw = sharedBanks.withdraw(BANK, 30.01);
+        assertFalse(overdraw.isSuccess());
+        assertEquals(30.0, overdraw.getBalance(), 1e-9);
+
+        assertEquals(1, TestDatabase.count(databaseManager,
+            "SELECT COUNT(*) FROM shared_banks WHERE name = ? AND balance = 30", BANK));
+        assertEquals(1, TestDatabase.count(databaseManager,
+            "SELECT COUNT(*) FROM transactions WHERE type = 'shared_bank_deposit' AND amount = 50"));
+        assertEquals(1, TestDatabase.count(databaseManager,
+            "SELECT COUNT(*) FROM transactions WHERE type = 'shared_bank_withdrawal' AND amount = 20"));
+        assertEquals(2, TestDatabase.count(databaseManager, "SELECT COUNT(*) FROM transactions"));
+    }
+
+    @Test
+    void concurrentWithdrawalsNeverOverdraw() throws Exception {
+        assertTrue(sharedBanks.deposit(BANK, 100).isSuccess());
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Callable<Boolean>> withdrawals = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            withdrawals.add(() -> sharedBanks.withdraw(BANK, 7.5).isSuccess());
+        }
+
+        int succeeded = 0;
+        for (Future<Boolean> result : executor.invokeAll(withdrawals, 60, TimeUnit.SECONDS)) {
+            if (result.get()) {
+                succeeded++;
+            }
+        }
+        executor.shutdown();
+
+        // 13 withdrawals of 7.50 fit in 100
+        assertEquals(13, succeeded);
+        assertEquals(2.5, sharedBanks.getBank(BANK).getBalance(), 1e-9);
+        assertEquals(13, TestDatabase.count(databaseManager,
+            "SELECT COUNT(*) FROM transactions WHERE type = 'shared_bank_withdrawal'"));
+    }
+
+    @Test
+    void banksHoldingMoneyCannotBeDeleted() {
+        assertTrue(sharedBanks.deposit(BANK, 10).isSuccess());
+        assertFalse(sharedBanks.deleteBank(BANK));
+        assertNotNull(sharedBanks.getBank(BANK));
+
+        assertTrue(sharedBanks.withdraw(BANK, 10).isSuccess());
+        assertTrue(sharedBanks.deleteBank(BANK));
+        assertNull(sharedBanks.getBank(BANK));
+        assertEquals(Set.of(), sharedBanks.getBanks(owner));
+    }
+
+    @Test
+    void membershipIsKeptAcrossReloads() {
+        UUID member = UUID.randomUUID();
+        UUID leaver = UUID.randomUUID();
+        assertTrue(sharedBanks.addMember(BANK, member));
+        assertTrue(sharedBanks.addMember(BANK, leaver));
+        assertTrue(sharedBanks.removeMember(BANK, leaver));
+
+        // The owner always stays, and non-members can't be removed
+        assertFalse(sharedBanks.removeMember(BANK, owner));
+        assertFalse(sharedBanks.removeMember(BANK, leaver));
+
+        SharedBankManager reloaded = new SharedBankManager(plugin);
+        reloaded.initialize();
+        SharedBankManager.SharedBank bank = reloaded.getBank(BANK);
+        assertEquals(Set.of(owner, member), bank.getMembers());
+        assertEquals(Set.of(BANK), reloaded.getBanks(member));
+        assertEquals(Set.of(), reloaded.getBanks(leaver));
+    }
+}
@@ -0,0 +1,97 @@
+package com.sunsetrq7.smpeconomy;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * A throwaway SQLite database with the plugin's schema, for tests where the SQL has to
+ * actually run: batches, conditional updates and concurrent transactions. Each
+ * {@code getConnection()} opens a new connection, as the pool would hand out, and waits
+ * for locks rather than failing straight away.
+ */
+final class TestDatabase {
+
+    private static final Logger LOGGER = Logger.getLogger("SMP-Economy-Test");
+
+    static {
+        LOGGER.setLevel(Level.WARNING);
+    }
+
+    private TestDatabase() {
+    }
+
+    /**
+     * Creates the database in a directory, points the plugin's database manager and
+     * logger at it and creates the schema.
+     */
+    static DatabaseManager open(SMP_Economy plugin, Path directory) throws SQLException {
+        String url = "jdbc:sqlite:" + directory.resolve("economy.db");
+        Properties properties = new Properties();
+        properties.setProperty("journal_mode", "WAL");
+        properties.setProperty("busy_timeout", "10000");
+
+        DatabaseManager databaseManager = mock(DatabaseManager.class);
+        when(databaseManager.isSQLite()).thenReturn(true);
+        when(databaseManager.getConnection()).thenAnswer(invocation -> DriverManager.getConnection(url, properties));
+        when(plugin.getDatabaseManager()).thenReturn(databaseManager);
+        when(plugin.getLogger()).thenReturn(LOGGER);
+
+        new SchemaManager(plugin).initializeSchema();
+        return databaseManager;
+    }
+
+    /**
+     * Creates an account with a balance.
+     */
+    static void insertPlayer(DatabaseManager databaseManager, UUID playerUUID, String balance) throws SQLException {
+        try (Connection connection = databaseManager.getConnection();
+             PreparedStatement stmt = connection.prepareStatement("INSERT INTO players (uuid, username, balance) VALUES (?, ?, ?)")) {
+            stmt.setString(1, playerUUID.toString());
+            stmt.setString(2, playerUUID.toString().substring(0, 16));
+            stmt.setBigDecimal(3, new BigDecimal(balance));
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Reads an account's balance as stored.
+     */
+    static BigDecimal balance(DatabaseManager databaseManager, UUID playerUUID) throws SQLException {
+        try (Connection connection = databaseManager.getConnection();
+             PreparedStatement stmt = connection.prepareStatement("SELECT balance FROM players WHERE uuid = ?")) {
+            stmt.setString(1, playerUUID.toString());
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getBigDecimal("balance").setScale(2, RoundingMode.HALF_UP) : null;
+            }
+        }
+    }
+
+    /**
+     * Runs a {@code SELECT COUNT(*)} query with string parameters.
+     */
+    static int count(DatabaseManager databaseManager, String sql, String... params) throws SQLException {
+        try (Connection connection = databaseManager.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                stmt.setString(i + 1, params[i]);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                return rs.getInt(1);
+            }
+        }
+    }
+}
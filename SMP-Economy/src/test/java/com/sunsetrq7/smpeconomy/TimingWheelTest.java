@@ -0,0 +1,230 @@
+package com.sunsetrq7.smpeconomy;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives the timing wheel with a simulated clock: time only moves when a test calls
+ * {@link TimingWheel#advanceTo(long)}, and callbacks run on the calling thread.
+ */
+class TimingWheelTest {
+
+    private static final long TICK = 100;
+
+    // Ticks covered by each level: 64, 64^2, 64^3 and 64^4
+    private static final long LEVEL_1 = 64 * TICK;
+    private static final long LEVEL_2 = 64 * 64 * TICK;
+    private static final long LEVEL_3 = 64 * 64 * 64 * TICK;
+    private static final long OVERFLOW = 64L * 64 * 64 * 64 * TICK;
+
+    private TimingWheel wheel;
+    private List<String> fired;
+
+    @BeforeEach
+    void setUp() {
+        wheel = new TimingWheel(TICK, 0, Runnable::run);
+        fired = new ArrayList<>();
+    }
+
+    @Test
+    void firesAtDeadlineAndNotBefore() {
+        wheel.schedule(500, () -> fired.add("a"));
+
+        wheel.advanceTo(499);
+        assertTrue(fired.isEmpty());
+
+        wheel.advanceTo(500);
+        assertEquals(List.of("a"), fired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void roundsDeadlinesBetweenTicksUp() {
+        wheel.schedule(250, () -> fired.add("a"));
+
+        wheel.advanceTo(299);
+        assertTrue(fired.isEmpty());
+
+        wheel.advanceTo(300);
+        assertEquals(List.of("a"), fired);
+    }
+
+    @Test
+    void pastDeadlinesFireOnNextAdvance() {
+        wheel.advanceTo(1000);
+        wheel.schedule(400, () -> fired.add("late"));
+
+        wheel.advanceTo(1000);
+        assertEquals(List.of("late"), fired);
+    }
+
+    @Test
+    void cascadesFromEveryLevelAtTheExactTick() {
+        long[] deadlines = {
+            LEVEL_1 - TICK,
+            LEVEL_1 + 7 * TICK,
+            LEVEL_2 + 3 * TICK,
+            LEVEL_3 + 130 * TICK,
+        };
+        for (long deadline : deadlines) {
+            wheel.schedule(deadline, () -> fired.add(String.valueOf(deadline)));
+        }
+
+        for (int i = 0; i < deadlines.length; i++) {
+            wheel.advanceTo(deadlines[i] - 1);
+            assertEquals(i, fired.size(), "fired early before " + deadlines[i]);
+
+            wheel.advanceTo(deadlines[i]);
+            assertEquals(i + 1, fired.size(), "did not fire at " + deadlines[i]);
+            assertEquals(String.valueOf(deadlines[i]), fired.get(i));
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void overflowDeadlinesFireAfterWrappingTheTopLevel() {
+        long deadline = OVERFLOW + LEVEL_2 + 5 * TICK;
+        wheel.schedule(deadline, () -> fired.add("far"));
+        // Keeps the wheel from jumping ahead while it is otherwise empty
+        wheel.schedule(deadline + LEVEL_1, () -> fired.add("after"));
+
+        wheel.advanceTo(OVERFLOW);
+        assertTrue(fired.isEmpty());
+
+        wheel.advanceTo(deadline - 1);
+        assertTrue(fired.isEmpty());
+
+        wheel.advanceTo(deadline);
+        assertEquals(List.of("far"), fired);
+        assertEquals(1, wheel.size());
+    }
+
+    @Test
+    void rescheduleMovesTheDeadline() {
+        TimingWheel.Timeout timeout = wheel.schedule(1000, () -> fired.add("a"));
+
+        wheel.reschedule(timeout, LEVEL_2 + 200);
+        assertEquals(LEVEL_2 + 200, timeout.getDeadline());
+        assertEquals(1, wheel.size());
+
+        wheel.advanceTo(1000);
+        assertTrue(fired.isEmpty());
+
+        wheel.advanceTo(LEVEL_2 + 199);
+        assertTrue(fired.isEmpty());
+
+        wheel.advanceTo(LEVEL_2 + 200);
+        assertEquals(List.of("a"), fired);
+    }
+
+    @Test
+    void rescheduleEarlierFiresSooner() {
+        TimingWheel.Timeout timeout = wheel.schedule(LEVEL_3, () -> fired.add("a"));
+
+        wheel.reschedule(timeout, 300);
+        wheel.advanceTo(300);
+        assertEquals(List.of("a"), fired);
+    }
+
+    @Test
+    void rescheduleAfterFiringSchedulesAgain() {
+        TimingWheel.Timeout timeout = wheel.schedule(200, () -> fired.add("a"));
+        wheel.advanceTo(200);
+        assertEquals(0, wheel.size());
+
+        wheel.reschedule(timeout, 900);
+        assertEquals(1, wheel.size());
+
+        wheel.advanceTo(900);
+        assertEquals(List.of("a", "a"), fired);
+    }
+
+    @Test
+    void cancelledTimeoutsNeverFire() {
+        TimingWheel.Timeout timeout = wheel.schedule(LEVEL_1 + TICK, () -> fired.add("a"));
+
+        assertTrue(wheel.cancel(timeout));
+        assertFalse(wheel.cancel(timeout));
+        assertEquals(0, wheel.size());
+
+        wheel.advanceTo(LEVEL_2);
+        assertTrue(fired.isEmpty());
+    }
+
+    @Test
+    void antiSnipeExtensionFiresAtTheNewDeadline() {
+        long end = 60_000;
+        long extension = 30_000;
+        long[] auctionEnd = { end };
+
+        // Mirrors the auction house: a late bid pushes the deadline back and reschedules
+        TimingWheel.Timeout[] timeout = new TimingWheel.Timeout[1];
+        timeout[0] = wheel.schedule(end, () -> fired.add("settled at " + auctionEnd[0]));
+
+        wheel.advanceTo(end - 1_000);
+        auctionEnd[0] = end - 1_000 + extension;
+        wheel.reschedule(timeout[0], auctionEnd[0]);
+
+        wheel.advanceTo(end);
+        assertTrue(fired.isEmpty(), "settled at the original deadline");
+
+        wheel.advanceTo(auctionEnd[0] - 1);
+        assertTrue(fired.isEmpty());
+
+        wheel.advanceTo(auctionEnd[0]);
+        assertEquals(List.of("settled at " + auctionEnd[0]), fired);
+    }
+
+    @Test
+    void extensionSeenByTheCallbackReschedulesFromInsideIt() {
+        long[] auctionEnd = { 10_000 };
+        long[] now = { 0 };
+
+        // Like settleAuction: a bid extended the auction after the timer had fired
+        TimingWheel.Timeout[] timeout = new TimingWheel.Timeout[1];
+        timeout[0] = wheel.schedule(auctionEnd[0], () -> {
+            if (auctionEnd[0] > now[0]) {
+                wheel.reschedule(timeout[0], auctionEnd[0]);
+            } else {
+                fired.add("settled");
+            }
+        });
+
+        auctionEnd[0] = 25_000;
+        now[0] = 10_000;
+        wheel.advanceTo(now[0]);
+        assertTrue(fired.isEmpty());
+        assertEquals(1, wheel.size());
+
+        now[0] = 25_000;
+        wheel.advanceTo(now[0]);
+        assertEquals(List.of("settled"), fired);
+    }
+
+    @Test
+    void dispatchesThroughTheExecutor() {
+        List<Runnable> queued = new ArrayList<>();
+        TimingWheel queuedWheel = new TimingWheel(TICK, 0, queued::add);
+        queuedWheel.schedule(100, () -> fired.add("a"));
+        queuedWheel.schedule(100, () -> fired.add("b"));
+
+        queuedWheel.advanceTo(100);
+        assertTrue(fired.isEmpty());
+        assertEquals(2, queued.size());
+
+        queued.forEach(Runnable::run);
+        assertEquals(2, fired.size());
+    }
+
+    @Test
+    void rejectsNonPositiveTicks() {
+        assertThrows(IllegalArgumentException.class, () -> new TimingWheel(0, 0, Runnable::run));
+    }
+}
@@ -0,0 +1,206 @@
+package com.sunsetrq7.smpeconomy;
+
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TransactionAnalyzerTest {
+
+    private static final long WINDOW = 60_000;
+    private static final long NOW = 10 * WINDOW + 1;
+    private static final double EPSILON = 1e-9;
+
+    @Test
+    void sketchNeverUnderestimatesAndStaysWithinItsErrorBound() {
+        int width = 256;
+        TransactionAnalyzer analyzer = new TransactionAnalyzer(1024, width, 16, WINDOW, WINDOW);
+        Random random = new Random(7);
+
+        // Many more players than sketch columns, so counters are shared
+        List<UUID> players = players(random, 2000);
+        Map<UUID, Long> outflowCents = new HashMap<>();
+        long totalCents = 0;
+        for (int i = 0; i < 20_000; i++) {
+            UUID player = players.get(random.nextInt(players.size()));
+            long cents = 1 + random.nextInt(10_000);
+            analyzer.record(player, -cents / 100.0, 0, 0, 0, NOW);
+            outflowCents.merge(player, cents, Long::sum);
+            totalCents += cents;
+        }
+
+        // Count-Min: estimate <= true + (e / width) * N per row with probability 1 - 1/e
+        // each, so with four rows nearly every key is inside the bound
+        double bound = Math.E / width * totalCents / 100.0;
+        int outside = 0;
+        for (UUID player : players) {
+            double actual = outflowCents.getOrDefault(player, 0L) / 100.0;
+            double estimate = analyzer.estimateOutflow(player, NOW);
+            assertTrue(estimate >= actual - EPSILON, () -> "underestimated " + player);
+            if (estimate > actual + bound) {
+                outside++;
+            }
+        }
+        assertTrue(outside <= players.size() / 50, outside + " estimates outside the error bound");
+
+        // Inflows are counted separately
+        for (UUID player : players) {
+            assertEquals(0.0, analyzer.estimateInflow(player, NOW), EPSILON);
+        }
+    }
+
+    @Test
+    void heavyHittersBracketTheTrueAmount() {
+        int capacity = 10;
+        TransactionAnalyzer analyzer = new TransactionAnalyzer(1024, 1024, capacity, WINDOW, WINDOW);
+        Random random = new Random(11);
+
+        List<UUID> heavy = players(random, 4);
+        List<UUID> light = players(random, 500);
+        Map<UUID, Long> inflowCents = new HashMap<>();
+        long totalCents = 0;
+        for (int i = 0; i < 10_000; i++) {
+            // Heavy players get about a third of the traffic between them
+            UUID player = random.nextInt(3) == 0
+                ? heavy.get(random.nextInt(heavy.size()))
+                : light.get(random.nextInt(light.size()));
+            long cents = 100 + random.nextInt(900);
+            analyzer.record(player, cents / 100.0, 0, 0, 0, NOW);
+            inflowCents.merge(player, cents, Long::sum);
+            totalCents += cents;
+        }
+
+        List<TransactionAnalyzer.HeavyHitter> top = analyzer.getTopReceivers(NOW);
+        assertEquals(capacity, top.size());
+
+        Set<UUID> listed = new HashSet<>();
+        for (int i = 0; i < top.size(); i++) {
+            TransactionAnalyzer.HeavyHitter hitter = top.get(i);
+            double actual = inflowCents.get(hitter.getPlayerUUID()) / 100.0;
+            assertTrue(hitter.getGuaranteedAmount() <= actual + EPSILON, "guaranteed amount above the true amount");
+            assertTrue(hitter.getAmount() >= actual - EPSILON, "estimated amount below the true amount");
+            if (i > 0) {
+                assertTrue(top.get(i - 1).getAmount() >= hitter.getAmount(), "not sorted largest first");
+            }
+            listed.add(hitter.getPlayerUUID());
+        }
+
+        // Space-Saving keeps every key whose true count exceeds N / capacity
+        for (Map.Entry<UUID, Long> entry : inflowCents.entrySet()) {
+            if (entry.getValue() > totalCents / capacity) {
+                assertTrue(listed.contains(entry.getKey()), "missing a heavy hitter");
+            }
+        }
+        assertTrue(listed.containsAll(heavy));
+        assertTrue(analyzer.getTopSenders(NOW).isEmpty());
+    }
+
+    @Test
+    void heavyHittersAreExactBelowCapacity() {
+        TransactionAnalyzer analyzer = new TransactionAnalyzer(64, 64, 8, WINDOW, WINDOW);
+        UUID small = UUID.randomUUID();
+        UUID large = UUID.randomUUID();
+
+        analyzer.record(small, -5, 0, 0, 0, NOW);
+        analyzer.record(large, -20, 0, 0, 0, NOW);
+        analyzer.record(small, -2.5, 0, 0, 0, NOW);
+
+        List<TransactionAnalyzer.HeavyHitter> top = analyzer.getTopSenders(NOW);
+        assertEquals(2, top.size());
+        assertEquals(large, top.get(0).getPlayerUUID());
+        assertEquals(20.0, top.get(0).getAmount(), EPSILON);
+        assertEquals(small, top.get(1).getPlayerUUID());
+        assertEquals(7.5, top.get(1).getAmount(), EPSILON);
+        assertEquals(7.5, top.get(1).getGuaranteedAmount(), EPSILON);
+    }
+
+    @Test
+    void windowsRollOnWindowBoundaries() {
+        TransactionAnalyzer analyzer = new TransactionAnalyzer(64, 64, 8, WINDOW, WINDOW);
+        UUID player = UUID.randomUUID();
+        long windowStart = 10 * WINDOW;
+
+        analyzer.record(player, -50, 0, 0, 0, windowStart);
+        analyzer.record(player, -25, 0, 0, 0, windowStart + WINDOW - 1);
+        assertEquals(75.0, analyzer.estimateOutflow(player, windowStart + WINDOW - 1), EPSILON);
+
+        assertEquals(0.0, analyzer.estimateOutflow(player, windowStart + WINDOW), EPSILON);
+        assertTrue(analyzer.getTopSenders(windowStart + WINDOW).isEmpty());
+    }
+
+    @Test
+    void volumeAlertsRespectTheCooldown() {
+        TransactionAnalyzer analyzer = new TransactionAnalyzer(64, 64, 8, WINDOW, WINDOW);
+        UUID player = UUID.randomUUID();
+
+        assertNull(analyzer.record(player, -60, 100, 0, 30_000, NOW));
+
+        TransactionAnalyzer.Alert alert = analyzer.record(player, -60, 100, 0, 30_000, NOW + 1_000);
+        assertNotNull(alert);
+        assertEquals(player, alert.getPlayerUUID());
+        assertTrue(alert.isOutflow());
+        assertEquals("volume", alert.getReason());
+        assertEquals(120.0, alert.getWindowVolume(), EPSILON);
+
+        assertNull(analyzer.record(player, -60, 100, 0, 30_000, NOW + 2_000));
+        assertNotNull(analyzer.record(player, -60, 100, 0, 30_000, NOW + 31_000));
+    }
+
+    @Test
+    void velocitySettlesAtASteadyRate() {
+        long halfLife = 60_000;
+        TransactionAnalyzer analyzer = new TransactionAnalyzer(64, 64, 8, WINDOW, halfLife);
+        UUID player = UUID.randomUUID();
+
+        // 10 every 6 seconds is 100 per minute
+        long now = 0;
+        for (int i = 0; i < 500; i++) {
+            now += 6_000;
+            analyzer.record(player, 10, 0, 0, 0, now);
+        }
+
+        double velocity = analyzer.getVelocity(player, now);
+        assertEquals(100.0, velocity, 5.0);
+
+        // Halves after one half-life without activity
+        assertEquals(velocity / 2, analyzer.getVelocity(player, now + halfLife), 1e-6);
+        assertEquals(0.0, analyzer.getVelocity(UUID.randomUUID(), now), EPSILON);
+    }
+
+    @Test
+    void velocityAlertsWhenTheRateIsExceeded() {
+        TransactionAnalyzer analyzer = new TransactionAnalyzer(64, 64, 8, WINDOW, 60_000);
+        UUID player = UUID.randomUUID();
+
+        TransactionAnalyzer.Alert alert = null;
+        long now = 0;
+        for (int i = 0; i < 100 && alert == null; i++) {
+            now += 1_000;
+            alert = analyzer.record(player, 50, 0, 1_000, 0, now);
+        }
+
+        assertNotNull(alert);
+        assertEquals("velocity", alert.getReason());
+        assertTrue(alert.getVelocity() > 1_000);
+        assertFalse(alert.isOutflow());
+    }
+
+    private static List<UUID> players(Random random, int count) {
+        List<UUID> players = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            players.add(new UUID(random.nextLong(), random.nextLong()));
+        }
+        return players;
+    }
+}